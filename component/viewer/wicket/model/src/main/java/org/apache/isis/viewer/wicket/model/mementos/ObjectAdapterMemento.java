@@ -23,6 +23,7 @@
 import java.util.List;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Lists;
 
 import org.apache.isis.core.commons.ensure.Ensure;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -61,7 +62,11 @@ public static ObjectAdapterMemento createOrNull(final ObjectAdapter adapter) {
      * Factory method
      */
     public static ObjectAdapterMemento createPersistent(final RootOid rootOid) {
-        return new ObjectAdapterMemento(rootOid);
+        return createPersistent(rootOid, getOidMarshaller());
+    }
+
+    static ObjectAdapterMemento createPersistent(final RootOid rootOid, final OidMarshaller oidMarshaller) {
+        return new ObjectAdapterMemento(rootOid, oidMarshaller);
     }
 
 
@@ -222,9 +227,9 @@ public synchronized ObjectAdapter getAdapter(final ObjectAdapterMemento nom, Con
      */
     private Memento transientMemento;
 
-    private ObjectAdapterMemento(final RootOid rootOid) {
+    private ObjectAdapterMemento(final RootOid rootOid, final OidMarshaller oidMarshaller) {
         Ensure.ensureThatArg(rootOid, Oid.Matchers.isPersistent());
-        this.persistentOidStr = rootOid.enString(getOidMarshaller());
+        this.persistentOidStr = rootOid.enString(oidMarshaller);
         this.objectSpecId = rootOid.getObjectSpecId();
         this.type = Type.PERSISTENT;
     }
@@ -292,6 +297,28 @@ public void setAdapter(final ObjectAdapter adapter) {
         init(adapter);
     }
 
+    /**
+     * Loads the objects of all {@link Type#PERSISTENT persistent} mementos in the list that are not yet
+     * loaded {@link PersistenceSession#loadObjects(List) together}, so that subsequently calling
+     * {@link #getObjectAdapter(ConcurrencyChecking)} on each does not hit the object store one at a time.
+     */
+    public static void preload(final List<ObjectAdapterMemento> mementos) {
+        preload(mementos, getPersistenceSession(), getOidMarshaller());
+    }
+
+    static void preload(final List<ObjectAdapterMemento> mementos, final PersistenceSession persistenceSession, final OidMarshaller oidMarshaller) {
+        final List<TypedOid> oids = Lists.newArrayList();
+        for (final ObjectAdapterMemento memento : mementos) {
+            if(memento == null || memento.type != Type.PERSISTENT) {
+                continue;
+            }
+            oids.add(oidMarshaller.unmarshal(memento.persistentOidStr, TypedOid.class));
+        }
+        if(oids.size() > 1) {
+            persistenceSession.loadObjects(oids);
+        }
+    }
+
     public ObjectSpecId getObjectSpecId() {
         return objectSpecId;
     }
@@ -72,6 +72,7 @@ public enum Type {
         STANDALONE {
             @Override
             List<ObjectAdapter> load(final EntityCollectionModel entityCollectionModel) {
+                ObjectAdapterMemento.preload(entityCollectionModel.mementoList);
                 return Lists.transform(entityCollectionModel.mementoList, ObjectAdapterMemento.Functions.fromMemento(ConcurrencyChecking.NO_CHECK));
             }
 
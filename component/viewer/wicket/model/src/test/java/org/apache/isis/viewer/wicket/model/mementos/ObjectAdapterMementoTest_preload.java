@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.viewer.wicket.model.mementos;
+
+import java.util.Arrays;
+import java.util.List;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class ObjectAdapterMementoTest_preload {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+
+    private final OidMarshaller oidMarshaller = new OidMarshaller();
+
+    private final RootOid customer1Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "1");
+    private final RootOid order1Oid = RootOidDefault.create(ObjectSpecId.of("ORD"), "1");
+    private final RootOid customer2Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "2");
+
+    @Test
+    public void persistentMementos_loadedTogether_inOrder() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).loadObjects(Arrays.asList(customer1Oid, order1Oid, customer2Oid));
+        }});
+
+        ObjectAdapterMemento.preload(Arrays.asList(
+                memento(customer1Oid), null, memento(order1Oid), memento(customer2Oid)), mockPersistenceSession, oidMarshaller);
+    }
+
+    @Test
+    public void singleMemento_notPreloaded() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockPersistenceSession).loadObjects(with(any(List.class)));
+        }});
+
+        ObjectAdapterMemento.preload(Arrays.asList(memento(customer1Oid), null), mockPersistenceSession, oidMarshaller);
+    }
+
+    private ObjectAdapterMemento memento(final RootOid rootOid) {
+        return ObjectAdapterMemento.createPersistent(rootOid, oidMarshaller);
+    }
+}
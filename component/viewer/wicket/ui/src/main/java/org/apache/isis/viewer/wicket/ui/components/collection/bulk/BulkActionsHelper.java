@@ -55,7 +55,7 @@ public List<ObjectAction> getBulkActions() {
 
         final ObjectSpecification typeSpec = model.getTypeOfSpecification();
 
-        List<ObjectAction> objectActions = typeSpec.getObjectActions(ActionType.USER, Contributed.INCLUDED, Filters.<ObjectAction>any());
+        List<ObjectAction> objectActions = Lists.newArrayList(typeSpec.getObjectActions(ActionType.USER, Contributed.INCLUDED, Filters.<ObjectAction>any()));
 
         if ( isExploring() || isPrototyping()) {
             List<ObjectAction> explorationActions = typeSpec.getObjectActions(ActionType.EXPLORATION, Contributed.INCLUDED, Filters.<ObjectAction>any());
@@ -394,7 +394,7 @@ public interface DomainObjectContainer {
 
     //endregion
 
-    //region > allInstances, allMatches, firstMatch, uniqueMatch
+    //region > allInstances, countInstances, allMatches, firstMatch, uniqueMatch
 
     /**
      * Returns all the instances of the specified type (including subtypes).
@@ -416,6 +416,17 @@ public interface DomainObjectContainer {
     @Programmatic
     public <T> List<T> allInstances(Class<T> ofType, long... range);
 
+    /**
+     * Returns the number of instances of the specified type (including subtypes).
+     *
+     * <p>
+     * Unlike <tt>allInstances(ofType).size()</tt>, the instances themselves are not loaded (where the object store
+     * supports this); intended for use with the range parameters of {@link #allInstances(Class, long...)} when
+     * paging through a large number of instances.
+     */
+    @Programmatic
+    public <T> long countInstances(Class<T> ofType);
+
     /**
      * Returns all the instances of the specified type (including subtypes) that
      * the predicate object accepts. If the optional range parameters are used, the 
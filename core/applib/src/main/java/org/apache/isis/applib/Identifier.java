@@ -295,7 +295,7 @@ public boolean equals(final Object obj) {
     }
 
     public boolean equals(final Identifier other) {
-        return equals(other.className, className) && equals(other.memberName, other.memberName) && equals(other.parameterNames, parameterNames);
+        return equals(other.className, className) && equals(other.memberName, memberName) && equals(other.parameterNames, parameterNames);
     }
 
     private boolean equals(final String a, final String b) {
@@ -0,0 +1,55 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.services.audit;
+
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Batch-oriented alternative to {@link AuditingService3}; if registered, it is used in preference.
+ *
+ * <p>
+ * The changed properties of each transaction are captured as {@link AuditEntry}s while the transaction commits,
+ * but (by default) are then written by a background thread, so that auditing does not add to the latency of the
+ * commit.  A single batch may therefore contain entries from several transactions, and the service is called
+ * with no Isis session or transaction in progress; implementations must manage their own persistence (eg
+ * using JDBC directly).
+ *
+ * <p>
+ * The queueing and durability behaviour is configured using the <tt>isis.services.audit.batch.*</tt>
+ * configuration properties.
+ */
+public interface BatchAuditingService {
+
+    @Programmatic
+    public void audit(final List<AuditEntry> auditEntries);
+
+    public static class Stderr implements BatchAuditingService {
+
+        @Override
+        public void audit(final List<AuditEntry> auditEntries) {
+            for (final AuditEntry auditEntry : auditEntries) {
+                System.err.println(auditEntry);
+            }
+        }
+    }
+
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.isis.applib.services.bookmark;
 
+import java.util.List;
+
 import org.apache.isis.applib.annotation.NotInServiceMenu;
 import org.apache.isis.applib.annotation.Programmatic;
 
@@ -44,6 +46,17 @@ public interface BookmarkService {
     @Programmatic
     <T> T lookup(Bookmark bookmark, Class<T> cls);
 
+    /**
+     * As {@link #lookup(Bookmark)}, but for many bookmarks at once; any objects not already loaded are retrieved
+     * together, rather than one at a time.
+     * 
+     * <p>
+     * Returns the objects in the same order as the bookmarks; an element is <tt>null</tt> if the corresponding
+     * bookmark was <tt>null</tt> or its object could not be found.
+     */
+    @Programmatic
+    List<Object> lookup(List<Bookmark> bookmarks);
+
     @Programmatic
     Bookmark bookmarkFor(Object domainObject);
 
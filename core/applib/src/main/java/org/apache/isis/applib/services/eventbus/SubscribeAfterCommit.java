@@ -0,0 +1,57 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.applib.services.eventbus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a (singleton) domain service, {@link EventBusService#register(Object) registered} with the
+ * {@link EventBusService}, as a subscriber that is called asynchronously, once the transaction in which the event
+ * was posted has committed.
+ *
+ * <p>
+ * Use in place of Guava's <tt>@Subscribe</tt>; as with that annotation, the method must take a single parameter,
+ * being the type of event to be received.  Such subscribers are called only for {@link AbstractDomainEvent domain
+ * event}s in the {@link AbstractDomainEvent.Phase#EXECUTED executed} phase (for other events, regardless of phase),
+ * and are not called at all if the transaction aborts.  Because they are called after the fact, they cannot veto
+ * the interaction, nor abort its transaction; the hide, disable, validate and executing phases are always delivered
+ * synchronously to <tt>@Subscribe</tt> subscribers.
+ *
+ * <p>
+ * Each subscriber has its own queue, so receives events in the order that they were posted, but independently of
+ * (and without being held up by) any other subscribers.  The subscriber is called in its own session (as the user
+ * that posted the event) and transaction.  Any domain objects referenced by the event belong to the original
+ * (now completed) session, so should only be used to obtain values such as titles or bookmarks.
+ *
+ * <p>
+ * Request-scoped services cannot subscribe in this way.  As with any other public method of a domain service, the
+ * method should also be annotated as {@link org.apache.isis.applib.annotation.Programmatic}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SubscribeAfterCommit {
+
+}
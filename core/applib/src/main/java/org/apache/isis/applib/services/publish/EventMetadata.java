@@ -19,6 +19,7 @@
 
 package org.apache.isis.applib.services.publish;
 
+import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.UUID;
 
@@ -33,7 +34,9 @@
 
  * @see EventPayload
  */
-public class EventMetadata {
+public class EventMetadata implements Serializable {
+
+    private static final long serialVersionUID = 1L;
     
     private final UUID transactionId;
     private final int sequence;
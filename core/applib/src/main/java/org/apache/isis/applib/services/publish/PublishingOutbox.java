@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.services.publish;
+
+import java.util.List;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Optional SPI for off-thread publishing; if registered (alongside a {@link PublishingService}), then rather
+ * than building, serializing and publishing each event synchronously, the framework instead
+ * {@link #append(List) appends} compact {@link PublishingOutboxEntry entries} to this outbox while the
+ * transaction commits.
+ *
+ * <p>
+ * A separate pool of dispatcher threads then reads the {@link #pending(int) pending} entries, builds their
+ * payloads and delivers them in batches to the {@link PublishingService}, and finally
+ * {@link #acknowledge(List) acknowledges} them.  Events for any given aggregate root (the target of the event)
+ * are delivered in the order in which they were appended.  Delivery is at-least-once: an entry that is not
+ * acknowledged (eg because the {@link PublishingService} threw an exception, or the application was stopped)
+ * will be delivered again, unless it fails so often that it is {@link #quarantine(List) quarantined}.
+ *
+ * <p>
+ * For the entries to be written atomically with the changes that gave rise to them, implementations should
+ * persist them within the current transaction (eg as entities).  The dispatching is configured using the
+ * <tt>isis.services.publish.outbox.*</tt> configuration properties.
+ */
+public interface PublishingOutbox {
+
+    /**
+     * Called within the transaction, in the order in which the events occurred.
+     */
+    @Programmatic
+    public void append(final List<PublishingOutboxEntry> entries);
+
+    /**
+     * The oldest unacknowledged entries, in the order in which they were appended.
+     *
+     * <p>
+     * Called by the dispatcher, within its own Isis session and transaction.
+     */
+    @Programmatic
+    public List<PublishingOutboxEntry> pending(final int maxEntries);
+
+    /**
+     * Called by the dispatcher (within its own Isis session and transaction) once the entries have been
+     * delivered; they should not be returned by {@link #pending(int)} again.
+     */
+    @Programmatic
+    public void acknowledge(final List<PublishingOutboxEntry> entries);
+
+    /**
+     * Called by the dispatcher (within its own Isis session and transaction) for entries that repeatedly could
+     * not be delivered; they should not be returned by {@link #pending(int)} again, but should be retained (as
+     * dead letters) so that they can be inspected and, if need be, replayed.
+     */
+    @Programmatic
+    public void quarantine(final List<PublishingOutboxEntry> entries);
+
+}
@@ -0,0 +1,116 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.services.publish;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+
+/**
+ * A compact record of an event to be published, as appended to the {@link PublishingOutbox}.
+ *
+ * <p>
+ * Rather than the domain objects themselves, any persistent entities (the changed object, or the target,
+ * arguments and result of an action invocation) are held as {@link Bookmark}s; other arguments and results
+ * (values) are held as is.  The {@link EventPayload} is only built, and then serialized, when the entry is
+ * delivered to the {@link PublishingService}.
+ */
+public final class PublishingOutboxEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EventMetadata metadata;
+    private final ChangeKind changeKind;
+    private final List<Object> arguments;
+    private final Object result;
+
+    /**
+     * For a changed object; the object is the {@link EventMetadata#getTarget() target} of the metadata.
+     */
+    public static PublishingOutboxEntry objectChanged(final EventMetadata metadata, final ChangeKind changeKind) {
+        return new PublishingOutboxEntry(metadata, changeKind, Collections.<Object>emptyList(), null);
+    }
+
+    /**
+     * For an action invocation; the action is the {@link EventMetadata#getActionIdentifier() action identifier},
+     * and the target object the {@link EventMetadata#getTarget() target} of the metadata.
+     */
+    public static PublishingOutboxEntry actionInvocation(final EventMetadata metadata, final List<Object> arguments, final Object result) {
+        return new PublishingOutboxEntry(metadata, null, arguments, result);
+    }
+
+    private PublishingOutboxEntry(final EventMetadata metadata, final ChangeKind changeKind, final List<Object> arguments, final Object result) {
+        this.metadata = metadata;
+        this.changeKind = changeKind;
+        this.arguments = Collections.unmodifiableList(arguments);
+        this.result = result;
+    }
+
+    /**
+     * Uniquely identifies this entry; as per {@link EventMetadata#getId()}.
+     */
+    public String getId() {
+        return metadata.getId();
+    }
+
+    public EventMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * The aggregate root whose events must be delivered in order; the {@link EventMetadata#getTarget() target}.
+     */
+    public Bookmark getAggregate() {
+        return metadata.getTarget();
+    }
+
+    /**
+     * Populated only for changed objects.
+     */
+    public ChangeKind getChangeKind() {
+        return changeKind;
+    }
+
+    public boolean isActionInvocation() {
+        return metadata.getEventType() == EventType.ACTION_INVOCATION;
+    }
+
+    /**
+     * The arguments of an action invocation; entities as {@link Bookmark}s.
+     */
+    public List<Object> getArguments() {
+        return arguments;
+    }
+
+    /**
+     * The result (if any) of an action invocation; an entity as a {@link Bookmark}.
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getId() + ": " + metadata.getEventType() + " " + getAggregate();
+    }
+}
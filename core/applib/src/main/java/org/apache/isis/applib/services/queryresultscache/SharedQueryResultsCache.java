@@ -0,0 +1,491 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService;
+import org.apache.isis.applib.services.queryresultscache.QueryResultsCache.Key;
+
+/**
+ * Application-scoped counterpart to the (request-scoped) {@link QueryResultsCache}, with the same
+ * <tt>execute(...)</tt> API, intended for query results that are expensive to compute and that are shared between
+ * many interactions (reference data, lookups and so on).
+ *
+ * <p>
+ * The cache is bounded (least-recently-used entries are evicted first) and entries expire a fixed time after
+ * they were cached.  Domain objects cannot be shared across sessions, so any domain objects in a result (either
+ * the result itself, or the elements of a {@link List} or {@link Set}) are held as {@link Bookmark}s and are
+ * looked up again in the calling session on each hit.
+ *
+ * <p>
+ * Each entry records the entity types that it depends upon: the types of the domain objects in the result, plus
+ * any additional types passed in explicitly (for example, for a count or for a query that might in future return
+ * objects of a type that it currently does not).  When a transaction commits, the framework
+ * {@link #invalidate(Collection) invalidates} all entries that depend upon any type (or supertype) of the objects
+ * that were created, updated or deleted within that transaction.  Changes made through other means (eg directly
+ * in the database) are only picked up once the entry expires.
+ *
+ * <p>
+ * Conversely, a result computed within a transaction that has itself changed (but not yet committed) objects of
+ * any type that the result depends upon is not cached, because those changes might yet be aborted.  (Any entries
+ * depending on those types are in any case invalidated when the transaction aborts, as well as on commit.)
+ *
+ * <p>
+ * A result that depends upon no entity types at all (eg an empty list, a count or some other value, where no
+ * types were passed in explicitly) could never be invalidated, so is not cached.
+ *
+ * <p>
+ * The maximum size and time-to-live can be configured using {@value #KEY_MAX_SIZE} (default
+ * {@value #MAX_SIZE_DEFAULT}) and {@value #KEY_TTL_SECONDS} (default {@value #TTL_SECONDS_DEFAULT}).
+ *
+ * <p>
+ * This implementation has no UI and there is only one implementation (this class) in applib, it is annotated with
+ * {@link org.apache.isis.applib.annotation.DomainService}.  This means that it is automatically registered and
+ * available for use; no further configuration is required.
+ */
+@DomainService
+public class SharedQueryResultsCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedQueryResultsCache.class);
+
+    public static final String KEY_MAX_SIZE = "isis.services.queryResultsCache.shared.maxSize";
+    public static final int MAX_SIZE_DEFAULT = 1000;
+
+    public static final String KEY_TTL_SECONDS = "isis.services.queryResultsCache.shared.ttlSeconds";
+    public static final int TTL_SECONDS_DEFAULT = 300;
+
+    /**
+     * Snapshot of the cache's hit/miss statistics.
+     */
+    public static class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long invalidationCount;
+        private final long size;
+
+        Statistics(final long hitCount, final long missCount, final long evictionCount, final long invalidationCount, final long size) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.invalidationCount = invalidationCount;
+            this.size = size;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+        public long getMissCount() {
+            return missCount;
+        }
+        public double getHitRate() {
+            final long requestCount = hitCount + missCount;
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+        /**
+         * Entries removed because the cache was full or because they had expired.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+        /**
+         * Entries removed because an entity type that they depend upon was changed.
+         */
+        public long getInvalidationCount() {
+            return invalidationCount;
+        }
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                    + ", invalidations=" + invalidationCount + ", size=" + size;
+        }
+    }
+
+    /**
+     * A reference to a domain object within a cached result.
+     */
+    private static class ObjectRef {
+        private final Bookmark bookmark;
+        ObjectRef(final Bookmark bookmark) {
+            this.bookmark = bookmark;
+        }
+    }
+
+    private static class Entry {
+        private final Object storedResult;
+        private final Set<Class<?>> dependsOn;
+        Entry(final Object storedResult, final Set<Class<?>> dependsOn) {
+            this.storedResult = storedResult;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    // //////////////////////////////////////
+
+    private Cache<Key, Entry> cache;
+    private final ConcurrentMap<Class<?>, Set<Key>> keysByType = Maps.newConcurrentMap();
+    /**
+     * Incremented on every invalidation; a result computed while an invalidation happened might be stale, so is
+     * not cached.
+     */
+    private final AtomicLong invalidationGeneration = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    public SharedQueryResultsCache() {
+        configure(MAX_SIZE_DEFAULT, TTL_SECONDS_DEFAULT);
+    }
+
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        configure(
+                intProperty(properties, KEY_MAX_SIZE, MAX_SIZE_DEFAULT),
+                intProperty(properties, KEY_TTL_SECONDS, TTL_SECONDS_DEFAULT));
+    }
+
+    private static int intProperty(final Map<String, String> properties, final String key, final int defaultValue) {
+        final String value = properties != null ? properties.get(key) : null;
+        if(value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch(final NumberFormatException ex) {
+            LOG.warn("Invalid value for " + key + ": '" + value + "'; using default of " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    @Programmatic
+    public void configure(final int maxSize, final int ttlSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .removalListener(new RemovalListener<Key, Entry>() {
+                    @Override
+                    public void onRemoval(final RemovalNotification<Key, Entry> notification) {
+                        unindex(notification.getKey(), notification.getValue());
+                    }
+                })
+                .build();
+        keysByType.clear();
+    }
+
+    // //////////////////////////////////////
+
+    @Programmatic
+    public <T> T execute(final Callable<T> callable, final Class<?> callingClass, final String methodName, final Object... keys) {
+        return execute(callable, new Key(callingClass, methodName, keys));
+    }
+
+    @Programmatic
+    public <T> T execute(final Callable<T> callable, final Key cacheKey) {
+        return execute(callable, cacheKey, Collections.<Class<?>>emptySet());
+    }
+
+    /**
+     * As {@link #execute(Callable, Key)}, but also invalidating the cached result whenever any object of the
+     * specified types (or their subtypes) is changed.
+     *
+     * <p>
+     * Results that might be empty, or that are not themselves domain objects (eg counts), are only cached if
+     * the types that they depend upon are specified.
+     */
+    @Programmatic
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final Callable<T> callable, final Key cacheKey, final Collection<Class<?>> dependsOn) {
+        try {
+            final Entry entry = cache.getIfPresent(cacheKey);
+            logHitOrMiss(cacheKey, entry);
+            if(entry != null) {
+                return (T) restore(entry.storedResult);
+            }
+            // cache miss, so get the result, and cache (unless invalidated in the meantime)
+            final long generation = invalidationGeneration.get();
+            final T result = callable.call();
+            put(cacheKey, result, dependsOn, generation);
+            return result;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void put(final Key cacheKey, final Object result, final Collection<Class<?>> dependsOn, final long generation) {
+        final Set<Class<?>> types = Sets.newHashSet(dependsOn);
+        final Object storedResult;
+        try {
+            storedResult = store(result, types);
+        } catch(final RuntimeException ex) {
+            // eg a transient object, which cannot be bookmarked
+            LOG.debug("NOT CACHED (could not bookmark result): " + cacheKey, ex);
+            return;
+        }
+        if(types.isEmpty()) {
+            LOG.debug("NOT CACHED (depends on no types, so could never be invalidated): " + cacheKey);
+            return;
+        }
+        if(dependsOnUncommittedChanges(types)) {
+            // might reflect changes that are yet to be aborted, so must not be shared with other sessions
+            LOG.debug("NOT CACHED (uncommitted changes to types depended upon): " + cacheKey);
+            return;
+        }
+        final Entry entry = new Entry(storedResult, ImmutableSet.copyOf(types));
+        synchronized (invalidationGeneration) {
+            if(generation != invalidationGeneration.get()) {
+                LOG.debug("NOT CACHED (invalidated while executing): " + cacheKey);
+                return;
+            }
+            cache.put(cacheKey, entry);
+            for (final Class<?> type : entry.dependsOn) {
+                keysFor(type).add(cacheKey);
+            }
+        }
+        if(LOG.isDebugEnabled()) {
+            LOG.debug("PUT: " + cacheKey + ", depends on " + entry.dependsOn);
+        }
+    }
+
+    private boolean dependsOnUncommittedChanges(final Set<Class<?>> types) {
+        if(uncommittedChangesService == null) {
+            return false;
+        }
+        final Set<Class<?>> uncommittedChangedTypes = uncommittedChangesService.getUncommittedChangedTypes();
+        if(uncommittedChangedTypes.isEmpty()) {
+            return false;
+        }
+        for (final Class<?> type : types) {
+            if(isAssignableFromAny(type, uncommittedChangedTypes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Invalidates all entries that depend on any of the specified types, or any of their supertypes.
+     *
+     * <p>
+     * Called by the framework when a transaction that changed objects of these types commits (or aborts).
+     */
+    @Programmatic
+    public void invalidate(final Collection<Class<?>> changedTypes) {
+        if(changedTypes.isEmpty()) {
+            return;
+        }
+        final List<Key> invalidated = Lists.newArrayList();
+        synchronized (invalidationGeneration) {
+            invalidationGeneration.incrementAndGet();
+            for (final Map.Entry<Class<?>, Set<Key>> typeAndKeys : keysByType.entrySet()) {
+                if(isAssignableFromAny(typeAndKeys.getKey(), changedTypes)) {
+                    invalidated.addAll(typeAndKeys.getValue());
+                }
+            }
+            cache.invalidateAll(invalidated);
+        }
+        invalidationCount.addAndGet(invalidated.size());
+        if(LOG.isDebugEnabled() && !invalidated.isEmpty()) {
+            LOG.debug("INVALIDATED: " + invalidated + ", changed types " + changedTypes);
+        }
+    }
+
+    @Programmatic
+    public void invalidateAll() {
+        synchronized (invalidationGeneration) {
+            invalidationGeneration.incrementAndGet();
+            invalidationCount.addAndGet(cache.size());
+            cache.invalidateAll();
+        }
+    }
+
+    private static boolean isAssignableFromAny(final Class<?> type, final Collection<Class<?>> changedTypes) {
+        for (final Class<?> changedType : changedTypes) {
+            if(type.isAssignableFrom(changedType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // //////////////////////////////////////
+
+    @Programmatic
+    public Statistics getStatistics() {
+        final CacheStats stats = cache.stats();
+        return new Statistics(stats.hitCount(), stats.missCount(), stats.evictionCount(), invalidationCount.get(), cache.size());
+    }
+
+    // //////////////////////////////////////
+
+    private Set<Key> keysFor(final Class<?> type) {
+        Set<Key> keys = keysByType.get(type);
+        if(keys == null) {
+            final Set<Key> newKeys = Sets.newConcurrentHashSet();
+            keys = keysByType.putIfAbsent(type, newKeys);
+            if(keys == null) {
+                keys = newKeys;
+            }
+        }
+        return keys;
+    }
+
+    private void unindex(final Key cacheKey, final Entry entry) {
+        if(cacheKey == null || entry == null) {
+            return;
+        }
+        for (final Class<?> type : entry.dependsOn) {
+            final Set<Key> keys = keysByType.get(type);
+            if(keys != null) {
+                keys.remove(cacheKey);
+            }
+        }
+    }
+
+    // //////////////////////////////////////
+
+    private Object store(final Object result, final Set<Class<?>> types) {
+        if(result instanceof List) {
+            return storeElements((List<?>) result, Lists.newArrayList(), types);
+        }
+        if(result instanceof Set) {
+            return storeElements((Set<?>) result, Sets.newLinkedHashSet(), types);
+        }
+        return storeElement(result, types);
+    }
+
+    private <C extends Collection<Object>> C storeElements(
+            final Collection<?> elements, final C stored, final Set<Class<?>> types) {
+        for (final Object element : elements) {
+            stored.add(storeElement(element, types));
+        }
+        return stored;
+    }
+
+    private Object storeElement(final Object element, final Set<Class<?>> types) {
+        final Bookmark bookmark = bookmarkFor(element);
+        if(bookmark == null) {
+            return element;
+        }
+        types.add(element.getClass());
+        return new ObjectRef(bookmark);
+    }
+
+    private Bookmark bookmarkFor(final Object element) {
+        if(element == null || bookmarkService == null || isValue(element)) {
+            return null;
+        }
+        return bookmarkService.bookmarkFor(element);
+    }
+
+    /**
+     * Short-circuits the common value types, rather than asking the {@link BookmarkService}.
+     */
+    private static boolean isValue(final Object element) {
+        return element instanceof String || element instanceof Number || element instanceof Boolean
+                || element instanceof Character || element instanceof Enum || element instanceof java.util.Date;
+    }
+
+    private Object restore(final Object storedResult) {
+        if(storedResult instanceof List) {
+            return restoreElements((List<?>) storedResult, Lists.newArrayList());
+        }
+        if(storedResult instanceof Set) {
+            return restoreElements((Set<?>) storedResult, Sets.newLinkedHashSet());
+        }
+        return restoreElement(storedResult);
+    }
+
+    private <C extends Collection<Object>> C restoreElements(final Collection<?> storedElements, final C restored) {
+        final List<Bookmark> bookmarks = Lists.newArrayList();
+        for (final Object storedElement : storedElements) {
+            if(storedElement instanceof ObjectRef) {
+                bookmarks.add(((ObjectRef) storedElement).bookmark);
+            }
+        }
+        if(bookmarks.isEmpty()) {
+            restored.addAll(storedElements);
+            return restored;
+        }
+        // look up all referenced objects in one go
+        final List<Object> objects = bookmarkService.lookup(bookmarks);
+        int i = 0;
+        for (final Object storedElement : storedElements) {
+            restored.add(storedElement instanceof ObjectRef ? objects.get(i++) : storedElement);
+        }
+        return restored;
+    }
+
+    private Object restoreElement(final Object storedElement) {
+        return storedElement instanceof ObjectRef
+                ? bookmarkService.lookup(((ObjectRef) storedElement).bookmark)
+                : storedElement;
+    }
+
+    private static void logHitOrMiss(final Key cacheKey, final Entry entry) {
+        if(!LOG.isDebugEnabled()) {
+            return;
+        }
+        String hitOrMiss = entry != null ? "HIT" : "MISS";
+        LOG.debug( hitOrMiss + ": " + cacheKey.toString());
+    }
+
+    // //////////////////////////////////////
+
+    @javax.inject.Inject
+    private BookmarkService bookmarkService;
+
+    @javax.inject.Inject
+    private UncommittedChangesService uncommittedChangesService;
+
+    // for testing
+    void setUncommittedChangesService(final UncommittedChangesService uncommittedChangesService) {
+        this.uncommittedChangesService = uncommittedChangesService;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.applib.services.queryresultscache;
+
+import java.util.Set;
+
+import org.apache.isis.applib.annotation.Programmatic;
+
+/**
+ * Reports the entity types of the objects that have been created, updated or deleted within the current
+ * transaction but not yet committed.
+ *
+ * <p>
+ * Used by {@link SharedQueryResultsCache} so that results that might reflect uncommitted changes (which could
+ * yet be aborted) are never shared with other sessions.
+ *
+ * <p>
+ * The framework provides a default implementation in core runtime, so no further configuration is required.
+ */
+public interface UncommittedChangesService {
+
+    /**
+     * The types (exact classes, not supertypes) of the objects changed in the current transaction; empty if
+     * there is no current transaction, or nothing has been changed.
+     */
+    @Programmatic
+    Set<Class<?>> getUncommittedChangedTypes();
+}
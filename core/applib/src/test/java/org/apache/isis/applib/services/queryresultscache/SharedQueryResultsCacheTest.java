@@ -0,0 +1,194 @@
+/**
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.isis.applib.services.queryresultscache;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedQueryResultsCacheTest {
+
+    static class Customer {}
+    static class PreferredCustomer extends Customer {}
+    static class Order {}
+
+    private SharedQueryResultsCache cache;
+    private int[] i;
+    private Callable<String> callable;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new SharedQueryResultsCache();
+        i = new int[]{0};
+        callable = new Callable<String>(){
+            @Override
+            public String call() throws Exception {
+                i[0]++;
+                return "foo";
+            }
+        };
+    }
+
+    private String executeDependingOn(final Class<?> type) {
+        return cache.execute(callable, new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "x"), Collections.<Class<?>>singleton(type));
+    }
+
+    private String executeDependingOnCustomer(final Object... keys) {
+        return cache.execute(callable, new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "x", keys), Collections.<Class<?>>singleton(Customer.class));
+    }
+
+    @Test
+    public void caching() {
+        assertThat(executeDependingOnCustomer("a", 1), is("foo"));
+        assertThat(i[0], is(1));
+
+        // should be a cache hit
+        assertThat(executeDependingOnCustomer("a", 1), is("foo"));
+        assertThat(i[0], is(1));
+
+        // changing any of the keys results in a cache miss
+        assertThat(executeDependingOnCustomer("a", 2), is("foo"));
+        assertThat(i[0], is(2));
+
+        final SharedQueryResultsCache.Statistics statistics = cache.getStatistics();
+        assertThat(statistics.getHitCount(), is(1L));
+        assertThat(statistics.getMissCount(), is(2L));
+        assertThat(statistics.getSize(), is(2L));
+    }
+
+    @Test
+    public void invalidatedWhenDependedUponTypeChanges() {
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(1));
+
+        cache.invalidate(Collections.<Class<?>>singleton(PreferredCustomer.class));
+
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(2));
+        assertThat(cache.getStatistics().getInvalidationCount(), is(1L));
+    }
+
+    @Test
+    public void notInvalidatedWhenUnrelatedTypeChanges() {
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(1));
+
+        cache.invalidate(Collections.<Class<?>>singleton(Order.class));
+
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(1));
+        assertThat(cache.getStatistics().getInvalidationCount(), is(0L));
+    }
+
+    @Test
+    public void notCachedIfInvalidatedWhileExecuting() {
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "x");
+        cache.execute(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                i[0]++;
+                cache.invalidate(Collections.<Class<?>>singleton(Order.class));
+                return "foo";
+            }
+        }, key, Collections.<Class<?>>singleton(Order.class));
+
+        cache.execute(callable, key, Collections.<Class<?>>singleton(Order.class));
+        assertThat(i[0], is(2));
+    }
+
+    @Test
+    public void notCachedIfUncommittedChangesToDependedUponType() {
+        final Set<Class<?>> uncommittedChangedTypes = Sets.newHashSet();
+        cache.setUncommittedChangesService(new UncommittedChangesService() {
+            @Override
+            public Set<Class<?>> getUncommittedChangedTypes() {
+                return uncommittedChangedTypes;
+            }
+        });
+
+        // a subtype changed within the current transaction, so not cached ...
+        uncommittedChangedTypes.add(PreferredCustomer.class);
+        executeDependingOn(Customer.class);
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(2));
+        assertThat(cache.getStatistics().getSize(), is(0L));
+
+        // ... whereas changes to unrelated types do not prevent caching
+        uncommittedChangedTypes.clear();
+        uncommittedChangedTypes.add(Order.class);
+        executeDependingOn(Customer.class);
+        executeDependingOn(Customer.class);
+        assertThat(i[0], is(3));
+        assertThat(cache.getStatistics().getSize(), is(1L));
+    }
+
+    @Test
+    public void notCachedIfDependsOnNoTypes() {
+        cache.execute(callable, SharedQueryResultsCacheTest.class, "x");
+        cache.execute(callable, SharedQueryResultsCacheTest.class, "x");
+
+        assertThat(i[0], is(2));
+        assertThat(cache.getStatistics().getSize(), is(0L));
+    }
+
+    @Test
+    public void emptyResult_thenNewInstancePersisted() {
+        final List<Customer> customers = Lists.newArrayList();
+        final Callable<List<Customer>> allCustomers = new Callable<List<Customer>>() {
+            @Override
+            public List<Customer> call() throws Exception {
+                return Lists.newArrayList(customers);
+            }
+        };
+        final QueryResultsCache.Key key = new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "allCustomers");
+
+        // no types can be inferred from an empty result, so not cached ...
+        assertThat(cache.execute(allCustomers, key).isEmpty(), is(true));
+        customers.add(new Customer());
+        assertThat(cache.execute(allCustomers, key).size(), is(1));
+
+        // ... unless the types are specified, in which case invalidated when an instance is persisted
+        customers.clear();
+        final QueryResultsCache.Key keyDependingOnCustomer = new QueryResultsCache.Key(SharedQueryResultsCacheTest.class, "allCustomers", Customer.class);
+        assertThat(cache.execute(allCustomers, keyDependingOnCustomer, Collections.<Class<?>>singleton(Customer.class)).isEmpty(), is(true));
+        customers.add(new Customer());
+        cache.invalidate(Collections.<Class<?>>singleton(Customer.class));
+        assertThat(cache.execute(allCustomers, keyDependingOnCustomer, Collections.<Class<?>>singleton(Customer.class)).size(), is(1));
+    }
+
+    @Test
+    public void evictsWhenFull() {
+        cache.configure(2, 60);
+
+        executeDependingOnCustomer("evicts", 1);
+        executeDependingOnCustomer("evicts", 2);
+        executeDependingOnCustomer("evicts", 3);
+
+        assertThat(cache.getStatistics().getSize(), is(2L));
+        assertThat(cache.getStatistics().getEvictionCount(), is(1L));
+    }
+}
@@ -26,6 +26,8 @@
 import com.google.common.primitives.Primitives;
 
 import org.apache.isis.core.metamodel.exceptions.MetaModelException;
+import org.apache.isis.core.metamodel.methodutils.MethodInvoker;
+import org.apache.isis.core.metamodel.methodutils.MethodInvokers;
 
 public class MethodExtensions {
 
@@ -47,10 +49,14 @@ public static Object invoke(final Method method, final Object object) {
         return MethodExtensions.invoke(method, object, parameters);
     }
 
+    /**
+     * Invokes the method using the {@link MethodInvoker} {@link MethodInvokers#invokerFor(Method) bound} to it.
+     */
     public static Object invoke(final Method method, final Object object, final Object[] arguments) {
         try {
-            Object[] defaultAnyPrimitive = defaultAnyPrimitive(method.getParameterTypes(), arguments);
-            return method.invoke(object, defaultAnyPrimitive);
+            final MethodInvoker invoker = MethodInvokers.invokerFor(method);
+            Object[] defaultAnyPrimitive = defaultAnyPrimitive(invoker.getParameterTypes(), arguments);
+            return invoker.invoke(object, defaultAnyPrimitive);
         } catch (final IllegalArgumentException e) {
             throw e;
         } catch (final InvocationTargetException e) {
@@ -94,7 +100,7 @@ public static Object invokeStatic(final Method method) {
 
     
     public static Object[] getNullOrDefaultArgs(final Method method) {
-        final Class<?>[] paramTypes = method.getParameterTypes();
+        final Class<?>[] paramTypes = MethodInvokers.invokerFor(method).getParameterTypes();
         final Object[] parameters = new Object[paramTypes.length];
         for (int i = 0; i < parameters.length; i++) {
             parameters[i] = ClassExtensions.getNullOrDefault(paramTypes[i]);
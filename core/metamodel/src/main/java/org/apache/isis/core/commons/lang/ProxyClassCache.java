@@ -0,0 +1,79 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.commons.lang;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches generated proxy (sub)classes, keyed by the class being proxied, so that the bytecode for any given class
+ * is only generated once rather than every time an instance is proxied.
+ *
+ * <p>
+ * Both keys and values are held weakly.  A generated proxy class is defined by (and so lives as long as) the
+ * class loader of the class it proxies, so entries are released only once that class loader can be garbage
+ * collected (eg on redeploy); the cache does not itself keep any class loader alive.
+ *
+ * <p>
+ * Each kind of proxy (eg for background execution, or for wrapping) should use its own instance, constructed
+ * with the {@link ProxyClassFactory} that generates that kind of proxy.  Since the generated class is shared,
+ * any per-instance state (eg the method handler) must be set on each proxy instance, not on the class.
+ */
+public final class ProxyClassCache {
+
+    public interface ProxyClassFactory {
+        Class<?> createProxyClass(Class<?> cls);
+    }
+
+    private final LoadingCache<Class<?>, Class<?>> proxyClassByClass;
+
+    public ProxyClassCache(final ProxyClassFactory proxyClassFactory) {
+        this.proxyClassByClass = CacheBuilder.newBuilder().weakKeys().weakValues().build(new CacheLoader<Class<?>, Class<?>>() {
+            @Override
+            public Class<?> load(final Class<?> cls) {
+                return proxyClassFactory.createProxyClass(cls);
+            }
+        });
+    }
+
+    /**
+     * Returns the proxy class for the specified class, generating it if required.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Class<T> proxyClassFor(final Class<T> cls) {
+        try {
+            return (Class<T>) proxyClassByClass.getUnchecked(cls);
+        } catch (final UncheckedExecutionException ex) {
+            // as if the proxy class had been generated directly
+            throw Throwables.propagate(ex.getCause());
+        }
+    }
+
+    public long size() {
+        return proxyClassByClass.size();
+    }
+
+    public void clear() {
+        proxyClassByClass.invalidateAll();
+    }
+}
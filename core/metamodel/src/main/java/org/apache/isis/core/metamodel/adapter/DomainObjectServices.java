@@ -87,6 +87,15 @@ public interface DomainObjectServices extends Injectable {
      */
     Object lookup(Bookmark bookmark);
 
+    /**
+     * As {@link #lookup(Bookmark)}, but for many bookmarks at once, retrieving any that are not yet loaded
+     * together.
+     * 
+     * <p>
+     * Called by <tt>BookmarkServicesDefault</tt>.
+     */
+    List<Object> lookup(List<Bookmark> bookmarks);
+
     Bookmark bookmarkFor(Object domainObject);
 
     Bookmark bookmarkFor(Class<?> cls, String identifier);
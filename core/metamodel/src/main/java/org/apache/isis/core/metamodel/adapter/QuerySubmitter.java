@@ -40,4 +40,22 @@ public interface QuerySubmitter extends Injectable {
      */
     public <T> ObjectAdapter firstMatchingQuery(Query<T> query);
 
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     * 
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt>; returns the total number of instances matching the
+     * query (ignoring its range), without necessarily loading them.
+     */
+    public <T> long countMatchingQuery(Query<T> query);
+
+    /**
+     * Provided by <tt>PersistenceSession</tt> when used by framework.
+     * 
+     * <p>
+     * Called by <tt>DomainObjectContainerDefault</tt> to discard the (unmodified) instances returned by a query
+     * that were then rejected by an in-memory filter, so that they can be garbage collected.
+     */
+    void evict(List<ObjectAdapter> adapters);
+
 }
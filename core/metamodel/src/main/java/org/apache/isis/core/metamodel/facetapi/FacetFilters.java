@@ -19,6 +19,10 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Maps;
+
 import org.apache.isis.applib.filter.Filter;
 import org.apache.isis.applib.filter.Filters;
 
@@ -41,16 +45,45 @@ public boolean accept(final Facet facet) {
         }
     };
 
+    private static final ConcurrentMap<Class<?>, IsA> IS_A_BY_CLASS = Maps.newConcurrentMap();
+
+    /**
+     * Returns the same instance for any given class, so that {@link FacetHolderImpl} can cache the facets that
+     * it accepts.
+     */
     public static Filter<Facet> isA(final Class<?> superClass) {
-        return new Filter<Facet>() {
-            @Override
-            public boolean accept(final Facet facet) {
-                if (facet instanceof DecoratingFacet) {
-                    final DecoratingFacet<?> decoratingFacet = (DecoratingFacet<?>) facet;
-                    return accept(decoratingFacet.getDecoratedFacet());
-                }
-                return superClass.isAssignableFrom(facet.getClass());
+        IsA filter = IS_A_BY_CLASS.get(superClass);
+        if (filter == null) {
+            filter = new IsA(superClass);
+            final IsA existing = IS_A_BY_CLASS.putIfAbsent(superClass, filter);
+            if (existing != null) {
+                filter = existing;
             }
-        };
+        }
+        return filter;
+    }
+
+    /**
+     * @see #isA(Class)
+     */
+    public static final class IsA implements Filter<Facet> {
+        private final Class<?> superClass;
+
+        private IsA(final Class<?> superClass) {
+            this.superClass = superClass;
+        }
+
+        public Class<?> getSuperClass() {
+            return superClass;
+        }
+
+        @Override
+        public boolean accept(final Facet facet) {
+            if (facet instanceof DecoratingFacet) {
+                final DecoratingFacet<?> decoratingFacet = (DecoratingFacet<?>) facet;
+                return accept(decoratingFacet.getDecoratedFacet());
+            }
+            return superClass.isAssignableFrom(facet.getClass());
+        }
     }
 }
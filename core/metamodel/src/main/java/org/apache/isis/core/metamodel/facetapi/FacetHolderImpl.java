@@ -19,10 +19,13 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.google.common.collect.Maps;
+
 import org.apache.isis.applib.filter.Filter;
 
 /**
@@ -32,6 +35,16 @@ public class FacetHolderImpl implements FacetHolder {
 
     private final Map<Class<? extends Facet>, Facet> facetsByClass = new HashMap<Class<? extends Facet>, Facet>();
 
+    /**
+     * The facets accepted by each {@link FacetFilters#isA(Class) isA} filter, keyed by its
+     * {@link FacetFilters.IsA#getSuperClass() class}; most notably the hiding, disabling and validating
+     * interaction advisors that are consulted on every interaction.
+     *
+     * <p>
+     * Populated lazily, and discarded whenever a facet is added or removed.
+     */
+    private final Map<Class<?>, List<Facet>> facetsByIsA = Maps.newConcurrentMap();
+
     @Override
     public boolean containsFacet(final Class<? extends Facet> facetType) {
         return getFacet(facetType) != null;
@@ -60,6 +73,7 @@ private void addFacet(final Class<? extends Facet> facetType, final Facet facet)
         final Facet existingFacet = getFacet(facetType);
         if (existingFacet == null || existingFacet.isNoop()) {
             facetsByClass.put(facetType, facet);
+            facetsByIsA.clear();
             return;
         }
         if (!facet.alwaysReplace()) {
@@ -70,16 +84,19 @@ private void addFacet(final Class<? extends Facet> facetType, final Facet facet)
         }
         facet.setUnderlyingFacet(existingFacet);
         facetsByClass.put(facetType, facet);
+        facetsByIsA.clear();
     }
 
     @Override
     public void removeFacet(final Facet facet) {
         FacetUtil.removeFacet(facetsByClass, facet);
+        facetsByIsA.clear();
     }
 
     @Override
     public void removeFacet(final Class<? extends Facet> facetType) {
         FacetUtil.removeFacet(facetsByClass, facetType);
+        facetsByIsA.clear();
     }
 
     @Override
@@ -93,8 +110,21 @@ public Class<? extends Facet>[] getFacetTypes() {
         return FacetUtil.getFacetTypes(facetsByClass);
     }
 
+    /**
+     * For {@link FacetFilters#isA(Class) isA} filters the returned list is cached and immutable; otherwise a new
+     * list is returned.
+     */
     @Override
     public List<Facet> getFacets(final Filter<Facet> filter) {
+        if (filter instanceof FacetFilters.IsA) {
+            final Class<?> superClass = ((FacetFilters.IsA) filter).getSuperClass();
+            List<Facet> facets = facetsByIsA.get(superClass);
+            if (facets == null) {
+                facets = Collections.unmodifiableList(FacetUtil.getFacets(facetsByClass, filter));
+                facetsByIsA.put(superClass, facets);
+            }
+            return facets;
+        }
         return FacetUtil.getFacets(facetsByClass, filter);
     }
 
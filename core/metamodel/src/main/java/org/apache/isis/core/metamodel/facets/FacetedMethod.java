@@ -31,6 +31,7 @@
 import org.apache.isis.core.commons.lang.StringExtensions;
 import org.apache.isis.core.metamodel.facetapi.FeatureType;
 import org.apache.isis.core.metamodel.facetapi.IdentifiedHolder;
+import org.apache.isis.core.metamodel.methodutils.MethodInvokers;
 
 /**
  * non-final only so it can be mocked if need be.
@@ -115,6 +116,7 @@ private FacetedMethod(final FeatureType featureType, final Class<?> declaringTyp
         this.method = method;
         this.identifier = featureType.identifierFor(declaringType, method);
         this.parameters = parameters;
+        MethodInvokers.bind(method);
     }
 
     /**
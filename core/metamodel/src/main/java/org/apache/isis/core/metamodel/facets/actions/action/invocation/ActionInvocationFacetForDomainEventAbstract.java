@@ -53,6 +53,7 @@
 import org.apache.isis.core.metamodel.facets.actions.command.CommandFacet;
 import org.apache.isis.core.metamodel.facets.actions.publish.PublishedActionFacet;
 import org.apache.isis.core.metamodel.facets.object.viewmodel.ViewModelFacet;
+import org.apache.isis.core.metamodel.methodutils.MethodInvokers;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
 import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -333,7 +334,7 @@ protected InvocationResult internalInvoke(
                     command.setStartedAt(Clock.getTimeAsJavaSqlTimestamp());
                 }
 
-                Object result = method.invoke(targetPojo, executionParameters);
+                Object result = MethodInvokers.invokerFor(method).invoke(targetPojo, executionParameters);
 
                 if (LOG.isDebugEnabled()) {
                     LOG.debug(" action result " + result);
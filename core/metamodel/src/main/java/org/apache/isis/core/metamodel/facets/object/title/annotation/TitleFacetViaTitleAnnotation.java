@@ -76,6 +76,10 @@ public Method getMethod() {
             return method;
         }
 
+        public int getAbbreviateTo() {
+            return abbreviateTo;
+        }
+
         public static TitleComponent of(final Method method) {
             final Title annotation = method.getAnnotation(Title.class);
             final String prepend = annotation != null ? annotation.prepend() : " ";
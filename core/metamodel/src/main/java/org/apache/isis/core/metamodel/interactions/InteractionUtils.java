@@ -21,6 +21,7 @@
 
 import java.util.List;
 
+import org.apache.isis.applib.filter.Filter;
 import org.apache.isis.core.metamodel.consent.InteractionResult;
 import org.apache.isis.core.metamodel.consent.InteractionResultSet;
 import org.apache.isis.core.metamodel.facetapi.Facet;
@@ -32,11 +33,16 @@ public final class InteractionUtils {
     private InteractionUtils() {
     }
 
+    private static final Filter<Facet> HIDING_ADVISORS = FacetFilters.isA(HidingInteractionAdvisor.class);
+    private static final Filter<Facet> DISABLING_ADVISORS = FacetFilters.isA(DisablingInteractionAdvisor.class);
+    private static final Filter<Facet> VALIDATING_ADVISORS = FacetFilters.isA(ValidatingInteractionAdvisor.class);
+
     public static InteractionResult isVisibleResult(final FacetHolder facetHolder, final VisibilityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(HidingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final HidingInteractionAdvisor advisor = (HidingInteractionAdvisor) facet;
+        // indexed loop, to avoid allocating an iterator over the (cached) facets
+        final List<Facet> facets = facetHolder.getFacets(HIDING_ADVISORS);
+        for (int i = 0; i < facets.size(); i++) {
+            final HidingInteractionAdvisor advisor = (HidingInteractionAdvisor) facets.get(i);
             result.advise(advisor.hides(context), advisor);
         }
         return result;
@@ -44,9 +50,10 @@ public static InteractionResult isVisibleResult(final FacetHolder facetHolder, f
 
     public static InteractionResult isUsableResult(final FacetHolder facetHolder, final UsabilityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(DisablingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final DisablingInteractionAdvisor advisor = (DisablingInteractionAdvisor) facet;
+        // indexed loop, to avoid allocating an iterator over the (cached) facets
+        final List<Facet> facets = facetHolder.getFacets(DISABLING_ADVISORS);
+        for (int i = 0; i < facets.size(); i++) {
+            final DisablingInteractionAdvisor advisor = (DisablingInteractionAdvisor) facets.get(i);
             final String disables = advisor.disables(context);
             result.advise(disables, advisor);
         }
@@ -55,9 +62,10 @@ public static InteractionResult isUsableResult(final FacetHolder facetHolder, fi
 
     public static InteractionResult isValidResult(final FacetHolder facetHolder, final ValidityContext<?> context) {
         final InteractionResult result = new InteractionResult(context.createInteractionEvent());
-        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(ValidatingInteractionAdvisor.class));
-        for (final Facet facet : facets) {
-            final ValidatingInteractionAdvisor advisor = (ValidatingInteractionAdvisor) facet;
+        // indexed loop, to avoid allocating an iterator over the (cached) facets
+        final List<Facet> facets = facetHolder.getFacets(VALIDATING_ADVISORS);
+        for (int i = 0; i < facets.size(); i++) {
+            final ValidatingInteractionAdvisor advisor = (ValidatingInteractionAdvisor) facets.get(i);
             result.advise(advisor.invalidates(context), advisor);
         }
         return result;
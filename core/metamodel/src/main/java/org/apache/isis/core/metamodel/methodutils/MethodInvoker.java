@@ -0,0 +1,43 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.methodutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a particular {@link Method}, with the same contract as {@link Method#invoke(Object, Object...)}.
+ *
+ * <p>
+ * Obtained from {@link MethodInvokers}, which binds each method to an invoker once and caches it.
+ */
+public interface MethodInvoker {
+
+    Method getMethod();
+
+    /**
+     * The {@link Method#getParameterTypes() parameter types} of the method; cached, so must not be modified.
+     */
+    Class<?>[] getParameterTypes();
+
+    Object invoke(Object target, Object[] arguments) throws IllegalAccessException, InvocationTargetException;
+
+}
@@ -0,0 +1,156 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.methodutils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.google.common.base.Throwables;
+import com.google.common.primitives.Primitives;
+
+/**
+ * Invokes the method through a {@link MethodHandle}, adapted once (when bound) to the generic
+ * <tt>(Object target, Object[] arguments) : Object</tt> shape.
+ *
+ * <p>
+ * Any target or arguments that reflection would convert (eg widening an <tt>Integer</tt> to a <tt>long</tt>) or
+ * reject (with an {@link IllegalArgumentException}) are instead passed to the
+ * {@link MethodInvokerReflective reflective} fallback, so that the observable behaviour is unchanged.
+ *
+ * <p>
+ * As per {@link Method#invoke(Object, Object...)}, only exceptions thrown by the method itself are wrapped in an
+ * {@link InvocationTargetException}; varargs methods take their variable arguments as a single array.
+ */
+class MethodInvokerMethodHandle extends MethodInvokerReflective {
+
+    /**
+     * @return <tt>null</tt> if the method is not accessible through a {@link MethodHandles#publicLookup() public lookup}.
+     */
+    static MethodInvokerMethodHandle createElseNull(final Method method) {
+        MethodHandle handle;
+        try {
+            // fixed arity, so that the array of any varargs is passed through as is (rather than collected again)
+            handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+        } catch (final IllegalAccessException e) {
+            return null;
+        }
+        handle = MethodHandles.catchException(handle, Throwable.class, 
+                THROWN_BY_METHOD.asType(MethodType.methodType(handle.type().returnType(), Throwable.class)));
+        final boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (isStatic) {
+            // accept (and ignore) a target, as per Method#invoke
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        final int parameterCount = method.getParameterTypes().length;
+        handle = handle.asType(handle.type().generic()).asSpreader(Object[].class, parameterCount);
+        return new MethodInvokerMethodHandle(method, handle, isStatic);
+    }
+
+    /**
+     * Marks an exception as having been thrown by the method itself, rather than while adapting the arguments.
+     */
+    private static final class ThrownByMethod extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ThrownByMethod(final Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private static final MethodHandle THROWN_BY_METHOD;
+    static {
+        try {
+            THROWN_BY_METHOD = MethodHandles.lookup().findStatic(
+                    MethodInvokerMethodHandle.class, "thrownByMethod", MethodType.methodType(Object.class, Throwable.class));
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private static Object thrownByMethod(final Throwable ex) {
+        throw new ThrownByMethod(ex);
+    }
+
+    private final MethodHandle handle;
+    private final boolean isStatic;
+    private final Class<?> declaringClass;
+    private final Class<?>[] wrappedParameterTypes;
+
+    private MethodInvokerMethodHandle(final Method method, final MethodHandle handle, final boolean isStatic) {
+        super(method);
+        this.handle = handle;
+        this.isStatic = isStatic;
+        this.declaringClass = method.getDeclaringClass();
+        final Class<?>[] parameterTypes = getParameterTypes();
+        this.wrappedParameterTypes = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            wrappedParameterTypes[i] = Primitives.wrap(parameterTypes[i]);
+        }
+    }
+
+    @Override
+    public Object invoke(final Object target, final Object[] arguments) throws IllegalAccessException, InvocationTargetException {
+        if (!isDirectlyInvokable(target, arguments)) {
+            return super.invoke(target, arguments);
+        }
+        try {
+            return (Object) handle.invokeExact(target, arguments);
+        } catch (final ThrownByMethod ex) {
+            // as per Method#invoke, which wraps anything thrown by the underlying method
+            throw new InvocationTargetException(ex.getCause());
+        } catch (final Throwable ex) {
+            // a failure to adapt the arguments; a bug in the framework, not an exception from the domain
+            throw Throwables.propagate(ex);
+        }
+    }
+
+    private boolean isDirectlyInvokable(final Object target, final Object[] arguments) {
+        if (!isStatic && !declaringClass.isInstance(target)) {
+            return false;
+        }
+        final int argumentCount = arguments != null ? arguments.length : 0;
+        if (argumentCount != wrappedParameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < argumentCount; i++) {
+            final Object argument = arguments[i];
+            if (argument == null) {
+                if (wrappedParameterTypes[i] != getParameterTypes()[i]) {
+                    // null for a primitive
+                    return false;
+                }
+            } else if (!wrappedParameterTypes[i].isInstance(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "methodHandle: " + getMethod();
+    }
+}
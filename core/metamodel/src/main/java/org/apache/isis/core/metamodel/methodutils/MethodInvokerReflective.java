@@ -0,0 +1,58 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.methodutils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes the method using (standard) reflection; also the fallback for {@link MethodInvokerMethodHandle}.
+ */
+class MethodInvokerReflective implements MethodInvoker {
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+
+    MethodInvokerReflective(final Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+    }
+
+    @Override
+    public Method getMethod() {
+        return method;
+    }
+
+    @Override
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    @Override
+    public Object invoke(final Object target, final Object[] arguments) throws IllegalAccessException, InvocationTargetException {
+        return method.invoke(target, arguments);
+    }
+
+    @Override
+    public String toString() {
+        return "reflective: " + method;
+    }
+}
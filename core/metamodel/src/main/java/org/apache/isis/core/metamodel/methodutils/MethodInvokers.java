@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.methodutils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Binds each {@link Method} to a {@link MethodInvoker}, caching the result.
+ *
+ * <p>
+ * Methods are {@link #bind(Method) bound} during introspection (as they are identified as members or supporting
+ * methods), so that invoking them subsequently (titles, hide/disable/validate, choices, defaults, actions and so on)
+ * only requires a lookup.  Any method not bound during introspection is bound lazily on first use.
+ *
+ * <p>
+ * The {@link Strategy} is configurable (see <tt>ObjectReflectorDefault</tt>); methods that cannot be invoked through
+ * a {@link java.lang.invoke.MethodHandle} (eg declared in non-public classes) always fall back to reflection.
+ */
+public final class MethodInvokers {
+
+    public enum Strategy {
+        /**
+         * Invoke using {@link java.lang.invoke.MethodHandle}s, falling back to reflection where necessary.
+         */
+        METHOD_HANDLE {
+            @Override
+            MethodInvoker create(final Method method) {
+                final MethodInvoker invoker = MethodInvokerMethodHandle.createElseNull(method);
+                return invoker != null ? invoker : REFLECTION.create(method);
+            }
+        },
+        /**
+         * Invoke using {@link Method#invoke(Object, Object...)}.
+         */
+        REFLECTION {
+            @Override
+            MethodInvoker create(final Method method) {
+                return new MethodInvokerReflective(method);
+            }
+        };
+
+        abstract MethodInvoker create(Method method);
+
+        /**
+         * @throws IllegalArgumentException if the value is not the name of any strategy.
+         */
+        public static Strategy parse(final String value) {
+            if (value == null) {
+                return METHOD_HANDLE;
+            }
+            final String normalized = value.trim().toUpperCase().replace("-", "_");
+            for (final Strategy strategy : values()) {
+                if (strategy.name().replace("_", "").equals(normalized.replace("_", ""))) {
+                    return strategy;
+                }
+            }
+            throw new IllegalArgumentException("Unknown method invoker strategy '" + value + "'; expected one of " + Arrays.toString(values()));
+        }
+    }
+
+    private static final ConcurrentMap<Method, MethodInvoker> invokerByMethod = Maps.newConcurrentMap();
+    private static volatile Strategy strategy = Strategy.METHOD_HANDLE;
+
+    private MethodInvokers() {
+    }
+
+    public static MethodInvoker invokerFor(final Method method) {
+        final MethodInvoker invoker = invokerByMethod.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+        final MethodInvoker newInvoker = strategy.create(method);
+        final MethodInvoker existing = invokerByMethod.putIfAbsent(method, newInvoker);
+        return existing != null ? existing : newInvoker;
+    }
+
+    /**
+     * Binds the method (if not already) to an invoker, as per the current {@link Strategy}.
+     */
+    public static void bind(final Method method) {
+        if (method != null) {
+            invokerFor(method);
+        }
+    }
+
+    /**
+     * Discards the invokers bound to the methods declared by the class (eg as its specification has been
+     * invalidated), so that they do not keep a reloaded class alive; they are rebound lazily if still required.
+     */
+    public static void invalidate(final Class<?> cls) {
+        for (final Method method : invokerByMethod.keySet()) {
+            if (method.getDeclaringClass() == cls) {
+                invokerByMethod.remove(method);
+            }
+        }
+    }
+
+    /**
+     * Discards all bound invokers (eg on shutdown), so that they do not keep application classes alive.
+     */
+    public static void clear() {
+        invokerByMethod.clear();
+    }
+
+    public static Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Changes the strategy, discarding any previously bound invokers.
+     */
+    public static void setStrategy(final Strategy strategy) {
+        MethodInvokers.strategy = strategy;
+        clear();
+    }
+
+}
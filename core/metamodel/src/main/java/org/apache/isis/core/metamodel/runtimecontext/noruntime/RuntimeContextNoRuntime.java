@@ -206,6 +206,11 @@ public Object lookup(Bookmark bookmark) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
 
+            @Override
+            public List<Object> lookup(List<Bookmark> bookmarks) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
+
             @Override
             public Bookmark bookmarkFor(Object domainObject) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
@@ -287,6 +292,16 @@ public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
             public <T> List<ObjectAdapter> allMatchingQuery(final Query<T> query) {
                 throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
             }
+
+            @Override
+            public <T> long countMatchingQuery(final Query<T> query) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
+
+            @Override
+            public void evict(final List<ObjectAdapter> adapters) {
+                throw new UnsupportedOperationException("Not supported by this implementation of RuntimeContext");
+            }
         };
     }
 
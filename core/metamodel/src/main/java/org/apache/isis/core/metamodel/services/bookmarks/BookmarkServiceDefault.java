@@ -18,6 +18,8 @@
  */
 package org.apache.isis.core.metamodel.services.bookmarks;
 
+import java.util.List;
+
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.Hidden;
 import org.apache.isis.applib.annotation.Programmatic;
@@ -69,6 +71,12 @@ public <T> T lookup(final Bookmark bookmark, Class<T> cls) {
         return (T) lookup(bookmark);
     }
 
+    @Programmatic
+    @Override
+    public List<Object> lookup(final List<Bookmark> bookmarks) {
+        return domainObjectServices.lookup(bookmarks);
+    }
+
     @Hidden
     @Override
     public Bookmark bookmarkFor(final Object domainObject) {
@@ -396,11 +396,23 @@ public <T> List<T> allInstances(final Class<T> type, long... range) {
         return allMatches(new QueryFindAllInstances<T>(type, range));
     }
 
+    @Programmatic
+    @Override
+    public <T> long countInstances(final Class<T> type) {
+        flush(); // auto-flush any pending changes
+        return getQuerySubmitter().countMatchingQuery(new QueryFindAllInstances<T>(type));
+    }
+
     // //////////////////////////////////////////////////////////////////
 
     @Programmatic
     @Override
     public <T> List<T> allMatches(final Class<T> cls, final Predicate<? super T> predicate, long... range) {
+        if(streaming) {
+            final long start = range.length > 0 ? range[0] : 0;
+            final long count = range.length > 1 ? range[1] : 0;
+            return streamMatches(cls, predicate, start, count);
+        }
         final List<T> allInstances = allInstances(cls, range);
         final List<T> filtered = new ArrayList<T>();
         for (final T instance : allInstances) {
@@ -444,6 +456,9 @@ public <T> List<T> allMatches(final Query<T> query) {
     @Programmatic
     @Override
     public <T> T firstMatch(final Class<T> cls, final Predicate<T> predicate) {
+        if(streaming) {
+            return firstInstanceElseNull(streamMatches(cls, predicate, 0, 1));
+        }
         final List<T> allInstances = allInstances(cls); // Have to fetch all, as matching is done in next loop
         for (final T instance : allInstances) {
             if (predicate.apply(instance)) {
@@ -536,6 +551,55 @@ public <T> T uniqueMatch(final Query<T> query) {
         return firstInstanceElseNull(instances);
     }
 
+    /**
+     * Reads the instances of the type in chunks (of {@link #KEY_STREAMING_CHUNK_SIZE}), applying the predicate to
+     * each chunk in turn and stopping as soon as <tt>count</tt> matches (after skipping the first <tt>start</tt>
+     * matches) have been found.
+     *
+     * <p>
+     * Instances that do not match (or that are skipped) are {@link QuerySubmitter#evict(List) evicted} so that
+     * they do not accumulate in memory while the extent is being scanned.
+     */
+    private <T> List<T> streamMatches(
+            final Class<T> cls, final Predicate<? super T> predicate, final long start, final long count) {
+        flush(); // auto-flush any pending changes
+        final List<T> matches = new ArrayList<T>();
+        long toSkip = start;
+        long chunkStart = 0;
+        while(true) {
+            final List<ObjectAdapter> chunk =
+                    getQuerySubmitter().allMatchingQuery(new QueryFindAllInstances<T>(cls, chunkStart, streamingChunkSize));
+            final List<ObjectAdapter> discarded = new ArrayList<ObjectAdapter>();
+            boolean done = chunk.size() < streamingChunkSize;
+            for (int i = 0; i < chunk.size(); i++) {
+                final ObjectAdapter adapter = chunk.get(i);
+                if(count > 0 && matches.size() >= count) {
+                    // the remainder of the chunk will not be looked at
+                    discarded.addAll(chunk.subList(i, chunk.size()));
+                    done = true;
+                    break;
+                }
+                @SuppressWarnings("unchecked")
+                final T instance = (T) adapter.getObject();
+                if (!predicate.apply(instance)) {
+                    discarded.add(adapter);
+                } else if (toSkip > 0) {
+                    toSkip--;
+                    discarded.add(adapter);
+                } else {
+                    matches.add(instance);
+                }
+            }
+            if(!discarded.isEmpty()) {
+                getQuerySubmitter().evict(discarded);
+            }
+            if(done || (count > 0 && matches.size() >= count)) {
+                return matches;
+            }
+            chunkStart += streamingChunkSize;
+        }
+    }
+
     private static <T> T firstInstanceElseNull(final List<T> instances) {
         return instances.size() == 0 ? null : instances.get(0);
     }
@@ -578,11 +642,36 @@ public String recognize(Throwable ex) {
 
     //region > init, shutdown
 
+    /**
+     * Whether {@link #allMatches(Class, Predicate, long...)} and {@link #firstMatch(Class, Predicate)} should read
+     * the instances in chunks (evicting those that do not match) rather than all at once.
+     *
+     * <p>
+     * Disabled by default, because the chunks are read using ranged queries without any ordering; most datastores
+     * return rows in a stable order, but this is not guaranteed.
+     */
+    public static final String KEY_STREAMING = "isis.services.container.streaming";
+    /**
+     * The number of instances read per chunk; must be positive.
+     */
+    public static final String KEY_STREAMING_CHUNK_SIZE = "isis.services.container.streaming.chunkSize";
+    public static final int STREAMING_CHUNK_SIZE_DEFAULT = 100;
+
+    private boolean streaming;
+    private int streamingChunkSize = STREAMING_CHUNK_SIZE_DEFAULT;
+
     @Programmatic
     @PostConstruct
     @Override
     public void init(Map<String, String> properties) {
         recognizer.init(properties);
+        this.streaming = Boolean.parseBoolean(properties.get(KEY_STREAMING));
+        final String chunkSize = properties.get(KEY_STREAMING_CHUNK_SIZE);
+        this.streamingChunkSize = chunkSize != null ? Integer.parseInt(chunkSize.trim()) : STREAMING_CHUNK_SIZE_DEFAULT;
+        if(this.streamingChunkSize <= 0) {
+            // a chunk would never be "short", so the extent would be read forever
+            throw new IllegalArgumentException(KEY_STREAMING_CHUNK_SIZE + " must be positive; was: " + chunkSize);
+        }
     }
 
     @Programmatic
@@ -41,6 +41,16 @@ public interface SpecificationLoaderSpi extends ApplicationScopedComponent, Debu
     void invalidateCacheFor(Object domainObject);
     
     void invalidateCache(Class<?> domainClass);
-    
+
+    /**
+     * Notified whenever the cache is {@link #invalidateCache(Class) invalidated} (eg by JRebel), so that anything
+     * derived from the metamodel can also be discarded.
+     */
+    public interface InvalidationListener {
+        void invalidated(Class<?> domainClass);
+    }
+
+    void addInvalidationListener(InvalidationListener listener);
+
     boolean isInitialized();
 }
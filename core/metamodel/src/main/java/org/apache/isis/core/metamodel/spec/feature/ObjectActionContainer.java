@@ -61,6 +61,9 @@ public interface ObjectActionContainer {
     /**
      * Returns an array of actions of the specified type, including or excluding
      * contributed actions as required.
+     *
+     * <p>
+     * The returned list may be shared and immutable; callers must copy it if they wish to modify it.
      */
     List<ObjectAction> getObjectActions(ActionType type, Contributed contributee, Filter<ObjectAction> filter);
 
@@ -39,6 +39,9 @@ public interface ObjectAssociationContainer {
     /**
      * Return all the fields that exist in an object of this specification,
      * although they need not all be accessible or visible.
+     *
+     * <p>
+     * The returned list may be shared and immutable; callers must copy it if they wish to modify it.
      */
     List<ObjectAssociation> getAssociations(Contributed contributed);
 
@@ -55,6 +58,9 @@ public interface ObjectAssociationContainer {
      * To get the statically visible fields (where any invisible and
      * unauthorised fields have been removed) use
      * <tt>ObjectAssociationFilters#staticallyVisible(...)</tt>
+     *
+     * <p>
+     * The returned list may be shared and immutable; callers must copy it if they wish to modify it.
      * 
      * @see Filters
      */
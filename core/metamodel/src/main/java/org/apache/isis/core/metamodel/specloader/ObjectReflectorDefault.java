@@ -44,6 +44,7 @@
 import org.apache.isis.core.metamodel.facets.object.choices.ChoicesFacetUtils;
 import org.apache.isis.core.metamodel.facets.object.objectspecid.ObjectSpecIdFacet;
 import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
+import org.apache.isis.core.metamodel.methodutils.MethodInvokers;
 import org.apache.isis.core.metamodel.progmodel.ProgrammingModel;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
 import org.apache.isis.core.metamodel.runtimecontext.RuntimeContextAware;
@@ -105,6 +106,18 @@ public final class ObjectReflectorDefault implements SpecificationLoaderSpi, App
 
     private final static Logger LOG = LoggerFactory.getLogger(ObjectReflectorDefault.class);
 
+    /**
+     * Whether to {@link SpecificationWarmUp warm up} the domain classes in parallel prior to introspecting them.
+     */
+    public static final String PARALLEL_WARM_UP_KEY = "isis.reflector.parallelWarmUp";
+    public static final boolean PARALLEL_WARM_UP_DEFAULT = false;
+
+    /**
+     * The {@link MethodInvokers.Strategy strategy} used to invoke domain methods, either <tt>methodHandle</tt>
+     * (the default) or <tt>reflection</tt>; any other value is rejected on initialization.
+     */
+    public static final String METHOD_INVOKER_KEY = "isis.reflector.methodInvoker";
+
     private final ClassSubstitutor classSubstitutor = new ClassSubstitutor();
 
     /**
@@ -146,6 +159,7 @@ public final class ObjectReflectorDefault implements SpecificationLoaderSpi, App
     private final MetaModelValidator metaModelValidator;
     private final SpecificationCacheDefault cache = new SpecificationCacheDefault();
     private final List<LayoutMetadataReader> layoutMetadataReaders;
+    private final List<InvalidationListener> invalidationListeners = Lists.newCopyOnWriteArrayList();
 
     private boolean initialized = false;
     /**
@@ -235,6 +249,8 @@ public ValidationFailures initAndValidate() {
         // wire subcomponents into each other
         runtimeContext.injectInto(facetProcessor);
 
+        MethodInvokers.setStrategy(MethodInvokers.Strategy.parse(configuration.getString(METHOD_INVOKER_KEY)));
+
         // initialize subcomponents
         facetDecoratorSet.init();
         programmingModel.init();
@@ -263,9 +279,17 @@ private void cacheBySpecId() {
 
     /**
      * load the service specifications.
+     *
+     * <p>
+     * If {@link #PARALLEL_WARM_UP_KEY enabled}, the classes reachable from the services are first
+     * {@link SpecificationWarmUp warmed up} in parallel.
      */
     private void primeCache() {
-        for (final Class<?> serviceClass : getServiceClasses()) {
+        final List<Class<?>> serviceClasses = getServiceClasses();
+        if (configuration.getBoolean(PARALLEL_WARM_UP_KEY, PARALLEL_WARM_UP_DEFAULT)) {
+            new SpecificationWarmUp(classSubstitutor).warmUp(serviceClasses);
+        }
+        for (final Class<?> serviceClass : serviceClasses) {
             internalLoadSpecification(serviceClass);
         }
     }
@@ -278,6 +302,8 @@ public void shutdown() {
         initialized = false;
         
         getCache().clear();
+        invalidationListeners.clear();
+        MethodInvokers.clear();
         facetDecoratorSet.shutdown();
     }
 
@@ -306,12 +332,22 @@ public void invalidateCache(final Class<?> cls) {
         while(spec != null) {
             final Class<?> type = spec.getCorrespondingClass();
             getCache().remove(type.getName());
+            MethodInvokers.invalidate(type);
             if(spec.containsDoOpFacet(ObjectSpecIdFacet.class)) {
                 // umm.  Some specs do not have an ObjectSpecIdFacet...
                 recache(spec);
             }
             spec = spec.superclass(); 
         }
+
+        for (final InvalidationListener listener : invalidationListeners) {
+            listener.invalidated(substitutedType);
+        }
+    }
+
+    @Override
+    public void addInvalidationListener(final InvalidationListener listener) {
+        invalidationListeners.add(listener);
     }
 
     //region > isInjectorMethodFor
@@ -383,6 +419,13 @@ private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?>
         final String typeName = type.getName();
 
         final SpecificationCacheDefault specificationCache = getCache();
+
+        // fast path (no locking) for specs that have been fully introspected
+        final ObjectSpecification cachedSpec = specificationCache.get(typeName);
+        if (cachedSpec != null && isIntrospected(cachedSpec)) {
+            return cachedSpec;
+        }
+
         synchronized (specificationCache) {
             final ObjectSpecification spec = specificationCache.get(typeName);
             if (spec != null) {
@@ -403,6 +446,18 @@ private ObjectSpecification loadSpecificationForSubstitutedClass(final Class<?>
         }
     }
 
+    /**
+     * Whether the spec can be handed out without taking the cache's lock; specs that are still being introspected
+     * (by this or another thread) must go through the synchronized path.
+     */
+    private static boolean isIntrospected(final ObjectSpecification spec) {
+        if (!(spec instanceof ObjectSpecificationAbstract)) {
+            return true;
+        }
+        final ObjectSpecificationAbstract specSpi = (ObjectSpecificationAbstract) spec;
+        return specSpi.getIntrospectionState() == IntrospectionState.INTROSPECTED;
+    }
+
     /**
      * Loads the specifications of the specified types except the one specified
      * (to prevent an infinite loop).
@@ -30,10 +30,14 @@
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidator;
 
+/**
+ * Backed by concurrent maps so that lookups of already-loaded specifications do not need to synchronize; only the
+ * creation and introspection of new specifications (in {@link ObjectReflectorDefault}) is serialized.
+ */
 class SpecificationCacheDefault {
     
-    private final Map<String, ObjectSpecification> specByClassName = Maps.newHashMap();
-    private Map<ObjectSpecId, ObjectSpecification> specById;
+    private final Map<String, ObjectSpecification> specByClassName = Maps.newConcurrentMap();
+    private volatile Map<ObjectSpecId, ObjectSpecification> specById;
 
     public ObjectSpecification get(final String className) {
         return specByClassName.get(className);
@@ -56,15 +60,17 @@ public ObjectSpecification getByObjectType(ObjectSpecId objectSpecID) {
         if (!isInitialized()) {
             throw new IllegalStateException("SpecificationCache by object type has not yet been initialized");
         }
-        return specById.get(objectSpecID);
+        // concurrent maps do not support null keys
+        return objectSpecID != null ? specById.get(objectSpecID) : null;
     }
 
     /**
      * Populated as a result of running {@link MetaModelValidator#validate() validation} after xxxallxxx most specs have been loaded. 
      */
     void setCacheBySpecId(Map<ObjectSpecId, ObjectSpecification> specById) {
-        this.specById = Maps.newHashMap();
-        this.specById.putAll(specById);
+        final Map<ObjectSpecId, ObjectSpecification> map = Maps.newConcurrentMap();
+        map.putAll(specById);
+        this.specById = map;
     }
 
     public ObjectSpecification remove(String typeName) {
@@ -0,0 +1,139 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.specloader;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.core.metamodel.specloader.classsubstitutor.ClassSubstitutor;
+
+/**
+ * Warms up, in parallel, the classes reachable from a set of root (service) classes, prior to them being
+ * introspected.
+ *
+ * <p>
+ * Creating and introspecting the {@link org.apache.isis.core.metamodel.spec.ObjectSpecification}s themselves
+ * must still happen serially (specs are cached before they are introspected, and introspecting one spec
+ * recursively loads others).  However much of the cost at startup is in loading classes and in the JDK's
+ * reflection of their members and annotations; this is independent per class and is cached by the JVM, so can
+ * be done up-front on a {@link ForkJoinPool}.
+ */
+class SpecificationWarmUp {
+
+    private final static Logger LOG = LoggerFactory.getLogger(SpecificationWarmUp.class);
+
+    private final ClassSubstitutor classSubstitutor;
+    private final Set<Class<?>> visited = Sets.newConcurrentHashSet();
+
+    SpecificationWarmUp(final ClassSubstitutor classSubstitutor) {
+        this.classSubstitutor = classSubstitutor;
+    }
+
+    public void warmUp(final Collection<Class<?>> rootClasses) {
+        final long start = System.currentTimeMillis();
+        final ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.invoke(new WarmUpAll(rootClasses));
+        } catch(final RuntimeException ex) {
+            // the warm-up is only an optimization; any real problem will be reported during introspection
+            LOG.warn("failed to warm up classes, continuing", ex);
+        } finally {
+            pool.shutdown();
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("warmed up " + visited.size() + " classes in " + (System.currentTimeMillis() - start) + "ms");
+        }
+    }
+
+    private class WarmUpAll extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Collection<Class<?>> classes;
+
+        WarmUpAll(final Collection<Class<?>> classes) {
+            this.classes = classes;
+        }
+
+        @Override
+        protected void compute() {
+            final List<WarmUpClass> tasks = Lists.newArrayList();
+            for (final Class<?> cls : classes) {
+                final Class<?> substitutedClass = classSubstitutor.getClass(cls);
+                if (substitutedClass == null || !isCandidate(substitutedClass) || !visited.add(substitutedClass)) {
+                    continue;
+                }
+                tasks.add(new WarmUpClass(substitutedClass));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private class WarmUpClass extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Class<?> cls;
+
+        WarmUpClass(final Class<?> cls) {
+            this.cls = cls;
+        }
+
+        @Override
+        protected void compute() {
+            final List<Class<?>> referencedClasses = Lists.newArrayList();
+            cls.getAnnotations();
+            for (final Method method : cls.getMethods()) {
+                method.getAnnotations();
+                method.getParameterAnnotations();
+                referencedClasses.add(method.getReturnType());
+                for (final Class<?> parameterType : method.getParameterTypes()) {
+                    referencedClasses.add(parameterType);
+                }
+            }
+            if (cls.getSuperclass() != null) {
+                referencedClasses.add(cls.getSuperclass());
+            }
+            for (final Class<?> interfaceType : cls.getInterfaces()) {
+                referencedClasses.add(interfaceType);
+            }
+            new WarmUpAll(referencedClasses).compute();
+        }
+    }
+
+    /**
+     * Only domain classes; the JDK's own types are not worth the effort.
+     */
+    private static boolean isCandidate(final Class<?> cls) {
+        if (cls.isPrimitive() || cls.isArray()) {
+            return false;
+        }
+        final String className = cls.getName();
+        return !className.startsWith("java.") && !className.startsWith("javax.");
+    }
+}
@@ -48,6 +48,7 @@
 import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader;
 import org.apache.isis.core.metamodel.layoutmetadata.LayoutMetadataReader.ReaderException;
 import org.apache.isis.core.metamodel.layoutmetadata.json.LayoutMetadataReaderFromJson;
+import org.apache.isis.core.metamodel.methodutils.MethodInvokers;
 import org.apache.isis.core.metamodel.methodutils.MethodScope;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
@@ -72,12 +73,17 @@ private FacetedMethodsMethodRemover(final List<Method> methods) {
 
         @Override
         public void removeMethod(final MethodScope methodScope, final String methodName, final Class<?> returnType, final Class<?>[] parameterTypes) {
-            MethodUtil.removeMethod(methods, methodScope, methodName, returnType, parameterTypes);
+            final Method method = MethodUtil.removeMethod(methods, methodScope, methodName, returnType, parameterTypes);
+            MethodInvokers.bind(method);
         }
 
         @Override
         public List<Method> removeMethods(final MethodScope methodScope, final String prefix, final Class<?> returnType, final boolean canBeVoid, final int paramCount) {
-            return MethodUtil.removeMethods(methods, methodScope, prefix, returnType, canBeVoid, paramCount);
+            final List<Method> removedMethods = MethodUtil.removeMethods(methods, methodScope, prefix, returnType, canBeVoid, paramCount);
+            for (final Method method : removedMethods) {
+                MethodInvokers.bind(method);
+            }
+            return removedMethods;
         }
 
         @Override
@@ -85,6 +91,7 @@ public void removeMethod(final Method method) {
             if (method == null) {
                 return;
             }
+            MethodInvokers.bind(method);
             for (int i = 0; i < methods.size(); i++) {
                 if (methods.get(i) == null) {
                     continue;
@@ -103,6 +110,7 @@ public void removeMethods(final List<Method> methodsToRemove) {
                 }
                 for (final Method method : methodsToRemove) {
                     if (methods.get(i).equals(method)) {
+                        MethodInvokers.bind(method);
                         methods.set(i, null);
                         break;
                     }
@@ -21,7 +21,9 @@
 
 import java.util.*;
 import com.google.common.base.Function;
+import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -121,19 +123,75 @@ public List<ObjectSpecification> toList() {
 
     private final List<ObjectAssociation> associations = Lists.newArrayList();
     private final List<ObjectAction> objectActions = Lists.newArrayList();
-    // partitions and caches objectActions by type; updated in sortCacheAndUpdateActions()
-    private final Map<ActionType, List<ObjectAction>> objectActionsByType = createObjectActionsByType();
 
-    private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
-        final Map<ActionType, List<ObjectAction>> map = Maps.newHashMap();
-        for (final ActionType type : ActionType.values()) {
-            map.put(type, Lists.<ObjectAction>newArrayList());
+    /**
+     * Immutable snapshots of {@link #associations}, pre-filtered by {@link Contributed} and then by the
+     * {@link #PRECOMPUTED_ASSOCIATION_FILTERS commonly used filters}; replaced (never mutated) in
+     * {@link #sortAndUpdateAssociations(List)}, so can be read without locking.
+     */
+    private volatile Map<Contributed, Map<Filter<ObjectAssociation>, List<ObjectAssociation>>> associationsSnapshot =
+            snapshotAssociations(Collections.<ObjectAssociation>emptyList());
+
+    /**
+     * Immutable snapshots of {@link #objectActions}, pre-filtered by {@link Contributed} and then by
+     * {@link ActionType} (<tt>null</tt> being used as the key for {@link ActionType#ALL}); replaced (never mutated)
+     * in {@link #sortCacheAndUpdateActions(List)}, so can be read without locking.
+     */
+    private volatile Map<Contributed, Map<ActionType, List<ObjectAction>>> objectActionsSnapshot =
+            snapshotActions(Collections.<ObjectAction>emptyList());
+
+    private static final Filter<ObjectAssociation> ANY_ASSOCIATION = Filters.any();
+
+    private static final List<Filter<ObjectAssociation>> PRECOMPUTED_ASSOCIATION_FILTERS =
+            Collections.unmodifiableList(Arrays.asList(
+                    ANY_ASSOCIATION,
+                    ObjectAssociation.Filters.PROPERTIES,
+                    ObjectAssociation.Filters.COLLECTIONS));
+
+    private static Map<Contributed, Map<Filter<ObjectAssociation>, List<ObjectAssociation>>> snapshotAssociations(
+            final List<ObjectAssociation> associations) {
+        final Map<Contributed, Map<Filter<ObjectAssociation>, List<ObjectAssociation>>> snapshot = Maps.newEnumMap(Contributed.class);
+        for (final Contributed contributed : Contributed.values()) {
+            final List<ObjectAssociation> forContributed = ImmutableList.copyOf(
+                    Iterables.filter(associations, ContributeeMember.Predicates.<ObjectAssociation>regularElse(contributed)));
+            final Map<Filter<ObjectAssociation>, List<ObjectAssociation>> byFilter = Maps.newIdentityHashMap();
+            for (final Filter<ObjectAssociation> filter : PRECOMPUTED_ASSOCIATION_FILTERS) {
+                final List<ObjectAssociation> forFilter = filter == ANY_ASSOCIATION
+                        ? forContributed
+                        : ImmutableList.copyOf(Iterables.filter(forContributed, Filters.asPredicate(filter)));
+                byFilter.put(filter, forFilter);
+            }
+            snapshot.put(contributed, Collections.unmodifiableMap(byFilter));
         }
-        return map;
+        return Collections.unmodifiableMap(snapshot);
     }
 
-    private boolean contributeeAssociationsAdded;
-    private boolean contributeeActionsAdded;
+    /**
+     * @param objectActions - as provided to {@link #sortCacheAndUpdateActions(List)}; the actions of each
+     *                      {@link ActionType} are partitioned in this (rather than sorted) order.
+     */
+    private static Map<Contributed, Map<ActionType, List<ObjectAction>>> snapshotActions(
+            final List<ObjectAction> objectActions) {
+        final Map<Contributed, Map<ActionType, List<ObjectAction>>> snapshot = Maps.newEnumMap(Contributed.class);
+        for (final Contributed contributed : Contributed.values()) {
+            final Map<ActionType, List<ObjectAction>> byType = Maps.newHashMap();
+            final ImmutableList.Builder<ObjectAction> allTypes = ImmutableList.builder();
+            for (final ActionType type : ActionType.ALL) {
+                final List<ObjectAction> forType = ImmutableList.copyOf(
+                        Iterables.filter(
+                                Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)),
+                                ContributeeMember.Predicates.<ObjectAction>regularElse(contributed)));
+                byType.put(type, forType);
+                allTypes.addAll(forType);
+            }
+            byType.put(null, allTypes.build());
+            snapshot.put(contributed, Collections.unmodifiableMap(byType));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    private volatile boolean contributeeAssociationsAdded;
+    private volatile boolean contributeeActionsAdded;
 
 
     private final List<ObjectSpecification> interfaces = Lists.newArrayList();
@@ -159,7 +217,7 @@ private static Map<ActionType, List<ObjectAction>> createObjectActionsByType() {
     private IconFacet iconFacet;
     private CssClassFacet cssClassFacet;
 
-    private IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
+    private volatile IntrospectionState introspected = IntrospectionState.NOT_INTROSPECTED;
 
     // //////////////////////////////////////////////////////////////////////
     // Constructor
@@ -333,6 +391,7 @@ protected void sortAndUpdateAssociations(final List<ObjectAssociation> associati
         synchronized (this.associations) {
             this.associations.clear();
             this.associations.addAll(orderedAssociations);
+            this.associationsSnapshot = snapshotAssociations(orderedAssociations);
         }
     }
 
@@ -341,12 +400,7 @@ protected void sortCacheAndUpdateActions(final List<ObjectAction> objectActions)
         synchronized (this.objectActions){
             this.objectActions.clear();
             this.objectActions.addAll(orderedActions);
-
-            for (final ActionType type : ActionType.values()) {
-                final List<ObjectAction> objectActionForType = objectActionsByType.get(type);
-                objectActionForType.clear();
-                objectActionForType.addAll(Collections2.filter(objectActions, ObjectAction.Predicates.ofType(type)));
-            }
+            this.objectActionsSnapshot = snapshotActions(objectActions);
         }
     }
 
@@ -659,21 +713,28 @@ public final boolean isAbstract() {
     // Associations
     // //////////////////////////////////////////////////////////////////////
 
+    /**
+     * The returned list is immutable.
+     */
     @Override
     public List<ObjectAssociation> getAssociations(final Contributed contributed) {
+        return getAssociationsSnapshot(contributed).get(ANY_ASSOCIATION);
+    }
+
+    private Map<Filter<ObjectAssociation>, List<ObjectAssociation>> getAssociationsSnapshot(final Contributed contributed) {
         // the "contributed.isIncluded()" guard is required because we cannot do this too early;
         // there must be a session available
         if(contributed.isIncluded() && !contributeeAssociationsAdded) {
             synchronized (this.associations) {
-                List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-                associations.addAll(createContributeeAssociations());
-                sortAndUpdateAssociations(associations);
-                contributeeAssociationsAdded = true;
+                if(!contributeeAssociationsAdded) {
+                    List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
+                    associations.addAll(createContributeeAssociations());
+                    sortAndUpdateAssociations(associations);
+                    contributeeAssociationsAdded = true;
+                }
             }
         }
-        final List<ObjectAssociation> associations = Lists.newArrayList(this.associations);
-        return Lists.newArrayList(Iterables.filter(
-                associations, ContributeeMember.Predicates.regularElse(contributed)));
+        return associationsSnapshot.get(contributed);
     }
 
 
@@ -742,11 +803,19 @@ public List<ObjectAssociation> getAssociations(Filter<ObjectAssociation> filter)
         return getAssociations(Contributed.INCLUDED, filter);
     }
 
+    /**
+     * For the {@link #PRECOMPUTED_ASSOCIATION_FILTERS commonly used filters} the returned list is an immutable
+     * snapshot; otherwise a new (mutable) list is returned.
+     */
     @Override
     public List<ObjectAssociation> getAssociations(Contributed contributed, final Filter<ObjectAssociation> filter) {
-        final List<ObjectAssociation> allAssociations = getAssociations(contributed);
+        final Map<Filter<ObjectAssociation>, List<ObjectAssociation>> snapshot = getAssociationsSnapshot(contributed);
+        final List<ObjectAssociation> precomputed = snapshot.get(filter);
+        if(precomputed != null) {
+            return precomputed;
+        }
         return Lists.newArrayList(
-                Iterables.filter(allAssociations, Filters.asPredicate(filter)));
+                Iterables.filter(snapshot.get(ANY_ASSOCIATION), Filters.asPredicate(filter)));
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -767,6 +836,10 @@ public List<OneToManyAssociation> getCollections(Contributed contributed) {
     // getObjectActions
     // //////////////////////////////////////////////////////////////////////
 
+    /**
+     * If the filter is {@link Filters#any()} and either a single {@link ActionType} or {@link ActionType#ALL} is
+     * requested, then the returned list is an immutable snapshot; otherwise a new (mutable) list is returned.
+     */
     @Override
     public List<ObjectAction> getObjectActions(
             final List<ActionType> types,
@@ -779,23 +852,31 @@ public List<ObjectAction> getObjectActions(
         // there must be a session available
         if(contributed.isIncluded() && !contributeeActionsAdded) {
             synchronized (this.objectActions) {
-                final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
-                actions.addAll(createContributeeActions());
-                sortCacheAndUpdateActions(actions);
-                contributeeActionsAdded = true;
+                if(!contributeeActionsAdded) {
+                    final List<ObjectAction> actions = Lists.newArrayList(this.objectActions);
+                    actions.addAll(createContributeeActions());
+                    sortCacheAndUpdateActions(actions);
+                    contributeeActionsAdded = true;
+                }
+            }
+        }
+
+        final Map<ActionType, List<ObjectAction>> actionsByType = objectActionsSnapshot.get(contributed);
+        if(filter == Filters.<ObjectAction>any()) {
+            if(types.size() == 1) {
+                return actionsByType.get(types.get(0));
+            }
+            if(types.equals(ActionType.ALL)) {
+                return actionsByType.get(null);
             }
         }
 
         final List<ObjectAction> actions = Lists.newArrayList();
+        final Predicate<ObjectAction> predicate = Filters.asPredicate(filter);
         for (final ActionType type : types) {
-            final Collection<ObjectAction> filterActions =
-                    Collections2.filter(objectActionsByType.get(type), Filters.asPredicate(filter));
-            actions.addAll(filterActions);
+            Iterables.addAll(actions, Iterables.filter(actionsByType.get(type), predicate));
         }
-        return Lists.newArrayList(
-                Iterables.filter(
-                        actions,
-                        ContributeeMember.Predicates.regularElse(contributed)));
+        return actions;
     }
 
     @Override
@@ -26,7 +26,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
@@ -42,9 +42,20 @@
 import org.apache.isis.core.runtime.authentication.AuthenticationRequest;
 import org.apache.isis.core.runtime.authentication.RegistrationDetails;
 
+/**
+ * Authentication requests are not serialized: they may be processed concurrently (for example, each request to the
+ * Restful Objects viewer using basic auth is authenticated separately), so any slow {@link Authenticator}s (eg
+ * binding to an LDAP server) do not hold up other users.
+ */
 public class AuthenticationManagerStandard implements AuthenticationManager, DebuggableWithTitle {
 
-    private final Map<String, String> userByValidationCode = Maps.newHashMap();
+    /**
+     * Placeholder held against a validation code while it is being used to authenticate, so that the same code
+     * cannot be handed out to a concurrent request.
+     */
+    private static final String CODE_RESERVED = "";
+
+    private final ConcurrentMap<String, String> userByValidationCode = Maps.newConcurrentMap();
 
     /**
      * Not final because may be set {@link #setAuthenticators(List)
@@ -109,7 +120,7 @@ public void shutdown() {
     // //////////////////////////////////////////////////////////
 
     @Override
-    public synchronized final AuthenticationSession authenticate(final AuthenticationRequest request) {
+    public final AuthenticationSession authenticate(final AuthenticationRequest request) {
         if (request == null) {
             return null;
         }
@@ -119,33 +130,51 @@ public synchronized final AuthenticationSession authenticate(final Authenticatio
             throw new NoAuthenticatorException("No authenticator available for processing " + request.getClass().getName());
         }
         for (final Authenticator authenticator : compatibleAuthenticators) {
-            final AuthenticationSession authSession = authenticator.authenticate(request, getUnusedRandomCode());
+            final String code = reserveUnusedRandomCode();
+            AuthenticationSession authSession = null;
+            try {
+                authSession = authenticator.authenticate(request, code);
+            } finally {
+                if (authSession == null || !code.equals(authSession.getValidationCode())) {
+                    userByValidationCode.remove(code, CODE_RESERVED);
+                }
+            }
             if (authSession != null) {
-                userByValidationCode.put(authSession.getValidationCode(), authSession.getUserName());
+                final String validationCode = authSession.getValidationCode();
+                if (validationCode != null) {
+                    userByValidationCode.put(validationCode, authSession.getUserName());
+                }
                 return authSession;
             }
         }
         return null;
     }
 
-    private String getUnusedRandomCode() {
+    private String reserveUnusedRandomCode() {
         String code;
         do {
             code = randomCodeGenerator.generateRandomCode();
-        } while (userByValidationCode.containsKey(code));
+        } while (userByValidationCode.putIfAbsent(code, CODE_RESERVED) != null);
 
         return code;
     }
 
     @Override
     public final boolean isSessionValid(final AuthenticationSession session) {
-        final String userName = userByValidationCode.get(session.getValidationCode());
-        return session.hasUserNameOf(userName);
+        final String validationCode = session.getValidationCode();
+        if (validationCode == null) {
+            return false;
+        }
+        final String userName = userByValidationCode.get(validationCode);
+        return userName != CODE_RESERVED && session.hasUserNameOf(userName);
     }
 
     @Override
     public void closeSession(final AuthenticationSession session) {
-        userByValidationCode.remove(session.getValidationCode());
+        final String validationCode = session.getValidationCode();
+        if (validationCode != null) {
+            userByValidationCode.remove(validationCode);
+        }
     }
 
     // //////////////////////////////////////////////////////////
@@ -256,6 +285,9 @@ public void debugData(final DebugBuilder debug) {
 
         debug.appendTitle("Users");
         for (final String userName : userByValidationCode.values()) {
+            if (userName == CODE_RESERVED) {
+                continue;
+            }
             debug.appendln(userName);
         }
     }
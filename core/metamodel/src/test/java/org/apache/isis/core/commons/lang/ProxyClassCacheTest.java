@@ -0,0 +1,83 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.commons.lang;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ProxyClassCacheTest {
+
+    static class Customer {}
+    static class Order {}
+    static class CustomerProxy extends Customer {}
+    static class OrderProxy extends Order {}
+
+    private AtomicInteger created;
+    private ProxyClassCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        created = new AtomicInteger();
+        cache = new ProxyClassCache(new ProxyClassCache.ProxyClassFactory() {
+            @Override
+            public Class<?> createProxyClass(final Class<?> cls) {
+                created.incrementAndGet();
+                return cls == Customer.class ? CustomerProxy.class : OrderProxy.class;
+            }
+        });
+    }
+
+    @Test
+    public void generatedOncePerClass() throws Exception {
+        assertThat(cache.proxyClassFor(Customer.class), is(equalTo((Class<Customer>) (Class<?>) CustomerProxy.class)));
+        assertThat(cache.proxyClassFor(Customer.class), is(equalTo((Class<Customer>) (Class<?>) CustomerProxy.class)));
+        assertThat(cache.proxyClassFor(Order.class), is(equalTo((Class<Order>) (Class<?>) OrderProxy.class)));
+
+        assertThat(created.get(), is(2));
+        assertThat(cache.size(), is(2L));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        cache.proxyClassFor(Customer.class);
+
+        cache.clear();
+        cache.proxyClassFor(Customer.class);
+
+        assertThat(created.get(), is(2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void exceptionsFromFactoryAreRethrownAsIs() throws Exception {
+        final ProxyClassCache failingCache = new ProxyClassCache(new ProxyClassCache.ProxyClassFactory() {
+            @Override
+            public Class<?> createProxyClass(final Class<?> cls) {
+                throw new IllegalStateException("cannot proxy " + cls);
+            }
+        });
+        failingCache.proxyClassFor(Customer.class);
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.isis.core.metamodel.facetapi;
 
+import java.util.List;
+
 import junit.framework.TestCase;
 
 import org.apache.isis.applib.filter.Filter;
@@ -156,4 +158,30 @@ public void testNone() {
         assertFalse(none.accept(fooFacet));
     }
 
+    public void testIsAReturnsSameInstance() {
+        assertSame(FacetFilters.isA(FooFacet.class), FacetFilters.isA(FooFacet.class));
+    }
+
+    public void testGetFacetsIsACached() {
+        facetHolder.addFacet(fooFacet);
+        final List<Facet> facets = facetHolder.getFacets(FacetFilters.isA(FooFacet.class));
+        assertEquals(1, facets.size());
+        assertSame(facets, facetHolder.getFacets(FacetFilters.isA(FooFacet.class)));
+    }
+
+    public void testGetFacetsIsAInvalidatedWhenFacetAdded() {
+        assertEquals(0, facetHolder.getFacets(FacetFilters.isA(BarFacet.class)).size());
+
+        facetHolder.addFacet(barFacet);
+        assertEquals(1, facetHolder.getFacets(FacetFilters.isA(BarFacet.class)).size());
+    }
+
+    public void testGetFacetsIsAInvalidatedWhenFacetRemoved() {
+        facetHolder.addFacet(fooFacet);
+        assertEquals(1, facetHolder.getFacets(FacetFilters.isA(FooFacet.class)).size());
+
+        facetHolder.removeFacet(fooFacet);
+        assertEquals(0, facetHolder.getFacets(FacetFilters.isA(FooFacet.class)).size());
+    }
+
 }
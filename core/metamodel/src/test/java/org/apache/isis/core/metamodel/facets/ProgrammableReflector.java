@@ -148,6 +148,10 @@ public void invalidateCacheFor(Object domainObject) {
     public void invalidateCache(Class<?> domainClass) {
     }
 
+    @Override
+    public void addInvalidationListener(InvalidationListener listener) {
+    }
+
     @Override
     public boolean isInitialized() {
         return false;
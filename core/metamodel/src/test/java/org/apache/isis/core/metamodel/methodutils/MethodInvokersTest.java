@@ -0,0 +1,200 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.methodutils;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodInvokersTest {
+
+    public static class Customer {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public long add(final long x, final long y) {
+            return x + y;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+
+        public String join(final String separator, final String... parts) {
+            final StringBuilder buf = new StringBuilder();
+            for (final String part : parts) {
+                buf.append(buf.length() > 0 ? separator : "").append(part);
+            }
+            return buf.toString();
+        }
+
+        public void failChecked() throws Exception {
+            throw new Exception("failed");
+        }
+
+        public static String describe() {
+            return "customers";
+        }
+    }
+
+    private Customer customer;
+
+    @Before
+    public void setUp() throws Exception {
+        MethodInvokers.setStrategy(MethodInvokers.Strategy.METHOD_HANDLE);
+        customer = new Customer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        MethodInvokers.setStrategy(MethodInvokers.Strategy.METHOD_HANDLE);
+    }
+
+    @Test
+    public void boundOnce() throws Exception {
+        final Method getName = Customer.class.getMethod("getName");
+        final MethodInvoker invoker = MethodInvokers.invokerFor(getName);
+        assertThat(invoker, is(instanceOf(MethodInvokerMethodHandle.class)));
+        assertThat(MethodInvokers.invokerFor(getName), is(sameInstance(invoker)));
+    }
+
+    @Test
+    public void invalidateDiscardsOnlyThoseOfTheClass() throws Exception {
+        final Method getName = Customer.class.getMethod("getName");
+        final Method toString = Object.class.getMethod("toString");
+        final MethodInvoker getNameInvoker = MethodInvokers.invokerFor(getName);
+        final MethodInvoker toStringInvoker = MethodInvokers.invokerFor(toString);
+
+        MethodInvokers.invalidate(Customer.class);
+
+        assertThat(MethodInvokers.invokerFor(getName), is(not(sameInstance(getNameInvoker))));
+        assertThat(MethodInvokers.invokerFor(toString), is(sameInstance(toStringInvoker)));
+    }
+
+    @Test
+    public void clearDiscardsAll() throws Exception {
+        final Method getName = Customer.class.getMethod("getName");
+        final MethodInvoker invoker = MethodInvokers.invokerFor(getName);
+
+        MethodInvokers.clear();
+
+        assertThat(MethodInvokers.invokerFor(getName), is(not(sameInstance(invoker))));
+    }
+
+    @Test
+    public void invokeGetterAndSetter() throws Exception {
+        MethodInvokers.invokerFor(Customer.class.getMethod("setName", String.class)).invoke(customer, new Object[]{"Fred"});
+        final Object name = MethodInvokers.invokerFor(Customer.class.getMethod("getName")).invoke(customer, null);
+        assertThat(name, is((Object) "Fred"));
+    }
+
+    @Test
+    public void invokeVoidReturnsNull() throws Exception {
+        final Object result = MethodInvokers.invokerFor(Customer.class.getMethod("setName", String.class)).invoke(customer, new Object[]{"Fred"});
+        assertThat(result, is(nullValue()));
+    }
+
+    @Test
+    public void invokeStaticIgnoresTarget() throws Exception {
+        final Object result = MethodInvokers.invokerFor(Customer.class.getMethod("describe")).invoke(customer, new Object[0]);
+        assertThat(result, is((Object) "customers"));
+    }
+
+    @Test
+    public void invokeWithWideningFallsBackToReflection() throws Exception {
+        final Object result = MethodInvokers.invokerFor(Customer.class.getMethod("add", long.class, long.class)).invoke(customer, new Object[]{1, 2L});
+        assertThat(result, is((Object) 3L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invokeWithWrongTargetThrowsAsReflectionWould() throws Exception {
+        MethodInvokers.invokerFor(Customer.class.getMethod("getName")).invoke(new Object(), null);
+    }
+
+    @Test
+    public void exceptionsAreWrapped() throws Exception {
+        try {
+            MethodInvokers.invokerFor(Customer.class.getMethod("fail")).invoke(customer, null);
+            fail();
+        } catch(final InvocationTargetException ex) {
+            assertThat(ex.getTargetException(), is(instanceOf(IllegalStateException.class)));
+        }
+    }
+
+    @Test
+    public void invokeVarargs() throws Exception {
+        final Method join = Customer.class.getMethod("join", String.class, String[].class);
+        assertThat(MethodInvokers.invokerFor(join), is(instanceOf(MethodInvokerMethodHandle.class)));
+
+        final Object result = MethodInvokers.invokerFor(join).invoke(customer, new Object[]{",", new String[]{"a", "b"}});
+        assertThat(result, is(join.invoke(customer, ",", new String[]{"a", "b"})));
+        assertThat(result, is((Object) "a,b"));
+    }
+
+    @Test
+    public void checkedExceptionsAreWrapped() throws Exception {
+        try {
+            MethodInvokers.invokerFor(Customer.class.getMethod("failChecked")).invoke(customer, null);
+            fail();
+        } catch(final InvocationTargetException ex) {
+            assertThat(ex.getTargetException().getMessage(), is("failed"));
+        }
+    }
+
+    @Test
+    public void parseStrategy() throws Exception {
+        assertThat(MethodInvokers.Strategy.parse(null), is(MethodInvokers.Strategy.METHOD_HANDLE));
+        assertThat(MethodInvokers.Strategy.parse("method-handle"), is(MethodInvokers.Strategy.METHOD_HANDLE));
+        assertThat(MethodInvokers.Strategy.parse(" Reflection "), is(MethodInvokers.Strategy.REFLECTION));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseUnknownStrategy() throws Exception {
+        MethodInvokers.Strategy.parse("reflect-o-matic");
+    }
+
+    @Test
+    public void reflectionStrategy() throws Exception {
+        MethodInvokers.setStrategy(MethodInvokers.Strategy.parse("reflection"));
+        final MethodInvoker invoker = MethodInvokers.invokerFor(Customer.class.getMethod("getName"));
+        assertThat(invoker, is(instanceOf(MethodInvokerReflective.class)));
+        assertThat(invoker, is(not(instanceOf(MethodInvokerMethodHandle.class))));
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.metamodel.services.container;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.core.metamodel.adapter.DomainObjectServices;
+import org.apache.isis.core.metamodel.adapter.QuerySubmitter;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DomainObjectContainerDefaultTest_countInstances {
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private QuerySubmitter mockQuerySubmitter;
+    @Mock
+    private DomainObjectServices mockDomainObjectServices;
+
+    private DomainObjectContainerDefault container;
+
+    private final List<Query<?>> queries = Lists.newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        container = new DomainObjectContainerDefault();
+        container.setQuerySubmitter(mockQuerySubmitter);
+        container.setDomainObjectServices(mockDomainObjectServices);
+    }
+
+    @Test
+    public void flushesThenSubmitsUnrangedCountQuery() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockDomainObjectServices).flush();
+
+            oneOf(mockQuerySubmitter).countMatchingQuery(with(any(Query.class)));
+            will(new CustomAction("record query") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    queries.add((Query<?>) invocation.getParameter(0));
+                    return 42L;
+                }
+            });
+
+            never(mockQuerySubmitter).allMatchingQuery(with(any(Query.class)));
+        }});
+
+        final long count = container.countInstances(Customer.class);
+
+        assertThat(count, is(42L));
+        assertThat(queries.size(), is(1));
+        final Query<?> query = queries.get(0);
+        assertThat(query, is(instanceOf(QueryFindAllInstances.class)));
+        assertThat(query.getResultType(), is(equalTo((Object) Customer.class)));
+        assertThat(query.getStart(), is(0L));
+        assertThat(query.getCount(), is(0L));
+    }
+}
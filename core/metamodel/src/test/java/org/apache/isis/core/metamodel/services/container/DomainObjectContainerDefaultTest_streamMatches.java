@@ -0,0 +1,178 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.metamodel.services.container;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+import org.apache.isis.core.metamodel.adapter.DomainObjectServices;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.QuerySubmitter;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class DomainObjectContainerDefaultTest_streamMatches {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private QuerySubmitter mockQuerySubmitter;
+    @Mock
+    private DomainObjectServices mockDomainObjectServices;
+
+    private DomainObjectContainerDefault container;
+
+    private List<ObjectAdapter> extent;
+    private final List<Query<?>> queries = Lists.newArrayList();
+    private final List<Object> evicted = Lists.newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        extent = Lists.newArrayList();
+        for (final String name : Arrays.asList("a0", "b1", "a2", "a3", "b4")) {
+            final ObjectAdapter adapter = context.mock(ObjectAdapter.class, name);
+            context.checking(new Expectations() {{
+                allowing(adapter).getObject();
+                will(returnValue(name));
+            }});
+            extent.add(adapter);
+        }
+
+        context.checking(new Expectations() {{
+            allowing(mockDomainObjectServices).flush();
+
+            allowing(mockQuerySubmitter).allMatchingQuery(with(any(Query.class)));
+            will(new CustomAction("chunk of extent") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    final Query<?> query = (Query<?>) invocation.getParameter(0);
+                    queries.add(query);
+                    final int from = (int) Math.min(query.getStart(), extent.size());
+                    final int to = (int) Math.min(query.getStart() + query.getCount(), extent.size());
+                    return Lists.newArrayList(extent.subList(from, to));
+                }
+            });
+
+            allowing(mockQuerySubmitter).evict(with(any(List.class)));
+            will(new CustomAction("record evicted") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    for (final Object adapter : (List<?>) invocation.getParameter(0)) {
+                        evicted.add(((ObjectAdapter) adapter).getObject());
+                    }
+                    return null;
+                }
+            });
+        }});
+
+        container = new DomainObjectContainerDefault();
+        container.setQuerySubmitter(mockQuerySubmitter);
+        container.setDomainObjectServices(mockDomainObjectServices);
+        container.init(streamingWithChunkSize("3"));
+    }
+
+    @Test
+    public void firstMatch_stopsAtFirstChunk_andEvictsTheRest() throws Exception {
+        final String match = container.firstMatch(String.class, startingWith("b"));
+
+        assertThat(match, is("b1"));
+        assertThat(queries.size(), is(1));
+        assertThat(evicted, is(equalTo((List<Object>) Lists.<Object>newArrayList("a0", "a2"))));
+    }
+
+    @Test
+    public void firstMatch_whenNoneMatch() throws Exception {
+        final String match = container.firstMatch(String.class, startingWith("z"));
+
+        assertThat(match, is(nullValue()));
+        assertThat(queries.size(), is(2));
+        assertThat(evicted.size(), is(5));
+    }
+
+    @Test
+    public void allMatches_acrossChunks_withRange() throws Exception {
+        final List<String> matches = container.allMatches(String.class, startingWith("a"), 1, 2);
+
+        assertThat(matches, is(equalTo(Arrays.asList("a2", "a3"))));
+        assertThat(queries.size(), is(2));
+        // a0 skipped, b1 rejected; b4 never looked at
+        assertThat(evicted, is(equalTo((List<Object>) Lists.<Object>newArrayList("a0", "b1", "b4"))));
+    }
+
+    @Test
+    public void allMatches_unbounded() throws Exception {
+        final List<String> matches = container.allMatches(String.class, startingWith("a"));
+
+        assertThat(matches, is(equalTo(Arrays.asList("a0", "a2", "a3"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void init_rejectsZeroChunkSize() throws Exception {
+        new DomainObjectContainerDefault().init(streamingWithChunkSize("0"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void init_rejectsNegativeChunkSize() throws Exception {
+        new DomainObjectContainerDefault().init(streamingWithChunkSize("-1"));
+    }
+
+    @Test
+    public void init_defaultsChunkSize() throws Exception {
+        final Map<String, String> properties = Maps.newHashMap();
+        properties.put(DomainObjectContainerDefault.KEY_STREAMING, "true");
+        new DomainObjectContainerDefault().init(properties);
+    }
+
+    private static Map<String, String> streamingWithChunkSize(final String chunkSize) {
+        final Map<String, String> properties = Maps.newHashMap();
+        properties.put(DomainObjectContainerDefault.KEY_STREAMING, "true");
+        properties.put(DomainObjectContainerDefault.KEY_STREAMING_CHUNK_SIZE, chunkSize);
+        return properties;
+    }
+
+    private static Predicate<String> startingWith(final String prefix) {
+        return new Predicate<String>() {
+            @Override
+            public boolean apply(final String input) {
+                return input.startsWith(prefix);
+            }
+        };
+    }
+}
@@ -22,6 +22,7 @@
 import org.junit.Assert;
 import org.junit.Test;
 
+import org.apache.isis.applib.filter.Filters;
 import org.apache.isis.core.metamodel.facetapi.Facet;
 import org.apache.isis.core.metamodel.facets.collections.modify.CollectionFacet;
 import org.apache.isis.core.metamodel.facets.all.describedas.DescribedAsFacet;
@@ -30,7 +31,11 @@
 import org.apache.isis.core.metamodel.facets.object.plural.PluralFacet;
 import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
 import org.apache.isis.core.metamodel.facets.actcoll.typeof.TypeOfFacet;
+import org.apache.isis.core.metamodel.spec.ActionType;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.metamodel.facets.object.objectvalidprops.ObjectValidPropertiesFacet;
 
 public class ObjectReflectorDefaultTest_object extends ObjectReflectorDefaultTestAbstract {
@@ -76,4 +81,26 @@ public void testNoTypeOfFacet() throws Exception {
         Assert.assertNull(facet);
     }
 
+    @Test
+    public void testAssociationsNotCopiedOnEachCall() throws Exception {
+        Assert.assertSame(
+                specification.getAssociations(Contributed.EXCLUDED),
+                specification.getAssociations(Contributed.EXCLUDED));
+        Assert.assertSame(
+                specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES),
+                specification.getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES));
+    }
+
+    @Test
+    public void testObjectActionsNotCopiedOnEachCall() throws Exception {
+        Assert.assertSame(
+                specification.getObjectActions(ActionType.USER, Contributed.EXCLUDED, Filters.<ObjectAction>any()),
+                specification.getObjectActions(ActionType.USER, Contributed.EXCLUDED, Filters.<ObjectAction>any()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAssociationsAreImmutable() throws Exception {
+        specification.getAssociations(Contributed.EXCLUDED).clear();
+    }
+
 }
@@ -248,6 +248,29 @@ public ObjectAdapter loadInstanceAndAdapt(final TypedOid oid) throws ObjectNotFo
         return adapter;
     }
 
+    @Override
+    public List<ObjectAdapter> loadInstancesAndAdapt(final List<? extends TypedOid> oids) {
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        for (final TypedOid oid : oids) {
+            ObjectAdapter adapter;
+            try {
+                adapter = loadInstanceAndAdapt(oid);
+            } catch (final ObjectNotFoundException ex) {
+                adapter = null;
+            }
+            adapters.add(adapter);
+        }
+        return adapters;
+    }
+
+    /**
+     * The instances are the store itself, so are never evicted.
+     */
+    @Override
+    public boolean evict(final ObjectAdapter adapter) {
+        return false;
+    }
+
     @Override
     public void resolveImmediately(final ObjectAdapter adapter) throws ObjectPersistenceException {
 
@@ -266,6 +289,16 @@ public void resolveImmediately(final ObjectAdapter adapter) throws ObjectPersist
         adapter.markAsResolvedIfPossible();
     }
 
+    /**
+     * The instances are held in memory, so there is nothing to be gained by resolving them together.
+     */
+    @Override
+    public void resolveImmediately(final List<ObjectAdapter> adapters) throws ObjectPersistenceException {
+        for (final ObjectAdapter adapter : adapters) {
+            resolveImmediately(adapter);
+        }
+    }
+
 
     // ///////////////////////////////////////////////////////
     // getInstances, hasInstances
@@ -302,6 +335,12 @@ public boolean hasInstances(final ObjectSpecification spec) {
         return false;
     }
 
+    @Override
+    public long countInstances(final PersistenceQuery persistenceQuery) {
+        // the in-memory store has nothing to gain from counting separately
+        return loadInstancesAndAdapt(persistenceQuery).size();
+    }
+
     private void findInstances(final ObjectSpecification spec, final PersistenceQueryBuiltIn persistenceQuery, final List<ObjectAdapter> foundInstances) {
 
         instancesFor(spec.getSpecId()).findInstancesAndAdd(persistenceQuery, foundInstances);
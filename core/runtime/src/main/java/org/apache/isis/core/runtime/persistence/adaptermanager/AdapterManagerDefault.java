@@ -20,6 +20,10 @@
 package org.apache.isis.core.runtime.persistence.adaptermanager;
 
 import java.util.Iterator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
@@ -87,6 +91,11 @@ public class AdapterManagerDefault implements AdapterManager, Iterable<ObjectAda
 
     private final PojoRecreator pojoRecreator;
 
+    /**
+     * If set, then used to create (and map) the adapter of a service the first time it is looked up in this session.
+     */
+    private SharedServiceOids sharedServiceOids;
+
 
     // //////////////////////////////////////////////////////////////////
     // constructor
@@ -103,6 +112,18 @@ public AdapterManagerDefault(PojoRecreator pojoRecreator) {
         this.pojoRecreator = pojoRecreator;
     }
 
+    /**
+     * Use the (application-scoped) oids of the services to create the adapters for them lazily, rather than
+     * creating and mapping adapters for all of them up-front.
+     *
+     * <p>
+     * The adapters so created belong to this session (they hold its localization and authentication session), so
+     * are discarded along with all the other adapters when the session closes.
+     */
+    public void useSharedServiceOids(final SharedServiceOids sharedServiceOids) {
+        this.sharedServiceOids = sharedServiceOids;
+    }
+
     // //////////////////////////////////////////////////////////////////
     // open, close
     // //////////////////////////////////////////////////////////////////
@@ -149,7 +170,12 @@ public Iterator<ObjectAdapter> iterator() {
     public ObjectAdapter getAdapterFor(final Object pojo) {
         ensureThatArg(pojo, is(notNullValue()));
 
-        return pojoAdapterMap.getAdapter(pojo);
+        final ObjectAdapter adapter = pojoAdapterMap.getAdapter(pojo);
+        if(adapter != null || sharedServiceOids == null) {
+            return adapter;
+        }
+        final RootOid serviceOid = sharedServiceOids.getOidForPojo(pojo);
+        return serviceOid != null ? mapServiceAdapter(serviceOid, pojo) : null;
     }
 
     @Override
@@ -157,7 +183,27 @@ public ObjectAdapter getAdapterFor(final Oid oid) {
         ensureThatArg(oid, is(notNullValue()));
         ensureMapsConsistent(oid);
 
-        return oidAdapterMap.getAdapter(oid);
+        final ObjectAdapter adapter = oidAdapterMap.getAdapter(oid);
+        if(adapter != null || sharedServiceOids == null) {
+            return adapter;
+        }
+        final Object servicePojo = sharedServiceOids.getPojoForOid(oid);
+        return servicePojo != null ? mapServiceAdapter((RootOid) oid, servicePojo) : null;
+    }
+
+    /**
+     * Creates and maps this session's adapter for a service whose oid is {@link SharedServiceOids shared}.
+     *
+     * <p>
+     * Services are injected into each other once, when first registered, so (unlike {@link #mapRecreatedPojo(Oid, Object)})
+     * are not injected again here.
+     */
+    private ObjectAdapter mapServiceAdapter(final RootOid serviceOid, final Object servicePojo) {
+        final ObjectAdapter serviceAdapter = createRootAdapterAndInferResolveState(servicePojo, serviceOid);
+        serviceAdapter.markAsResolvedIfPossible();
+        pojoAdapterMap.add(servicePojo, serviceAdapter);
+        oidAdapterMap.add(serviceOid, serviceAdapter);
+        return serviceAdapter;
     }
 
     
@@ -465,6 +511,35 @@ public void removeAdapter(final ObjectAdapter adapter) {
         unmap(adapter);
     }
 
+    /**
+     * Removes the adapters of all persistent objects (other than services), along with the adapters of their
+     * collections and aggregated objects.
+     *
+     * <p>
+     * Intended to be called once a transaction has committed, so that a long-running session (eg a batch job)
+     * does not accumulate adapters for every object it has ever touched.  Only safe if the object store is able
+     * to {@link PojoRecreator#lazilyLoaded(Object) recreate} the adapter of any such pojo that is subsequently
+     * used; otherwise that pojo would be treated as transient.
+     *
+     * @return the number of adapters removed.
+     */
+    public int removePersistentAdapters() {
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+        for (final Oid oid : oidAdapterMap) {
+            final ObjectAdapter adapter = oidAdapterMap.getAdapter(oid);
+            if (oid.isPersistent() && !adapter.getSpecification().isService()) {
+                adapters.add(adapter);
+            }
+        }
+        for (final ObjectAdapter adapter : adapters) {
+            unmap(adapter);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("removed " + adapters.size() + " persistent adapters");
+        }
+        return adapters.size();
+    }
+
     // //////////////////////////////////////////////////////////////////
     // Persist API
     // //////////////////////////////////////////////////////////////////
@@ -19,11 +19,10 @@
 
 package org.apache.isis.core.runtime.persistence.adaptermanager;
 
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 
-import com.google.common.collect.Maps;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,26 +34,15 @@
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.runtime.services.RequestScopedService;
 
+/**
+ * A map of the pojos and their adapters, keyed by the pojos' identity.
+ *
+ * <p>
+ * Backed by an {@link IdentityHashMap}, which uses open addressing (rather than chained entries) and compares
+ * keys by reference, so no key wrapper or entry needs to be allocated on each lookup or insert.
+ */
 public class PojoAdapterHashMap implements DebuggableWithTitle, Iterable<ObjectAdapter>, SessionScopedComponent, Resettable {
 
-    private static class IdentityHashKey {
-        private final Object pojo;
-
-        public IdentityHashKey(final Object pojo) {
-            this.pojo = pojo;
-        }
-
-        @Override
-        public int hashCode() {
-            return System.identityHashCode(pojo);
-        }
-
-        @Override
-        public boolean equals(final Object obj) {
-            return obj == this || (obj instanceof IdentityHashKey && ((IdentityHashKey) obj).pojo == pojo);
-        }
-    }
-
     private static final Logger LOG = LoggerFactory.getLogger(PojoAdapterHashMap.class);
     public static final int DEFAULT_POJO_ADAPTER_MAP_SIZE = OidAdapterHashMap.DEFAULT_OID_ADAPTER_MAP_SIZE;
 
@@ -69,7 +57,7 @@ public PojoAdapterHashMap() {
     }
 
     public PojoAdapterHashMap(final int capacity) {
-        adapterByPojoMap = Maps.newHashMapWithExpectedSize(capacity);
+        adapterByPojoMap = new IdentityHashMap<Object, ObjectAdapter>(capacity);
     }
 
     @Override
@@ -114,10 +102,10 @@ public void reset() {
     // ///////////////////////////////////////////////////////////////////////////
 
     public void add(final Object pojo, final ObjectAdapter adapter) {
-        adapterByPojoMap.put(key(pojo), adapter);
+        adapterByPojoMap.put(pojo, adapter);
 
         if(LOG.isDebugEnabled()) {
-            LOG.debug("add adapter: #" + key(pojo) + " -> #" + Long.toHexString(adapter.hashCode()));
+            LOG.debug("add adapter: #" + Long.toHexString(System.identityHashCode(pojo)) + " -> #" + Long.toHexString(adapter.hashCode()));
 
             if (adapter.isResolved()) {
                 if (pojo instanceof RequestScopedService) {
@@ -134,7 +122,7 @@ public void remove(final ObjectAdapter object) {
         if(LOG.isDebugEnabled()) {
             LOG.debug("remove adapter: " + object);
         }
-        adapterByPojoMap.remove(key(object.getObject()));
+        adapterByPojoMap.remove(object.getObject());
     }
 
     // ///////////////////////////////////////////////////////////////////////////
@@ -142,11 +130,11 @@ public void remove(final ObjectAdapter object) {
     // ///////////////////////////////////////////////////////////////////////////
 
     public boolean containsPojo(final Object pojo) {
-        return adapterByPojoMap.containsKey(key(pojo));
+        return adapterByPojoMap.containsKey(pojo);
     }
 
     public ObjectAdapter getAdapter(final Object pojo) {
-        return adapterByPojoMap.get(key(pojo));
+        return adapterByPojoMap.get(pojo);
     }
 
     // ///////////////////////////////////////////////////////////////////////////
@@ -158,10 +146,6 @@ public Iterator<ObjectAdapter> iterator() {
         return adapterByPojoMap.values().iterator();
     }
 
-    private Object key(final Object pojo) {
-        return new IdentityHashKey(pojo);
-    }
-
     // ///////////////////////////////////////////////////////////////////////////
     // Debugging
     // ///////////////////////////////////////////////////////////////////////////
@@ -169,8 +153,9 @@ private Object key(final Object pojo) {
     @Override
     public void debugData(final DebugBuilder debug) {
         int count = 0;
-        for (final Object pojo : adapterByPojoMap.keySet()) {
-            final ObjectAdapter object = adapterByPojoMap.get(pojo);
+        for (final Map.Entry<Object, ObjectAdapter> entry : adapterByPojoMap.entrySet()) {
+            final Object pojo = entry.getKey();
+            final ObjectAdapter object = entry.getValue();
             debug.append(count++ + 1, 5);
             debug.append(" '");
             debug.append(pojo.toString(), 50);
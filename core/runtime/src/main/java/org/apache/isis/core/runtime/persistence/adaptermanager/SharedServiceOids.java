@@ -0,0 +1,89 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+
+/**
+ * The {@link RootOid oid}s of the registered domain services, determined once (by the first
+ * {@link org.apache.isis.core.runtime.system.persistence.PersistenceSession} to be opened) and thereafter shared,
+ * read-only, by all sessions.
+ *
+ * <p>
+ * Only the mapping between each service pojo and its oid is shared, not the {@link ObjectAdapter adapter}s
+ * themselves: an adapter holds the localization, authentication session and adapter manager of the session that
+ * created it.  Each session instead {@link AdapterManagerDefault#useSharedServiceOids(SharedServiceOids) creates}
+ * its own service adapters from these oids when they are first looked up, so that opening a session no longer
+ * looks up (and registers) the oid of, nor injects services into, every service.
+ */
+public final class SharedServiceOids {
+
+    private final Map<Object, RootOid> oidByPojo;
+    private final Map<Oid, Object> pojoByOid;
+    private final Map<ObjectSpecId, RootOid> oidBySpecId;
+
+    public SharedServiceOids(final Collection<ObjectAdapter> serviceAdapters) {
+        final Map<Object, RootOid> oidByPojo = new IdentityHashMap<Object, RootOid>(serviceAdapters.size());
+        final Map<Oid, Object> pojoByOid = Maps.newHashMap();
+        final Map<ObjectSpecId, RootOid> oidBySpecId = Maps.newHashMap();
+        for (final ObjectAdapter serviceAdapter : serviceAdapters) {
+            final RootOid rootOid = (RootOid) serviceAdapter.getOid();
+            final Object servicePojo = serviceAdapter.getObject();
+            oidByPojo.put(servicePojo, rootOid);
+            pojoByOid.put(rootOid, servicePojo);
+            oidBySpecId.put(rootOid.getObjectSpecId(), rootOid);
+        }
+        this.oidByPojo = Collections.unmodifiableMap(oidByPojo);
+        this.pojoByOid = Collections.unmodifiableMap(pojoByOid);
+        this.oidBySpecId = Collections.unmodifiableMap(oidBySpecId);
+    }
+
+    /**
+     * @return <tt>null</tt> if the pojo is not a service.
+     */
+    public RootOid getOidForPojo(final Object pojo) {
+        return oidByPojo.get(pojo);
+    }
+
+    /**
+     * @return <tt>null</tt> if the oid is not that of a service.
+     */
+    public Object getPojoForOid(final Oid oid) {
+        return pojoByOid.get(oid);
+    }
+
+    /**
+     * @return <tt>null</tt> if there is no service of this type.
+     */
+    public RootOid getOidFor(final ObjectSpecId objectSpecId) {
+        return oidBySpecId.get(objectSpecId);
+    }
+}
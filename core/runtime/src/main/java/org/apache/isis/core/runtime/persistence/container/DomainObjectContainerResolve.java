@@ -19,6 +19,10 @@
 
 package org.apache.isis.core.runtime.persistence.container;
 
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
@@ -62,6 +66,35 @@ public Object lookup(final Bookmark bookmark) {
         return adapter.getObject();
     }
 
+    /**
+     * As {@link #lookup(Bookmark)}, but {@link PersistenceSession#loadObjects(List) loading} all the objects
+     * together; returns <tt>null</tt> for any bookmark that is <tt>null</tt> or whose object cannot be found.
+     */
+    public List<Object> lookup(final List<Bookmark> bookmarks) {
+        final List<RootOid> oids = Lists.newArrayList();
+        for (final Bookmark bookmark : bookmarks) {
+            if(bookmark != null) {
+                oids.add(RootOidDefault.create(bookmark));
+            }
+        }
+        final List<ObjectAdapter> adapters = getPersistenceSession().loadObjects(oids);
+
+        final List<Object> objects = Lists.newArrayListWithCapacity(bookmarks.size());
+        int i = 0;
+        for (final Bookmark bookmark : bookmarks) {
+            final ObjectAdapter adapter = bookmark != null ? adapters.get(i++) : null;
+            if(adapter == null) {
+                objects.add(null);
+                continue;
+            }
+            if (adapter.canTransitionToResolving()) {
+                getPersistenceSession().resolveImmediately(adapter);
+            }
+            objects.add(adapter.getObject());
+        }
+        return objects;
+    }
+
     public Bookmark bookmarkFor(Object domainObject) {
         final ObjectAdapter adapter = adapterFor(domainObject);
         final Oid oid = adapter.getOid();
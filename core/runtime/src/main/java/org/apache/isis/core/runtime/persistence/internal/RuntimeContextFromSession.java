@@ -211,6 +211,11 @@ public Object lookup(Bookmark bookmark) {
                 return new DomainObjectContainerResolve().lookup(bookmark);
             }
 
+            @Override
+            public List<Object> lookup(List<Bookmark> bookmarks) {
+                return new DomainObjectContainerResolve().lookup(bookmarks);
+            }
+
 
             @Override
             public Bookmark bookmarkFor(Object domainObject) {
@@ -289,6 +294,16 @@ public <T> ObjectAdapter firstMatchingQuery(final Query<T> query) {
                 final List<ObjectAdapter> list = CollectionFacetUtils.convertToAdapterList(instances);
                 return list.size() > 0 ? list.get(0) : null;
             }
+
+            @Override
+            public <T> long countMatchingQuery(final Query<T> query) {
+                return getPersistenceSession().countInstances(query);
+            }
+
+            @Override
+            public void evict(final List<ObjectAdapter> adapters) {
+                getPersistenceSession().evict(adapters);
+            }
         };
         this.localizationProvider = new LocalizationProviderAbstract() {
 
@@ -77,4 +77,28 @@ public interface RequestScopedService {
     @Programmatic
     public void __isis_endRequest();
 
+    /**
+     * The underlying instance bound to the current thread, if any, so that it can be
+     * {@link #__isis_bindRequestScopedInstance(Object) bound} to some other thread that continues the same request.
+     *
+     * @see RequestScopedServiceBindings
+     */
+    @Programmatic
+    public Object __isis_getRequestScopedInstance();
+
+    /**
+     * Binds the underlying instance (as obtained from {@link #__isis_getRequestScopedInstance()}, possibly on some
+     * other thread) to the current thread, replacing any already bound; <tt>null</tt> unbinds.
+     *
+     * <p>
+     *     Unlike {@link #__isis_startRequest(org.apache.isis.core.metamodel.runtimecontext.ServicesInjector)}, does not
+     *     instantiate or inject into the service, nor is any <code>@PostConstruct</code> or <code>@PreDestroy</code>
+     *     called.
+     * </p>
+     *
+     * @see RequestScopedServiceBindings
+     */
+    @Programmatic
+    public void __isis_bindRequestScopedInstance(Object service);
+
 }
@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.services;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.isis.applib.annotation.Bulk;
+
+/**
+ * The underlying instances of the {@link RequestScopedService request-scoped} services (and the
+ * {@link Bulk.InteractionContext#current current} bulk interaction context) bound to a thread, captured so that
+ * they can be bound to some other thread that continues the same request, eg a task handed to an executor.
+ *
+ * <p>
+ * As with the session itself, this is a hand-off: the underlying services are not thread-safe, so the request must
+ * only ever be continued by one thread at a time.
+ */
+public final class RequestScopedServiceBindings {
+
+    /**
+     * Captures the instances bound to the current thread.
+     */
+    public static RequestScopedServiceBindings capture(final List<Object> registeredServices) {
+        final Map<RequestScopedService, Object> instanceByService = new IdentityHashMap<RequestScopedService, Object>();
+        for (final Object service : registeredServices) {
+            if(service instanceof RequestScopedService) {
+                final RequestScopedService requestScopedService = (RequestScopedService) service;
+                instanceByService.put(requestScopedService, requestScopedService.__isis_getRequestScopedInstance());
+            }
+        }
+        return new RequestScopedServiceBindings(instanceByService, Bulk.InteractionContext.current.get());
+    }
+
+    // identity map, because the proxies delegate equals() and hashCode() to the bound instance
+    private final Map<RequestScopedService, Object> instanceByService;
+    private final Bulk.InteractionContext bulkInteractionContext;
+
+    private RequestScopedServiceBindings(
+            final Map<RequestScopedService, Object> instanceByService,
+            final Bulk.InteractionContext bulkInteractionContext) {
+        this.instanceByService = instanceByService;
+        this.bulkInteractionContext = bulkInteractionContext;
+    }
+
+    /**
+     * Binds the captured instances to the current thread.
+     *
+     * @return the bindings replaced, to {@link #bind() bind} back again once done.
+     */
+    public RequestScopedServiceBindings bind() {
+        final Map<RequestScopedService, Object> previousInstanceByService = new IdentityHashMap<RequestScopedService, Object>();
+        for (final Map.Entry<RequestScopedService, Object> entry : instanceByService.entrySet()) {
+            final RequestScopedService requestScopedService = entry.getKey();
+            previousInstanceByService.put(requestScopedService, requestScopedService.__isis_getRequestScopedInstance());
+            requestScopedService.__isis_bindRequestScopedInstance(entry.getValue());
+        }
+        final Bulk.InteractionContext previousBulkInteractionContext = Bulk.InteractionContext.current.get();
+        Bulk.InteractionContext.current.set(bulkInteractionContext);
+        return new RequestScopedServiceBindings(previousInstanceByService, previousBulkInteractionContext);
+    }
+}
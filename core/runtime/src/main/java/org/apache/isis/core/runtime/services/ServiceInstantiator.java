@@ -201,6 +201,17 @@ public Object invoke(final Object proxied, final Method proxyMethod, final Metho
                         serviceByThread.set(null);
                         return null;
 
+                    } else if(proxyMethod.getName().equals("__isis_getRequestScopedInstance")) {
+
+                        return serviceByThread.get();
+
+                    } else if(proxyMethod.getName().equals("__isis_bindRequestScopedInstance")) {
+
+                        @SuppressWarnings("unchecked")
+                        final T service = (T) args[0];
+                        serviceByThread.set(service);
+                        return null;
+
                     } else if(proxyMethod.getName().equals("hashCode") && proxyMethod.getParameterTypes().length == 0) {
 
                         final T service = serviceByThread.get();
@@ -16,9 +16,23 @@
  */
 package org.apache.isis.core.runtime.services.background;
 
+
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.clock.Clock;
 import org.apache.isis.applib.services.background.ActionInvocationMemento;
 import org.apache.isis.applib.services.bookmark.Bookmark;
@@ -26,6 +40,9 @@
 import org.apache.isis.applib.services.command.Command;
 import org.apache.isis.applib.services.command.Command.Executor;
 import org.apache.isis.applib.services.command.CommandContext;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.ConfigurationConstants;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.oid.RootOid;
 import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
@@ -35,6 +52,7 @@
 import org.apache.isis.core.metamodel.facets.actions.action.invocation.CommandUtil;
 import org.apache.isis.core.runtime.services.memento.MementoServiceDefault;
 import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 import org.apache.isis.core.runtime.system.transaction.TransactionalClosureAbstract;
@@ -45,15 +63,65 @@
  * <p>
  * This implementation uses the {@link #findBackgroundCommandsToExecute() hook method} so that it is
  * independent of the location where the actions have actually been persisted to.
+ * 
+ * <p>
+ * By default the commands are executed one by one, each in its own transaction.  If {@value #THREADS_KEY} is
+ * greater than 1, then instead commands are claimed in batches (of {@value #BATCH_SIZE_KEY}) and executed
+ * concurrently by a pool of worker threads, each with its own session.  Commands with the same
+ * {@link Command#getTarget() target} are always executed by the same worker, in the order returned by the
+ * hook method.  This requires that the {@link Command}s are persistent entities (so that each worker can
+ * look them up by {@link Bookmark}); any that are not are executed on the calling thread.
+ * 
+ * <p>
+ * Either way, the {@link #getMetrics() metrics} of the executed commands are recorded per action id.
  */
 public abstract class BackgroundCommandExecution extends AbstractIsisSessionTemplate {
 
+    private final static Logger LOG = LoggerFactory.getLogger(BackgroundCommandExecution.class);
+
+    private static final String ROOT_KEY = ConfigurationConstants.ROOT + "services.background.execution.";
+
+    public static final String THREADS_KEY = ROOT_KEY + "threads";
+    public static final int THREADS_DEFAULT = 1;
+
+    public static final String BATCH_SIZE_KEY = ROOT_KEY + "batchSize";
+    public static final int BATCH_SIZE_DEFAULT = 100;
+
+    private static final BackgroundCommandMetrics metrics = new BackgroundCommandMetrics();
+
+    /**
+     * Index of the actions of each spec, by action id; weakly keyed so that specs that are reloaded are released.
+     */
+    private static final LoadingCache<ObjectSpecification, Map<String, ObjectAction>> actionsById = 
+            CacheBuilder.newBuilder().weakKeys().build(new CacheLoader<ObjectSpecification, Map<String, ObjectAction>>() {
+                @Override
+                public Map<String, ObjectAction> load(final ObjectSpecification specification) {
+                    final ImmutableMap.Builder<String, ObjectAction> builder = ImmutableMap.builder();
+                    final Set<String> actionIds = Sets.newHashSet();
+                    for (final ObjectAction objectAction : specification.getObjectActions(Contributed.INCLUDED)) {
+                        final String actionId = objectAction.getIdentifier().toClassAndNameIdentityString();
+                        // as previously, the first matching action wins
+                        if(actionIds.add(actionId)) {
+                            builder.put(actionId, objectAction);
+                        }
+                    }
+                    return builder.build();
+                }
+            });
+
     private final MementoServiceDefault mementoService;
 
     public BackgroundCommandExecution() {
         // same as configured by BackgroundServiceDefault
         mementoService = new MementoServiceDefault().withNoEncoding();
     }
+
+    /**
+     * Throughput and latency of all background commands executed (in this JVM), per action id.
+     */
+    public static BackgroundCommandMetrics getMetrics() {
+        return metrics;
+    }
     
     // //////////////////////////////////////
 
@@ -62,6 +130,15 @@ protected void doExecute(Object context) {
 
         final PersistenceSession persistenceSession = getPersistenceSession();
         final IsisTransactionManager transactionManager = getTransactionManager(persistenceSession);
+
+        final IsisConfiguration configuration = IsisContext.getConfiguration();
+        final int threads = configuration.getInteger(THREADS_KEY, THREADS_DEFAULT);
+        if(threads > 1) {
+            final int batchSize = configuration.getInteger(BATCH_SIZE_KEY, BATCH_SIZE_DEFAULT);
+            executeConcurrently(transactionManager, IsisContext.getAuthenticationSession(), threads, batchSize);
+            return;
+        }
+
         final List<Command> commands = Lists.newArrayList();
         transactionManager.executeWithinTransaction(new TransactionalClosureAbstract() {
             @Override
@@ -82,12 +159,153 @@ public void execute() {
 
     // //////////////////////////////////////
 
+    void executeConcurrently(
+            final IsisTransactionManager transactionManager, 
+            final AuthenticationSession authenticationSession, 
+            final int threads, 
+            final int batchSize) {
+        final ExecutorService[] workers = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++) {
+            // single-threaded, so that commands for the same target are executed in order
+            workers[i] = Executors.newSingleThreadExecutor();
+        }
+        try {
+            // guards against re-claiming any command that could not be started
+            final Set<Object> claimedBefore = Sets.newHashSet();
+            while(true) {
+                final List<Command> notPersistent = Lists.newArrayList();
+                final List<List<Bookmark>> partitions = claim(transactionManager, threads, batchSize, claimedBefore, notPersistent);
+                
+                final List<Future<?>> futures = Lists.newArrayList();
+                int claimed = 0;
+                for (int i = 0; i < threads; i++) {
+                    final List<Bookmark> partition = partitions.get(i);
+                    if(partition.isEmpty()) {
+                        continue;
+                    }
+                    claimed += partition.size();
+                    futures.add(workers[i].submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            executePartition(authenticationSession, partition);
+                        }
+                    }));
+                }
+                for (final Command command : notPersistent) {
+                    execute(transactionManager, command);
+                }
+                awaitAll(futures);
+
+                if(claimed + notPersistent.size() == 0) {
+                    return;
+                }
+            }
+        } finally {
+            for (final ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Claims the next batch of commands, partitioned by their target.
+     */
+    private List<List<Bookmark>> claim(
+            final IsisTransactionManager transactionManager, 
+            final int threads, 
+            final int batchSize,
+            final Set<Object> claimedBefore, 
+            final List<Command> notPersistent) {
+        final List<List<Bookmark>> partitions = Lists.newArrayList();
+        for (int i = 0; i < threads; i++) {
+            partitions.add(Lists.<Bookmark>newArrayList());
+        }
+        transactionManager.executeWithinTransaction(new TransactionalClosureAbstract() {
+            @Override
+            public void execute() {
+                int claimed = 0;
+                for (final Command command : findBackgroundCommandsToExecute()) {
+                    if(claimed >= batchSize) {
+                        break;
+                    }
+                    final Bookmark commandBookmark = bookmarkService.bookmarkFor(command);
+                    if(!claimedBefore.add(commandBookmark != null ? commandBookmark : command)) {
+                        continue;
+                    }
+                    claimed++;
+                    if(commandBookmark == null) {
+                        notPersistent.add(command);
+                        continue;
+                    }
+                    final Bookmark target = command.getTarget();
+                    final int hash = target != null ? target.toString().hashCode() : 0;
+                    partitions.get((hash & Integer.MAX_VALUE) % threads).add(commandBookmark);
+                }
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Executes a partition of the claimed commands, on the worker's thread and in a session of its own.
+     */
+    void executePartition(final AuthenticationSession authenticationSession, final List<Bookmark> commandBookmarks) {
+        new Worker(commandBookmarks).execute(authenticationSession, null);
+    }
+
+    private static void awaitAll(final List<Future<?>> futures) {
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException ex) {
+                LOG.error("failed to execute background commands", ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Executes a partition of the claimed commands, one by one in its own session.
+     */
+    private class Worker extends AbstractIsisSessionTemplate {
+        private final List<Bookmark> commandBookmarks;
+
+        Worker(final List<Bookmark> commandBookmarks) {
+            this.commandBookmarks = commandBookmarks;
+        }
+
+        @Override
+        protected void doExecute(final Object context) {
+            final IsisTransactionManager transactionManager = getTransactionManager(getPersistenceSession());
+            for (final Bookmark commandBookmark : commandBookmarks) {
+                final Command[] commandHolder = new Command[1];
+                transactionManager.executeWithinTransaction(new TransactionalClosureAbstract() {
+                    @Override
+                    public void execute() {
+                        commandHolder[0] = (Command) bookmarkService.lookup(commandBookmark);
+                    }
+                });
+                if(commandHolder[0] == null || commandHolder[0].getStartedAt() != null) {
+                    // no longer exists, or has been executed elsewhere in the meantime
+                    continue;
+                }
+                BackgroundCommandExecution.this.execute(transactionManager, commandHolder[0]);
+            }
+        }
+    }
+
+    // //////////////////////////////////////
+
     
     private void execute(final IsisTransactionManager transactionManager, final Command command) {
         transactionManager.executeWithinTransaction(new TransactionalClosureAbstract() {
             @Override
             public void execute() {
                 commandContext.setCommand(command);
+                String actionId = null;
+                boolean failed = false;
                 try {
 
                     command.setStartedAt(Clock.getTimeAsJavaSqlTimestamp());
@@ -96,7 +314,7 @@ public void execute() {
                     final String memento = command.getMemento();
                     final ActionInvocationMemento aim = new ActionInvocationMemento(mementoService, memento);
 
-                    final String actionId = aim.getActionId();
+                    actionId = aim.getActionId();
 
                     final Bookmark targetBookmark = aim.getTarget();
                     final Object targetObject = bookmarkService.lookup(targetBookmark);
@@ -117,24 +335,28 @@ public void execute() {
                     }
 
                 } catch (Exception e) {
+                    failed = true;
                     command.setException(Throwables.getStackTraceAsString(e));
                 } finally {
                     command.setCompletedAt(Clock.getTimeAsJavaSqlTimestamp());
+                    recordMetrics(command, actionId, failed);
                 }
             }
         });
     }
 
-    private ObjectAction findAction(final ObjectSpecification specification, final String actionId) {
-        final List<ObjectAction> objectActions = specification.getObjectActions(Contributed.INCLUDED);
-        for (final ObjectAction objectAction : objectActions) {
-            if(objectAction.getIdentifier().toClassAndNameIdentityString().equals(actionId)) {
-                return objectAction;
-            }
+    private static void recordMetrics(final Command command, final String actionId, final boolean failed) {
+        if(actionId == null || command.getStartedAt() == null) {
+            return;
         }
-        return null;
+        final long startedAt = command.getStartedAt().getTime();
+        final long queuedMillis = command.getTimestamp() != null ? startedAt - command.getTimestamp().getTime() : 0;
+        metrics.record(actionId, queuedMillis, startedAt, command.getCompletedAt().getTime(), failed);
     }
 
+    private static ObjectAction findAction(final ObjectSpecification specification, final String actionId) {
+        return actionsById.getUnchecked(specification).get(actionId);
+    }
     private ObjectAdapter[] argAdaptersFor(final ActionInvocationMemento aim) throws ClassNotFoundException {
         final int numArgs = aim.getNumArgs();
         final List<ObjectAdapter> argumentAdapters = Lists.newArrayList();
@@ -164,7 +386,7 @@ private ObjectAdapter argAdapterFor(final ActionInvocationMemento aim, int num)
     // //////////////////////////////////////
 
     @javax.inject.Inject
-    private BookmarkService bookmarkService;
+    BookmarkService bookmarkService;
 
     @javax.inject.Inject
     private CommandContext commandContext;
@@ -0,0 +1,163 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.background;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Throughput and latency of the {@link BackgroundCommandExecution background command}s executed (in this JVM),
+ * per action id.
+ *
+ * <p>
+ * Obtained using {@link BackgroundCommandExecution#getMetrics()}.
+ */
+public class BackgroundCommandMetrics {
+
+    /**
+     * The metrics for a single action id.
+     */
+    public static class ActionMetrics {
+
+        private final String actionId;
+        private final AtomicLong executedCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private final AtomicLong totalExecutionMillis = new AtomicLong();
+        private final AtomicLong maxExecutionMillis = new AtomicLong();
+        private final AtomicLong totalQueuedMillis = new AtomicLong();
+        private final AtomicLong firstStartedAt = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastCompletedAt = new AtomicLong();
+
+        ActionMetrics(final String actionId) {
+            this.actionId = actionId;
+        }
+
+        void record(final long queuedMillis, final long startedAt, final long completedAt, final boolean failed) {
+            executedCount.incrementAndGet();
+            if (failed) {
+                failedCount.incrementAndGet();
+            }
+            final long executionMillis = completedAt - startedAt;
+            totalExecutionMillis.addAndGet(executionMillis);
+            totalQueuedMillis.addAndGet(Math.max(0, queuedMillis));
+            updateMax(maxExecutionMillis, executionMillis);
+            updateMin(firstStartedAt, startedAt);
+            updateMax(lastCompletedAt, completedAt);
+        }
+
+        private static void updateMax(final AtomicLong current, final long candidate) {
+            long value;
+            while ((value = current.get()) < candidate && !current.compareAndSet(value, candidate)) {
+                // retry
+            }
+        }
+
+        private static void updateMin(final AtomicLong current, final long candidate) {
+            long value;
+            while ((value = current.get()) > candidate && !current.compareAndSet(value, candidate)) {
+                // retry
+            }
+        }
+
+        public String getActionId() {
+            return actionId;
+        }
+
+        /**
+         * Including those that {@link #getFailedCount() failed}.
+         */
+        public long getExecutedCount() {
+            return executedCount.get();
+        }
+
+        public long getFailedCount() {
+            return failedCount.get();
+        }
+
+        public long getMaxExecutionMillis() {
+            return maxExecutionMillis.get();
+        }
+
+        public double getAverageExecutionMillis() {
+            final long count = getExecutedCount();
+            return count != 0 ? (double) totalExecutionMillis.get() / count : 0;
+        }
+
+        /**
+         * The average time between a command being created and it being started.
+         */
+        public double getAverageQueuedMillis() {
+            final long count = getExecutedCount();
+            return count != 0 ? (double) totalQueuedMillis.get() / count : 0;
+        }
+
+        /**
+         * Commands executed per second, between the first being started and the last being completed.
+         */
+        public double getThroughputPerSecond() {
+            final long firstStarted = firstStartedAt.get();
+            if (firstStarted == Long.MAX_VALUE) {
+                return 0;
+            }
+            final long elapsedMillis = lastCompletedAt.get() - firstStarted;
+            return elapsedMillis > 0 ? getExecutedCount() * 1000.0 / elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return actionId + ": executed=" + getExecutedCount() + ", failed=" + getFailedCount()
+                    + ", avgExecutionMillis=" + getAverageExecutionMillis() + ", maxExecutionMillis=" + getMaxExecutionMillis()
+                    + ", avgQueuedMillis=" + getAverageQueuedMillis() + ", throughputPerSecond=" + getThroughputPerSecond();
+        }
+    }
+
+    private final ConcurrentMap<String, ActionMetrics> metricsByActionId = Maps.newConcurrentMap();
+
+    void record(final String actionId, final long queuedMillis, final long startedAt, final long completedAt, final boolean failed) {
+        ActionMetrics metrics = metricsByActionId.get(actionId);
+        if (metrics == null) {
+            final ActionMetrics newMetrics = new ActionMetrics(actionId);
+            metrics = metricsByActionId.putIfAbsent(actionId, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        metrics.record(queuedMillis, startedAt, completedAt, failed);
+    }
+
+    /**
+     * Keyed by action id (as per {@link org.apache.isis.applib.services.background.ActionInvocationMemento#getActionId()}).
+     */
+    public Map<String, ActionMetrics> getMetricsByActionId() {
+        return Collections.unmodifiableMap(metricsByActionId);
+    }
+
+    public ActionMetrics getMetrics(final String actionId) {
+        return metricsByActionId.get(actionId);
+    }
+
+    public void clear() {
+        metricsByActionId.clear();
+    }
+}
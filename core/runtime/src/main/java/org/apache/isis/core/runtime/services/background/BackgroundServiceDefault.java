@@ -38,6 +38,7 @@
 import org.apache.isis.core.commons.ensure.Ensure;
 import org.apache.isis.core.commons.exceptions.IsisException;
 import org.apache.isis.core.commons.lang.ArrayExtensions;
+import org.apache.isis.core.commons.lang.ProxyClassCache;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -112,21 +113,32 @@ public <T> T execute(final T domainObject) {
     }
 
 
-    @SuppressWarnings("unchecked")
-    private <T> T newProxy(Class<? extends Object> cls, MethodHandler methodHandler) {
-        final ProxyFactory proxyFactory = new ProxyFactory();
-        proxyFactory.setSuperclass(cls);
-        proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
+    /**
+     * Shared by all instances; the proxy subclass of any given domain class need only be generated once, with the
+     * {@link MethodHandler} (specific to each domain object) being set on each proxy instance.
+     */
+    private static final ProxyClassCache proxyClassCache = new ProxyClassCache(new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> cls) {
+            final ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setSuperclass(cls);
+            proxyFactory.setInterfaces(ArrayExtensions.combine(cls.getInterfaces(), new Class<?>[] { JavassistEnhanced.class }));
+
+            proxyFactory.setFilter(new MethodFilter() {
+                @Override
+                public boolean isHandled(final Method m) {
+                    // ignore finalize()
+                    return !m.getName().equals("finalize");
+                }
+            });
 
-        proxyFactory.setFilter(new MethodFilter() {
-            @Override
-            public boolean isHandled(final Method m) {
-                // ignore finalize()
-                return !m.getName().equals("finalize");
-            }
-        });
+            return proxyFactory.createClass();
+        }
+    });
 
-        final Class<T> proxySubclass = proxyFactory.createClass();
+    @SuppressWarnings("unchecked")
+    private <T> T newProxy(Class<? extends Object> cls, MethodHandler methodHandler) {
+        final Class<T> proxySubclass = (Class<T>) proxyClassCache.proxyClassFor(cls);
         try {
             final T newInstance = proxySubclass.newInstance();
             final ProxyObject proxyObject = (ProxyObject) newInstance;
@@ -0,0 +1,314 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.services.eventbus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.services.eventbus.SubscribeAfterCommit;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.ConfigurationConstants;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.runtime.services.RequestScopedService;
+import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.internal.InitialisationSession;
+
+/**
+ * Delivers events to the {@link SubscribeAfterCommit} subscriber methods of the registered domain services.
+ *
+ * <p>
+ * Each subscriber has its own bounded queue, so receives events in order, while the subscribers between them share
+ * a fixed number of threads.  If a subscriber's queue is full then the posting thread waits (it has already
+ * committed), except if it is itself one of the delivery threads, in which case the event is delivered inline.
+ *
+ * <p>
+ * Created (if there are any such subscribers) by {@link EventBusServiceDefault}.
+ */
+class AfterCommitEventDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AfterCommitEventDispatcher.class);
+
+    private static final String ROOT_KEY = ConfigurationConstants.ROOT + "services.eventbus.afterCommit.";
+
+    public static final String THREADS_KEY = ROOT_KEY + "threads";
+    public static final int THREADS_DEFAULT = 2;
+
+    /**
+     * The capacity of each subscriber's queue.
+     */
+    public static final String QUEUE_CAPACITY_KEY = ROOT_KEY + "queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 1000;
+
+    /**
+     * How long to wait, on shutdown, for any events still queued to be delivered.
+     */
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = ROOT_KEY + "shutdownTimeoutMillis";
+    public static final int SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000;
+
+    /**
+     * The number of events a subscriber is delivered before giving up its thread to any other subscribers.
+     */
+    private static final int MAX_DELIVERIES_PER_TURN = 100;
+
+    private static final ThreadLocal<Boolean> onDeliveryThread = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return Boolean.FALSE;
+        }
+    };
+
+    private final List<SubscriberMethod> subscriberMethods;
+    private final int queueCapacity;
+    private final long shutdownTimeoutMillis;
+    private final ExecutorService executorService;
+
+    /**
+     * @return <tt>null</tt> if none of the subscribers have any {@link SubscribeAfterCommit} methods.
+     */
+    static AfterCommitEventDispatcher createIfRequired(final Collection<Object> subscribers, final IsisConfiguration configuration) {
+        final List<SubscriberMethod> subscriberMethods = Lists.newArrayList();
+        for (final Object subscriber : subscribers) {
+            subscriberMethods.addAll(subscriberMethodsOf(subscriber));
+        }
+        if(subscriberMethods.isEmpty()) {
+            return null;
+        }
+        return new AfterCommitEventDispatcher(subscriberMethods, configuration);
+    }
+
+    private AfterCommitEventDispatcher(final List<SubscriberMethod> subscriberMethods, final IsisConfiguration configuration) {
+        this.subscriberMethods = subscriberMethods;
+        this.queueCapacity = configuration.getInteger(QUEUE_CAPACITY_KEY, QUEUE_CAPACITY_DEFAULT);
+        this.shutdownTimeoutMillis = configuration.getInteger(SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT);
+        this.executorService = Executors.newFixedThreadPool(
+                configuration.getInteger(THREADS_KEY, THREADS_DEFAULT), new DeliveryThreadFactory());
+        for (final SubscriberMethod subscriberMethod : subscriberMethods) {
+            subscriberMethod.queue = new SubscriberQueue();
+        }
+    }
+
+    private static List<SubscriberMethod> subscriberMethodsOf(final Object subscriber) {
+        final List<SubscriberMethod> subscriberMethods = Lists.newArrayList();
+        final Set<String> signatures = Sets.newHashSet();
+        for (Class<?> cls = subscriber.getClass(); cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+            for (final Method method : cls.getDeclaredMethods()) {
+                if(method.getAnnotation(SubscribeAfterCommit.class) == null) {
+                    continue;
+                }
+                final Class<?>[] parameterTypes = method.getParameterTypes();
+                if(parameterTypes.length != 1) {
+                    throw new IllegalArgumentException(
+                            "Method " + method + " is annotated with @SubscribeAfterCommit, so must have exactly one parameter");
+                }
+                if(!signatures.add(method.getName() + parameterTypes[0].getName())) {
+                    // overridden in a subclass
+                    continue;
+                }
+                if(subscriber instanceof RequestScopedService) {
+                    LOG.warn("Request-scoped services cannot subscribe after commit; ignoring " + method);
+                    continue;
+                }
+                method.setAccessible(true);
+                subscriberMethods.add(new SubscriberMethod(subscriber, method, parameterTypes[0]));
+            }
+        }
+        return subscriberMethods;
+    }
+
+    // //////////////////////////////////////
+
+    boolean hasSubscribersFor(final Object event) {
+        for (final SubscriberMethod subscriberMethod : subscriberMethods) {
+            if(subscriberMethod.eventType.isInstance(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Queues the event for each of the subscribers interested in it.
+     *
+     * @param authenticationSession - the user to deliver the event as; if <tt>null</tt> then as the system.
+     */
+    void dispatch(final Object event, final AuthenticationSession authenticationSession) {
+        for (final SubscriberMethod subscriberMethod : subscriberMethods) {
+            if(subscriberMethod.eventType.isInstance(event)) {
+                subscriberMethod.queue.enqueue(new Delivery(subscriberMethod, event, authenticationSession));
+            }
+        }
+    }
+
+    void shutdown() {
+        executorService.shutdown();
+        try {
+            if(!executorService.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOG.warn("after-commit subscribers did not finish within " + shutdownTimeoutMillis + "ms; remaining events not delivered");
+                executorService.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            executorService.shutdownNow();
+        }
+    }
+
+    // //////////////////////////////////////
+
+    private static class SubscriberMethod {
+        private final Object subscriber;
+        private final Method method;
+        private final Class<?> eventType;
+        private SubscriberQueue queue;
+
+        SubscriberMethod(final Object subscriber, final Method method, final Class<?> eventType) {
+            this.subscriber = subscriber;
+            this.method = method;
+            this.eventType = eventType;
+        }
+
+        void invoke(final Object event) {
+            try {
+                method.invoke(subscriber, event);
+            } catch (final InvocationTargetException ex) {
+                final Throwable cause = ex.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+            } catch (final IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+    }
+
+    /**
+     * Runs its deliveries one at a time, in order, on the shared executor.
+     */
+    private class SubscriberQueue implements Runnable {
+        private final BlockingQueue<Delivery> deliveries = new ArrayBlockingQueue<Delivery>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void enqueue(final Delivery delivery) {
+            if(!deliveries.offer(delivery)) {
+                if(onDeliveryThread.get()) {
+                    // waiting could deadlock, eg if a subscriber posts an event to itself while its queue is full
+                    delivery.run();
+                    return;
+                }
+                try {
+                    deliveries.put(delivery);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    LOG.warn("interrupted while queueing event for " + delivery.subscriberMethod + "; not delivered");
+                    return;
+                }
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if(!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executorService.execute(this);
+            } catch(final RejectedExecutionException ex) {
+                scheduled.set(false);
+                LOG.warn("shutting down; " + deliveries.size() + " events not delivered");
+            }
+        }
+
+        @Override
+        public void run() {
+            onDeliveryThread.set(Boolean.TRUE);
+            try {
+                Delivery delivery;
+                int delivered = 0;
+                while (delivered++ < MAX_DELIVERIES_PER_TURN && (delivery = deliveries.poll()) != null) {
+                    delivery.run();
+                }
+            } finally {
+                scheduled.set(false);
+                onDeliveryThread.set(Boolean.FALSE);
+            }
+            if(!deliveries.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static class Delivery extends AbstractIsisSessionTemplate implements Runnable {
+        private final SubscriberMethod subscriberMethod;
+        private final Object event;
+        private final AuthenticationSession authenticationSession;
+
+        Delivery(final SubscriberMethod subscriberMethod, final Object event, final AuthenticationSession authenticationSession) {
+            this.subscriberMethod = subscriberMethod;
+            this.event = event;
+            this.authenticationSession = authenticationSession;
+        }
+
+        @Override
+        public void run() {
+            try {
+                execute(authenticationSession != null ? authenticationSession : new InitialisationSession(), null);
+            } catch (final RuntimeException ex) {
+                LOG.error("after-commit subscriber " + subscriberMethod + " failed to handle " + event, ex);
+            }
+        }
+
+        @Override
+        protected void doExecuteWithTransaction(final Object context) {
+            subscriberMethod.invoke(event);
+        }
+    }
+
+    private static class DeliveryThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "isis-eventbus-afterCommit-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
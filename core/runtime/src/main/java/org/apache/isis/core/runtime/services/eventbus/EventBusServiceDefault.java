@@ -24,10 +24,13 @@
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.services.eventbus.AbstractDomainEvent;
 import org.apache.isis.applib.services.eventbus.EventBusService;
+import org.apache.isis.applib.services.eventbus.SubscribeAfterCommit;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.exceptions.IsisApplicationException;
 import org.apache.isis.core.metamodel.facets.Annotations;
 import org.apache.isis.core.runtime.services.RequestScopedService;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
 
 /**
@@ -70,6 +73,71 @@ public void register(final Object domainService) {
         super.register(domainService);
     }
 
+    //region > post (after commit)
+
+    /**
+     * Created (if there are any {@link SubscribeAfterCommit} subscribers) along with the event bus.
+     */
+    private AfterCommitEventDispatcher afterCommitEventDispatcher;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     *     This service additionally queues the event for any {@link SubscribeAfterCommit} subscribers, to be
+     *     delivered asynchronously once the current transaction (if any) has committed.  For
+     *     {@link AbstractDomainEvent domain event}s, this is only done for the
+     *     {@link AbstractDomainEvent.Phase#EXECUTED executed} phase; all earlier phases (which may veto the
+     *     interaction) are only ever delivered synchronously.
+     * </p>
+     */
+    @Override
+    public void post(final Object event) {
+        super.post(event);
+        if(afterCommitEventDispatcher == null || skip(event)) {
+            return;
+        }
+        if(event instanceof AbstractDomainEvent && ((AbstractDomainEvent<?>) event).getEventPhase() != AbstractDomainEvent.Phase.EXECUTED) {
+            return;
+        }
+        if(!afterCommitEventDispatcher.hasSubscribersFor(event)) {
+            return;
+        }
+        final AfterCommitEventDispatcher dispatcher = afterCommitEventDispatcher;
+        final AuthenticationSession authenticationSession = IsisContext.inSession() ? IsisContext.getAuthenticationSession() : null;
+        if(!IsisContext.inTransaction()) {
+            dispatcher.dispatch(event, authenticationSession);
+            return;
+        }
+        final IsisTransaction transaction = getTransactionManager().getTransaction();
+        transaction.afterCommit(new Runnable() {
+            @Override
+            public void run() {
+                dispatcher.dispatch(event, authenticationSession);
+            }
+        });
+    }
+
+    @Override
+    protected void setupEventBus() {
+        if(eventBus != null) {
+            return;
+        }
+        afterCommitEventDispatcher = AfterCommitEventDispatcher.createIfRequired(getSubscribers(), IsisContext.getConfiguration());
+        super.setupEventBus();
+    }
+
+    @Override
+    protected void teardownEventBus() {
+        super.teardownEventBus();
+        if(afterCommitEventDispatcher != null) {
+            afterCommitEventDispatcher.shutdown();
+            afterCommitEventDispatcher = null;
+        }
+    }
+
+    //endregion
+
     @Override
     protected EventBus newEventBus() {
         return new EventBus(newEventBusSubscriberExceptionHandler());
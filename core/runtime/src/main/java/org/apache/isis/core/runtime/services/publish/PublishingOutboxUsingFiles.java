@@ -0,0 +1,242 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.publish;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.publish.PublishingOutboxEntry;
+
+/**
+ * Simple implementation of {@link PublishingOutbox} that holds each entry as a (java-serialized) file in a
+ * local directory, intended for testing and prototyping.
+ *
+ * <p>
+ * The entries survive a restart, but are written as soon as they are {@link #append(List) appended}, rather
+ * than atomically with the transaction; if the transaction subsequently aborts then its entries are still
+ * delivered.  The arguments and results of published actions must be {@link java.io.Serializable}.
+ *
+ * <p>
+ * {@link #quarantine(List) Quarantined} entries are moved into the {@value #QUARANTINE_DIRECTORY_NAME}
+ * subdirectory; to replay one, move it back.
+ *
+ * <p>
+ * Not registered automatically; the directory is specified using {@value #DIRECTORY_KEY}.
+ */
+public class PublishingOutboxUsingFiles implements PublishingOutbox {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingOutboxUsingFiles.class);
+
+    public static final String DIRECTORY_KEY = "isis.services.publish.outbox.directory";
+
+    public static final String QUARANTINE_DIRECTORY_NAME = "quarantine";
+
+    private static final String SUFFIX = ".entry";
+
+    private static final FilenameFilter ENTRIES = new FilenameFilter() {
+        @Override
+        public boolean accept(final File dir, final String name) {
+            return name.endsWith(SUFFIX);
+        }
+    };
+
+    private File directory;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, File> fileById = Maps.newConcurrentMap();
+
+    @PostConstruct
+    @Programmatic
+    public void init(final Map<String, String> properties) {
+        final String directoryName = properties.get(DIRECTORY_KEY);
+        useDirectory(directoryName != null
+                ? new File(directoryName)
+                : new File(System.getProperty("java.io.tmpdir"), "isis-publishing-outbox"));
+    }
+
+    @Programmatic
+    public void useDirectory(final File directory) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create publishing outbox directory " + directory);
+        }
+        this.directory = directory;
+        long lastSequence = 0;
+        // including any quarantined, so that their names are not reused
+        for (final File file : Iterables.concat(entryFiles(), entryFiles(new File(directory, QUARANTINE_DIRECTORY_NAME)))) {
+            lastSequence = Math.max(lastSequence, sequenceOf(file));
+        }
+        sequence.set(lastSequence);
+    }
+
+    @Programmatic
+    @Override
+    public void append(final List<PublishingOutboxEntry> entries) {
+        for (final PublishingOutboxEntry entry : entries) {
+            // zero-padded so that the files sort in the order appended
+            final File file = new File(directory, String.format("%019d", sequence.incrementAndGet()) + SUFFIX);
+            write(file, entry);
+            fileById.put(entry.getId(), file);
+        }
+    }
+
+    @Programmatic
+    @Override
+    public List<PublishingOutboxEntry> pending(final int maxEntries) {
+        final List<PublishingOutboxEntry> pending = Lists.newArrayList();
+        for (final File file : entryFiles()) {
+            if (pending.size() >= maxEntries) {
+                break;
+            }
+            final PublishingOutboxEntry entry = read(file);
+            if (entry == null) {
+                continue;
+            }
+            fileById.put(entry.getId(), file);
+            pending.add(entry);
+        }
+        return pending;
+    }
+
+    @Programmatic
+    @Override
+    public void acknowledge(final List<PublishingOutboxEntry> entries) {
+        for (final PublishingOutboxEntry entry : entries) {
+            final File file = fileById.remove(entry.getId());
+            if (file != null && !file.delete() && file.exists()) {
+                LOG.warn("could not delete " + file + "; entry " + entry.getId() + " will be delivered again");
+            }
+        }
+    }
+
+    @Programmatic
+    @Override
+    public void quarantine(final List<PublishingOutboxEntry> entries) {
+        final File quarantineDirectory = new File(directory, QUARANTINE_DIRECTORY_NAME);
+        if (!quarantineDirectory.isDirectory() && !quarantineDirectory.mkdirs()) {
+            throw new IllegalStateException("Could not create publishing outbox quarantine directory " + quarantineDirectory);
+        }
+        for (final PublishingOutboxEntry entry : entries) {
+            final File file = fileById.remove(entry.getId());
+            if (file != null && !file.renameTo(new File(quarantineDirectory, file.getName())) && file.exists()) {
+                LOG.warn("could not quarantine " + file + "; entry " + entry.getId() + " will be delivered again");
+            }
+        }
+    }
+
+    /**
+     * The entries that have been {@link #quarantine(List) quarantined}, in the order in which they were appended.
+     */
+    @Programmatic
+    public List<PublishingOutboxEntry> quarantined() {
+        final List<PublishingOutboxEntry> quarantined = Lists.newArrayList();
+        for (final File file : entryFiles(new File(directory, QUARANTINE_DIRECTORY_NAME))) {
+            final PublishingOutboxEntry entry = read(file);
+            if (entry != null) {
+                quarantined.add(entry);
+            }
+        }
+        return quarantined;
+    }
+
+    // //////////////////////////////////////
+
+    private List<File> entryFiles() {
+        return entryFiles(directory);
+    }
+
+    private static List<File> entryFiles(final File directory) {
+        final File[] files = directory.listFiles(ENTRIES);
+        if (files == null) {
+            return Lists.newArrayList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private static long sequenceOf(final File file) {
+        final String name = file.getName();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (final NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static void write(final File file, final PublishingOutboxEntry entry) {
+        // write to a temporary file first, so that a partially written entry is never read
+        final File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        ObjectOutputStream out = null;
+        try {
+            out = new ObjectOutputStream(new FileOutputStream(tmpFile));
+            out.writeObject(entry);
+        } catch (final IOException ex) {
+            throw new IllegalStateException("Could not write " + entry + " to the publishing outbox", ex);
+        } finally {
+            closeQuietly(out);
+        }
+        if (!tmpFile.renameTo(file)) {
+            throw new IllegalStateException("Could not write " + entry + " to the publishing outbox; failed to rename " + tmpFile);
+        }
+    }
+
+    private static PublishingOutboxEntry read(final File file) {
+        ObjectInputStream in = null;
+        try {
+            in = new ObjectInputStream(new FileInputStream(file));
+            return (PublishingOutboxEntry) in.readObject();
+        } catch (final IOException | ClassNotFoundException ex) {
+            LOG.error("could not read publishing outbox entry " + file + "; skipping", ex);
+            return null;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (final IOException ignore) {
+            // ignore
+        }
+    }
+}
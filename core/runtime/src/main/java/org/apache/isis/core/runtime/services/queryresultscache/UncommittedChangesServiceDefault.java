@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.queryresultscache;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.queryresultscache.UncommittedChangesService;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+
+/**
+ * Default implementation of {@link UncommittedChangesService}, reporting the types of the objects enlisted in
+ * the current {@link org.apache.isis.core.runtime.system.transaction.IsisTransaction}.
+ *
+ * <p>
+ * This implementation has no UI and there are no other implementations of the service API, and so it annotated
+ * with {@link org.apache.isis.applib.annotation.DomainService}.  Because this class is implemented in core, this means
+ * that it is automatically registered and available for use; no further configuration is required.
+ */
+@DomainService
+public class UncommittedChangesServiceDefault implements UncommittedChangesService {
+
+    @Programmatic
+    @Override
+    public Set<Class<?>> getUncommittedChangedTypes() {
+        if(!IsisContext.inTransaction()) {
+            return Collections.emptySet();
+        }
+        return IsisContext.getCurrentTransaction().getChangedTypes();
+    }
+}
@@ -37,6 +37,7 @@
 import org.apache.isis.core.metamodel.adapter.oid.OidMarshaller;
 import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
 import org.apache.isis.core.runtime.authentication.AuthenticationManager;
+import org.apache.isis.core.runtime.services.RequestScopedServiceBindings;
 import org.apache.isis.core.runtime.system.DeploymentType;
 import org.apache.isis.core.runtime.system.internal.InitialisationSession;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
@@ -231,6 +232,26 @@ protected void doClose() {
      */
     protected abstract void closeAllSessionsInstance();
 
+    // ///////////////////////////////////////////////////////////
+    // detach / attach
+    // ///////////////////////////////////////////////////////////
+
+    /**
+     * Unbinds the {@link IsisSession} from the current context, without closing it.
+     *
+     * @return the session, or <tt>null</tt> if there was none.
+     */
+    protected abstract IsisSession detachSessionInstance();
+
+    /**
+     * Binds an (open) {@link IsisSession}, previously {@link #detachSessionInstance() detach}ed, to the current
+     * context.
+     *
+     * @throws IllegalStateException
+     *             if some other session is already bound.
+     */
+    protected abstract void attachSessionInstance(IsisSession session);
+
     
 
     // ///////////////////////////////////////////////////////////
@@ -282,6 +303,105 @@ public static void closeSession() {
         getInstance().closeSessionInstance();
     }
 
+    /**
+     * Hands off the current {@link IsisSession} so that it can be
+     * {@link #attachSession(IsisSession) attach}ed to another thread, eg
+     * when a request is suspended and later resumed by some other thread
+     * (asynchronous request handling).
+     *
+     * <p>
+     * The session remains open; it is the caller's responsibility to attach
+     * it again (and eventually close it).  A session is not thread-safe, so
+     * must only ever be attached to one thread at a time.
+     *
+     * @see #detachSessionInstance()
+     */
+    public static IsisSession detachSession() {
+        return getInstance().detachSessionInstance();
+    }
+
+    /**
+     * Binds a previously {@link #detachSession() detach}ed {@link IsisSession}
+     * to the current thread.
+     *
+     * @see #attachSessionInstance(IsisSession)
+     */
+    public static void attachSession(final IsisSession session) {
+        getInstance().attachSessionInstance(session);
+    }
+
+    /**
+     * Wraps the runnable such that, when run (typically by an
+     * {@link java.util.concurrent.Executor}), the current {@link IsisSession}
+     * is attached to whichever thread runs it, for the duration of the call.
+     *
+     * <p>
+     * The instances of the request-scoped services (eg <tt>CommandContext</tt>,
+     * <tt>QueryResultsCache</tt>, <tt>Bulk.InteractionContext</tt>) currently
+     * bound to this thread are {@link RequestScopedServiceBindings bound} to
+     * that thread too, so the runnable continues the same request.
+     *
+     * <p>
+     * This hands the session off to the other thread, it does not share it: the
+     * caller must not use the session (or its request-scoped services) itself
+     * until the runnable has completed.
+     */
+    public static Runnable withCurrentSession(final Runnable runnable) {
+        final IsisSession session = getSession();
+        final RequestScopedServiceBindings requestScopedServices = captureRequestScopedServices(session);
+        return new Runnable() {
+            @Override
+            public void run() {
+                final IsisSession previous = switchSessionTo(session);
+                final RequestScopedServiceBindings previousRequestScopedServices = requestScopedServices.bind();
+                try {
+                    runnable.run();
+                } finally {
+                    previousRequestScopedServices.bind();
+                    switchSessionTo(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * As {@link #withCurrentSession(Runnable)}, for a {@link Callable}.
+     */
+    public static <R> Callable<R> withCurrentSession(final Callable<R> callable) {
+        final IsisSession session = getSession();
+        final RequestScopedServiceBindings requestScopedServices = captureRequestScopedServices(session);
+        return new Callable<R>() {
+            @Override
+            public R call() throws Exception {
+                final IsisSession previous = switchSessionTo(session);
+                final RequestScopedServiceBindings previousRequestScopedServices = requestScopedServices.bind();
+                try {
+                    return callable.call();
+                } finally {
+                    previousRequestScopedServices.bind();
+                    switchSessionTo(previous);
+                }
+            }
+        };
+    }
+
+    private static RequestScopedServiceBindings captureRequestScopedServices(final IsisSession session) {
+        final List<Object> registeredServices = session.getPersistenceSession().getServicesInjector().getRegisteredServices();
+        return RequestScopedServiceBindings.capture(registeredServices);
+    }
+
+    /**
+     * @return the session that was previously bound to the current thread, if any.
+     */
+    private static IsisSession switchSessionTo(final IsisSession session) {
+        final IsisContext instance = getInstance();
+        final IsisSession previous = instance.detachSessionInstance();
+        if (session != null) {
+            instance.attachSessionInstance(session);
+        }
+        return previous;
+    }
+
     /**
      * Convenience method to return {@link IsisSession} for specified
      * {@link IsisSession#getId()}.
@@ -60,6 +60,25 @@ public IsisSession getSessionInstance() {
         return session;
     }
 
+    // //////////////////////////////////////////////
+    // detach, attach
+    // //////////////////////////////////////////////
+
+    @Override
+    protected IsisSession detachSessionInstance() {
+        final IsisSession detached = session;
+        session = null;
+        return detached;
+    }
+
+    @Override
+    protected void attachSessionInstance(final IsisSession session) {
+        if (this.session != null && this.session != session) {
+            throw new IllegalStateException("A different session is already open");
+        }
+        this.session = session;
+    }
+
     // //////////////////////////////////////////////
     // open, close
     // //////////////////////////////////////////////
@@ -19,31 +19,48 @@
 
 package org.apache.isis.core.runtime.system.context;
 
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
-import com.google.common.collect.Maps;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.ConfigurationConstants;
 import org.apache.isis.core.commons.debug.DebugBuilder;
 import org.apache.isis.core.runtime.system.session.IsisSession;
 import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
 
 /**
- * Multi-user implementation of {@link IsisContext} that stores a set of components for
- * each thread in use.
+ * Multi-user implementation of {@link IsisContext} that binds the {@link IsisSession} to the thread in use.
+ *
+ * <p>
+ * The current session is held in a {@link ThreadLocal}, so opening, closing and looking up the session does not
+ * contend on any lock.  In addition the open sessions are (by default) tracked in a concurrent set; this is used only
+ * to {@link #allSessionIds() list} them for debugging and to close them on shutdown, and can be disabled using
+ * {@value #TRACK_SESSIONS_KEY}.
  */
 public class IsisContextThreadLocal extends IsisContext {
 
     private static final Logger LOG = LoggerFactory.getLogger(IsisContextThreadLocal.class);
 
+    public static final String TRACK_SESSIONS_KEY = ConfigurationConstants.ROOT + "context.trackSessions";
+    public static final boolean TRACK_SESSIONS_DEFAULT = true;
+
     public static IsisContext createInstance(final IsisSessionFactory sessionFactory) {
         return new IsisContextThreadLocal(sessionFactory);
     }
 
-    private final Map<Thread, IsisSession> sessionsByThread = Maps.newHashMap();
+    private final ThreadLocal<IsisSession> currentSession = new ThreadLocal<IsisSession>();
+
+    /**
+     * <tt>null</tt> if not {@link #TRACK_SESSIONS_KEY tracking} sessions.
+     */
+    private final Set<IsisSession> openSessions;
 
     
     // //////////////////////////////////////////////
@@ -56,6 +73,9 @@ protected IsisContextThreadLocal(final IsisSessionFactory sessionFactory) {
 
     protected IsisContextThreadLocal(final ContextReplacePolicy contextReplacePolicy, final SessionClosePolicy sessionClosePolicy, final IsisSessionFactory sessionFactory) {
         super(contextReplacePolicy, sessionClosePolicy, sessionFactory);
+        final boolean trackSessions = sessionFactory.getConfiguration() == null
+                || sessionFactory.getConfiguration().getBoolean(TRACK_SESSIONS_KEY, TRACK_SESSIONS_DEFAULT);
+        this.openSessions = trackSessions ? Sets.<IsisSession>newConcurrentHashSet() : null;
     }
 
 
@@ -69,19 +89,32 @@ public void closeAllSessionsInstance() {
     }
 
     protected void shutdownAllThreads() {
-        synchronized (sessionsByThread) {
-            int i = 0;
-            for (final Thread thread : sessionsByThread.keySet()) {
-                LOG.info("Shutting down thread: " + i++);
-                final IsisSession data = sessionsByThread.get(thread);
-                data.closeAll();
-            }
+        int i = 0;
+        for (final IsisSession session : getOpenSessions()) {
+            LOG.info("Shutting down session: " + i++);
+            session.closeAll();
         }
     }
 
     @Override
     protected void doClose() {
-        sessionsByThread.remove(Thread.currentThread());
+        final IsisSession session = currentSession.get();
+        currentSession.remove();
+        if (openSessions != null && session != null) {
+            openSessions.remove(session);
+        }
+    }
+
+    /**
+     * A snapshot of the open sessions; if not {@link #TRACK_SESSIONS_KEY tracking} sessions, then just that of
+     * the current thread (if any).
+     */
+    private List<IsisSession> getOpenSessions() {
+        if (openSessions != null) {
+            return Lists.newArrayList(openSessions);
+        }
+        final IsisSession session = currentSession.get();
+        return session != null ? Collections.singletonList(session) : Collections.<IsisSession>emptyList();
     }
 
     // /////////////////////////////////////////////////////////
@@ -90,11 +123,11 @@ protected void doClose() {
 
     @Override
     public String[] allSessionIds() {
-        final String[] ids = new String[sessionsByThread.size()];
+        final List<IsisSession> sessions = getOpenSessions();
+        final String[] ids = new String[sessions.size()];
         int i = 0;
-        for (final Thread thread : sessionsByThread.keySet()) {
-            final IsisSession data = sessionsByThread.get(thread);
-            ids[i++] = data.getId();
+        for (final IsisSession session : sessions) {
+            ids[i++] = session.getId();
         }
         return ids;
     }
@@ -112,18 +145,16 @@ public String debugTitle() {
     public void debugData(final DebugBuilder debug) {
         super.debugData(debug);
         debug.appendTitle("Threads based Contexts");
-        for (final Thread thread : sessionsByThread.keySet()) {
-            final IsisSession data = sessionsByThread.get(thread);
-            debug.appendln(thread.toString(), data);
+        for (final IsisSession session : getOpenSessions()) {
+            debug.appendln(session.getId(), session);
         }
     }
 
     @Override
     protected IsisSession getSessionInstance(final String executionContextId) {
-        for (final Thread thread : sessionsByThread.keySet()) {
-            final IsisSession data = sessionsByThread.get(thread);
-            if (data.getId().equals(executionContextId)) {
-                return data;
+        for (final IsisSession session : getOpenSessions()) {
+            if (session.getId().equals(executionContextId)) {
+                return session;
             }
         }
         return null;
@@ -136,39 +167,57 @@ protected IsisSession getSessionInstance(final String executionContextId) {
     /**
      * Is only intended to be called through
      * {@link IsisContext#openSession(AuthenticationSession)}.
-     * 
-     * <p>
-     * Implementation note: an alternative design would have just been to bind
-     * onto a thread local.
      */
     @Override
     public IsisSession openSessionInstance(final AuthenticationSession authenticationSession) {
-        final Thread thread = Thread.currentThread();
-        synchronized (sessionsByThread) {
-            applySessionClosePolicy();
-            final IsisSession session = getSessionFactoryInstance().openSession(authenticationSession);
-            LOG.debug("  opening session " + session + " (count " + sessionsByThread.size() + ") for " + authenticationSession.getUserName());
-            saveSession(thread, session);
-            session.open();
-            return session;
+        applySessionClosePolicy();
+        final IsisSession session = getSessionFactoryInstance().openSession(authenticationSession);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("  opening session " + session + " for " + authenticationSession.getUserName());
         }
+        saveSession(session);
+        session.open();
+        return session;
     }
 
     protected IsisSession createAndOpenSession(final Thread thread, final AuthenticationSession authenticationSession) {
         final IsisSession session = getSessionFactoryInstance().openSession(authenticationSession);
         session.open();
-        LOG.info("  opening session " + session + " (count " + sessionsByThread.size() + ") for " + authenticationSession.getUserName());
+        LOG.info("  opening session " + session + " for " + authenticationSession.getUserName());
         return session;
     }
 
-    private IsisSession saveSession(final Thread thread, final IsisSession session) {
-        synchronized (sessionsByThread) {
-            sessionsByThread.put(thread, session);
+    private IsisSession saveSession(final IsisSession session) {
+        currentSession.set(session);
+        if (openSessions != null) {
+            openSessions.add(session);
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("  saving session " + session);
         }
-        LOG.debug("  saving session " + session + "; now have " + sessionsByThread.size() + " sessions");
         return session;
     }
 
+    // /////////////////////////////////////////////////////////
+    // detach, attach
+    // /////////////////////////////////////////////////////////
+
+    @Override
+    protected IsisSession detachSessionInstance() {
+        final IsisSession session = currentSession.get();
+        currentSession.remove();
+        return session;
+    }
+
+    @Override
+    protected void attachSessionInstance(final IsisSession session) {
+        final IsisSession existing = currentSession.get();
+        if (existing != null && existing != session) {
+            throw new IllegalStateException("A different session is already open for this thread");
+        }
+        currentSession.set(session);
+    }
+
     // /////////////////////////////////////////////////////////
     // getCurrent() (Hook)
     // /////////////////////////////////////////////////////////
@@ -180,9 +229,7 @@ private IsisSession saveSession(final Thread thread, final IsisSession session)
      */
     @Override
     public IsisSession getSessionInstance() {
-        final Thread thread = Thread.currentThread();
-        final IsisSession session = sessionsByThread.get(thread);
-        return session;
+        return currentSession.get();
     }
 
 }
@@ -107,13 +107,21 @@ public interface ObjectStore extends TransactionalResource, DebuggableWithTitle,
     void execute(final List<PersistenceCommand> commands);
 
     // ///////////////////////////////////////////////////////
-    // loadInstancesAndAdapt, hasInstances
+    // loadInstancesAndAdapt, hasInstances, countInstances
     // ///////////////////////////////////////////////////////
 
     List<ObjectAdapter> loadInstancesAndAdapt(PersistenceQuery persistenceQuery);
 
     boolean hasInstances(ObjectSpecification specification);
 
+    /**
+     * The total number of instances that would be returned by the query, ignoring any range.
+     *
+     * <p>
+     * Object stores are expected to count without loading (or adapting) the instances themselves, where they can.
+     */
+    long countInstances(PersistenceQuery persistenceQuery);
+
     // ///////////////////////////////////////////////////////
     // loadInstanceAndAdapt
     // ///////////////////////////////////////////////////////
@@ -159,6 +167,25 @@ public interface ObjectStore extends TransactionalResource, DebuggableWithTitle,
      */
     ObjectAdapter loadInstanceAndAdapt(TypedOid oid);
 
+    /**
+     * As {@link #loadInstanceAndAdapt(TypedOid)}, but for many {@link RootOid}s at once, allowing the
+     * object store to retrieve them in as few round trips as possible (rather than one per oid).
+     * 
+     * <p>
+     * Returns the adapters in the same order as the oids; an element is <tt>null</tt> (rather than an
+     * {@link org.apache.isis.core.runtime.persistence.ObjectNotFoundException} being thrown) if no object
+     * corresponding to that oid can be found.
+     */
+    List<ObjectAdapter> loadInstancesAndAdapt(List<? extends TypedOid> oids);
+
+    /**
+     * Discards any state held by the object store for the (persistent) adapter's pojo, provided that it has not
+     * been modified, so that it can be garbage collected; it will be reloaded if subsequently required.
+     * 
+     * @return whether the pojo was evicted (in which case its adapter may also be discarded).
+     */
+    boolean evict(ObjectAdapter adapter);
+
 
     // ///////////////////////////////////////////////////////
     // resolveImmediately
@@ -171,6 +198,14 @@ public interface ObjectStore extends TransactionalResource, DebuggableWithTitle,
      */
     void resolveImmediately(ObjectAdapter object);
 
+    /**
+     * As {@link #resolveImmediately(ObjectAdapter)}, but for many (root, persistent) adapters at once, allowing the
+     * object store to retrieve them in as few round trips as possible (rather than one per adapter).
+     *
+     * @see PersistenceSession#resolveImmediately(List)
+     */
+    void resolveImmediately(List<ObjectAdapter> adapters);
+
 
     // ///////////////////////////////////////////////////////
     // Services
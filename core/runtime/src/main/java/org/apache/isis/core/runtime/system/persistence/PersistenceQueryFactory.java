@@ -49,32 +49,37 @@ public class PersistenceQueryFactory {
     /**
      * Converts the {@link org.apache.isis.applib.query.Query applib representation of a query} into the
      * {@link PersistenceQuery NOF-internal representation}.
+     *
+     * <p>
+     * For {@link QueryCardinality#SINGLE single} cardinality, the range of the query is narrowed to a single
+     * item, so that the object store need only fetch that one row.
      */
     final PersistenceQuery createPersistenceQueryFor(final Query<?> query, final QueryCardinality cardinality) {
         if (LOG.isDebugEnabled()) {
             LOG.debug("createPersistenceQueryFor: " + query.getDescription());
         }
         final ObjectSpecification noSpec = specFor(query);
+        final long start = query.getStart();
+        final long count = cardinality == QueryCardinality.SINGLE ? 1 : query.getCount();
         if (query instanceof QueryFindAllInstances) {
-            final QueryFindAllInstances<?> queryFindAllInstances = (QueryFindAllInstances<?>) query;
-            return new PersistenceQueryFindAllInstances(noSpec, queryFindAllInstances.getStart(), queryFindAllInstances.getCount());
+            return new PersistenceQueryFindAllInstances(noSpec, start, count);
         }
         if (query instanceof QueryFindByTitle) {
             final QueryFindByTitle<?> queryByTitle = (QueryFindByTitle<?>) query;
             final String title = queryByTitle.getTitle();
-            return new PersistenceQueryFindByTitle(noSpec, title, queryByTitle.getStart(), queryByTitle.getCount());
+            return new PersistenceQueryFindByTitle(noSpec, title, start, count);
         }
         if (query instanceof QueryFindByPattern) {
             final QueryFindByPattern<?> queryByPattern = (QueryFindByPattern<?>) query;
             final Object pattern = queryByPattern.getPattern();
             final ObjectAdapter patternAdapter = adapterManager.adapterFor(pattern);
-            return new PersistenceQueryFindByPattern(noSpec, patternAdapter, queryByPattern.getStart(), queryByPattern.getCount());
+            return new PersistenceQueryFindByPattern(noSpec, patternAdapter, start, count);
         }
         if (query instanceof QueryDefault) {
             final QueryDefault<?> queryDefault = (QueryDefault<?>) query;
             final String queryName = queryDefault.getQueryName();
             final Map<String, ObjectAdapter> argumentsAdaptersByParameterName = wrap(queryDefault.getArgumentsByParameterName());
-            return new PersistenceQueryFindUsingApplibQueryDefault(noSpec, queryName, argumentsAdaptersByParameterName, cardinality, queryDefault.getStart(), queryDefault.getCount());
+            return new PersistenceQueryFindUsingApplibQueryDefault(noSpec, queryName, argumentsAdaptersByParameterName, cardinality, start, count);
         }
         // fallback; generic serializable applib query.
         return new PersistenceQueryFindUsingApplibQuerySerializable(noSpec, query, cardinality);
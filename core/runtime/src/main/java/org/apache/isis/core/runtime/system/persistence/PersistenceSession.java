@@ -51,6 +51,7 @@
 import org.apache.isis.core.runtime.persistence.adapter.PojoAdapterFactory;
 import org.apache.isis.core.runtime.persistence.adaptermanager.AdapterManagerDefault;
 import org.apache.isis.core.runtime.persistence.adaptermanager.PojoRecreatorUnified;
+import org.apache.isis.core.runtime.persistence.adaptermanager.SharedServiceOids;
 import org.apache.isis.core.runtime.persistence.objectstore.algorithm.PersistAlgorithm;
 import org.apache.isis.core.runtime.persistence.objectstore.algorithm.PersistAlgorithmUnified;
 import org.apache.isis.core.runtime.persistence.objectstore.transaction.CreateObjectCommand;
@@ -187,18 +188,30 @@ public void open() {
     }
 
     
+    /**
+     * The oids of the services are looked up (and registered) only by the first session to be opened; thereafter
+     * they are {@link SharedServiceOids shared}, each session creating its own adapters for the services as
+     * they are used.
+     */
     private void initServices() {
+        final SharedServiceOids sharedServiceOids = persistenceSessionFactory.getSharedServiceOids();
+        if(sharedServiceOids != null) {
+            adapterManager.useSharedServiceOids(sharedServiceOids);
+            return;
+        }
 
         final List<Object> registeredServices = servicesInjector.getRegisteredServices();
         
-        createServiceAdapters(registeredServices);
+        final List<ObjectAdapter> serviceAdapters = createServiceAdapters(registeredServices);
+        persistenceSessionFactory.shareServiceOids(new SharedServiceOids(serviceAdapters));
     }
 
     /**
      * Creates (or recreates following a {@link #testReset()})
      * {@link ObjectAdapter adapters} for the service list.
      */
-    private void createServiceAdapters(final List<Object> registeredServices) {
+    private List<ObjectAdapter> createServiceAdapters(final List<Object> registeredServices) {
+        final List<ObjectAdapter> serviceAdapters = Lists.newArrayList();
         for (final Object service : registeredServices) {
             final ObjectSpecification serviceSpecification = getSpecificationLoader().loadSpecification(service.getClass());
             serviceSpecification.markAsService();
@@ -216,7 +229,9 @@ private void createServiceAdapters(final List<Object> registeredServices) {
                 final RootOid persistentOid = (RootOid) serviceAdapter.getOid();
                 registerService(persistentOid);
             }
+            serviceAdapters.add(serviceAdapter);
         }
+        return serviceAdapters;
     }
 
 
@@ -427,6 +442,34 @@ public void onSuccess() {
         });
     }
 
+    // ///////////////////////////////////////////////////////////////////////////
+    // countInstances
+    // ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns the total number of instances that match the specified query, ignoring any range; intended to
+     * allow pagers to obtain a total without loading every instance.
+     *
+     * <p>
+     * This method is ultimately delegated to by the
+     * {@link org.apache.isis.applib.DomainObjectContainer}.
+     */
+    public <T> long countInstances(final Query<T> query) {
+        final PersistenceQuery persistenceQuery = createPersistenceQueryFor(query, QueryCardinality.MULTIPLE);
+        if (persistenceQuery == null) {
+            throw new IllegalArgumentException("Unknown query type: " + query.getDescription());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("countInstances matching " + persistenceQuery);
+        }
+        return getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<Long>() {
+            @Override
+            public Long execute() {
+                return objectStore.countInstances(persistenceQuery);
+            }
+        });
+    }
+
     // ///////////////////////////////////////////////////////////////////////////
     // Manual dirtying support
     // ///////////////////////////////////////////////////////////////////////////
@@ -532,6 +575,13 @@ private ObjectAdapter getService(final Object servicePojo) {
 
     private RootOid getOidForServiceFromPersistenceLayer(ObjectSpecification serviceSpecification) {
         final ObjectSpecId objectSpecId = serviceSpecification.getSpecId();
+        final SharedServiceOids sharedServiceOids = persistenceSessionFactory.getSharedServiceOids();
+        if (sharedServiceOids != null) {
+            final RootOid sharedOid = sharedServiceOids.getOidFor(objectSpecId);
+            if (sharedOid != null) {
+                return sharedOid;
+            }
+        }
         RootOid oid = servicesByObjectType.get(objectSpecId);
         if (oid == null) {
             oid = objectStore.getOidForService(serviceSpecification);
@@ -608,6 +658,65 @@ public ObjectAdapter loadObject(final TypedOid oid) {
         return loadMappedObjectFromObjectStore(oid);
     }
 
+    /**
+     * As {@link #loadObject(TypedOid)}, but for many {@link TypedOid}s at once; those not already mapped by the
+     * {@link #getAdapterManager() adapter manager} are {@link ObjectStore#loadInstancesAndAdapt(List) loaded}
+     * from the object store together.  (View models are recreated individually, from their oid).
+     *
+     * <p>
+     * Returns the adapters in the same order as the oids; an element is <tt>null</tt> if no object corresponding
+     * to that oid could be found.
+     */
+    public List<ObjectAdapter> loadObjects(final List<? extends TypedOid> oids) {
+        ensureThatArg(oids, is(notNullValue()));
+
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        final List<TypedOid> oidsToLoad = Lists.newArrayList();
+        final List<Integer> positionsToLoad = Lists.newArrayList();
+        for (final TypedOid oid : oids) {
+            if (oid.isTransient() || oid.isViewModel()) {
+                // not held in the object store; recreated from the oid itself
+                adapters.add(getAdapterManager().adapterFor(oid));
+                continue;
+            }
+            final ObjectAdapter adapter = getAdapterManager().getAdapterFor(oid);
+            if (adapter == null) {
+                oidsToLoad.add(oid);
+                positionsToLoad.add(adapters.size());
+            }
+            adapters.add(adapter);
+        }
+        if (oidsToLoad.isEmpty()) {
+            return adapters;
+        }
+
+        final List<ObjectAdapter> loadedAdapters = getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<List<ObjectAdapter>>() {
+            @Override
+            public List<ObjectAdapter> execute() {
+                return objectStore.loadInstancesAndAdapt(oidsToLoad);
+            }
+        });
+        for (int i = 0; i < positionsToLoad.size(); i++) {
+            adapters.set(positionsToLoad.get(i), loadedAdapters.get(i));
+        }
+        return adapters;
+    }
+
+    /**
+     * Discards the (persistent, unmodified) adapters and their pojos, which the caller (eg an in-memory filter)
+     * has no further use for, so that they can be garbage collected.  Any that have been modified are retained.
+     */
+    public void evict(final List<ObjectAdapter> adapters) {
+        for (final ObjectAdapter adapter : adapters) {
+            if (!adapter.representsPersistent() || adapter.isParented()) {
+                continue;
+            }
+            if (objectStore.evict(adapter)) {
+                getAdapterManager().removeAdapter(adapter);
+            }
+        }
+    }
+
     private ObjectAdapter loadMappedObjectFromObjectStore(final TypedOid oid) {
         ObjectAdapter adapter = getTransactionManager().executeWithinTransaction(new TransactionalClosureWithReturnAbstract<ObjectAdapter>() {
             @Override
@@ -647,6 +756,34 @@ public void resolveImmediately(final ObjectAdapter adapter) {
         }
     }
 
+    /**
+     * As {@link #resolveImmediately(ObjectAdapter)}, but for many adapters at once; those that are persistent root
+     * objects and not yet resolved are {@link ObjectStore#resolveImmediately(List) resolved} by the object store
+     * together (rather than each being resolved individually as it is first accessed).
+     */
+    public void resolveImmediately(final List<ObjectAdapter> adapters) {
+        synchronized (getAuthenticationSession()) {
+            final List<ObjectAdapter> toResolve = Lists.newArrayList();
+            for (final ObjectAdapter adapter : adapters) {
+                if (adapter != null && adapter.canTransitionToResolving() && adapter.representsPersistent() && !adapter.isParented()) {
+                    toResolve.add(adapter);
+                }
+            }
+            if (toResolve.isEmpty()) {
+                return;
+            }
+            getTransactionManager().executeWithinTransaction(new TransactionalClosureAbstract() {
+                @Override
+                public void execute() {
+                    objectStore.resolveImmediately(toResolve);
+                }
+            });
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("resolved " + toResolve.size() + " objects");
+            }
+        }
+    }
+
     private void resolveImmediatelyFromPersistenceLayer(final ObjectAdapter adapter) {
         getTransactionManager().executeWithinTransaction(new TransactionalClosureAbstract() {
             @Override
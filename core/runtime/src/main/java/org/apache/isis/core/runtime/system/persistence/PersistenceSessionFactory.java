@@ -25,6 +25,9 @@
 import org.slf4j.LoggerFactory;
 import org.apache.isis.applib.clock.Clock;
 import org.apache.isis.applib.fixtures.FixtureClock;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.publish.PublishingService;
 import org.apache.isis.core.commons.components.ApplicationScopedComponent;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.facetapi.MetaModelRefiner;
@@ -36,9 +39,12 @@
 import org.apache.isis.core.metamodel.specloader.validator.MetaModelValidatorComposite;
 import org.apache.isis.core.runtime.persistence.FixturesInstalledFlag;
 import org.apache.isis.core.runtime.persistence.ObjectStoreFactory;
+import org.apache.isis.core.runtime.persistence.adaptermanager.SharedServiceOids;
 import org.apache.isis.core.runtime.persistence.internal.RuntimeContextFromSession;
 import org.apache.isis.core.runtime.system.DeploymentType;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.BatchAuditingDispatcher;
+import org.apache.isis.core.runtime.system.transaction.PublishingOutboxDispatcher;
 
 import static org.apache.isis.core.commons.ensure.Ensure.ensureThatArg;
 import static org.apache.isis.core.commons.ensure.Ensure.ensureThatState;
@@ -65,6 +71,9 @@ public class PersistenceSessionFactory implements MetaModelRefiner, ApplicationS
 
     private final ServicesInjectorSpi servicesInjector = new ServicesInjectorDefault();
     private RuntimeContext runtimeContext;
+    private BatchAuditingDispatcher batchAuditingDispatcher;
+    private PublishingOutboxDispatcher publishingOutboxDispatcher;
+    private volatile SharedServiceOids sharedServiceOids;
 
     public PersistenceSessionFactory(
             final DeploymentType deploymentType,
@@ -132,6 +141,18 @@ public final void init() {
 
         servicesInjector.setServices(serviceList);
         servicesInjector.init();
+
+        final BatchAuditingService batchAuditingService = servicesInjector.lookupService(BatchAuditingService.class);
+        if (batchAuditingService != null) {
+            batchAuditingDispatcher = new BatchAuditingDispatcher(batchAuditingService, getConfiguration());
+            batchAuditingDispatcher.init();
+        }
+
+        final PublishingOutbox publishingOutbox = servicesInjector.lookupService(PublishingOutbox.class);
+        if (publishingOutbox != null && servicesInjector.lookupService(PublishingService.class) != null) {
+            publishingOutboxDispatcher = new PublishingOutboxDispatcher(publishingOutbox, getConfiguration());
+            publishingOutboxDispatcher.init();
+        }
     }
 
     private RuntimeContext createRuntimeContext(final IsisConfiguration configuration) {
@@ -155,6 +176,15 @@ private static Properties applicationPropertiesFrom(final IsisConfiguration conf
 
 
     public final void shutdown() {
+        sharedServiceOids = null;
+        if (batchAuditingDispatcher != null) {
+            batchAuditingDispatcher.shutdown();
+            batchAuditingDispatcher = null;
+        }
+        if (publishingOutboxDispatcher != null) {
+            publishingOutboxDispatcher.shutdown();
+            publishingOutboxDispatcher = null;
+        }
         doShutdown();
     }
 
@@ -173,6 +203,39 @@ public ServicesInjectorSpi getServicesInjector() {
         return servicesInjector;
     }
 
+    /**
+     * Will be <tt>null</tt> unless a {@link BatchAuditingService} has been registered.
+     */
+    public BatchAuditingDispatcher getBatchAuditingDispatcher() {
+        return batchAuditingDispatcher;
+    }
+
+    /**
+     * Will be <tt>null</tt> unless both a {@link PublishingService} and a {@link PublishingOutbox} have been registered.
+     */
+    public PublishingOutboxDispatcher getPublishingOutboxDispatcher() {
+        return publishingOutboxDispatcher;
+    }
+
+    /**
+     * Will be <tt>null</tt> until the first {@link PersistenceSession} has been opened.
+     */
+    public SharedServiceOids getSharedServiceOids() {
+        return sharedServiceOids;
+    }
+
+    /**
+     * Called by the first {@link PersistenceSession} to be opened, having created the adapters for the services.
+     *
+     * @return the oids to share; those provided, unless some other session got there first.
+     */
+    synchronized SharedServiceOids shareServiceOids(final SharedServiceOids serviceOids) {
+        if (sharedServiceOids == null) {
+            sharedServiceOids = serviceOids;
+        }
+        return sharedServiceOids;
+    }
+
     // //////////////////////////////////////////////////////
     // MetaModelAdjuster impl
     // //////////////////////////////////////////////////////
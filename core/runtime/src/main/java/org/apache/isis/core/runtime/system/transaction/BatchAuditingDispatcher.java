@@ -0,0 +1,219 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.core.commons.components.ApplicationScopedComponent;
+import org.apache.isis.core.commons.config.ConfigurationConstants;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+
+/**
+ * Hands the {@link AuditEntry}s captured by each {@link IsisTransaction} to the {@link BatchAuditingService}.
+ *
+ * <p>
+ * By default the entries are put onto a bounded queue that is drained, in batches, by a single background
+ * writer thread.  If {@link #ASYNC_KEY} is disabled then the entries are instead written synchronously, within
+ * the commit (so that any failure to audit aborts the transaction).
+ *
+ * <p>
+ * Created (if a {@link BatchAuditingService} is registered) by the
+ * {@link org.apache.isis.core.runtime.system.persistence.PersistenceSessionFactory}.
+ */
+public class BatchAuditingDispatcher implements ApplicationScopedComponent {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchAuditingDispatcher.class);
+
+    private static final String ROOT_KEY = ConfigurationConstants.ROOT + "services.audit.batch.";
+
+    public static final String ASYNC_KEY = ROOT_KEY + "async";
+    public static final boolean ASYNC_DEFAULT = true;
+
+    public static final String QUEUE_CAPACITY_KEY = ROOT_KEY + "queueCapacity";
+    public static final int QUEUE_CAPACITY_DEFAULT = 10000;
+
+    public static final String MAX_BATCH_SIZE_KEY = ROOT_KEY + "maxBatchSize";
+    public static final int MAX_BATCH_SIZE_DEFAULT = 500;
+
+    /**
+     * What to do if the queue is full; one of <tt>block</tt>, <tt>callerRuns</tt> or <tt>discard</tt>.
+     */
+    public static final String WHEN_FULL_KEY = ROOT_KEY + "whenFull";
+    public static final String WHEN_FULL_DEFAULT = WhenFull.BLOCK.name();
+
+    /**
+     * How long to wait, on shutdown, for any entries still queued to be written.
+     */
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = ROOT_KEY + "shutdownTimeoutMillis";
+    public static final int SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000;
+
+    public static enum WhenFull {
+        /**
+         * The committing thread waits until there is space on the queue; no entries are lost.
+         */
+        BLOCK,
+        /**
+         * The committing thread writes the entries itself; no entries are lost, and the queue is bypassed.
+         */
+        CALLER_RUNS,
+        /**
+         * The entries are discarded (and a warning logged); the commit is never held up.
+         */
+        DISCARD;
+
+        static WhenFull parse(final String value) {
+            return valueOf(value.trim().replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ENGLISH));
+        }
+    }
+
+    private final BatchAuditingService batchAuditingService;
+
+    private final boolean async;
+    private final int maxBatchSize;
+    private final WhenFull whenFull;
+    private final long shutdownTimeoutMillis;
+
+    private final BlockingQueue<AuditEntry> queue;
+    private Thread writerThread;
+    private volatile boolean shutdown;
+
+    public BatchAuditingDispatcher(final BatchAuditingService batchAuditingService, final IsisConfiguration configuration) {
+        this.batchAuditingService = batchAuditingService;
+        this.async = configuration.getBoolean(ASYNC_KEY, ASYNC_DEFAULT);
+        this.maxBatchSize = configuration.getInteger(MAX_BATCH_SIZE_KEY, MAX_BATCH_SIZE_DEFAULT);
+        this.whenFull = WhenFull.parse(configuration.getString(WHEN_FULL_KEY, WHEN_FULL_DEFAULT));
+        this.shutdownTimeoutMillis = configuration.getInteger(SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT);
+        this.queue = new ArrayBlockingQueue<AuditEntry>(configuration.getInteger(QUEUE_CAPACITY_KEY, QUEUE_CAPACITY_DEFAULT));
+    }
+
+    // //////////////////////////////////////
+    // init, shutdown
+    // //////////////////////////////////////
+
+    @Override
+    public void init() {
+        if (!async) {
+            return;
+        }
+        writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drainUntilShutdown();
+            }
+        }, "isis-audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void shutdown() {
+        if (writerThread == null) {
+            return;
+        }
+        shutdown = true;
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOG.warn("audit writer did not finish within " + shutdownTimeoutMillis + "ms; " + queue.size() + " audit entries not written");
+            writerThread.interrupt();
+        }
+        writerThread = null;
+    }
+
+    // //////////////////////////////////////
+    // dispatch
+    // //////////////////////////////////////
+
+    /**
+     * Called by {@link IsisTransaction} while committing.
+     */
+    public void dispatch(final List<AuditEntry> auditEntries) {
+        if (auditEntries.isEmpty()) {
+            return;
+        }
+        if (!async || shutdown) {
+            batchAuditingService.audit(auditEntries);
+            return;
+        }
+        for (int i = 0; i < auditEntries.size(); i++) {
+            final AuditEntry auditEntry = auditEntries.get(i);
+            if (queue.offer(auditEntry)) {
+                continue;
+            }
+            switch (whenFull) {
+            case BLOCK:
+                try {
+                    queue.put(auditEntry);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    batchAuditingService.audit(auditEntries.subList(i, auditEntries.size()));
+                    return;
+                }
+                break;
+            case CALLER_RUNS:
+                batchAuditingService.audit(auditEntries.subList(i, auditEntries.size()));
+                return;
+            case DISCARD:
+                LOG.warn("audit queue full; discarding " + (auditEntries.size() - i) + " audit entries");
+                return;
+            }
+        }
+    }
+
+    private void drainUntilShutdown() {
+        final List<AuditEntry> batch = Lists.newArrayListWithCapacity(maxBatchSize);
+        while (!shutdown || !queue.isEmpty()) {
+            try {
+                final AuditEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                batchAuditingService.audit(batch);
+            } catch (final InterruptedException ex) {
+                LOG.warn("audit writer interrupted; " + queue.size() + " audit entries not written");
+                return;
+            } catch (final RuntimeException ex) {
+                LOG.error("failed to write " + batch.size() + " audit entries", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+}
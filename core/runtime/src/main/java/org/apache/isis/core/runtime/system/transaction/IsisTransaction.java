@@ -20,6 +20,7 @@
 package org.apache.isis.core.runtime.system.transaction;
 
 import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,7 @@
 import com.google.common.base.Objects;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -44,7 +46,9 @@
 import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
 import org.apache.isis.applib.clock.Clock;
 import org.apache.isis.applib.services.actinvoc.ActionInvocationContext;
+import org.apache.isis.applib.services.audit.AuditEntry;
 import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
 import org.apache.isis.applib.services.bookmark.Bookmark;
 import org.apache.isis.applib.services.command.Command;
 import org.apache.isis.applib.services.command.Command2;
@@ -59,7 +63,10 @@
 import org.apache.isis.applib.services.publish.EventSerializer;
 import org.apache.isis.applib.services.publish.EventType;
 import org.apache.isis.applib.services.publish.ObjectStringifier;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.publish.PublishingOutboxEntry;
 import org.apache.isis.applib.services.publish.PublishingService;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
 import org.apache.isis.core.commons.components.TransactionScopedComponent;
@@ -251,10 +258,27 @@ public TransactionState getRuntimeContextState() {
      * could be null if none has been registered.
      */
     private final AuditingService3 auditingService3;
+    /**
+     * could be null if none has been registered; if present, is used in preference to {@link #auditingService3}.
+     */
+    private final BatchAuditingService batchAuditingService;
     /**
      * could be null if none has been registered
      */
     private final PublishingServiceWithDefaultPayloadFactories publishingService;
+    /**
+     * could be null if none has been registered; if present (along with a {@link #publishingService}) then events
+     * are appended to this outbox rather than being published synchronously.
+     */
+    private final PublishingOutbox publishingOutbox;
+    private final List<PublishingOutboxEntry> outboxEntries = Lists.newArrayList();
+    private boolean appendedToOutbox;
+    /**
+     * could be null if none has been registered; if present then, on commit, any of its cached results that
+     * depend on the types of the objects changed in this transaction are invalidated.
+     */
+    private final SharedQueryResultsCache sharedQueryResultsCache;
+    private final List<Runnable> afterCommitTasks = Lists.newArrayList();
 
     /**
      * Will be that of the {@link #command} if not <tt>null</tt>, otherwise will be randomly created.
@@ -283,7 +307,10 @@ public IsisTransaction(
         
         this.commandContext = servicesInjector.lookupService(CommandContext.class);
         this.auditingService3 = servicesInjector.lookupService(AuditingService3.class);
+        this.batchAuditingService = servicesInjector.lookupService(BatchAuditingService.class);
         this.publishingService = getPublishingServiceIfAny(servicesInjector);
+        this.publishingOutbox = servicesInjector.lookupService(PublishingOutbox.class);
+        this.sharedQueryResultsCache = servicesInjector.lookupService(SharedQueryResultsCache.class);
 
         // determine whether this xactn is taking place in the context of an
         // existing command in which a previous xactn has already occurred.
@@ -334,6 +361,13 @@ private PublishingServiceWithDefaultPayloadFactories getPublishingServiceIfAny(S
     }
     
 
+    /**
+     * For the {@link PublishingOutboxDispatcher}, to deliver the events previously appended to the outbox.
+     */
+    PublishingServiceWithDefaultPayloadFactories getPublishingService() {
+        return publishingService;
+    }
+
     protected EventSerializer newSimpleEventSerializer() {
         return new EventSerializer.Simple();
     }
@@ -547,13 +581,24 @@ private void doFlush() {
 
     protected void doAudit(final Set<Entry<AdapterAndProperty, PreAndPostValues>> changedObjectProperties) {
         try {
-            if(auditingService3 == null) {
+            if(batchAuditingService == null && auditingService3 == null) {
                 return;
             }
 
             // else
             final String currentUser = getTransactionManager().getAuthenticationSession().getUserName();
             final java.sql.Timestamp currentTime = Clock.getTimeAsJavaSqlTimestamp();
+            if(batchAuditingService != null) {
+                final List<AuditEntry> auditEntries = Lists.newArrayList();
+                for (Entry<AdapterAndProperty, PreAndPostValues> auditEntry : changedObjectProperties) {
+                    final AuditEntry entry = auditEntryFor(currentTime, currentUser, auditEntry);
+                    if(entry != null) {
+                        auditEntries.add(entry);
+                    }
+                }
+                getBatchAuditingDispatcher().dispatch(auditEntries);
+                return;
+            }
             for (Entry<AdapterAndProperty, PreAndPostValues> auditEntry : changedObjectProperties) {
                 auditChangedProperty(currentTime, currentUser, auditEntry);
             }
@@ -561,6 +606,7 @@ protected void doAudit(final Set<Entry<AdapterAndProperty, PreAndPostValues>> ch
         } finally {
             // not needed in production, but is required for integration testing
             this.changedObjectProperties.clear();
+            this.adaptersWithPropertiesEnlisted.clear();
         }
     }
 
@@ -594,6 +640,15 @@ protected void publishActionIfRequired(final String currentUser, final java.sql.
             final String memberIdentifier = command.getMemberIdentifier();
             
             final EventMetadata metadata = newEventMetadata(EventType.ACTION_INVOCATION, currentUser, timestamp, title, targetClass, targetAction, target, memberIdentifier);
+            if(publishingOutbox != null) {
+                final List<Object> arguments = Lists.newArrayList();
+                for (final ObjectAdapter parameter : currentInvocation.getParameters()) {
+                    arguments.add(outboxValueFor(parameter));
+                }
+                final Object result = outboxValueFor(currentInvocation.getResult());
+                outboxEntries.add(PublishingOutboxEntry.actionInvocation(metadata, arguments, result));
+                return;
+            }
             publishingService.publishAction(payloadFactory, metadata, currentInvocation, objectStringifier());
         } finally {
             // ensures that cannot publish this action more than once
@@ -631,11 +686,53 @@ protected List<ObjectAdapter> publishedChangedObjectsIfRequired(final String cur
             
             final EventMetadata metadata = newEventMetadata(eventTypeFor, currentUser, timestamp, title, enlistedAdapterClass, null, enlistedTarget, null);
         
+            if(publishingOutbox != null) {
+                outboxEntries.add(PublishingOutboxEntry.objectChanged(metadata, changeKind));
+                continue;
+            }
             publishingService.publishObject(payloadFactory, metadata, enlistedAdapter, changeKind, objectStringifier());
         }
         return enlistedAdapters;
     }
 
+    /**
+     * Persistent entities are held in the outbox as {@link Bookmark}s, anything else (values) as is.
+     */
+    private Object outboxValueFor(final ObjectAdapter adapter) {
+        if(adapter == null) {
+            return null;
+        }
+        final Oid oid = adapter.getOid();
+        if(oid instanceof RootOid && oid.isPersistent()) {
+            return ((RootOid) oid).asBookmark();
+        }
+        final Object pojo = adapter.getObject();
+        if(pojo instanceof Collection) {
+            final List<Object> elements = Lists.newArrayList();
+            for (final Object element : (Collection<?>) pojo) {
+                elements.add(element != null ? outboxValueFor(getAdapterManager().adapterFor(element)) : null);
+            }
+            return elements;
+        }
+        return pojo;
+    }
+
+    /**
+     * Appends the entries for the events of this transaction (if any) to the {@link PublishingOutbox}, within the
+     * transaction; they are delivered by the {@link PublishingOutboxDispatcher} once the transaction has committed.
+     */
+    private void appendToOutboxIfRequired() {
+        if(publishingOutbox == null || outboxEntries.isEmpty()) {
+            return;
+        }
+        try {
+            publishingOutbox.append(Lists.newArrayList(outboxEntries));
+            appendedToOutbox = true;
+        } finally {
+            outboxEntries.clear();
+        }
+    }
+
     private static EventType eventTypeFor(ChangeKind changeKind) {
         if(changeKind == ChangeKind.UPDATE) {
             return EventType.OBJECT_UPDATED;
@@ -693,12 +790,28 @@ private int nextEventSequence() {
 
     public void auditChangedProperty(
             final java.sql.Timestamp timestamp, final String user, final Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
+        final AuditEntry entry = auditEntryFor(timestamp, user, auditEntry);
+        if(entry == null) {
+            return;
+        }
+        auditingService3.audit(
+                entry.getTransactionId(), entry.getTargetClassName(), entry.getTarget(), 
+                entry.getMemberIdentifier(), entry.getPropertyName(), 
+                entry.getPreValue(), entry.getPostValue(), 
+                entry.getUser(), entry.getTimestamp());
+    }
+
+    /**
+     * @return <tt>null</tt> if the object is not auditable.
+     */
+    private AuditEntry auditEntryFor(
+            final java.sql.Timestamp timestamp, final String user, final Entry<AdapterAndProperty, PreAndPostValues> auditEntry) {
         final AdapterAndProperty aap = auditEntry.getKey();
         final ObjectAdapter adapter = aap.getAdapter();
         
         final AuditableFacet auditableFacet = adapter.getSpecification().getFacet(AuditableFacet.class);
         if(auditableFacet == null || auditableFacet.isDisabled()) {
-            return;
+            return null;
         }
         final RootOid oid = (RootOid) adapter.getOid();
         final String objectType = oid.getObjectSpecId().asString();
@@ -714,7 +827,7 @@ public void auditChangedProperty(
         final String targetClass = CommandUtil.targetClassNameFor(adapter);
         final Bookmark target = new Bookmark(objectType, identifier);
 
-        auditingService3.audit(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
+        return new AuditEntry(getTransactionId(), targetClass, target, memberId, propertyId, preValue, postValue, user, timestamp);
     }
 
     private static String asString(Object object) {
@@ -879,6 +992,9 @@ private void preCommitServices(final Set<Entry<AdapterAndProperty, PreAndPostVal
         
         publishedChangedObjectsIfRequired(currentUser, endTimestamp);
         doFlush();
+
+        appendToOutboxIfRequired();
+        doFlush();
         
         closeServices();
         doFlush();
@@ -940,8 +1056,69 @@ public synchronized void commit() {
         }
 
         setState(State.COMMITTED);
+
+        invalidateSharedQueryResultsCacheIfRequired();
+
+        if(appendedToOutbox) {
+            appendedToOutbox = false;
+            final PublishingOutboxDispatcher dispatcher = getPublishingOutboxDispatcher();
+            if(dispatcher != null) {
+                dispatcher.wakeUp();
+            }
+        }
+
+        runAfterCommitTasks();
+    }
+
+    /**
+     * Registers a task to be run once this transaction has committed (and not at all if it aborts).
+     *
+     * <p>
+     * The tasks are run on the committing thread, in the order registered; any that need to do real work (eg
+     * call slow subscribers) should just hand off to some other thread.  Exceptions are logged, not propagated;
+     * the transaction has already committed.
+     */
+    public void afterCommit(final Runnable task) {
+        afterCommitTasks.add(task);
+    }
+
+    private void runAfterCommitTasks() {
+        final List<Runnable> tasks = Lists.newArrayList(afterCommitTasks);
+        afterCommitTasks.clear();
+        for (final Runnable task : tasks) {
+            try {
+                task.run();
+            } catch(final RuntimeException ex) {
+                LOG.error("after-commit task failed", ex);
+            }
+        }
+    }
+
+
+    /**
+     * Only once committed, so that other transactions cannot re-cache results from before the changes.
+     */
+    /**
+     * Invalidates any shared query results that depend on the types changed in this transaction; called both on
+     * commit and on abort (in case any results were computed from the since-aborted changes).
+     */
+    private void invalidateSharedQueryResultsCacheIfRequired() {
+        if(sharedQueryResultsCache == null || changeKindByEnlistedAdapter.isEmpty()) {
+            return;
+        }
+        sharedQueryResultsCache.invalidate(getChangedTypes());
     }
 
+    /**
+     * The types of the objects that have been created, updated or deleted within this transaction.
+     */
+    public Set<Class<?>> getChangedTypes() {
+        final Set<Class<?>> changedTypes = Sets.newHashSet();
+        for (final ObjectAdapter enlistedAdapter : changeKindByEnlistedAdapter.keySet()) {
+            changedTypes.add(enlistedAdapter.getSpecification().getCorrespondingClass());
+        }
+        return changedTypes;
+    }
 
     
     // ////////////////////////////////////////////////////////////////
@@ -955,6 +1132,8 @@ public synchronized final void markAsAborted() {
         }
 
         setState(State.ABORTED);
+        afterCommitTasks.clear();
+        invalidateSharedQueryResultsCacheIfRequired();
     }
 
     
@@ -1180,20 +1359,30 @@ public boolean apply(Entry<?, PreAndPostValues> input) {
                 }};
         }
 
+        /**
+         * Values of these types are immutable and never deleted, so their <tt>toString</tt> can safely be deferred.
+         */
+        private final static Set<Class<?>> IMMUTABLE_VALUE_TYPES = ImmutableSet.<Class<?>>of(
+                String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+                Float.class, Double.class, java.math.BigInteger.class, java.math.BigDecimal.class, UUID.class);
+
         private final Object pre;
         /**
-         * Eagerly calculated because it could be that the object referenced ends up being deleted by the time that the xactn completes.
+         * Eagerly calculated (unless {@link #pre} is an {@link #IMMUTABLE_VALUE_TYPES immutable value}) because it 
+         * could be that the object referenced ends up being deleted by the time that the xactn completes.
          */
-        private final String preString;
+        private String preString;
+        private boolean preStringCalculated;
 
         /**
          * Updated in {@link #setPost(Object)} 
          */
         private Object post;
         /**
-         * Updated in {@link #setPost(Object)}, along with {@link #post}.
+         * Lazily calculated from {@link #post}.
          */
         private String postString;
+        private boolean postStringCalculated;
 
         
         public static PreAndPostValues pre(Object preValue) {
@@ -1203,8 +1392,16 @@ public static PreAndPostValues pre(Object preValue) {
         private PreAndPostValues(Object pre, Object post) {
             this.pre = pre;
             this.post = post;
-            this.preString = asString(pre);
+            if(!isImmutableValue(pre)) {
+                this.preString = asString(pre);
+                this.preStringCalculated = true;
+            }
+        }
+
+        private static boolean isImmutableValue(final Object value) {
+            return value == null || value instanceof Enum || IMMUTABLE_VALUE_TYPES.contains(value.getClass());
         }
+
         /**
          * The object that was referenced before this object was changed
          * 
@@ -1216,17 +1413,26 @@ public Object getPre() {
             return pre;
         }
         public String getPreString() {
+            if(!preStringCalculated) {
+                preString = asString(pre);
+                preStringCalculated = true;
+            }
             return preString;
         }
         public Object getPost() {
             return post;
         }
         public String getPostString() {
+            if(!postStringCalculated) {
+                postString = asString(post);
+                postStringCalculated = true;
+            }
             return postString;
         }
         public void setPost(Object post) {
             this.post = post;
-            this.postString = asString(post);
+            this.postString = null;
+            this.postStringCalculated = false;
         }
         
         @Override
@@ -1245,6 +1451,10 @@ public boolean differ() {
    
     private final Map<ObjectAdapter,ChangeKind> changeKindByEnlistedAdapter = Maps.newLinkedHashMap();
     private final Map<AdapterAndProperty, PreAndPostValues> changedObjectProperties = Maps.newLinkedHashMap();
+    /**
+     * Those adapters for which at least one property has been {@link #enlistUpdating(ObjectAdapter, ObjectAssociation, Object) enlisted individually}.
+     */
+    private final Set<ObjectAdapter> adaptersWithPropertiesEnlisted = Sets.newHashSet();
 
     private ObjectStringifier objectStringifier;
 
@@ -1289,7 +1499,8 @@ public void enlistUpdating(ObjectAdapter adapter) {
         enlist(adapter, ChangeKind.UPDATE);
         for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
             final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
-            if(property.isNotPersisted()) {
+            if(property.isNotPersisted() || changedObjectProperties.containsKey(aap)) {
+                // the pre-modification value captured first is the one that counts
                 continue;
             }
             PreAndPostValues papv = PreAndPostValues.pre(aap.getPropertyValue());
@@ -1297,6 +1508,69 @@ public void enlistUpdating(ObjectAdapter adapter) {
         }
     }
 
+    /**
+     * Auditing and publishing support: for object stores that are able to notify of each individual property
+     * that is about to be modified, capturing the pre-modification value of just that property.
+     * 
+     * <p>
+     * Used in preference to {@link #enlistUpdating(ObjectAdapter)}, so that only the properties that are
+     * actually modified are captured and, at the end of the transaction, compared.  Only the first
+     * pre-modification value of any given property is retained.
+     * 
+     * <p>
+     * Supported by the JDO object store; check documentation for support in other objectstores.
+     */
+    public void enlistUpdating(ObjectAdapter adapter, ObjectAssociation property, Object preValue) {
+        enlistUpdatingKind(adapter);
+        if(property.isNotPersisted()) {
+            return;
+        }
+        final AdapterAndProperty aap = AdapterAndProperty.of(adapter, property);
+        adaptersWithPropertiesEnlisted.add(adapter);
+        if(changedObjectProperties.containsKey(aap)) {
+            return;
+        }
+        changedObjectProperties.put(aap, PreAndPostValues.pre(preValue));
+    }
+
+    /**
+     * Auditing and publishing support: for object stores that {@link #enlistUpdating(ObjectAdapter, ObjectAssociation, Object) enlist}
+     * each modified property where they are able to, to enlist an object that is about to be updated.
+     *
+     * <p>
+     * If none of the object's properties has been enlisted individually (eg because the change was not made through
+     * a tracked setter), then falls back to {@link #enlistUpdating(ObjectAdapter) capturing all} of its properties,
+     * so that the change is not missed.
+     */
+    public void enlistUpdatingUnlessPropertiesEnlisted(ObjectAdapter adapter) {
+        if(adaptersWithPropertiesEnlisted.contains(adapter)) {
+            enlistUpdatingKind(adapter);
+        } else {
+            enlistUpdating(adapter);
+        }
+    }
+
+    /**
+     * For testing; the pre-modification value captured for the property, if any.
+     */
+    PreAndPostValues getEnlisted(ObjectAdapter adapter, ObjectAssociation property) {
+        return changedObjectProperties.get(AdapterAndProperty.of(adapter, property));
+    }
+
+    /**
+     * Auditing and publishing support: for object stores that call
+     * {@link #enlistUpdating(ObjectAdapter, ObjectAssociation, Object)} for each modified property, to enlist an
+     * object as being updated without capturing the values of any of its properties.
+     */
+    public void enlistUpdatingKind(ObjectAdapter adapter) {
+        final ChangeKind existing = changeKindByEnlistedAdapter.get(adapter);
+        if(existing == ChangeKind.CREATE || existing == ChangeKind.DELETE) {
+            // a more significant change has already been recorded
+            return;
+        }
+        enlist(adapter, ChangeKind.UPDATE);
+    }
+
     /**
      * Auditing and publishing support: for object stores to enlist an object that is about to be deleted, 
      * capturing the pre-deletion value of the properties of the {@link ObjectAdapter}. 
@@ -1368,6 +1642,14 @@ protected AdapterManager getAdapterManager() {
         return IsisContext.getPersistenceSession().getAdapterManager();
     }
 
+    protected BatchAuditingDispatcher getBatchAuditingDispatcher() {
+        return IsisContext.getPersistenceSession().getPersistenceSessionFactory().getBatchAuditingDispatcher();
+    }
+
+    protected PublishingOutboxDispatcher getPublishingOutboxDispatcher() {
+        return IsisContext.getPersistenceSession().getPersistenceSessionFactory().getPublishingOutboxDispatcher();
+    }
+
     protected OidMarshaller getOidMarshaller() {
         return IsisContext.getOidMarshaller();
     }
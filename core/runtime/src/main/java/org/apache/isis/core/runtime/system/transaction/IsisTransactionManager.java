@@ -70,6 +70,12 @@ public class IsisTransactionManager implements SessionScopedComponent {
 
     private final ServicesInjector servicesInjector;
 
+    /**
+     * Whether the request-scoped services have been started but not yet ended; they are ended when a transaction
+     * commits, but not when one is aborted.
+     */
+    private boolean requestScopedServicesStarted;
+
 
     // ////////////////////////////////////////////////////////////////
     // constructor
@@ -295,6 +301,12 @@ private void initOtherApplibServicesIfConfigured() {
 
     private void startRequestOnRequestScopedServices() {
 
+        if(requestScopedServicesStarted) {
+            // the previous transaction was aborted rather than committed (eg one of the items of a batch executed
+            // each in its own transaction), so end its request-scoped services rather than just replace them.
+            endRequestOnRequestScopeServices();
+        }
+
         final List<Object> registeredServices = servicesInjector.getRegisteredServices();
 
         // tell the proxy of all request-scoped services to instantiate the underlying
@@ -310,6 +322,7 @@ private void startRequestOnRequestScopedServices() {
                 ((RequestScopedService)service).__isis_postConstruct();
             }
         }
+        requestScopedServicesStarted = true;
     }
 
     private void endRequestOnRequestScopeServices() {
@@ -327,6 +340,7 @@ private void endRequestOnRequestScopeServices() {
                 ((RequestScopedService)service).__isis_endRequest();
             }
         }
+        requestScopedServicesStarted = false;
     }
 
     private void createCommandIfConfigured() {
@@ -0,0 +1,541 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.publish.PublishingOutboxEntry;
+import org.apache.isis.core.commons.components.ApplicationScopedComponent;
+import org.apache.isis.core.commons.config.ConfigurationConstants;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.facets.actions.action.invocation.ActionInvocationFacet.CurrentInvocation;
+import org.apache.isis.core.metamodel.facets.actions.publish.PublishedActionFacet;
+import org.apache.isis.core.metamodel.facets.object.publishedobject.PublishedObjectFacet;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAction;
+import org.apache.isis.core.runtime.persistence.ObjectNotFoundException;
+import org.apache.isis.core.runtime.persistence.objectstore.transaction.PublishingServiceWithDefaultPayloadFactories;
+import org.apache.isis.core.runtime.sessiontemplate.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.internal.InitialisationSession;
+
+/**
+ * Delivers the {@link PublishingOutboxEntry entries} appended to the {@link PublishingOutbox} by each
+ * {@link IsisTransaction} to the {@link org.apache.isis.applib.services.publish.PublishingService}.
+ *
+ * <p>
+ * A single poller thread reads the {@link PublishingOutbox#pending(int) pending} entries, either when woken by a
+ * committed transaction or otherwise every {@link #POLL_INTERVAL_MILLIS_KEY poll interval}.  The entries are
+ * partitioned by their {@link PublishingOutboxEntry#getAggregate() aggregate root} across a pool of delivery
+ * threads, each of which builds the payloads and publishes its entries in order, within its own Isis session and
+ * transaction.  Only once delivered (and that transaction committed) are the entries
+ * {@link PublishingOutbox#acknowledge(List) acknowledged}.
+ *
+ * <p>
+ * If an entry cannot be delivered then no later entries for the same aggregate root are delivered in that
+ * round; they will all be retried (from the first undelivered entry) on the next poll.  Once an entry has failed
+ * {@link #MAX_ATTEMPTS_KEY repeatedly} it is {@link PublishingOutbox#quarantine(List) quarantined}, so that it
+ * no longer holds back the later entries of its aggregate root (nor, once enough such entries have accumulated,
+ * the entire outbox).  The attempts are counted since the dispatcher was started.
+ *
+ * <p>
+ * If the target of an event no longer exists by the time it is delivered (eg it was deleted by some later
+ * transaction), then (as for a deleted object) an 'empty' pojo stands in for it.
+ *
+ * <p>
+ * Created (if both a {@link org.apache.isis.applib.services.publish.PublishingService} and a
+ * {@link PublishingOutbox} are registered) by the
+ * {@link org.apache.isis.core.runtime.system.persistence.PersistenceSessionFactory}.
+ */
+public class PublishingOutboxDispatcher implements ApplicationScopedComponent {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PublishingOutboxDispatcher.class);
+
+    private static final String ROOT_KEY = ConfigurationConstants.ROOT + "services.publish.outbox.";
+
+    /**
+     * The number of delivery threads.
+     */
+    public static final String THREADS_KEY = ROOT_KEY + "threads";
+    public static final int THREADS_DEFAULT = 2;
+
+    public static final String MAX_BATCH_SIZE_KEY = ROOT_KEY + "maxBatchSize";
+    public static final int MAX_BATCH_SIZE_DEFAULT = 100;
+
+    /**
+     * The number of times that delivery of an entry is attempted before it is quarantined.
+     */
+    public static final String MAX_ATTEMPTS_KEY = ROOT_KEY + "maxAttempts";
+    public static final int MAX_ATTEMPTS_DEFAULT = 10;
+
+    /**
+     * How often to poll the outbox if not otherwise woken (eg to pick up entries left over from a previous run,
+     * or to retry entries that could not be delivered).
+     */
+    public static final String POLL_INTERVAL_MILLIS_KEY = ROOT_KEY + "pollIntervalMillis";
+    public static final int POLL_INTERVAL_MILLIS_DEFAULT = 1000;
+
+    /**
+     * How long to wait, on shutdown, for any delivery in progress to complete.
+     */
+    public static final String SHUTDOWN_TIMEOUT_MILLIS_KEY = ROOT_KEY + "shutdownTimeoutMillis";
+    public static final int SHUTDOWN_TIMEOUT_MILLIS_DEFAULT = 10000;
+
+    private final PublishingOutbox publishingOutbox;
+
+    private final int threads;
+    private final int maxBatchSize;
+    private final int maxAttempts;
+    private final long pollIntervalMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final Object lock = new Object();
+    private boolean woken;
+
+    private List<ExecutorService> deliveryExecutors;
+    private Thread pollerThread;
+    private volatile boolean shutdown;
+
+    /**
+     * Only accessed by the poller thread.
+     */
+    private final Map<String, Integer> failedAttemptsById = Maps.newHashMap();
+
+    public PublishingOutboxDispatcher(final PublishingOutbox publishingOutbox, final IsisConfiguration configuration) {
+        this.publishingOutbox = publishingOutbox;
+        this.threads = Math.max(1, configuration.getInteger(THREADS_KEY, THREADS_DEFAULT));
+        this.maxBatchSize = configuration.getInteger(MAX_BATCH_SIZE_KEY, MAX_BATCH_SIZE_DEFAULT);
+        this.maxAttempts = Math.max(1, configuration.getInteger(MAX_ATTEMPTS_KEY, MAX_ATTEMPTS_DEFAULT));
+        this.pollIntervalMillis = configuration.getInteger(POLL_INTERVAL_MILLIS_KEY, POLL_INTERVAL_MILLIS_DEFAULT);
+        this.shutdownTimeoutMillis = configuration.getInteger(SHUTDOWN_TIMEOUT_MILLIS_KEY, SHUTDOWN_TIMEOUT_MILLIS_DEFAULT);
+    }
+
+    // //////////////////////////////////////
+    // init, shutdown
+    // //////////////////////////////////////
+
+    @Override
+    public void init() {
+        startDeliveryThreads();
+        pollerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pollUntilShutdown();
+            }
+        }, "isis-publishing-outbox");
+        pollerThread.setDaemon(true);
+        pollerThread.start();
+    }
+
+    void startDeliveryThreads() {
+        deliveryExecutors = Lists.newArrayListWithCapacity(threads);
+        final AtomicInteger threadNumber = new AtomicInteger();
+        final ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "isis-publishing-delivery-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        // one single-threaded executor per partition, so that the entries of any given aggregate are delivered in order
+        for (int i = 0; i < threads; i++) {
+            deliveryExecutors.add(Executors.newSingleThreadExecutor(threadFactory));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        if (pollerThread != null) {
+            wakeUp();
+            try {
+                pollerThread.join(shutdownTimeoutMillis);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (pollerThread.isAlive()) {
+                LOG.warn("publishing outbox dispatcher did not finish within " + shutdownTimeoutMillis + "ms; undelivered entries will be delivered on restart");
+                pollerThread.interrupt();
+            }
+            pollerThread = null;
+        }
+        if (deliveryExecutors != null) {
+            for (final ExecutorService executor : deliveryExecutors) {
+                executor.shutdownNow();
+            }
+            deliveryExecutors = null;
+        }
+    }
+
+    // //////////////////////////////////////
+    // wakeUp
+    // //////////////////////////////////////
+
+    /**
+     * Called by {@link IsisTransaction} once it has committed having appended entries to the outbox.
+     */
+    public void wakeUp() {
+        synchronized (lock) {
+            woken = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void awaitWakeUp() throws InterruptedException {
+        synchronized (lock) {
+            if (!woken && !shutdown) {
+                lock.wait(pollIntervalMillis);
+            }
+            woken = false;
+        }
+    }
+
+    // //////////////////////////////////////
+    // poll
+    // //////////////////////////////////////
+
+    private void pollUntilShutdown() {
+        while (!shutdown) {
+            try {
+                awaitWakeUp();
+                if (shutdown) {
+                    return;
+                }
+                deliverPending();
+            } catch (final InterruptedException ex) {
+                return;
+            } catch (final RuntimeException ex) {
+                LOG.error("failed to deliver entries from the publishing outbox; will retry", ex);
+            }
+        }
+    }
+
+    /**
+     * Delivers batches of pending entries until there are none left, or until some entry could not be delivered
+     * (in which case we back off until the next poll).
+     */
+    void deliverPending() throws InterruptedException {
+        while (!shutdown) {
+            final List<PublishingOutboxEntry> pending = pending();
+            if (pending.isEmpty()) {
+                return;
+            }
+            final Outcome outcome = deliver(pending);
+            if (!outcome.delivered.isEmpty()) {
+                acknowledge(outcome.delivered);
+            }
+            final List<PublishingOutboxEntry> quarantined = countFailedAttempts(outcome.failed);
+            if (!quarantined.isEmpty()) {
+                quarantine(quarantined);
+            }
+            if (outcome.delivered.size() + quarantined.size() < pending.size()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns those of the failed entries that have now used up their attempts.
+     */
+    private List<PublishingOutboxEntry> countFailedAttempts(final List<PublishingOutboxEntry> failed) {
+        final List<PublishingOutboxEntry> quarantined = Lists.newArrayList();
+        for (final PublishingOutboxEntry entry : failed) {
+            final Integer previousAttempts = failedAttemptsById.get(entry.getId());
+            final int attempts = previousAttempts != null ? previousAttempts + 1 : 1;
+            if (attempts >= maxAttempts) {
+                LOG.error("failed to deliver " + entry + " after " + attempts + " attempts; quarantining");
+                quarantined.add(entry);
+            } else {
+                failedAttemptsById.put(entry.getId(), attempts);
+            }
+        }
+        return quarantined;
+    }
+
+    private List<PublishingOutboxEntry> pending() {
+        final List<PublishingOutboxEntry> pending = Lists.newArrayList();
+        executeInSession(new Runnable() {
+            @Override
+            public void run() {
+                pending.addAll(publishingOutbox.pending(maxBatchSize));
+            }
+        });
+        return pending;
+    }
+
+    private void acknowledge(final List<PublishingOutboxEntry> delivered) {
+        executeInSession(new Runnable() {
+            @Override
+            public void run() {
+                publishingOutbox.acknowledge(delivered);
+            }
+        });
+        forgetFailedAttempts(delivered);
+    }
+
+    private void quarantine(final List<PublishingOutboxEntry> quarantined) {
+        executeInSession(new Runnable() {
+            @Override
+            public void run() {
+                publishingOutbox.quarantine(quarantined);
+            }
+        });
+        forgetFailedAttempts(quarantined);
+    }
+
+    private void forgetFailedAttempts(final List<PublishingOutboxEntry> entries) {
+        for (final PublishingOutboxEntry entry : entries) {
+            failedAttemptsById.remove(entry.getId());
+        }
+    }
+
+    private Outcome deliver(final List<PublishingOutboxEntry> pending) throws InterruptedException {
+        final List<List<PublishingOutboxEntry>> partitions = partition(pending);
+        final List<Future<Outcome>> futures = Lists.newArrayList();
+        for (int i = 0; i < partitions.size(); i++) {
+            final List<PublishingOutboxEntry> partition = partitions.get(i);
+            if (partition.isEmpty()) {
+                continue;
+            }
+            futures.add(deliveryExecutors.get(i).submit(new Delivery(partition)));
+        }
+        final Outcome outcome = new Outcome();
+        for (final Future<Outcome> future : futures) {
+            try {
+                final Outcome partitionOutcome = future.get();
+                outcome.delivered.addAll(partitionOutcome.delivered);
+                outcome.failed.addAll(partitionOutcome.failed);
+            } catch (final ExecutionException ex) {
+                LOG.error("failed to deliver entries from the publishing outbox; will retry", ex.getCause());
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Partitions by aggregate root, preserving the order of the entries within each partition.
+     */
+    List<List<PublishingOutboxEntry>> partition(final List<PublishingOutboxEntry> entries) {
+        final List<List<PublishingOutboxEntry>> partitions = Lists.newArrayListWithCapacity(threads);
+        for (int i = 0; i < threads; i++) {
+            partitions.add(Lists.<PublishingOutboxEntry>newArrayList());
+        }
+        for (final PublishingOutboxEntry entry : entries) {
+            final Bookmark aggregate = entry.getAggregate();
+            final int hash = aggregate != null ? aggregate.toString().hashCode() : 0;
+            partitions.get((hash & Integer.MAX_VALUE) % threads).add(entry);
+        }
+        return partitions;
+    }
+
+    /**
+     * Runs the callback within its own Isis session and transaction, throwing an exception if that transaction
+     * did not commit.
+     */
+    void executeInSession(final Runnable callback) {
+        new AbstractIsisSessionTemplate() {
+            @Override
+            protected void doExecuteWithTransaction(final Object context) {
+                callback.run();
+            }
+        }.execute(new InitialisationSession(), null);
+    }
+
+    // //////////////////////////////////////
+    // Delivery
+    // //////////////////////////////////////
+
+    /**
+     * The entries delivered and, for each aggregate root, the entry (if any) that could not be delivered.
+     */
+    private static class Outcome {
+        private final List<PublishingOutboxEntry> delivered = Lists.newArrayList();
+        private final List<PublishingOutboxEntry> failed = Lists.newArrayList();
+    }
+
+    /**
+     * Delivers the entries of a single partition within an Isis session and transaction; none are delivered at all
+     * if the transaction did not commit.
+     */
+    private class Delivery implements Callable<Outcome> {
+
+        private final List<PublishingOutboxEntry> entries;
+
+        Delivery(final List<PublishingOutboxEntry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Outcome call() {
+            final Outcome outcome = new Outcome();
+            try {
+                executeInSession(new Runnable() {
+                    @Override
+                    public void run() {
+                        deliverInOrder(outcome);
+                    }
+                });
+            } catch (final RuntimeException ex) {
+                LOG.error("failed to commit delivery of " + entries.size() + " entries from the publishing outbox; will retry", ex);
+                outcome.delivered.clear();
+            }
+            return outcome;
+        }
+
+        private void deliverInOrder(final Outcome outcome) {
+            final Set<String> failedAggregates = Sets.newHashSet();
+            for (final PublishingOutboxEntry entry : entries) {
+                final String aggregate = String.valueOf(entry.getAggregate());
+                if (failedAggregates.contains(aggregate)) {
+                    continue;
+                }
+                try {
+                    deliver(entry);
+                    outcome.delivered.add(entry);
+                } catch (final RuntimeException ex) {
+                    LOG.error("failed to deliver " + entry + "; will retry", ex);
+                    outcome.failed.add(entry);
+                    failedAggregates.add(aggregate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the payload of the entry and publishes it, within the current Isis session and transaction.
+     */
+    void deliver(final PublishingOutboxEntry entry) {
+        final IsisTransaction transaction = IsisContext.getCurrentTransaction();
+        final PublishingServiceWithDefaultPayloadFactories publishingService = transaction.getPublishingService();
+        final EventMetadata metadata = entry.getMetadata();
+        if (entry.isActionInvocation()) {
+            final ObjectAdapter target = adapterForPossiblyDeleted(metadata.getTarget());
+            final ObjectAction action = findAction(target.getSpecification(), metadata.getActionIdentifier());
+            if (action == null) {
+                throw new IllegalStateException("Unknown action '" + metadata.getActionIdentifier() + "'");
+            }
+            final List<ObjectAdapter> arguments = Lists.newArrayList();
+            for (final Object argument : entry.getArguments()) {
+                arguments.add(adapterForValue(argument));
+            }
+            final ObjectAdapter result = adapterForValue(entry.getResult());
+            final PublishedActionFacet facet = action.getFacet(PublishedActionFacet.class);
+            final CurrentInvocation invocation = new CurrentInvocation(target, action, arguments, result, null);
+            publishingService.publishAction(facet != null ? facet.value() : null, metadata, invocation, transaction.objectStringifier());
+        } else {
+            final ObjectAdapter changed = entry.getChangeKind() == ChangeKind.DELETE
+                    ? adapterForDeleted(metadata.getTarget())
+                    : adapterForPossiblyDeleted(metadata.getTarget());
+            final PublishedObjectFacet facet = changed.getSpecification().getFacet(PublishedObjectFacet.class);
+            publishingService.publishObject(facet != null ? facet.value() : null, metadata, changed, entry.getChangeKind(), transaction.objectStringifier());
+        }
+    }
+
+    /**
+     * The object might have been deleted since the event occurred.
+     */
+    private static ObjectAdapter adapterForPossiblyDeleted(final Bookmark bookmark) {
+        try {
+            return getAdapterManager().adapterFor(RootOidDefault.create(bookmark));
+        } catch (final RuntimeException ex) {
+            if (!isNotFound(ex)) {
+                throw ex;
+            }
+            return adapterForDeleted(bookmark);
+        }
+    }
+
+    private static boolean isNotFound(final RuntimeException ex) {
+        for (final Throwable cause : Throwables.getCausalChain(ex)) {
+            if (cause instanceof ObjectNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The object no longer exists, so (as for synchronous publishing) an 'empty' pojo stands in for it.
+     */
+    private static ObjectAdapter adapterForDeleted(final Bookmark bookmark) {
+        final RootOid oid = RootOidDefault.create(bookmark);
+        final ObjectSpecification spec = IsisContext.getSpecificationLoader().lookupBySpecId(oid.getObjectSpecId());
+        return getAdapterManager().mapRecreatedPojo(oid, spec.createObject());
+    }
+
+    private static ObjectAdapter adapterForValue(final Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Bookmark) {
+            return adapterForPossiblyDeleted((Bookmark) value);
+        }
+        if (value instanceof List) {
+            final List<Object> elements = Lists.newArrayList();
+            for (final Object element : (List<?>) value) {
+                final ObjectAdapter elementAdapter = adapterForValue(element);
+                elements.add(elementAdapter != null ? elementAdapter.getObject() : null);
+            }
+            return getAdapterManager().adapterFor(elements);
+        }
+        return getAdapterManager().adapterFor(value);
+    }
+
+    private static AdapterManager getAdapterManager() {
+        return IsisContext.getPersistenceSession().getAdapterManager();
+    }
+
+    private static ObjectAction findAction(final ObjectSpecification specification, final String actionIdentifier) {
+        for (final ObjectAction objectAction : specification.getObjectActions(Contributed.INCLUDED)) {
+            if (objectAction.getIdentifier().toClassAndNameIdentityString().equals(actionIdentifier)) {
+                return objectAction;
+            }
+        }
+        return null;
+    }
+
+}
@@ -20,10 +20,13 @@
 
 import java.sql.Connection;
 import java.text.MessageFormat;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import javax.jdo.FetchGroup;
 import javax.jdo.FetchPlan;
+import javax.jdo.JDOHelper;
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
 import javax.jdo.spi.PersistenceCapable;
@@ -36,10 +39,8 @@
 import org.apache.isis.core.commons.config.ConfigurationConstants;
 import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.commons.debug.DebugBuilder;
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
-import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.adapter.oid.*;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
@@ -96,6 +97,18 @@ static enum State {
     public static final String INSTALL_FIXTURES_KEY = ROOT_KEY + "install-fixtures";
     public static final boolean INSTALL_FIXTURES_DEFAULT = false;
 
+    /**
+     * If set, then once each transaction has committed, the adapters of all persistent (non-service) objects are
+     * {@link AdapterManagerDefault#removePersistentAdapters() removed} and the (now clean) pojos are evicted from
+     * the persistence manager.  Any that are used again are transparently reloaded and re-adapted.
+     *
+     * <p>
+     * Intended for long-running sessions, such as batch jobs, that touch many objects across many transactions;
+     * it means that memory use does not grow with the number of objects touched over the lifetime of the session.
+     */
+    public static final String EVICT_AFTER_COMMIT_KEY = ROOT_KEY + "evictAfterCommit";
+    public static final boolean EVICT_AFTER_COMMIT_DEFAULT = false;
+
     static enum TransactionMode {
         /**
          * Requires transactions to be started explicitly.
@@ -119,6 +132,7 @@ static enum TransactionMode {
 
     private State state;
     private TransactionMode transactionMode;
+    private boolean evictAfterCommit;
     
 
     public DataNucleusObjectStore(
@@ -152,6 +166,7 @@ public void open() {
         ensureThatState(persistenceManager, is(notNullValue()));
 
         addPersistenceQueryProcessors(persistenceManager);
+        evictAfterCommit = getConfiguration().getBoolean(EVICT_AFTER_COMMIT_KEY, EVICT_AFTER_COMMIT_DEFAULT);
 
         state = State.OPEN;
     }
@@ -256,6 +271,13 @@ public void startTransaction() {
 
     public void endTransaction() {
         commitJdoTransaction();
+        if (evictAfterCommit) {
+            final int removed = getAdapterManager().removePersistentAdapters();
+            getPersistenceManager().evictAll();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("endTransaction: evicted " + removed + " adapters after commit");
+            }
+        }
     }
 
     public void abortTransaction() {
@@ -377,6 +399,96 @@ public ObjectAdapter loadInstanceAndAdapt(final TypedOid oid) {
         return getPersistenceSession().getAdapterManager().mapRecreatedPojo(oid, pojo);
     }
 
+    public List<ObjectAdapter> loadInstancesAndAdapt(final List<? extends TypedOid> oids) {
+        ensureOpened();
+        ensureInTransaction();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("getObjects; oids=" + oids);
+        }
+
+        final List<Object> pojos = loadPojos(oids);
+        final List<ObjectAdapter> adapters = Lists.newArrayListWithCapacity(oids.size());
+        for (int i = 0; i < oids.size(); i++) {
+            final Object pojo = pojos.get(i);
+            adapters.add(pojo != null ? getAdapterManager().mapRecreatedPojo(oids.get(i), pojo) : null);
+        }
+        return adapters;
+    }
+
+    public boolean evict(final ObjectAdapter adapter) {
+        final Object pojo = adapter.getObject();
+        if (!(pojo instanceof PersistenceCapable)) {
+            return false;
+        }
+        if (JDOHelper.isDirty(pojo) || JDOHelper.isNew(pojo) || JDOHelper.isDeleted(pojo)) {
+            return false;
+        }
+        getPersistenceManager().evict(pojo);
+        return true;
+    }
+
+    /**
+     * Loads the pojos for the specified oids, using a single {@link PersistenceManager#getObjectsById(boolean, Object...)}
+     * for each class.
+     *
+     * <p>
+     * Returns a list in the same order as the oids, with <tt>null</tt> for any that could not be found.
+     */
+    List<Object> loadPojos(final List<? extends TypedOid> oids) {
+
+        final Object[] pojos = new Object[oids.size()];
+
+        // group by class, remembering each oid's position
+        final Map<Class<?>, List<Integer>> positionsByClass = Maps.newLinkedHashMap();
+        for (int i = 0; i < oids.size(); i++) {
+            final TypedOid oid = oids.get(i);
+            if(oid instanceof AggregatedOid) {
+                throw new UnsupportedOperationException("Cannot retrieve aggregated objects directly, oid: " + oid.enString(getOidMarshaller()));
+            }
+            final Class<?> cls = clsOf(oid);
+            List<Integer> positions = positionsByClass.get(cls);
+            if(positions == null) {
+                positions = Lists.newArrayList();
+                positionsByClass.put(cls, positions);
+            }
+            positions.add(i);
+        }
+
+        final PersistenceManager pm = getPersistenceManager();
+        final FetchPlan fetchPlan = pm.getFetchPlan();
+        fetchPlan.addGroup(FetchGroup.DEFAULT);
+
+        for (final Map.Entry<Class<?>, List<Integer>> entry : positionsByClass.entrySet()) {
+            final Class<?> cls = entry.getKey();
+            final List<Integer> positions = entry.getValue();
+
+            final Object[] jdoObjectIds = new Object[positions.size()];
+            for (int j = 0; j < positions.size(); j++) {
+                final RootOid rootOid = (RootOid) oids.get(positions.get(j));
+                jdoObjectIds[j] = pm.newObjectIdInstance(cls, jdoObjectIdFor(rootOid));
+            }
+            try {
+                final Object[] loaded = pm.getObjectsById(true, jdoObjectIds);
+                for (int j = 0; j < positions.size(); j++) {
+                    pojos[positions.get(j)] = loaded[j];
+                }
+            } catch(final JDOObjectNotFoundException ex) {
+                // at least one no longer exists; fall back to loading individually so that the remainder are still returned
+                for (final Integer position : positions) {
+                    try {
+                        pojos[position] = loadPojo(oids.get(position));
+                    } catch(final ObjectNotFoundException ignore) {
+                        // leave as null
+                    } catch(final JDOObjectNotFoundException ignore) {
+                        // as thrown by loadPojo if no ExceptionRecognizer2 translated it; leave as null
+                    }
+                }
+            }
+        }
+        return Arrays.asList(pojos);
+    }
+
     
     
     /////////////////////////////////////////////////////////////
@@ -395,7 +507,7 @@ public Object loadPojo(final TypedOid oid) {
         Object result = null;
         try {
             final Class<?> cls = clsOf(rootOid);
-            final Object jdoObjectId = JdoObjectIdSerializer.toJdoObjectId(rootOid);
+            final Object jdoObjectId = jdoObjectIdFor(rootOid);
             final PersistenceManager pm = getPersistenceManager();
             FetchPlan fetchPlan = pm.getFetchPlan();
             fetchPlan.addGroup(FetchGroup.DEFAULT);
@@ -471,6 +583,44 @@ public void resolveImmediately(final ObjectAdapter adapter) {
         refreshRoot(adapter);
     }
 
+    /**
+     * Rather than {@link #refreshRoot(ObjectAdapter) refreshing} each, the pojos are retrieved together
+     * ({@link #loadPojos(List) one fetch per class}), which loads the instances already held (hollow) by the
+     * persistence manager.
+     */
+    public void resolveImmediately(final List<ObjectAdapter> adapters) {
+        ensureOpened();
+        ensureInTransaction();
+
+        final List<TypedOid> oids = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            if (adapter.isResolved() || !adapter.representsPersistent() || !(adapter.getOid() instanceof RootOid)) {
+                continue;
+            }
+            oids.add((RootOid) adapter.getOid());
+        }
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("resolveImmediately; oids=" + oids);
+        }
+        if (oids.isEmpty()) {
+            return;
+        }
+
+        postLoadProcessingFor(loadPojos(oids));
+    }
+
+    /**
+     * Completes the {@link #resolveImmediately(List) resolution} of the loaded pojos; any that no longer exist
+     * (<tt>null</tt>, as returned by {@link #loadPojos(List)}) are skipped, leaving their adapters unresolved.
+     */
+    void postLoadProcessingFor(final List<Object> pojos) {
+        for (final Object pojo : pojos) {
+            if (pojo instanceof PersistenceCapable) {
+                frameworkSynchronizer.postLoadProcessingFor((PersistenceCapable) pojo, CalledFrom.OS_RESOLVE);
+            }
+        }
+    }
+
     /**
      * Not API; provides the ability to force a reload (refresh in JDO terms)
      * of the domain object wrapped in the {@link ObjectAdapter}.
@@ -498,7 +648,7 @@ public void refreshRoot(final ObjectAdapter adapter) {
 
 
     // ///////////////////////////////////////////////////////////////////////
-    // getInstances, hasInstances
+    // getInstances, hasInstances, countInstances
     // ///////////////////////////////////////////////////////////////////////
 
     public List<ObjectAdapter> loadInstancesAndAdapt(final PersistenceQuery persistenceQuery) {
@@ -530,8 +680,49 @@ public boolean hasInstances(final ObjectSpecification specification) {
             return false;
         }
 
-        final Query jdoQuery = QueryUtil.createQuery(getPersistenceManager(), "o", "select o.id", specification, null);
-        throw new NotYetImplementedException();
+        // only need to know whether there is at least one
+        final Query jdoQuery = getPersistenceManager().newQuery(specification.getCorrespondingClass());
+        jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+        jdoQuery.setRange(0, 1);
+        try {
+            final List<?> pojos = (List<?>) jdoQuery.execute();
+            return !pojos.isEmpty();
+        } finally {
+            jdoQuery.closeAll();
+        }
+    }
+
+    /**
+     * Instances of {@link PersistenceQueryFindAllInstances} are counted using a <tt>count(this)</tt> JDOQL query;
+     * all other queries (whose filtering may be done in-memory, or whose named query may not support a
+     * <tt>count</tt> projection) are executed and their results counted.
+     */
+    public long countInstances(final PersistenceQuery persistenceQuery) {
+        ensureOpened();
+        ensureInTransaction();
+
+        final ObjectSpecification specification = persistenceQuery.getSpecification();
+        if (!(persistenceQuery instanceof PersistenceQueryFindAllInstances)) {
+            return loadInstancesAndAdapt(persistenceQuery).size();
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("countInstances: class=" + specification.getFullIdentifier());
+        }
+
+        if (!specification.persistability().isPersistable()) {
+            LOG.warn("countInstances: trying to run for non-persistent class " + specification);
+            return 0L;
+        }
+
+        final Query jdoQuery = getPersistenceManager().newQuery(specification.getCorrespondingClass());
+        jdoQuery.setResult("count(this)");
+        try {
+            final Number count = (Number) jdoQuery.execute();
+            return count != null ? count.longValue() : 0L;
+        } finally {
+            jdoQuery.closeAll();
+        }
     }
 
     // ///////////////////////////////////////////////////////////////////////
@@ -672,6 +863,10 @@ private Class<?> clsOf(final TypedOid oid) {
         return objectSpec.getCorrespondingClass();
     }
 
+    Object jdoObjectIdFor(final RootOid rootOid) {
+        return JdoObjectIdSerializer.toJdoObjectId(rootOid);
+    }
+
     /**
      * Intended for internal and test use only.
      */
@@ -679,6 +874,10 @@ public PersistenceManager getPersistenceManager() {
         return persistenceManager;
     }
 
+    public FrameworkSynchronizer getFrameworkSynchronizer() {
+        return frameworkSynchronizer;
+    }
+
     // ///////////////////////////////////////////////////////////////////////
     // Dependencies (from constructor)
     // ///////////////////////////////////////////////////////////////////////
@@ -704,7 +903,7 @@ protected PersistenceSession getPersistenceSession() {
         return IsisContext.getPersistenceSession();
     }
 
-    protected AdapterManager getAdapterManager() {
+    protected AdapterManagerDefault getAdapterManager() {
         return getPersistenceSession().getAdapterManager();
     }
     
@@ -22,6 +22,8 @@
 import javax.jdo.spi.PersistenceCapable;
 import javax.jdo.spi.StateManager;
 
+import com.google.common.base.Objects;
+
 import org.datanucleus.ExecutionContext;
 import org.datanucleus.cache.CachedPC;
 import org.datanucleus.metadata.AbstractClassMetaData;
@@ -33,6 +35,7 @@
 
 import org.apache.isis.core.metamodel.services.ServicesInjectorSpi;
 import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 import org.apache.isis.objectstore.jdo.datanucleus.service.eventbus.EventBusServiceJdo;
 
 public class JDOStateManagerForIsis extends ReferentialJDOStateManager implements StateManager, ObjectProvider {
@@ -150,6 +153,119 @@ public void postCommit(org.datanucleus.Transaction tx) {
         }
     }
 
+
+    // //////////////////////////////////////
+    // field change tracking
+    // //////////////////////////////////////
+
+    /*
+     * The enhanced setters of a persistent object call these methods with the current and new values of the
+     * field being modified.  We use them to enlist just the modified properties for auditing and publishing,
+     * rather than snapshotting all properties of the object in the preDirty callback.
+     */
+
+    @Override
+    public void setBooleanField(PersistenceCapable pc, int field, boolean currentValue, boolean newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setBooleanField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setCharField(PersistenceCapable pc, int field, char currentValue, char newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setCharField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setByteField(PersistenceCapable pc, int field, byte currentValue, byte newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setByteField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setShortField(PersistenceCapable pc, int field, short currentValue, short newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setShortField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setIntField(PersistenceCapable pc, int field, int currentValue, int newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setIntField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setLongField(PersistenceCapable pc, int field, long currentValue, long newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setLongField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setFloatField(PersistenceCapable pc, int field, float currentValue, float newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setFloatField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setDoubleField(PersistenceCapable pc, int field, double currentValue, double newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || currentValue != newValue)) {
+            preFieldChange(field, currentValue);
+        }
+        super.setDoubleField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setStringField(PersistenceCapable pc, int field, String currentValue, String newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || !Objects.equal(currentValue, newValue))) {
+            preFieldChange(field, currentValue);
+        }
+        super.setStringField(pc, field, currentValue, newValue);
+    }
+
+    @Override
+    public void setObjectField(PersistenceCapable pc, int field, Object currentValue, Object newValue) {
+        if(isTracked(pc) && (!loadedFields[field] || !Objects.equal(currentValue, newValue))) {
+            preFieldChange(field, currentValue);
+        }
+        super.setObjectField(pc, field, currentValue, newValue);
+    }
+
+    /**
+     * Only changes made by the application to a (clean or dirty) persistent object are of interest; not
+     * those made by DataNucleus itself, nor to objects that are new or are being deleted (these are enlisted
+     * in their entirety).
+     */
+    private boolean isTracked(PersistenceCapable pc) {
+        return pc == myPC &&
+               hint.get() == Hint.NONE &&
+               isPersistent(pc) && !isNew(pc) && !isDeleted(pc) &&
+               IsisContext.inTransaction();
+    }
+
+    private void preFieldChange(int field, Object currentValue) {
+        final String fieldName = cmd.getMetaDataForManagedMemberAtAbsolutePosition(field).getName();
+        getFrameworkSynchronizer().preFieldChangeFor(myPC, fieldName, loadedFields[field], currentValue);
+    }
+
+    protected FrameworkSynchronizer getFrameworkSynchronizer() {
+        final DataNucleusObjectStore objectStore = (DataNucleusObjectStore) IsisContext.getPersistenceSession().getObjectStore();
+        return objectStore.getFrameworkSynchronizer();
+    }
+
     protected void mapIntoIsis(PersistenceCapable pc) {
         getServicesInjector().injectServicesInto(pc);
     }
@@ -36,6 +36,8 @@
 import org.apache.isis.core.metamodel.adapter.version.ConcurrencyException;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.core.metamodel.facets.object.callbacks.*;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.PersistorUtil;
 import org.apache.isis.core.runtime.persistence.adaptermanager.AdapterManagerDefault;
 import org.apache.isis.core.runtime.system.context.IsisContext;
@@ -43,6 +45,7 @@
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
 import org.apache.isis.objectstore.jdo.datanucleus.DataNucleusObjectStore;
+import org.apache.isis.objectstore.jdo.datanucleus.JDOStateManagerForIsis;
 
 public class FrameworkSynchronizer {
 
@@ -256,7 +259,9 @@ public void run() {
                 CallbackFacet.Util.callCallback(adapter, UpdatingCallbackFacet.class);
 
                 final IsisTransaction transaction = getCurrentTransaction();
-                transaction.enlistUpdating(adapter);
+                // the modified properties are enlisted individually where they can be, see #preFieldChangeFor(...);
+                // otherwise all properties are captured
+                transaction.enlistUpdatingUnlessPropertiesEnlisted(adapter);
 
                 ensureRootObject(pojo);
                 ensureFrameworksInAgreement(pojo);
@@ -265,6 +270,56 @@ public void run() {
     }
 
 
+    /**
+     * Called by {@link JDOStateManagerForIsis} prior to a field of a persistent object being modified, enlisting
+     * just the corresponding property (and its pre-modification value) for auditing and publishing.
+     * 
+     * <p>
+     * If the field does not correspond to a (persisted) property then falls back to enlisting all properties.
+     * 
+     * @param preValueLoaded - whether <tt>preValue</tt> is valid; if not the property's value is read instead.
+     */
+    public void preFieldChangeFor(final PersistenceCapable pojo, final String fieldName, final boolean preValueLoaded, final Object preValue) {
+        ObjectAdapter adapter = getAdapterManager().getAdapterFor(pojo);
+        if (adapter == null) {
+            adapter = lazilyLoaded(pojo, CalledFrom.EVENT_PREDIRTY);
+            if(adapter == null) {
+                // not (yet) mapped into Isis; the preDirty callback will deal with it
+                return;
+            }
+        }
+        if(adapter.isTransient()) {
+            // as per #preDirtyProcessingFor(...)
+            return;
+        }
+
+        final IsisTransaction transaction = getCurrentTransaction();
+        final ObjectAssociation property = propertyFor(adapter, fieldName);
+        if(property == null) {
+            transaction.enlistUpdating(adapter);
+            return;
+        }
+        final Object value;
+        if(preValueLoaded) {
+            value = preValue;
+        } else {
+            final ObjectAdapter valueAdapter = property.get(adapter);
+            value = valueAdapter != null ? valueAdapter.getObject() : null;
+        }
+        transaction.enlistUpdating(adapter, property, value);
+    }
+
+    private static ObjectAssociation propertyFor(final ObjectAdapter adapter, final String fieldName) {
+        // not using ObjectSpecification#getAssociation(String), which throws if there is no such member
+        for (ObjectAssociation property : adapter.getSpecification().getAssociations(Contributed.EXCLUDED, ObjectAssociation.Filters.PROPERTIES)) {
+            if(property.getId().equals(fieldName)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+
     public ObjectAdapter lazilyLoaded(final PersistenceCapable pojo, CalledFrom calledFrom) {
         return withLogging(pojo, new Callable<ObjectAdapter>() {
             @Override
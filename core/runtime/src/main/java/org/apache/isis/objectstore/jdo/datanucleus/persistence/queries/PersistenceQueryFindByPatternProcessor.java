@@ -18,18 +18,42 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
+import javax.jdo.JDOException;
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import com.google.common.collect.Maps;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByPattern;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * The (non-empty) value properties of the pattern that map onto persistent fields of a JDK type are translated
+ * into JDOQL equality filters, evaluated by the datastore; if there are none then the instances are
+ * {@link #scanAndFilter(ObjectSpecification, org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn) scanned}.
+ *
+ * <p>
+ * Either way, the candidates are then matched against the full pattern (reference properties are matched by
+ * title), which also applies the query's range.
+ */
 public class PersistenceQueryFindByPatternProcessor extends
         PersistenceQueryProcessorAbstract<PersistenceQueryFindByPattern> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByPatternProcessor.class);
+
     public PersistenceQueryFindByPatternProcessor(
             final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
@@ -37,6 +61,73 @@ public PersistenceQueryFindByPatternProcessor(
 
     public List<ObjectAdapter> process(
             final PersistenceQueryFindByPattern persistenceQuery) {
-        throw new NotYetImplementedException();
+        final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
+        final ObjectAdapter pattern = persistenceQuery.getPattern();
+        final Class<?> cls = objectSpec.getCorrespondingClass();
+
+        final StringBuilder filter = new StringBuilder();
+        final Map<String, Object> parameters = Maps.newLinkedHashMap();
+        final List<ObjectAssociation> fields = pattern.getSpecification().getAssociations(Contributed.EXCLUDED);
+        for (final ObjectAssociation fld : fields) {
+            if (fld.isNotPersisted() || !fld.isOneToOneAssociation() || !fld.getSpecification().isValue()) {
+                continue;
+            }
+            if (fld.isEmpty(pattern)) {
+                continue;
+            }
+            final ObjectAdapter reqd = fld.get(pattern);
+            if (reqd == null || !isQueryableValue(reqd.getObject()) || !QueryUtil.isPersistentField(cls, fld.getId())) {
+                continue;
+            }
+            final String parameterName = "p" + parameters.size();
+            if (filter.length() > 0) {
+                filter.append(" && ");
+            }
+            filter.append("this.").append(fld.getId()).append(" == :").append(parameterName);
+            parameters.put(parameterName, reqd.getObject());
+        }
+
+        if (!parameters.isEmpty()) {
+            final Query jdoQuery = getPersistenceManager().newQuery(cls);
+
+            // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+            jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+            jdoQuery.setFilter(filter.toString());
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("findByPattern(): class=" + objectSpec.getFullIdentifier() + ", filter=" + filter);
+            }
+            try {
+                final List<?> pojos = (List<?>) jdoQuery.executeWithMap(parameters);
+                return filterAdapters(pojos, persistenceQuery);
+            } catch (final JDOException ex) {
+                LOG.warn("findByPattern(): unable to query " + objectSpec.getFullIdentifier() + " using '" + filter + "', scanning instead", ex);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("findByPattern(): class=" + objectSpec.getFullIdentifier() + ", scanning");
+        }
+        return scanAndFilter(objectSpec, persistenceQuery);
+    }
+
+    /**
+     * Only the JDK types that any datastore can compare for equality; other value types (eg applib's
+     * <tt>Money</tt>) are left to be matched in memory.
+     */
+    private static boolean isQueryableValue(final Object value) {
+        return value instanceof String
+                || value instanceof Boolean
+                || value instanceof Character
+                || value instanceof Byte
+                || value instanceof Short
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Float
+                || value instanceof Double
+                || value instanceof BigDecimal
+                || value instanceof BigInteger
+                || value instanceof Date
+                || value instanceof Enum;
     }
 }
@@ -16,31 +16,96 @@
  *  specific language governing permissions and limitations
  *  under the License.
  */
+
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.beans.Introspector;
+import java.lang.reflect.Method;
 import java.util.List;
 
+import javax.jdo.JDOException;
 import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import org.apache.isis.core.commons.exceptions.NotYetImplementedException;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.facets.object.title.TitleFacet;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation;
+import org.apache.isis.core.metamodel.facets.object.title.annotation.TitleFacetViaTitleAnnotation.TitleComponent;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
 import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindByTitle;
 import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
 
+/**
+ * If the title of the class is derived (using <tt>@Title</tt>) from a single persistent <tt>String</tt> property,
+ * then the search is performed by the datastore (a case-insensitive &quot;contains&quot; on that property).
+ * Otherwise, the instances are {@link #scanAndFilter(ObjectSpecification, org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn) scanned}.
+ *
+ * <p>
+ * Either way, the candidates are then matched against their actual title (which also applies the query's range).
+ */
 public class PersistenceQueryFindByTitleProcessor extends PersistenceQueryProcessorAbstract<PersistenceQueryFindByTitle> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(PersistenceQueryFindByTitleProcessor.class);
+
     public PersistenceQueryFindByTitleProcessor(final PersistenceManager persistenceManager, final FrameworkSynchronizer frameworkSynchronizer) {
         super(persistenceManager, frameworkSynchronizer);
     }
 
     public List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistenceQuery) {
         final ObjectSpecification objectSpec = persistenceQuery.getSpecification();
-        final Class<?> correspondingClass = objectSpec.getCorrespondingClass();
-        return process(persistenceQuery, correspondingClass);
+
+        final String titleProperty = titlePropertyOf(objectSpec);
+        if (titleProperty != null && persistenceQuery.getTitle().length() > 0) {
+            final Query jdoQuery = getPersistenceManager().newQuery(objectSpec.getCorrespondingClass());
+
+            // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
+            jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
+            jdoQuery.setFilter("this." + titleProperty + ".toLowerCase().indexOf(:title) >= 0");
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("findByTitle(): class=" + objectSpec.getFullIdentifier() + ", filter=" + jdoQuery);
+            }
+            try {
+                final List<?> pojos = (List<?>) jdoQuery.execute(persistenceQuery.getTitle());
+                return filterAdapters(pojos, persistenceQuery);
+            } catch (final JDOException ex) {
+                LOG.warn("findByTitle(): unable to query by title property '" + titleProperty + "' of " + objectSpec.getFullIdentifier() + ", scanning instead", ex);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("findByTitle(): class=" + objectSpec.getFullIdentifier() + ", scanning");
+        }
+        return scanAndFilter(objectSpec, persistenceQuery);
     }
 
-    private <Z> List<ObjectAdapter> process(final PersistenceQueryFindByTitle persistenceQuery, Class<Z> correspondingClass) {
-        throw new NotYetImplementedException();
+    /**
+     * The name of the persistent <tt>String</tt> field from which the title is derived, or <tt>null</tt> if the
+     * title is derived in any other way (a <tt>title()</tt> method, several <tt>@Title</tt> components, a
+     * non-whitespace prepend or append, or abbreviation).
+     */
+    private static String titlePropertyOf(final ObjectSpecification objectSpec) {
+        final TitleFacet titleFacet = objectSpec.getFacet(TitleFacet.class);
+        if (!(titleFacet instanceof TitleFacetViaTitleAnnotation)) {
+            return null;
+        }
+        final List<TitleComponent> components = ((TitleFacetViaTitleAnnotation) titleFacet).getComponents();
+        if (components.size() != 1) {
+            return null;
+        }
+        final TitleComponent component = components.get(0);
+        if (component.getPrepend().trim().length() > 0 || component.getAppend().trim().length() > 0 || component.getAbbreviateTo() != Integer.MAX_VALUE) {
+            return null;
+        }
+        final Method method = component.getMethod();
+        final String methodName = method.getName();
+        if (method.getReturnType() != String.class || method.getParameterTypes().length != 0 || !methodName.startsWith("get") || methodName.length() <= 3) {
+            return null;
+        }
+        final String propertyName = Introspector.decapitalize(methodName.substring(3));
+        return QueryUtil.isPersistentField(objectSpec.getCorrespondingClass(), propertyName) ? propertyName : null;
     }
 }
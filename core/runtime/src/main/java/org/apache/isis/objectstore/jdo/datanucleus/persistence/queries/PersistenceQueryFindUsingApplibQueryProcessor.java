@@ -100,6 +100,7 @@ private List<?> getResults(final PersistenceQueryFindUsingApplibQueryDefault per
         // http://www.datanucleus.org/servlet/jira/browse/NUCCORE-1103
         jdoQuery.addExtension("datanucleus.multivaluedFetch", "none");
         
+        // for QueryCardinality.SINGLE, the range will have been narrowed to a single row (see PersistenceQueryFactory)
         if(persistenceQuery.hasRange()) {
             jdoQuery.setRange(persistenceQuery.getStart(), persistenceQuery.getEnd());
         }
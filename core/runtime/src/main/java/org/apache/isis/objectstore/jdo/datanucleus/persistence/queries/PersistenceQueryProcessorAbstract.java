@@ -18,7 +18,9 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.util.Iterator;
 import java.util.List;
+import javax.jdo.Extent;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.listener.InstanceLifecycleEvent;
@@ -29,6 +31,7 @@
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
 import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
 import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.core.runtime.system.persistence.PersistenceQuery;
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
@@ -40,6 +43,13 @@
 public abstract class PersistenceQueryProcessorAbstract<T extends PersistenceQuery>
         implements PersistenceQueryProcessor<T> {
 
+    /**
+     * The number of instances fetched from the datastore at a time when
+     * {@link #scanAndFilter(ObjectSpecification, PersistenceQueryBuiltIn) scanning}, and also the number of
+     * non-matching instances that are {@link PersistenceSession#evict(List) evicted} at a time.
+     */
+    protected static final int SCAN_FETCH_SIZE = 100;
+
     private final PersistenceManager persistenceManager;
     private final FrameworkSynchronizer frameworkSynchronizer;
 
@@ -74,23 +84,103 @@ protected List<ObjectAdapter> loadAdapters(
             final ObjectSpecification specification, final List<?> pojos) {
         final List<ObjectAdapter> adapters = Lists.newArrayList();
         for (final Object pojo : pojos) {
-        	// ought not to be necessary, however for some queries it seems that the 
-        	// lifecycle listener is not called
-            ObjectAdapter adapter;
-            if(pojo instanceof PersistenceCapable) {
-                // an entity
-                frameworkSynchronizer.postLoadProcessingFor((PersistenceCapable) pojo, CalledFrom.OS_QUERY);
-                adapter = getAdapterManager().getAdapterFor(pojo);
-            } else {
-                // a value type
-                adapter = getAdapterManager().adapterFor(pojo);
+            adapters.add(adapterFor(pojo));
+        }
+        return adapters;
+    }
+
+    /**
+     * As {@link #loadAdapters(ObjectSpecification, List)}, but only returning those that
+     * {@link PersistenceQueryBuiltIn#matches(ObjectAdapter) match} the query (which also applies its range).
+     * 
+     * <p>
+     * Used when a JDOQL query has narrowed down the candidates, but cannot express the query's semantics exactly.
+     * 
+     * <p>
+     * Those that do not match (and were not already in use by this session) are evicted, see
+     * {@link #scanAndFilter(ObjectSpecification, PersistenceQueryBuiltIn)}.
+     */
+    protected List<ObjectAdapter> filterAdapters(
+            final List<?> pojos, final PersistenceQueryBuiltIn persistenceQuery) {
+        return filterAdapters(pojos.iterator(), persistenceQuery);
+    }
+
+    /**
+     * Fallback for queries that cannot be translated into JDOQL at all: iterates over the {@link Extent} of the
+     * specification's class, fetching the instances from the datastore in chunks rather than materializing them
+     * all up front, and {@link PersistenceQueryBuiltIn#matches(ObjectAdapter) matching} each in turn.
+     * 
+     * <p>
+     * Stops as soon as the query's range (if any) has been satisfied.
+     * 
+     * <p>
+     * Instances that do not match are {@link PersistenceSession#evict(List) evicted} (along with their adapters)
+     * a chunk at a time, so that scanning does not accumulate every instance of the class in the persistence
+     * manager and the adapter maps.  Instances that already had an adapter before the scan are left alone, since
+     * they are in use elsewhere in this session.
+     */
+    protected List<ObjectAdapter> scanAndFilter(
+            final ObjectSpecification specification, final PersistenceQueryBuiltIn persistenceQuery) {
+        final Extent<?> extent = getPersistenceManager().getExtent(specification.getCorrespondingClass(), true);
+        extent.getFetchPlan().setFetchSize(SCAN_FETCH_SIZE);
+        try {
+            return filterAdapters(extent.iterator(), persistenceQuery);
+        } finally {
+            extent.closeAll();
+        }
+    }
+
+    private List<ObjectAdapter> filterAdapters(
+            final Iterator<?> pojos, final PersistenceQueryBuiltIn persistenceQuery) {
+        final long count = persistenceQuery.getCount();
+        final List<ObjectAdapter> adapters = Lists.newArrayList();
+        final List<ObjectAdapter> toEvict = Lists.newArrayList();
+        while (pojos.hasNext()) {
+            final Object pojo = pojos.next();
+            final boolean alreadyInUse = getAdapterManager().getAdapterFor(pojo) != null;
+            final ObjectAdapter adapter = adapterFor(pojo);
+            if (!persistenceQuery.matches(adapter)) {
+                if (!alreadyInUse) {
+                    toEvict.add(adapter);
+                    if (toEvict.size() >= SCAN_FETCH_SIZE) {
+                        evict(toEvict);
+                    }
+                }
+                continue;
             }
-            Assert.assertNotNull(adapter);
             adapters.add(adapter);
+            if (count > 0 && adapters.size() >= count) {
+                break;
+            }
         }
+        evict(toEvict);
         return adapters;
     }
 
+    private void evict(final List<ObjectAdapter> adapters) {
+        if (adapters.isEmpty()) {
+            return;
+        }
+        getPersistenceSession().evict(Lists.newArrayList(adapters));
+        adapters.clear();
+    }
+
+    private ObjectAdapter adapterFor(final Object pojo) {
+        // ought not to be necessary, however for some queries it seems that the 
+        // lifecycle listener is not called
+        ObjectAdapter adapter;
+        if(pojo instanceof PersistenceCapable) {
+            // an entity
+            frameworkSynchronizer.postLoadProcessingFor((PersistenceCapable) pojo, CalledFrom.OS_QUERY);
+            adapter = getAdapterManager().getAdapterFor(pojo);
+        } else {
+            // a value type
+            adapter = getAdapterManager().adapterFor(pojo);
+        }
+        Assert.assertNotNull(adapter);
+        return adapter;
+    }
+
     // /////////////////////////////////////////////////////////////
     // Dependencies (from context)
     // /////////////////////////////////////////////////////////////
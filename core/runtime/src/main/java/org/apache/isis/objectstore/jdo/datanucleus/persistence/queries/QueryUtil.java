@@ -18,8 +18,12 @@
  */
 package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
 import javax.jdo.PersistenceManager;
 import javax.jdo.Query;
+import javax.jdo.annotations.NotPersistent;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +61,24 @@ public static Query createQuery(
         return jdoQuery;
     }
 
+    /**
+     * Whether the class (or one of its superclasses) declares a persistent field of the specified name, and so
+     * can be referenced in a JDOQL filter.
+     */
+    public static boolean isPersistentField(final Class<?> cls, final String fieldName) {
+        for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+            final Field field;
+            try {
+                field = c.getDeclaredField(fieldName);
+            } catch (final NoSuchFieldException ex) {
+                continue;
+            }
+            final int modifiers = field.getModifiers();
+            return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isAnnotationPresent(NotPersistent.class);
+        }
+        return false;
+    }
+
     private static StringBuilder appendSelect(
             final StringBuilder buf,
             final String select, 
@@ -0,0 +1,211 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.context;
+
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.enterprise.context.RequestScoped;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.metamodel.services.ServicesInjectorSpi;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+import org.apache.isis.core.runtime.services.RequestScopedService;
+import org.apache.isis.core.runtime.services.ServiceInstantiator;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.context.IsisContextThreadLocal;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.runtime.system.session.IsisSession;
+import org.apache.isis.core.runtime.system.session.IsisSessionFactory;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class IsisContextThreadLocalTest {
+
+    @RequestScoped
+    public static class Counter {
+        private int count;
+        public Integer increment() {
+            return ++count;
+        }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisSessionFactory mockSessionFactory;
+    @Mock
+    private IsisSession mockSession;
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+    @Mock
+    private ServicesInjectorSpi mockServicesInjector;
+
+    private AuthenticationSession authSession;
+    private Counter counter;
+    private ExecutorService executorService;
+
+    @Before
+    public void setUp() throws Exception {
+        IsisContext.testReset();
+        authSession = new SimpleSession("tester", Collections.<String>emptyList());
+        executorService = Executors.newSingleThreadExecutor();
+
+        final ServiceInstantiator serviceInstantiator = new ServiceInstantiator();
+        serviceInstantiator.setConfiguration(new IsisConfigurationDefault());
+        counter = serviceInstantiator.createInstance(Counter.class);
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockSessionFactory).getConfiguration();
+                will(returnValue(new IsisConfigurationDefault()));
+
+                allowing(mockSessionFactory).openSession(authSession);
+                will(returnValue(mockSession));
+
+                allowing(mockSession).getId();
+                will(returnValue("1"));
+
+                ignoring(mockSession).open();
+                ignoring(mockSession).close();
+
+                allowing(mockSession).getPersistenceSession();
+                will(returnValue(mockPersistenceSession));
+                allowing(mockPersistenceSession).getServicesInjector();
+                will(returnValue(mockServicesInjector));
+                allowing(mockServicesInjector).getRegisteredServices();
+                will(returnValue(Collections.<Object>singletonList(counter)));
+                ignoring(mockServicesInjector).injectServicesInto(with(any(Object.class)));
+            }
+        });
+
+        IsisContextThreadLocal.createInstance(mockSessionFactory);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        IsisContext.testReset();
+    }
+
+    @Test
+    public void sessionIsBoundToOpeningThreadOnly() throws Exception {
+        IsisContext.openSession(authSession);
+
+        assertThat(IsisContext.getSession(), is(sameInstance(mockSession)));
+        assertThat(executorService.submit(inSession()).get(), is(false));
+        assertThat(IsisContext.allSessionIds().length, is(1));
+
+        IsisContext.closeSession();
+
+        assertThat(IsisContext.inSession(), is(false));
+        assertThat(IsisContext.allSessionIds().length, is(0));
+    }
+
+    @Test
+    public void withCurrentSession() throws Exception {
+        IsisContext.openSession(authSession);
+
+        final IsisSession sessionOnOtherThread = executorService.submit(IsisContext.withCurrentSession(new Callable<IsisSession>() {
+            @Override
+            public IsisSession call() throws Exception {
+                return IsisContext.getSession();
+            }
+        })).get();
+
+        assertThat(sessionOnOtherThread, is(sameInstance(mockSession)));
+        // and unbound again afterwards
+        assertThat(executorService.submit(inSession()).get(), is(false));
+        assertThat(IsisContext.getSession(), is(sameInstance(mockSession)));
+    }
+
+    @Test
+    public void withCurrentSession_requestScopedServices() throws Exception {
+        IsisContext.openSession(authSession);
+        ((RequestScopedService)counter).__isis_startRequest(mockServicesInjector);
+        try {
+            assertThat(counter.increment(), is(1));
+
+            final Callable<Integer> increment = new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return counter.increment();
+                }
+            };
+
+            // continues this thread's request (rather than seeing no request-scoped instance at all)
+            assertThat(executorService.submit(IsisContext.withCurrentSession(increment)).get(), is(2));
+            assertThat(counter.increment(), is(3));
+
+            // and unbound again afterwards
+            assertThat(executorService.submit(increment).get(), is(nullValue()));
+        } finally {
+            ((RequestScopedService)counter).__isis_endRequest();
+        }
+    }
+
+    @Test
+    public void detachAndAttach() throws Exception {
+        IsisContext.openSession(authSession);
+
+        final IsisSession detached = IsisContext.detachSession();
+        assertThat(detached, is(sameInstance(mockSession)));
+        assertThat(IsisContext.inSession(), is(false));
+        // detaching does not close
+        assertThat(IsisContext.allSessionIds().length, is(1));
+
+        executorService.submit(new Runnable() {
+            @Override
+            public void run() {
+                IsisContext.attachSession(detached);
+                IsisContext.closeSession();
+            }
+        }).get();
+
+        assertThat(IsisContext.allSessionIds().length, is(0));
+        assertThat(IsisContext.detachSession(), is(nullValue()));
+    }
+
+    private static Callable<Boolean> inSession() {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return IsisContext.inSession();
+            }
+        };
+    }
+}
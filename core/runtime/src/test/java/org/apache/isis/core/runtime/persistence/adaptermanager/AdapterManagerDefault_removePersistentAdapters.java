@@ -0,0 +1,178 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import com.google.common.collect.Lists;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.profiles.Localization;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.runtime.persistence.adapter.PojoAdapterFactory;
+import org.apache.isis.core.runtime.system.persistence.OidGenerator;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AdapterManagerDefault_removePersistentAdapters {
+
+    public static class Customer {}
+
+    public static class CustomerRepository {
+        public Customer x() { return null; }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private RuntimeContext mockRuntimeContext;
+    @Mock
+    private OidGenerator mockOidGenerator;
+    @Mock
+    protected Localization mockLocalization;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private IsisMetaModel isisMetaModel;
+    private ObjectAdapterFactory adapterFactory;
+    private AdapterManagerDefault adapterManager;
+
+    private final RootOid customer1Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "1");
+    private final RootOid customer2Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "2");
+    private final RootOid customerRepositoryOid = RootOidDefault.create(ObjectSpecId.of("CUSREPO"), "1");
+
+    private Customer customer1;
+    private Customer customer2;
+    private CustomerRepository customerRepository;
+
+    @Before
+    public void setUp() throws Exception {
+        org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.OFF);
+
+        context.ignoring(mockRuntimeContext);
+        context.ignoring(mockOidGenerator);
+        context.ignoring(mockAuthenticationSession);
+        context.ignoring(mockConfiguration);
+
+        customerRepository = new CustomerRepository();
+        isisMetaModel = new IsisMetaModel(
+                                mockRuntimeContext,
+                                new ProgrammingModelFacetsJava5(),
+                                Lists.<Object>newArrayList(customerRepository));
+        isisMetaModel.init();
+
+        adapterFactory = new PojoAdapterFactory() {
+            @Override
+            protected Localization getLocalization() {
+                return mockLocalization;
+            }
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+
+        adapterManager = new AdapterManagerDefault(new PojoRecreatorDefault()) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected ObjectAdapterFactory getObjectAdapterFactory() {
+                return adapterFactory;
+            }
+            @Override
+            public OidGenerator getOidGenerator() {
+                return mockOidGenerator;
+            }
+            @Override
+            protected ServicesInjector getServicesInjector() {
+                return isisMetaModel.getDependencyInjector();
+            }
+            @Override
+            protected IsisConfiguration getConfiguration() {
+                return mockConfiguration;
+            }
+        };
+
+        customer1 = new Customer();
+        customer2 = new Customer();
+        adapterManager.mapRecreatedPojo(customer1Oid, customer1);
+        adapterManager.mapRecreatedPojo(customer2Oid, customer2);
+        adapterManager.mapRecreatedPojo(customerRepositoryOid, customerRepository);
+    }
+
+    @Test
+    public void persistentAdaptersRemoved() throws Exception {
+        final int removed = adapterManager.removePersistentAdapters();
+
+        assertThat(removed, is(2));
+        assertThat(adapterManager.getAdapterFor(customer1), is(nullValue()));
+        assertThat(adapterManager.getAdapterFor(customer1Oid), is(nullValue()));
+        assertThat(adapterManager.getAdapterFor(customer2), is(nullValue()));
+        assertThat(adapterManager.getAdapterFor(customer2Oid), is(nullValue()));
+    }
+
+    @Test
+    public void serviceAdaptersKept() throws Exception {
+        final ObjectAdapter serviceAdapter = adapterManager.getAdapterFor(customerRepository);
+
+        adapterManager.removePersistentAdapters();
+
+        assertThat(adapterManager.getAdapterFor(customerRepository), is(sameInstance(serviceAdapter)));
+        assertThat(adapterManager.getAdapterFor(customerRepositoryOid), is(sameInstance(serviceAdapter)));
+    }
+
+    @Test
+    public void removedPojoIsReadaptedOnNextUse() throws Exception {
+        final ObjectAdapter originalAdapter = adapterManager.getAdapterFor(customer1);
+        adapterManager.removePersistentAdapters();
+
+        final ObjectAdapter reloadedAdapter = adapterManager.mapRecreatedPojo(customer1Oid, customer1);
+
+        assertThat(reloadedAdapter.getObject(), is(sameInstance((Object) customer1)));
+        assertThat(reloadedAdapter == originalAdapter, is(false));
+        assertThat(adapterManager.getAdapterFor(customer1Oid), is(sameInstance(reloadedAdapter)));
+    }
+}
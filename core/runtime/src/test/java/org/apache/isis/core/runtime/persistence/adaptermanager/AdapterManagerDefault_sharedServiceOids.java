@@ -0,0 +1,230 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.profiles.Localization;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapterFactory;
+import org.apache.isis.core.metamodel.adapter.ResolveState;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.adapter.oid.Oid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.app.IsisMetaModel;
+import org.apache.isis.core.metamodel.runtimecontext.RuntimeContext;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.runtime.persistence.adapter.PojoAdapter;
+import org.apache.isis.core.runtime.persistence.adapter.PojoAdapterFactory;
+import org.apache.isis.core.runtime.system.persistence.OidGenerator;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.progmodels.dflt.ProgrammingModelFacetsJava5;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AdapterManagerDefault_sharedServiceOids {
+
+    public static class CustomerRepository {
+        public String title() { return "Customers"; }
+    }
+
+    /**
+     * Records the localization with which each adapter was created.
+     */
+    static class RecordingPojoAdapterFactory extends PojoAdapterFactory {
+        private final IsisMetaModel isisMetaModel;
+        private final Localization localization;
+        private final AuthenticationSession authenticationSession;
+        final Map<ObjectAdapter, Localization> created = new IdentityHashMap<ObjectAdapter, Localization>();
+
+        RecordingPojoAdapterFactory(
+                final IsisMetaModel isisMetaModel,
+                final Localization localization,
+                final AuthenticationSession authenticationSession) {
+            this.isisMetaModel = isisMetaModel;
+            this.localization = localization;
+            this.authenticationSession = authenticationSession;
+        }
+
+        @Override
+        public PojoAdapter createAdapter(final Object pojo, final Oid oid, final AdapterManager adapterManager) {
+            final PojoAdapter adapter = super.createAdapter(pojo, oid, adapterManager);
+            created.put(adapter, getLocalization());
+            return adapter;
+        }
+        @Override
+        protected Localization getLocalization() {
+            return localization;
+        }
+        @Override
+        protected AuthenticationSession getAuthenticationSession() {
+            return authenticationSession;
+        }
+        @Override
+        protected SpecificationLoaderSpi getSpecificationLoader() {
+            return isisMetaModel.getSpecificationLoader();
+        }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private RuntimeContext mockRuntimeContext;
+    @Mock
+    private OidGenerator mockOidGenerator;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    @Mock
+    private Localization mockLocalizationForSession1;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession1;
+    @Mock
+    private Localization mockLocalizationForSession2;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession2;
+
+    private IsisMetaModel isisMetaModel;
+    private CustomerRepository customerRepository;
+    private final RootOid customerRepositoryOid = RootOidDefault.create(ObjectSpecId.of("CUSREPO"), "1");
+
+    private RecordingPojoAdapterFactory adapterFactory1;
+    private AdapterManagerDefault adapterManager1;
+    private RecordingPojoAdapterFactory adapterFactory2;
+    private AdapterManagerDefault adapterManager2;
+
+    private SharedServiceOids sharedServiceOids;
+
+    @Before
+    public void setUp() throws Exception {
+        org.apache.log4j.Logger.getRootLogger().setLevel(org.apache.log4j.Level.OFF);
+
+        context.ignoring(mockRuntimeContext);
+        context.ignoring(mockOidGenerator);
+        context.ignoring(mockConfiguration);
+        context.ignoring(mockAuthenticationSession1);
+        context.ignoring(mockAuthenticationSession2);
+
+        customerRepository = new CustomerRepository();
+        isisMetaModel = new IsisMetaModel(
+                mockRuntimeContext,
+                new ProgrammingModelFacetsJava5(),
+                Lists.<Object>newArrayList(customerRepository));
+        isisMetaModel.init();
+
+        adapterFactory1 = new RecordingPojoAdapterFactory(isisMetaModel, mockLocalizationForSession1, mockAuthenticationSession1);
+        adapterManager1 = newAdapterManager(adapterFactory1);
+        adapterFactory2 = new RecordingPojoAdapterFactory(isisMetaModel, mockLocalizationForSession2, mockAuthenticationSession2);
+        adapterManager2 = newAdapterManager(adapterFactory2);
+
+        // the first session creates the service adapter, and shares the oid
+        final ObjectAdapter serviceAdapterInSession1 = adapterManager1.mapRecreatedPojo(customerRepositoryOid, customerRepository);
+        serviceAdapterInSession1.markAsResolvedIfPossible();
+        sharedServiceOids = new SharedServiceOids(Collections.singletonList(serviceAdapterInSession1));
+
+        // the second session just uses the shared oid
+        adapterManager2.useSharedServiceOids(sharedServiceOids);
+    }
+
+    private AdapterManagerDefault newAdapterManager(final ObjectAdapterFactory adapterFactory) {
+        return new AdapterManagerDefault(new PojoRecreatorDefault()) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return isisMetaModel.getSpecificationLoader();
+            }
+            @Override
+            protected ObjectAdapterFactory getObjectAdapterFactory() {
+                return adapterFactory;
+            }
+            @Override
+            public OidGenerator getOidGenerator() {
+                return mockOidGenerator;
+            }
+            @Override
+            protected ServicesInjector getServicesInjector() {
+                return isisMetaModel.getDependencyInjector();
+            }
+            @Override
+            protected IsisConfiguration getConfiguration() {
+                return mockConfiguration;
+            }
+        };
+    }
+
+    @Test
+    public void eachSessionHasItsOwnServiceAdapter() throws Exception {
+        final ObjectAdapter serviceAdapterInSession1 = adapterManager1.getAdapterFor(customerRepository);
+        final ObjectAdapter serviceAdapterInSession2 = adapterManager2.getAdapterFor(customerRepository);
+
+        assertThat(serviceAdapterInSession2, is(not(sameInstance(serviceAdapterInSession1))));
+        assertThat(serviceAdapterInSession2.getObject(), is(sameInstance((Object) customerRepository)));
+        assertThat(serviceAdapterInSession2.getOid(), is((Oid) customerRepositoryOid));
+        assertThat(serviceAdapterInSession2.getResolveState(), is(ResolveState.RESOLVED));
+    }
+
+    @Test
+    public void serviceAdapterIsCreatedWithTheLocalizationOfItsOwnSession() throws Exception {
+        final ObjectAdapter serviceAdapterInSession1 = adapterManager1.getAdapterFor(customerRepository);
+        final ObjectAdapter serviceAdapterInSession2 = adapterManager2.getAdapterFor(customerRepository);
+
+        assertThat(adapterFactory1.created.get(serviceAdapterInSession1), is(mockLocalizationForSession1));
+        assertThat(adapterFactory2.created.get(serviceAdapterInSession2), is(mockLocalizationForSession2));
+        assertThat(adapterFactory2.created.containsKey(serviceAdapterInSession1), is(false));
+    }
+
+    @Test
+    public void serviceAdapterIsCreatedOnlyOncePerSession() throws Exception {
+        final ObjectAdapter lookedUpByPojo = adapterManager2.getAdapterFor(customerRepository);
+        final ObjectAdapter lookedUpByOid = adapterManager2.getAdapterFor(RootOidDefault.create(ObjectSpecId.of("CUSREPO"), "1"));
+        final ObjectAdapter recreated = adapterManager2.mapRecreatedPojo(customerRepositoryOid, customerRepository);
+
+        assertThat(lookedUpByOid, is(sameInstance(lookedUpByPojo)));
+        assertThat(recreated, is(sameInstance(lookedUpByPojo)));
+        assertThat(adapterFactory2.created.size(), is(1));
+    }
+
+    @Test
+    public void serviceAdapterIsRecreatedIfRemoved() throws Exception {
+        final ObjectAdapter serviceAdapter = adapterManager2.getAdapterFor(customerRepository);
+        adapterManager2.removeAdapter(serviceAdapter);
+
+        final ObjectAdapter recreated = adapterManager2.getAdapterFor(customerRepository);
+        assertThat(recreated, is(not(sameInstance(serviceAdapter))));
+        assertThat(adapterFactory2.created.size(), is(2));
+    }
+}
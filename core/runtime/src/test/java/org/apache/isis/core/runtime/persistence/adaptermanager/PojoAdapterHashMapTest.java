@@ -0,0 +1,89 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PojoAdapterHashMapTest {
+
+    /**
+     * Equal to every other instance, so that only identity distinguishes them.
+     */
+    public static class AlwaysEqual {
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof AlwaysEqual;
+        }
+        @Override
+        public int hashCode() {
+            return 1;
+        }
+    }
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockAdapter1;
+    @Mock
+    private ObjectAdapter mockAdapter2;
+
+    private PojoAdapterHashMap map;
+
+    private AlwaysEqual pojo1;
+    private AlwaysEqual pojo2;
+
+    @Before
+    public void setUp() throws Exception {
+        map = new PojoAdapterHashMap();
+        pojo1 = new AlwaysEqual();
+        pojo2 = new AlwaysEqual();
+    }
+
+    @Test
+    public void keyedByIdentityRatherThanEquality() throws Exception {
+        map.add(pojo1, mockAdapter1);
+        map.add(pojo2, mockAdapter2);
+
+        assertSame(mockAdapter1, map.getAdapter(pojo1));
+        assertSame(mockAdapter2, map.getAdapter(pojo2));
+        assertFalse(map.containsPojo(new AlwaysEqual()));
+    }
+
+    @Test
+    public void whenNotAdded() throws Exception {
+        map.add(pojo1, mockAdapter1);
+
+        assertTrue(map.containsPojo(pojo1));
+        assertNull(map.getAdapter(pojo2));
+    }
+
+}
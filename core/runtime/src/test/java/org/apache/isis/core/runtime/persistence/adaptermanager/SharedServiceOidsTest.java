@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.persistence.adaptermanager;
+
+import java.util.Arrays;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SharedServiceOidsTest {
+
+    public static class CustomerRepository {}
+    public static class OrderRepository {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private ObjectAdapter mockCustomerRepositoryAdapter;
+    @Mock
+    private ObjectAdapter mockOrderRepositoryAdapter;
+
+    private final CustomerRepository customerRepository = new CustomerRepository();
+    private final OrderRepository orderRepository = new OrderRepository();
+    private final RootOid customerRepositoryOid = RootOidDefault.create(ObjectSpecId.of("CUSREPO"), "1");
+    private final RootOid orderRepositoryOid = RootOidDefault.create(ObjectSpecId.of("ORDREPO"), "1");
+
+    private SharedServiceOids sharedServiceOids;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerRepositoryAdapter).getObject();
+            will(returnValue(customerRepository));
+            allowing(mockCustomerRepositoryAdapter).getOid();
+            will(returnValue(customerRepositoryOid));
+
+            allowing(mockOrderRepositoryAdapter).getObject();
+            will(returnValue(orderRepository));
+            allowing(mockOrderRepositoryAdapter).getOid();
+            will(returnValue(orderRepositoryOid));
+        }});
+        sharedServiceOids = new SharedServiceOids(Arrays.asList(mockCustomerRepositoryAdapter, mockOrderRepositoryAdapter));
+    }
+
+    @Test
+    public void lookupOidByPojo() throws Exception {
+        assertThat(sharedServiceOids.getOidForPojo(customerRepository), is(customerRepositoryOid));
+        assertThat(sharedServiceOids.getOidForPojo(orderRepository), is(orderRepositoryOid));
+        assertThat(sharedServiceOids.getOidForPojo(new CustomerRepository()), is(nullValue()));
+    }
+
+    @Test
+    public void lookupPojoByOid() throws Exception {
+        assertThat(sharedServiceOids.getPojoForOid(RootOidDefault.create(ObjectSpecId.of("CUSREPO"), "1")), is(sameInstance((Object)customerRepository)));
+        assertThat(sharedServiceOids.getPojoForOid(RootOidDefault.create(ObjectSpecId.of("CUS"), "1")), is(nullValue()));
+    }
+
+    @Test
+    public void lookupOidBySpecId() throws Exception {
+        assertThat(sharedServiceOids.getOidFor(ObjectSpecId.of("ORDREPO")), is(orderRepositoryOid));
+        assertThat(sharedServiceOids.getOidFor(ObjectSpecId.of("CUS")), is(nullValue()));
+    }
+}
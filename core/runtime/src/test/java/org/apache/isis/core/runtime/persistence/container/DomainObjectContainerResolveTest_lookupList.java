@@ -0,0 +1,101 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.persistence.container;
+
+import java.util.Arrays;
+import java.util.List;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DomainObjectContainerResolveTest_lookupList {
+
+    static class Customer {}
+    static class Order {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+
+    @Mock
+    private ObjectAdapter mockCustomerAdapter;
+    @Mock
+    private ObjectAdapter mockOrderAdapter;
+
+    private final Customer customer = new Customer();
+    private final Order order = new Order();
+
+    private DomainObjectContainerResolve resolve;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockCustomerAdapter).getObject();
+            will(returnValue(customer));
+            allowing(mockOrderAdapter).getObject();
+            will(returnValue(order));
+        }});
+
+        resolve = new DomainObjectContainerResolve() {
+            @Override
+            protected PersistenceSession getPersistenceSession() {
+                return mockPersistenceSession;
+            }
+        };
+    }
+
+    @Test
+    public void loadedTogether_inBookmarkOrder() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).loadObjects(Arrays.asList(
+                    RootOidDefault.create(ObjectSpecId.of("CUS"), "1"),
+                    RootOidDefault.create(ObjectSpecId.of("ORD"), "1"),
+                    RootOidDefault.create(ObjectSpecId.of("CUS"), "2")));
+            // the second customer no longer exists
+            will(returnValue(Arrays.asList(mockCustomerAdapter, mockOrderAdapter, null)));
+
+            allowing(mockCustomerAdapter).canTransitionToResolving();
+            will(returnValue(false));
+            allowing(mockOrderAdapter).canTransitionToResolving();
+            will(returnValue(true));
+            oneOf(mockPersistenceSession).resolveImmediately(mockOrderAdapter);
+        }});
+
+        final List<Object> objects = resolve.lookup(Arrays.asList(
+                new Bookmark("CUS", "1"), new Bookmark("ORD", "1"), null, new Bookmark("CUS", "2")));
+
+        assertThat(objects, is(Arrays.<Object>asList(customer, order, null, null)));
+    }
+}
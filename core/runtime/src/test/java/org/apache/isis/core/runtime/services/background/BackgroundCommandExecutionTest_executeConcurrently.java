@@ -0,0 +1,206 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.background;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.jmock.Expectations;
+import org.jmock.Invocation;
+import org.jmock.api.Action;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService;
+import org.apache.isis.applib.services.command.Command;
+import org.apache.isis.applib.services.command.CommandDefault;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BackgroundCommandExecutionTest_executeConcurrently {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private BookmarkService mockBookmarkService;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+
+    /**
+     * The commands not yet executed, in the order returned by the hook method.
+     */
+    private final List<Command> pending = Collections.synchronizedList(Lists.<Command>newArrayList());
+    private final Map<Bookmark, Command> commandsByBookmark = Maps.newHashMap();
+    private final Map<Command, Bookmark> bookmarksByCommand = Maps.newHashMap();
+
+    /**
+     * The partitions passed to the workers, in the order that they were executed.
+     */
+    private final List<List<Bookmark>> executedPartitions = Collections.synchronizedList(Lists.<List<Bookmark>>newArrayList());
+
+    /**
+     * Those commands that are never started (eg because their worker fails); always returned by the hook method.
+     */
+    private final List<Bookmark> neverStarted = Lists.newArrayList();
+
+    private int claims;
+
+    private BackgroundCommandExecution execution;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockTransactionManager).executeWithinTransaction(with(any(TransactionalClosure.class)));
+            will(executeClosure());
+
+            allowing(mockBookmarkService).bookmarkFor(with(any(Command.class)));
+            will(new CustomAction("bookmark for command") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    return bookmarksByCommand.get(invocation.getParameter(0));
+                }
+            });
+        }});
+
+        execution = new BackgroundCommandExecution() {
+            @Override
+            protected List<? extends Command> findBackgroundCommandsToExecute() {
+                claims++;
+                synchronized (pending) {
+                    return Lists.newArrayList(pending);
+                }
+            }
+
+            @Override
+            void executePartition(final AuthenticationSession authenticationSession, final List<Bookmark> commandBookmarks) {
+                executedPartitions.add(commandBookmarks);
+                for (final Bookmark commandBookmark : commandBookmarks) {
+                    if(!neverStarted.contains(commandBookmark)) {
+                        pending.remove(commandsByBookmark.get(commandBookmark));
+                    }
+                }
+            }
+        };
+        execution.bookmarkService = mockBookmarkService;
+    }
+
+    private static Action executeClosure() {
+        return new CustomAction("execute closure") {
+            @Override
+            public Object invoke(final Invocation invocation) throws Throwable {
+                ((TransactionalClosure) invocation.getParameter(0)).execute();
+                return null;
+            }
+        };
+    }
+
+    private Bookmark givenCommand(final int id, final String target) {
+        final CommandDefault command = new CommandDefault();
+        command.setTarget(new Bookmark("CUS", target));
+        final Bookmark commandBookmark = new Bookmark("CMD", "" + id);
+        commandsByBookmark.put(commandBookmark, command);
+        bookmarksByCommand.put(command, commandBookmark);
+        pending.add(command);
+        return commandBookmark;
+    }
+
+    @Test
+    public void sameTarget_executedBySameWorker_inOrder() throws Exception {
+        final Bookmark cmd1 = givenCommand(1, "A");
+        final Bookmark cmd2 = givenCommand(2, "B");
+        final Bookmark cmd3 = givenCommand(3, "A");
+        final Bookmark cmd4 = givenCommand(4, "C");
+        final Bookmark cmd5 = givenCommand(5, "A");
+
+        execution.executeConcurrently(mockTransactionManager, mockAuthenticationSession, 2, 10);
+
+        assertThat(pending.isEmpty(), is(true));
+        // a single batch claimed, then an empty claim to finish
+        assertThat(claims, is(2));
+
+        List<Bookmark> partitionForA = null;
+        int executed = 0;
+        for (final List<Bookmark> partition : executedPartitions) {
+            executed += partition.size();
+            if(partition.contains(cmd1)) {
+                partitionForA = partition;
+            }
+        }
+        assertThat(executed, is(5));
+        final List<Bookmark> commandsForA = Lists.newArrayList(partitionForA);
+        commandsForA.retainAll(Lists.newArrayList(cmd1, cmd3, cmd5));
+        assertThat(commandsForA, is((List<Bookmark>) Lists.newArrayList(cmd1, cmd3, cmd5)));
+        // each of the others is executed exactly once
+        assertThat(Collections.frequency(concat(executedPartitions), cmd2), is(1));
+        assertThat(Collections.frequency(concat(executedPartitions), cmd4), is(1));
+    }
+
+    @Test
+    public void claimedInBatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            givenCommand(i, "T" + i);
+        }
+
+        execution.executeConcurrently(mockTransactionManager, mockAuthenticationSession, 2, 2);
+
+        assertThat(pending.isEmpty(), is(true));
+        // batches of 2, 2 and 1, then an empty claim to finish
+        assertThat(claims, is(4));
+        assertThat(concat(executedPartitions).size(), is(5));
+    }
+
+    @Test
+    public void commandNotStarted_isNotClaimedAgain() throws Exception {
+        final Bookmark cmd1 = givenCommand(1, "A");
+        givenCommand(2, "B");
+        neverStarted.add(cmd1);
+
+        execution.executeConcurrently(mockTransactionManager, mockAuthenticationSession, 2, 10);
+
+        // still returned by the hook method, but only executed the once
+        assertThat(pending.size(), is(1));
+        assertThat(claims, is(2));
+        assertThat(Collections.frequency(concat(executedPartitions), cmd1), is(1));
+    }
+
+    private static List<Bookmark> concat(final List<List<Bookmark>> partitions) {
+        final List<Bookmark> all = Lists.newArrayList();
+        synchronized (partitions) {
+            for (final List<Bookmark> partition : partitions) {
+                all.addAll(partition);
+            }
+        }
+        return all;
+    }
+}
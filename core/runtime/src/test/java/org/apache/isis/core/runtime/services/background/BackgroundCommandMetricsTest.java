@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.background;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.core.runtime.services.background.BackgroundCommandMetrics.ActionMetrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class BackgroundCommandMetricsTest {
+
+    private BackgroundCommandMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new BackgroundCommandMetrics();
+    }
+
+    @Test
+    public void recordedPerActionId() throws Exception {
+        metrics.record("com.mycompany.Customer#placeOrder()", 100, 1000, 1010, false);
+        metrics.record("com.mycompany.Customer#placeOrder()", 300, 2000, 2030, true);
+        metrics.record("com.mycompany.Customer#cancel()", 0, 1000, 1001, false);
+
+        final ActionMetrics placeOrder = metrics.getMetrics("com.mycompany.Customer#placeOrder()");
+        assertThat(placeOrder.getExecutedCount(), is(2L));
+        assertThat(placeOrder.getFailedCount(), is(1L));
+        assertThat(placeOrder.getAverageExecutionMillis(), is(20.0));
+        assertThat(placeOrder.getMaxExecutionMillis(), is(30L));
+        assertThat(placeOrder.getAverageQueuedMillis(), is(200.0));
+        // 2 commands between 1000 and 2030
+        assertThat(placeOrder.getThroughputPerSecond(), is(2 * 1000.0 / 1030));
+
+        assertThat(metrics.getMetricsByActionId().size(), is(2));
+        assertThat(metrics.getMetrics("com.mycompany.Customer#cancel()").getExecutedCount(), is(1L));
+    }
+
+    @Test
+    public void throughput_betweenEarliestStartedAndLatestCompleted_whenRecordedOutOfOrder() throws Exception {
+        metrics.record("com.mycompany.Customer#placeOrder()", 0, 2000, 2500, false);
+        metrics.record("com.mycompany.Customer#placeOrder()", 0, 1000, 3000, false);
+        metrics.record("com.mycompany.Customer#placeOrder()", 0, 1500, 1600, false);
+
+        // 3 commands between 1000 and 3000
+        assertThat(metrics.getMetrics("com.mycompany.Customer#placeOrder()").getThroughputPerSecond(), is(3 * 1000.0 / 2000));
+    }
+
+    @Test
+    public void clear() throws Exception {
+        metrics.record("com.mycompany.Customer#placeOrder()", 100, 1000, 1010, false);
+
+        metrics.clear();
+
+        assertThat(metrics.getMetrics("com.mycompany.Customer#placeOrder()"), is(nullValue()));
+    }
+}
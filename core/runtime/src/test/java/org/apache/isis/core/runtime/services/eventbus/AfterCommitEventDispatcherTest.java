@@ -0,0 +1,98 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.services.eventbus;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.eventbus.SubscribeAfterCommit;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class AfterCommitEventDispatcherTest {
+
+    static class SomeEvent {}
+    static class SomeSubEvent extends SomeEvent {}
+    static class OtherEvent {}
+
+    public static class SynchronousSubscriber {
+        public void on(final SomeEvent ev) {}
+    }
+
+    public static class AfterCommitSubscriber {
+        @SubscribeAfterCommit
+        public void on(final SomeEvent ev) {}
+    }
+
+    public static class AfterCommitSubscriberSubclass extends AfterCommitSubscriber {
+        @SubscribeAfterCommit
+        @Override
+        public void on(final SomeEvent ev) {}
+    }
+
+    public static class InvalidSubscriber {
+        @SubscribeAfterCommit
+        public void on(final SomeEvent ev, final OtherEvent other) {}
+    }
+
+    private IsisConfigurationDefault configuration;
+    private AfterCommitEventDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new IsisConfigurationDefault();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if(dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    public void notCreatedIfNoAfterCommitSubscribers() throws Exception {
+        dispatcher = AfterCommitEventDispatcher.createIfRequired(
+                Collections.<Object>singleton(new SynchronousSubscriber()), configuration);
+        assertThat(dispatcher, is(nullValue()));
+    }
+
+    @Test
+    public void matchesEventsOfSubscribedTypeAndSubtypes() throws Exception {
+        dispatcher = AfterCommitEventDispatcher.createIfRequired(
+                Collections.<Object>singleton(new AfterCommitSubscriberSubclass()), configuration);
+        assertThat(dispatcher.hasSubscribersFor(new SomeEvent()), is(true));
+        assertThat(dispatcher.hasSubscribersFor(new SomeSubEvent()), is(true));
+        assertThat(dispatcher.hasSubscribersFor(new OtherEvent()), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subscriberMethodMustHaveSingleParameter() throws Exception {
+        dispatcher = AfterCommitEventDispatcher.createIfRequired(
+                Collections.<Object>singleton(new InvalidSubscriber()), configuration);
+    }
+}
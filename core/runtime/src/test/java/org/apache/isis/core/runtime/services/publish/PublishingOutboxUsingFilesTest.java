@@ -0,0 +1,130 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.services.publish;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.PublishingOutboxEntry;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PublishingOutboxUsingFilesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PublishingOutboxUsingFiles outbox;
+    private UUID transactionId;
+
+    @Before
+    public void setUp() throws Exception {
+        outbox = new PublishingOutboxUsingFiles();
+        outbox.useDirectory(temporaryFolder.getRoot());
+        transactionId = UUID.randomUUID();
+    }
+
+    @Test
+    public void pendingInOrderAppended() throws Exception {
+        outbox.append(Lists.newArrayList(entry(0, "1"), entry(1, "2")));
+        outbox.append(Collections.singletonList(entry(2, "1")));
+
+        final List<PublishingOutboxEntry> pending = outbox.pending(10);
+
+        assertThat(pending.size(), is(3));
+        assertThat(pending.get(0).getMetadata().getSequence(), is(0));
+        assertThat(pending.get(1).getMetadata().getSequence(), is(1));
+        assertThat(pending.get(2).getMetadata().getSequence(), is(2));
+        assertThat(pending.get(1).getAggregate(), is(new Bookmark("CUS", "2")));
+        assertThat(pending.get(1).getChangeKind(), is(ChangeKind.UPDATE));
+    }
+
+    @Test
+    public void pendingLimitedToMax() throws Exception {
+        outbox.append(Lists.newArrayList(entry(0, "1"), entry(1, "2"), entry(2, "3")));
+
+        assertThat(outbox.pending(2).size(), is(2));
+    }
+
+    @Test
+    public void acknowledgedAreNoLongerPending() throws Exception {
+        outbox.append(Lists.newArrayList(entry(0, "1"), entry(1, "2")));
+
+        outbox.acknowledge(outbox.pending(1));
+
+        final List<PublishingOutboxEntry> pending = outbox.pending(10);
+        assertThat(pending.size(), is(1));
+        assertThat(pending.get(0).getMetadata().getSequence(), is(1));
+    }
+
+    @Test
+    public void unacknowledgedSurviveRestart() throws Exception {
+        outbox.append(Lists.newArrayList(entry(0, "1"), entry(1, "2")));
+
+        final PublishingOutboxUsingFiles restarted = new PublishingOutboxUsingFiles();
+        restarted.useDirectory(temporaryFolder.getRoot());
+        restarted.append(Collections.singletonList(entry(2, "3")));
+
+        final List<PublishingOutboxEntry> pending = restarted.pending(10);
+        assertThat(pending.size(), is(3));
+        assertThat(pending.get(2).getMetadata().getSequence(), is(2));
+
+        restarted.acknowledge(pending);
+        assertThat(restarted.pending(10).size(), is(0));
+    }
+
+    @Test
+    public void quarantinedAreNoLongerPending_butRetained() throws Exception {
+        outbox.append(Lists.newArrayList(entry(0, "1"), entry(1, "2")));
+
+        outbox.quarantine(outbox.pending(1));
+
+        final List<PublishingOutboxEntry> pending = outbox.pending(10);
+        assertThat(pending.size(), is(1));
+        assertThat(pending.get(0).getMetadata().getSequence(), is(1));
+
+        final PublishingOutboxUsingFiles restarted = new PublishingOutboxUsingFiles();
+        restarted.useDirectory(temporaryFolder.getRoot());
+        final List<PublishingOutboxEntry> quarantined = restarted.quarantined();
+        assertThat(quarantined.size(), is(1));
+        assertThat(quarantined.get(0).getMetadata().getSequence(), is(0));
+    }
+
+    private PublishingOutboxEntry entry(final int sequence, final String identifier) {
+        final EventMetadata metadata = new EventMetadata(
+                transactionId, sequence, EventType.OBJECT_UPDATED, "sven", new Timestamp(0), "CUS:" + identifier,
+                "com.mycompany.Customer", null, new Bookmark("CUS", identifier), null);
+        return PublishingOutboxEntry.objectChanged(metadata, ChangeKind.UPDATE);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.system.persistence;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.query.QueryDefault;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.services.container.query.QueryCardinality;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoader;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindUsingApplibQueryDefault;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryFactoryTest {
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private SpecificationLoader mockSpecificationLoader;
+    @Mock
+    private AdapterManager mockAdapterManager;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+
+    private PersistenceQueryFactory persistenceQueryFactory;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).loadSpecification(Customer.class);
+            will(returnValue(mockCustomerSpec));
+        }});
+        persistenceQueryFactory = new PersistenceQueryFactory(mockSpecificationLoader, mockAdapterManager);
+    }
+
+    @Test
+    public void findAllInstances_single_narrowsRangeToOneItem() throws Exception {
+        final PersistenceQuery persistenceQuery = persistenceQueryFactory.createPersistenceQueryFor(
+                new QueryFindAllInstances<Customer>(Customer.class, 10, 20), QueryCardinality.SINGLE);
+
+        assertThat(persistenceQuery, is(instanceOf(PersistenceQueryFindAllInstances.class)));
+        final PersistenceQueryFindAllInstances findAllInstances = (PersistenceQueryFindAllInstances) persistenceQuery;
+        assertThat(findAllInstances.getStart(), is(10L));
+        assertThat(findAllInstances.getCount(), is(1L));
+        assertThat(findAllInstances.getEnd(), is(11L));
+    }
+
+    @Test
+    public void findAllInstances_single_withNoRange_fetchesOnlyFirstItem() throws Exception {
+        final PersistenceQueryFindAllInstances findAllInstances = (PersistenceQueryFindAllInstances) persistenceQueryFactory.createPersistenceQueryFor(
+                new QueryFindAllInstances<Customer>(Customer.class), QueryCardinality.SINGLE);
+
+        assertThat(findAllInstances.hasRange(), is(true));
+        assertThat(findAllInstances.getStart(), is(0L));
+        assertThat(findAllInstances.getEnd(), is(1L));
+    }
+
+    @Test
+    public void findAllInstances_multiple_keepsRange() throws Exception {
+        final PersistenceQueryFindAllInstances findAllInstances = (PersistenceQueryFindAllInstances) persistenceQueryFactory.createPersistenceQueryFor(
+                new QueryFindAllInstances<Customer>(Customer.class, 10, 20), QueryCardinality.MULTIPLE);
+
+        assertThat(findAllInstances.getStart(), is(10L));
+        assertThat(findAllInstances.getCount(), is(20L));
+    }
+
+    @Test
+    public void namedQuery_single_narrowsRangeToOneItem() throws Exception {
+        final PersistenceQuery persistenceQuery = persistenceQueryFactory.createPersistenceQueryFor(
+                QueryDefault.create(Customer.class, "findAll").withStart(5).withCount(10), QueryCardinality.SINGLE);
+
+        assertThat(persistenceQuery, is(instanceOf(PersistenceQueryFindUsingApplibQueryDefault.class)));
+        final PersistenceQueryFindUsingApplibQueryDefault namedQuery = (PersistenceQueryFindUsingApplibQueryDefault) persistenceQuery;
+        assertThat(namedQuery.getCardinality(), is(QueryCardinality.SINGLE));
+        assertThat(namedQuery.getStart(), is(5L));
+        assertThat(namedQuery.getEnd(), is(6L));
+    }
+}
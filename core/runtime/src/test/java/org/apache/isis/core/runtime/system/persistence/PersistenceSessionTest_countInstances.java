@@ -0,0 +1,130 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.List;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.query.QueryFindAllInstances;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryFindAllInstances;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosureWithReturn;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceSessionTest_countInstances {
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSessionFactory mockPersistenceSessionFactory;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+
+    private final List<PersistenceQuery> persistenceQueries = Lists.newArrayList();
+
+    private PersistenceSession persistenceSession;
+
+    @Before
+    public void setUp() throws Exception {
+        context.ignoring(mockConfiguration);
+
+        context.checking(new Expectations() {{
+            allowing(mockTransactionManager).executeWithinTransaction(with(any(TransactionalClosureWithReturn.class)));
+            will(new CustomAction("execute closure") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    return ((TransactionalClosureWithReturn<?>) invocation.getParameter(0)).execute();
+                }
+            });
+
+            allowing(mockSpecificationLoader).loadSpecification(Customer.class);
+            will(returnValue(mockCustomerSpec));
+        }});
+
+        persistenceSession = new PersistenceSession(mockPersistenceSessionFactory, new ServicesInjectorDefault(new InjectorMethodEvaluatorDefault()), mockObjectStore, mockConfiguration) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return mockSpecificationLoader;
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+        persistenceSession.setTransactionManager(mockTransactionManager);
+    }
+
+    @Test
+    public void countedByObjectStore_ignoringRange() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockObjectStore).countInstances(with(any(PersistenceQuery.class)));
+            will(new CustomAction("record query") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    persistenceQueries.add((PersistenceQuery) invocation.getParameter(0));
+                    return 42L;
+                }
+            });
+
+            never(mockObjectStore).loadInstancesAndAdapt(with(any(PersistenceQuery.class)));
+        }});
+
+        final long count = persistenceSession.countInstances(new QueryFindAllInstances<Customer>(Customer.class));
+
+        assertThat(count, is(42L));
+        assertThat(persistenceQueries.size(), is(1));
+        final PersistenceQuery persistenceQuery = persistenceQueries.get(0);
+        assertThat(persistenceQuery, is(instanceOf(PersistenceQueryFindAllInstances.class)));
+        assertThat(persistenceQuery.getSpecification(), is(mockCustomerSpec));
+        assertThat(persistenceQuery.getStart(), is(0L));
+        assertThat(persistenceQuery.getCount(), is(0L));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jmock.Expectations;
+import org.jmock.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.adapter.oid.TypedOid;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosureWithReturn;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceSessionTest_loadObjects {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSessionFactory mockPersistenceSessionFactory;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+
+    @Mock
+    private ObjectAdapter mockCustomerAdapter;
+    @Mock
+    private ObjectAdapter mockOrderAdapter;
+
+    private final RootOid customer1Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "1");
+    private final RootOid order1Oid = RootOidDefault.create(ObjectSpecId.of("ORD"), "1");
+    private final RootOid customer2Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "2");
+
+    private PersistenceSession persistenceSession;
+
+    @Before
+    public void setUp() throws Exception {
+        context.ignoring(mockConfiguration);
+
+        context.checking(new Expectations() {{
+            allowing(mockTransactionManager).executeWithinTransaction(with(any(TransactionalClosureWithReturn.class)));
+            will(new CustomAction("execute closure") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    return ((TransactionalClosureWithReturn<?>) invocation.getParameter(0)).execute();
+                }
+            });
+        }});
+
+        persistenceSession = new PersistenceSession(mockPersistenceSessionFactory, new ServicesInjectorDefault(new InjectorMethodEvaluatorDefault()), mockObjectStore, mockConfiguration) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return mockSpecificationLoader;
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+        persistenceSession.setTransactionManager(mockTransactionManager);
+    }
+
+    @Test
+    public void unmappedOids_loadedTogether_inOidOrder() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockObjectStore).loadInstancesAndAdapt(Arrays.<TypedOid>asList(customer1Oid, order1Oid, customer2Oid));
+            will(returnValue(Arrays.asList(mockCustomerAdapter, mockOrderAdapter, null)));
+        }});
+
+        final List<ObjectAdapter> adapters = persistenceSession.loadObjects(Arrays.asList(customer1Oid, order1Oid, customer2Oid));
+
+        // the last no longer exists
+        assertThat(adapters, is(Arrays.asList(mockCustomerAdapter, mockOrderAdapter, null)));
+    }
+
+    @Test
+    public void noOids_objectStoreNotCalled() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockObjectStore).loadInstancesAndAdapt(with(any(List.class)));
+        }});
+
+        final List<ObjectAdapter> adapters = persistenceSession.loadObjects(Collections.<TypedOid>emptyList());
+
+        assertThat(adapters.isEmpty(), is(true));
+    }
+}
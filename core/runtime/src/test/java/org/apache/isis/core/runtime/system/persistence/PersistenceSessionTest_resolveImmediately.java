@@ -0,0 +1,151 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.persistence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jmock.Expectations;
+import org.jmock.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.metamodel.services.ServicesInjectorDefault;
+import org.apache.isis.core.metamodel.specloader.InjectorMethodEvaluatorDefault;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class PersistenceSessionTest_resolveImmediately {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceSessionFactory mockPersistenceSessionFactory;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private AuthenticationSession mockAuthenticationSession;
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+
+    @Mock
+    private ObjectAdapter mockUnresolvedAdapter1;
+    @Mock
+    private ObjectAdapter mockUnresolvedAdapter2;
+    @Mock
+    private ObjectAdapter mockResolvedAdapter;
+    @Mock
+    private ObjectAdapter mockTransientAdapter;
+    @Mock
+    private ObjectAdapter mockParentedAdapter;
+
+    private PersistenceSession persistenceSession;
+
+    @Before
+    public void setUp() throws Exception {
+        context.ignoring(mockConfiguration);
+
+        context.checking(new Expectations() {{
+            allowing(mockTransactionManager).executeWithinTransaction(with(any(TransactionalClosure.class)));
+            will(new CustomAction("execute closure") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    ((TransactionalClosure) invocation.getParameter(0)).execute();
+                    return null;
+                }
+            });
+
+            allowing(mockUnresolvedAdapter1).canTransitionToResolving();
+            will(returnValue(true));
+            allowing(mockUnresolvedAdapter1).representsPersistent();
+            will(returnValue(true));
+            allowing(mockUnresolvedAdapter1).isParented();
+            will(returnValue(false));
+
+            allowing(mockUnresolvedAdapter2).canTransitionToResolving();
+            will(returnValue(true));
+            allowing(mockUnresolvedAdapter2).representsPersistent();
+            will(returnValue(true));
+            allowing(mockUnresolvedAdapter2).isParented();
+            will(returnValue(false));
+
+            allowing(mockResolvedAdapter).canTransitionToResolving();
+            will(returnValue(false));
+
+            allowing(mockTransientAdapter).canTransitionToResolving();
+            will(returnValue(true));
+            allowing(mockTransientAdapter).representsPersistent();
+            will(returnValue(false));
+
+            allowing(mockParentedAdapter).canTransitionToResolving();
+            will(returnValue(true));
+            allowing(mockParentedAdapter).representsPersistent();
+            will(returnValue(true));
+            allowing(mockParentedAdapter).isParented();
+            will(returnValue(true));
+        }});
+
+        persistenceSession = new PersistenceSession(mockPersistenceSessionFactory, new ServicesInjectorDefault(new InjectorMethodEvaluatorDefault()), mockObjectStore, mockConfiguration) {
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return mockSpecificationLoader;
+            }
+            @Override
+            protected AuthenticationSession getAuthenticationSession() {
+                return mockAuthenticationSession;
+            }
+        };
+        persistenceSession.setTransactionManager(mockTransactionManager);
+    }
+
+    @Test
+    public void unresolvedPersistentRoots_resolvedTogether() throws Exception {
+        final List<ObjectAdapter> expected = Arrays.asList(mockUnresolvedAdapter1, mockUnresolvedAdapter2);
+        context.checking(new Expectations() {{
+            oneOf(mockObjectStore).resolveImmediately(expected);
+        }});
+
+        persistenceSession.resolveImmediately(Arrays.asList(
+                mockUnresolvedAdapter1, mockResolvedAdapter, null, mockTransientAdapter, mockParentedAdapter, mockUnresolvedAdapter2));
+    }
+
+    @Test
+    public void nothingToResolve_objectStoreNotCalled() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockObjectStore).resolveImmediately(with(any(List.class)));
+        }});
+
+        persistenceSession.resolveImmediately(Arrays.asList(mockResolvedAdapter, mockTransientAdapter, mockParentedAdapter));
+        persistenceSession.resolveImmediately(Collections.<ObjectAdapter>emptyList());
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.audit.AuditEntry;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BatchAuditingDispatcherTest {
+
+    static class CollectingBatchAuditingService implements BatchAuditingService {
+        final List<AuditEntry> audited = Collections.synchronizedList(Lists.<AuditEntry>newArrayList());
+        final List<Thread> threads = Collections.synchronizedList(Lists.<Thread>newArrayList());
+
+        @Override
+        public void audit(final List<AuditEntry> auditEntries) {
+            audited.addAll(auditEntries);
+            threads.add(Thread.currentThread());
+        }
+    }
+
+    private CollectingBatchAuditingService batchAuditingService;
+    private IsisConfigurationDefault configuration;
+
+    @Before
+    public void setUp() throws Exception {
+        batchAuditingService = new CollectingBatchAuditingService();
+        configuration = new IsisConfigurationDefault();
+    }
+
+    @Test
+    public void whenSynchronous() throws Exception {
+        configuration.add(BatchAuditingDispatcher.ASYNC_KEY, "false");
+        final BatchAuditingDispatcher dispatcher = new BatchAuditingDispatcher(batchAuditingService, configuration);
+        dispatcher.init();
+
+        dispatcher.dispatch(entries(3));
+
+        assertThat(batchAuditingService.audited.size(), is(3));
+        assertThat(batchAuditingService.threads.get(0), is(Thread.currentThread()));
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void whenAsynchronous_writtenByShutdown() throws Exception {
+        final BatchAuditingDispatcher dispatcher = new BatchAuditingDispatcher(batchAuditingService, configuration);
+        dispatcher.init();
+
+        dispatcher.dispatch(entries(5));
+        dispatcher.shutdown();
+
+        assertThat(batchAuditingService.audited.size(), is(5));
+        assertThat(batchAuditingService.threads.get(0) == Thread.currentThread(), is(false));
+    }
+
+    @Test
+    public void whenFull_andDiscard() throws Exception {
+        configuration.add(BatchAuditingDispatcher.QUEUE_CAPACITY_KEY, "2");
+        configuration.add(BatchAuditingDispatcher.WHEN_FULL_KEY, "discard");
+        // not initialized, so nothing drains the queue
+        final BatchAuditingDispatcher dispatcher = new BatchAuditingDispatcher(batchAuditingService, configuration);
+
+        dispatcher.dispatch(entries(5));
+
+        assertThat(dispatcher.getQueueSize(), is(2));
+        assertThat(batchAuditingService.audited.size(), is(0));
+    }
+
+    @Test
+    public void whenFull_andCallerRuns() throws Exception {
+        configuration.add(BatchAuditingDispatcher.QUEUE_CAPACITY_KEY, "2");
+        configuration.add(BatchAuditingDispatcher.WHEN_FULL_KEY, "callerRuns");
+        final BatchAuditingDispatcher dispatcher = new BatchAuditingDispatcher(batchAuditingService, configuration);
+
+        dispatcher.dispatch(entries(5));
+
+        assertThat(dispatcher.getQueueSize(), is(2));
+        assertThat(batchAuditingService.audited.size(), is(3));
+        assertThat(batchAuditingService.threads.get(0), is(Thread.currentThread()));
+    }
+
+    private static List<AuditEntry> entries(final int number) {
+        final List<AuditEntry> entries = Lists.newArrayList();
+        final UUID transactionId = UUID.randomUUID();
+        for (int i = 0; i < number; i++) {
+            entries.add(new AuditEntry(transactionId, "Customer", new Bookmark("CUS", "" + i), "Customer#name()", "name", "a", "b", "sven", null));
+        }
+        return entries;
+    }
+
+}
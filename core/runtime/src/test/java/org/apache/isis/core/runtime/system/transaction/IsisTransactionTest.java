@@ -29,9 +29,12 @@
 import org.apache.isis.applib.annotation.PublishedAction;
 import org.apache.isis.applib.annotation.PublishedObject;
 import org.apache.isis.applib.services.audit.AuditingService3;
+import org.apache.isis.applib.services.audit.BatchAuditingService;
 import org.apache.isis.applib.services.command.CommandContext;
 import org.apache.isis.applib.services.command.spi.CommandService;
 import org.apache.isis.applib.services.publish.EventSerializer;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
 import org.apache.isis.applib.services.publish.PublishingService;
 import org.apache.isis.core.commons.authentication.AuthenticationSession;
 import org.apache.isis.core.commons.authentication.MessageBroker;
@@ -195,8 +198,17 @@ public void setUp() throws Exception {
             allowing(mockServicesInjector).lookupService(AuditingService3.class);
             will(returnValue(mockAuditingService3));
 
+            allowing(mockServicesInjector).lookupService(BatchAuditingService.class);
+            will(returnValue(null));
+
             allowing(mockServicesInjector).lookupService(PublishingService.class);
             will(returnValue(mockPublishingService));
+
+            allowing(mockServicesInjector).lookupService(PublishingOutbox.class);
+            will(returnValue(null));
+
+            allowing(mockServicesInjector).lookupService(SharedQueryResultsCache.class);
+            will(returnValue(null));
             
             allowing(mockServicesInjector).lookupService(EventSerializer.class);
             will(returnValue(mockEventSerializer));
@@ -0,0 +1,142 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Arrays;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.filter.Filter;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.feature.Contributed;
+import org.apache.isis.core.metamodel.spec.feature.ObjectAssociation;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransactionTest_enlistUpdating {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+
+    @Mock
+    private ObjectAdapter mockAdapter;
+    @Mock
+    private ObjectSpecification mockSpecification;
+    @Mock
+    private ObjectAssociation mockNameProperty;
+    @Mock
+    private ObjectAssociation mockAgeProperty;
+    @Mock
+    private ObjectAdapter mockNameValueAdapter;
+    @Mock
+    private ObjectAdapter mockAgeValueAdapter;
+
+    private IsisTransaction transaction;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+            will(returnValue(null));
+
+            allowing(mockAdapter).getSpecification();
+            will(returnValue(mockSpecification));
+            allowing(mockSpecification).getAssociations(with(Contributed.EXCLUDED), with(any(Filter.class)));
+            will(returnValue(Arrays.asList(mockNameProperty, mockAgeProperty)));
+
+            allowing(mockNameProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockNameProperty).get(mockAdapter);
+            will(returnValue(mockNameValueAdapter));
+            allowing(mockNameValueAdapter).getObject();
+            will(returnValue("current name"));
+
+            allowing(mockAgeProperty).isNotPersisted();
+            will(returnValue(false));
+            allowing(mockAgeProperty).get(mockAdapter);
+            will(returnValue(mockAgeValueAdapter));
+            allowing(mockAgeValueAdapter).getObject();
+            will(returnValue(42));
+        }});
+
+        transaction = new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+    }
+
+    @Test
+    public void tracked_capturesOnlyTheModifiedProperty() throws Exception {
+        transaction.enlistUpdating(mockAdapter, mockNameProperty, "original name");
+        transaction.enlistUpdatingUnlessPropertiesEnlisted(mockAdapter);
+
+        assertThat(transaction.getEnlisted(mockAdapter, mockNameProperty).getPre(), is((Object) "original name"));
+        assertThat(transaction.getEnlisted(mockAdapter, mockAgeProperty), is(nullValue()));
+    }
+
+    @Test
+    public void untracked_fallsBackToCapturingAllProperties() throws Exception {
+        transaction.enlistUpdatingUnlessPropertiesEnlisted(mockAdapter);
+
+        assertThat(transaction.getEnlisted(mockAdapter, mockNameProperty).getPre(), is((Object) "current name"));
+        assertThat(transaction.getEnlisted(mockAdapter, mockAgeProperty).getPre(), is((Object) 42));
+    }
+
+    @Test
+    public void firstPreValueWins_whenTrackedTwice() throws Exception {
+        transaction.enlistUpdating(mockAdapter, mockNameProperty, "original name");
+        transaction.enlistUpdating(mockAdapter, mockNameProperty, "intermediate name");
+
+        assertThat(transaction.getEnlisted(mockAdapter, mockNameProperty).getPre(), is((Object) "original name"));
+    }
+
+    @Test
+    public void firstPreValueWins_whenSnapshotAfterTracked() throws Exception {
+        transaction.enlistUpdating(mockAdapter, mockNameProperty, "original name");
+        transaction.enlistUpdating(mockAdapter);
+
+        assertThat(transaction.getEnlisted(mockAdapter, mockNameProperty).getPre(), is((Object) "original name"));
+        assertThat(transaction.getEnlisted(mockAdapter, mockAgeProperty).getPre(), is((Object) 42));
+    }
+
+    @Test
+    public void firstPreValueWins_whenTrackedAfterSnapshot() throws Exception {
+        transaction.enlistUpdatingUnlessPropertiesEnlisted(mockAdapter);
+        transaction.enlistUpdating(mockAdapter, mockNameProperty, "intermediate name");
+
+        assertThat(transaction.getEnlisted(mockAdapter, mockNameProperty).getPre(), is((Object) "current name"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.queryresultscache.SharedQueryResultsCache;
+import org.apache.isis.core.commons.authentication.MessageBroker;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.runtimecontext.ServicesInjector;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.system.persistence.ObjectStore;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class IsisTransactionTest_invalidateSharedQueryResultsCache {
+
+    static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+    @Mock
+    private MessageBroker mockMessageBroker;
+    @Mock
+    private ObjectStore mockObjectStore;
+    @Mock
+    private ServicesInjector mockServicesInjector;
+    @Mock
+    private SharedQueryResultsCache mockSharedQueryResultsCache;
+
+    @Mock
+    private ObjectAdapter mockAdapter;
+    @Mock
+    private ObjectSpecification mockSpecification;
+
+    private IsisTransaction transaction;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockServicesInjector).lookupService(SharedQueryResultsCache.class);
+            will(returnValue(mockSharedQueryResultsCache));
+            allowing(mockServicesInjector).lookupService(with(any(Class.class)));
+            will(returnValue(null));
+
+            allowing(mockAdapter).getSpecification();
+            will(returnValue(mockSpecification));
+            allowing(mockSpecification).getCorrespondingClass();
+            will(returnValue(Customer.class));
+        }});
+
+        transaction = new IsisTransaction(mockTransactionManager, mockMessageBroker, mockObjectStore, mockServicesInjector);
+    }
+
+    @Test
+    public void changedTypes() throws Exception {
+        assertThat(transaction.getChangedTypes().isEmpty(), is(true));
+
+        transaction.enlistUpdatingKind(mockAdapter);
+
+        assertThat(transaction.getChangedTypes(), is(equalTo(Collections.<Class<?>>singleton(Customer.class))));
+    }
+
+    @Test
+    public void abort_invalidatesChangedTypes() throws Exception {
+        transaction.enlistUpdatingKind(mockAdapter);
+
+        context.checking(new Expectations() {{
+            oneOf(mockSharedQueryResultsCache).invalidate(with(equalTo((Collection<Class<?>>) Collections.<Class<?>>singleton(Customer.class))));
+        }});
+
+        transaction.markAsAborted();
+    }
+
+    @Test
+    public void abort_whenNothingChanged() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockSharedQueryResultsCache).invalidate(with(any(Collection.class)));
+        }});
+
+        transaction.markAsAborted();
+    }
+}
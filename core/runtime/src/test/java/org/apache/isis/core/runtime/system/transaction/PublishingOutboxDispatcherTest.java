@@ -0,0 +1,263 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.runtime.system.transaction;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.isis.applib.annotation.PublishedObject.ChangeKind;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.publish.EventMetadata;
+import org.apache.isis.applib.services.publish.EventType;
+import org.apache.isis.applib.services.publish.PublishingOutbox;
+import org.apache.isis.applib.services.publish.PublishingOutboxEntry;
+import org.apache.isis.core.commons.config.IsisConfigurationDefault;
+import org.apache.isis.core.runtime.services.publish.PublishingOutboxUsingFiles;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PublishingOutboxDispatcherTest {
+
+    /**
+     * Holds the entries in memory.
+     */
+    static class PublishingOutboxInMemory implements PublishingOutbox {
+        private final List<PublishingOutboxEntry> entries = Lists.newArrayList();
+        private final List<PublishingOutboxEntry> quarantined = Lists.newArrayList();
+
+        @Override
+        public synchronized void append(final List<PublishingOutboxEntry> entries) {
+            this.entries.addAll(entries);
+        }
+        @Override
+        public synchronized List<PublishingOutboxEntry> pending(final int maxEntries) {
+            return Lists.newArrayList(entries.subList(0, Math.min(maxEntries, entries.size())));
+        }
+        @Override
+        public synchronized void acknowledge(final List<PublishingOutboxEntry> entries) {
+            this.entries.removeAll(entries);
+        }
+        @Override
+        public synchronized void quarantine(final List<PublishingOutboxEntry> entries) {
+            this.entries.removeAll(entries);
+            this.quarantined.addAll(entries);
+        }
+    }
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private IsisConfigurationDefault configuration;
+    private UUID transactionId;
+
+    /**
+     * The ids of the entries delivered, in the order delivered.
+     */
+    private final List<String> delivered = Collections.synchronizedList(Lists.<String>newArrayList());
+    /**
+     * The ids of the entries that (currently) cannot be delivered.
+     */
+    private final Set<String> undeliverable = Collections.synchronizedSet(Sets.<String>newHashSet());
+
+    private final List<PublishingOutboxDispatcher> dispatchers = Lists.newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        configuration = new IsisConfigurationDefault();
+        configuration.add(PublishingOutboxDispatcher.THREADS_KEY, "3");
+        transactionId = UUID.randomUUID();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (final PublishingOutboxDispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+    }
+
+    /**
+     * Without a poller thread, so that each round of delivery is driven by the test itself.
+     */
+    private PublishingOutboxDispatcher dispatcherFor(final PublishingOutbox outbox) {
+        final PublishingOutboxDispatcher dispatcher = new PublishingOutboxDispatcher(outbox, configuration) {
+            @Override
+            void executeInSession(final Runnable callback) {
+                callback.run();
+            }
+
+            @Override
+            void deliver(final PublishingOutboxEntry entry) {
+                if (undeliverable.contains(entry.getId())) {
+                    throw new IllegalStateException("could not deliver " + entry);
+                }
+                delivered.add(entry.getId());
+            }
+        };
+        dispatcher.startDeliveryThreads();
+        dispatchers.add(dispatcher);
+        return dispatcher;
+    }
+
+    @Test
+    public void deliveredInOrder_andAcknowledged() throws Exception {
+        final PublishingOutboxInMemory outbox = new PublishingOutboxInMemory();
+        final PublishingOutboxEntry a1 = entry(0, "A");
+        final PublishingOutboxEntry b1 = entry(1, "B");
+        final PublishingOutboxEntry a2 = entry(2, "A");
+        outbox.append(Lists.newArrayList(a1, b1, a2));
+
+        dispatcherFor(outbox).deliverPending();
+
+        assertThat(delivered.size(), is(3));
+        assertThat(delivered.indexOf(a1.getId()) < delivered.indexOf(a2.getId()), is(true));
+        assertThat(delivered.contains(b1.getId()), is(true));
+        assertThat(outbox.pending(10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void failed_holdsBackLaterEntriesOfSameAggregate_untilRetried() throws Exception {
+        final PublishingOutboxInMemory outbox = new PublishingOutboxInMemory();
+        final PublishingOutboxEntry a1 = entry(0, "A");
+        final PublishingOutboxEntry b1 = entry(1, "B");
+        final PublishingOutboxEntry a2 = entry(2, "A");
+        outbox.append(Lists.newArrayList(a1, b1, a2));
+        undeliverable.add(a1.getId());
+
+        final PublishingOutboxDispatcher dispatcher = dispatcherFor(outbox);
+        dispatcher.deliverPending();
+
+        assertThat(delivered, is((List<String>) Lists.newArrayList(b1.getId())));
+        assertThat(outbox.pending(10), is((List<PublishingOutboxEntry>) Lists.newArrayList(a1, a2)));
+
+        // when the failure has been fixed, then delivered (in order) on the next poll
+        undeliverable.clear();
+        dispatcher.deliverPending();
+
+        assertThat(delivered, is((List<String>) Lists.newArrayList(b1.getId(), a1.getId(), a2.getId())));
+        assertThat(outbox.pending(10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void failedRepeatedly_quarantined_andNoLongerHoldsBack() throws Exception {
+        configuration.add(PublishingOutboxDispatcher.MAX_ATTEMPTS_KEY, "3");
+        configuration.add(PublishingOutboxDispatcher.MAX_BATCH_SIZE_KEY, "2");
+        final PublishingOutboxInMemory outbox = new PublishingOutboxInMemory();
+        final PublishingOutboxEntry a1 = entry(0, "A");
+        final PublishingOutboxEntry b1 = entry(1, "B");
+        final PublishingOutboxEntry a2 = entry(2, "A");
+        outbox.append(Lists.newArrayList(a1, b1, a2));
+        // eg the target's action has since been removed
+        undeliverable.add(a1.getId());
+        undeliverable.add(b1.getId());
+
+        final PublishingOutboxDispatcher dispatcher = dispatcherFor(outbox);
+        dispatcher.deliverPending();
+        dispatcher.deliverPending();
+
+        // the undeliverable entries fill the batch, so nothing is delivered ...
+        assertThat(delivered.isEmpty(), is(true));
+        assertThat(outbox.quarantined.isEmpty(), is(true));
+
+        // ... until their attempts are used up
+        dispatcher.deliverPending();
+
+        assertThat(outbox.quarantined, is((List<PublishingOutboxEntry>) Lists.newArrayList(a1, b1)));
+        assertThat(delivered, is((List<String>) Lists.newArrayList(a2.getId())));
+        assertThat(outbox.pending(10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void undelivered_deliveredInOrderAfterRestart() throws Exception {
+        final PublishingOutboxUsingFiles outbox = new PublishingOutboxUsingFiles();
+        outbox.useDirectory(temporaryFolder.getRoot());
+        final PublishingOutboxEntry a1 = entry(0, "A");
+        final PublishingOutboxEntry b1 = entry(1, "B");
+        final PublishingOutboxEntry a2 = entry(2, "A");
+        outbox.append(Lists.newArrayList(a1, b1, a2));
+        undeliverable.add(a1.getId());
+
+        final PublishingOutboxDispatcher dispatcher = dispatcherFor(outbox);
+        dispatcher.deliverPending();
+        dispatcher.shutdown();
+
+        assertThat(delivered, is((List<String>) Lists.newArrayList(b1.getId())));
+
+        // when restarted
+        undeliverable.clear();
+        final PublishingOutboxUsingFiles restartedOutbox = new PublishingOutboxUsingFiles();
+        restartedOutbox.useDirectory(temporaryFolder.getRoot());
+        dispatcherFor(restartedOutbox).deliverPending();
+
+        assertThat(delivered, is((List<String>) Lists.newArrayList(b1.getId(), a1.getId(), a2.getId())));
+        assertThat(restartedOutbox.pending(10).isEmpty(), is(true));
+    }
+
+    @Test
+    public void partitionsByAggregate_preservingOrder() throws Exception {
+        final PublishingOutboxDispatcher dispatcher = new PublishingOutboxDispatcher(null, configuration);
+        final List<PublishingOutboxEntry> entries = Lists.newArrayList();
+        for (int i = 0; i < 30; i++) {
+            entries.add(entry(i, "" + (i % 7)));
+        }
+
+        final List<List<PublishingOutboxEntry>> partitions = dispatcher.partition(entries);
+
+        assertThat(partitions.size(), is(3));
+        int total = 0;
+        for (final List<PublishingOutboxEntry> partition : partitions) {
+            total += partition.size();
+            int previousSequence = -1;
+            for (final PublishingOutboxEntry entry : partition) {
+                assertThat(entry.getMetadata().getSequence() > previousSequence, is(true));
+                previousSequence = entry.getMetadata().getSequence();
+                // every entry for the same aggregate is in this same partition
+                for (final List<PublishingOutboxEntry> other : partitions) {
+                    if (other == partition) {
+                        continue;
+                    }
+                    for (final PublishingOutboxEntry otherEntry : other) {
+                        assertThat(otherEntry.getAggregate().equals(entry.getAggregate()), is(false));
+                    }
+                }
+            }
+        }
+        assertThat(total, is(30));
+    }
+
+    private PublishingOutboxEntry entry(final int sequence, final String identifier) {
+        final EventMetadata metadata = new EventMetadata(
+                transactionId, sequence, EventType.OBJECT_UPDATED, "sven", new Timestamp(0), "CUS:" + identifier,
+                "com.mycompany.Customer", null, new Bookmark("CUS", identifier), null);
+        return PublishingOutboxEntry.objectChanged(metadata, ChangeKind.UPDATE);
+    }
+}
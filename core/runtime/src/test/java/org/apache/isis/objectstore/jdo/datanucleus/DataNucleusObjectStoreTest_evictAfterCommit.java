@@ -0,0 +1,134 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.objectstore.jdo.datanucleus;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Transaction;
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.runtime.persistence.adaptermanager.AdapterManagerDefault;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class DataNucleusObjectStoreTest_evictAfterCommit {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private DataNucleusApplicationComponents mockApplicationComponents;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private Transaction mockTransaction;
+    @Mock
+    private AdapterManagerDefault mockAdapterManager;
+
+    private DataNucleusObjectStore objectStore;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockApplicationComponents).getFrameworkSynchronizer();
+            will(returnValue(mockFrameworkSynchronizer));
+            allowing(mockApplicationComponents).createPersistenceManager();
+            will(returnValue(mockPersistenceManager));
+
+            allowing(mockPersistenceManager).currentTransaction();
+            will(returnValue(mockTransaction));
+            allowing(mockTransaction).isActive();
+            will(returnValue(true));
+        }});
+
+        objectStore = new DataNucleusObjectStore(mockApplicationComponents) {
+            @Override
+            public IsisConfiguration getConfiguration() {
+                return mockConfiguration;
+            }
+            @Override
+            protected AdapterManagerDefault getAdapterManager() {
+                return mockAdapterManager;
+            }
+        };
+    }
+
+    private void openWithEvictAfterCommit(final boolean evictAfterCommit) {
+        context.checking(new Expectations() {{
+            allowing(mockConfiguration).getBoolean(DataNucleusObjectStore.EVICT_AFTER_COMMIT_KEY, DataNucleusObjectStore.EVICT_AFTER_COMMIT_DEFAULT);
+            will(returnValue(evictAfterCommit));
+        }});
+        objectStore.open();
+    }
+
+    @Test
+    public void whenEnabled_adaptersRemovedAndPojosEvicted_afterCommit() throws Exception {
+        openWithEvictAfterCommit(true);
+
+        final Sequence sequence = context.sequence("endTransaction");
+        context.checking(new Expectations() {{
+            oneOf(mockTransaction).commit();
+            inSequence(sequence);
+            oneOf(mockAdapterManager).removePersistentAdapters();
+            inSequence(sequence);
+            will(returnValue(2));
+            oneOf(mockPersistenceManager).evictAll();
+            inSequence(sequence);
+        }});
+
+        objectStore.endTransaction();
+    }
+
+    @Test
+    public void whenDisabled_adaptersAndPojosKept() throws Exception {
+        openWithEvictAfterCommit(false);
+
+        context.checking(new Expectations() {{
+            oneOf(mockTransaction).commit();
+            never(mockAdapterManager).removePersistentAdapters();
+            never(mockPersistenceManager).evictAll();
+        }});
+
+        objectStore.endTransaction();
+    }
+
+    @Test
+    public void whenEnabled_butAborted_adaptersAndPojosKept() throws Exception {
+        openWithEvictAfterCommit(true);
+
+        context.checking(new Expectations() {{
+            oneOf(mockTransaction).rollback();
+            never(mockAdapterManager).removePersistentAdapters();
+            never(mockPersistenceManager).evictAll();
+        }});
+
+        objectStore.abortTransaction();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.objectstore.jdo.datanucleus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.jdo.FetchPlan;
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.applib.services.exceprecog.ExceptionRecognizer;
+import org.apache.isis.core.metamodel.adapter.oid.RootOid;
+import org.apache.isis.core.metamodel.adapter.oid.RootOidDefault;
+import org.apache.isis.core.metamodel.services.ServicesInjectorSpi;
+import org.apache.isis.core.metamodel.spec.ObjectSpecId;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DataNucleusObjectStoreTest_loadPojos {
+
+    static class Customer {}
+    static class Order {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private DataNucleusApplicationComponents mockApplicationComponents;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private FetchPlan mockFetchPlan;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private ObjectSpecification mockCustomerSpec;
+    @Mock
+    private ObjectSpecification mockOrderSpec;
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+    @Mock
+    private ServicesInjectorSpi mockServicesInjector;
+
+    private final RootOid customer1Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "1");
+    private final RootOid customer2Oid = RootOidDefault.create(ObjectSpecId.of("CUS"), "2");
+    private final RootOid order1Oid = RootOidDefault.create(ObjectSpecId.of("ORD"), "1");
+
+    private final Customer customer1 = new Customer();
+    private final Customer customer2 = new Customer();
+    private final Order order1 = new Order();
+
+    private DataNucleusObjectStore objectStore;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockApplicationComponents).getFrameworkSynchronizer();
+            will(returnValue(mockFrameworkSynchronizer));
+
+            allowing(mockPersistenceManager).getFetchPlan();
+            will(returnValue(mockFetchPlan));
+            ignoring(mockFetchPlan);
+
+            allowing(mockSpecificationLoader).lookupBySpecId(ObjectSpecId.of("CUS"));
+            will(returnValue(mockCustomerSpec));
+            allowing(mockCustomerSpec).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockSpecificationLoader).lookupBySpecId(ObjectSpecId.of("ORD"));
+            will(returnValue(mockOrderSpec));
+            allowing(mockOrderSpec).getCorrespondingClass();
+            will(returnValue(Order.class));
+
+            // the jdo object id of each (as converted by the test object store, below) is simply its identifier
+            allowing(mockPersistenceManager).newObjectIdInstance(Customer.class, "1");
+            will(returnValue("CUS:1"));
+            allowing(mockPersistenceManager).newObjectIdInstance(Customer.class, "2");
+            will(returnValue("CUS:2"));
+            allowing(mockPersistenceManager).newObjectIdInstance(Order.class, "1");
+            will(returnValue("ORD:1"));
+
+            // no exception recognizers
+            allowing(mockPersistenceSession).getServicesInjector();
+            will(returnValue(mockServicesInjector));
+            allowing(mockServicesInjector).lookupServices(ExceptionRecognizer.class);
+            will(returnValue(Collections.emptyList()));
+        }});
+
+        objectStore = new DataNucleusObjectStore(mockApplicationComponents) {
+            @Override
+            public PersistenceManager getPersistenceManager() {
+                return mockPersistenceManager;
+            }
+            @Override
+            protected SpecificationLoaderSpi getSpecificationLoader() {
+                return mockSpecificationLoader;
+            }
+            @Override
+            protected PersistenceSession getPersistenceSession() {
+                return mockPersistenceSession;
+            }
+            @Override
+            Object jdoObjectIdFor(final RootOid rootOid) {
+                return rootOid.getIdentifier();
+            }
+        };
+    }
+
+    @Test
+    public void mixedClasses_loadedOncePerClass_inOidOrder() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceManager).getObjectsById(true, new Object[]{"CUS:1", "CUS:2"});
+            will(returnValue(new Object[]{customer1, customer2}));
+            oneOf(mockPersistenceManager).getObjectsById(true, new Object[]{"ORD:1"});
+            will(returnValue(new Object[]{order1}));
+        }});
+
+        final List<Object> pojos = objectStore.loadPojos(Arrays.asList(customer1Oid, order1Oid, customer2Oid));
+
+        assertThat(pojos, is(Arrays.<Object>asList(customer1, order1, customer2)));
+    }
+
+    @Test
+    public void missingObject_fallsBackToLoadingIndividually() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceManager).getObjectsById(true, new Object[]{"CUS:1", "CUS:2"});
+            will(throwException(new JDOObjectNotFoundException("CUS:1 no longer exists")));
+
+            oneOf(mockPersistenceManager).getObjectById(Customer.class, "1");
+            will(throwException(new JDOObjectNotFoundException("CUS:1 no longer exists")));
+            oneOf(mockPersistenceManager).getObjectById(Customer.class, "2");
+            will(returnValue(customer2));
+
+            // other classes are unaffected
+            oneOf(mockPersistenceManager).getObjectsById(true, new Object[]{"ORD:1"});
+            will(returnValue(new Object[]{order1}));
+        }});
+
+        final List<Object> pojos = objectStore.loadPojos(Arrays.asList(customer1Oid, order1Oid, customer2Oid));
+
+        assertThat(pojos, is(Arrays.<Object>asList(null, order1, customer2)));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus;
+
+import java.util.Arrays;
+import javax.jdo.spi.PersistenceCapable;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer.CalledFrom;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+public class DataNucleusObjectStoreTest_resolveImmediately {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private DataNucleusApplicationComponents mockApplicationComponents;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+
+    @Mock
+    private PersistenceCapable mockPojo1;
+    @Mock
+    private PersistenceCapable mockPojo3;
+
+    private DataNucleusObjectStore objectStore;
+
+    @Before
+    public void setUp() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockApplicationComponents).getFrameworkSynchronizer();
+            will(returnValue(mockFrameworkSynchronizer));
+        }});
+        objectStore = new DataNucleusObjectStore(mockApplicationComponents);
+    }
+
+    @Test
+    public void loadedPojos_arePostLoadProcessed() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockFrameworkSynchronizer).postLoadProcessingFor(mockPojo1, CalledFrom.OS_RESOLVE);
+            oneOf(mockFrameworkSynchronizer).postLoadProcessingFor(mockPojo3, CalledFrom.OS_RESOLVE);
+        }});
+
+        objectStore.postLoadProcessingFor(Arrays.<Object>asList(mockPojo1, mockPojo3));
+    }
+
+    @Test
+    public void missingPojos_areSkipped() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockFrameworkSynchronizer).postLoadProcessingFor(mockPojo1, CalledFrom.OS_RESOLVE);
+            oneOf(mockFrameworkSynchronizer).postLoadProcessingFor(mockPojo3, CalledFrom.OS_RESOLVE);
+        }});
+
+        // the second no longer exists
+        objectStore.postLoadProcessingFor(Arrays.<Object>asList(mockPojo1, null, mockPojo3));
+    }
+}
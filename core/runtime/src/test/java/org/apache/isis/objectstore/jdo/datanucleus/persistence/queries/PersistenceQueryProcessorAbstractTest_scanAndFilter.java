@@ -0,0 +1,177 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import java.util.List;
+import javax.jdo.Extent;
+import javax.jdo.FetchPlan;
+import javax.jdo.PersistenceManager;
+import javax.jdo.spi.PersistenceCapable;
+import com.google.common.collect.Lists;
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
+import org.apache.isis.core.metamodel.adapter.mgr.AdapterManager;
+import org.apache.isis.core.metamodel.spec.ObjectSpecification;
+import org.apache.isis.core.runtime.persistence.query.PersistenceQueryBuiltIn;
+import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.objectstore.jdo.datanucleus.persistence.FrameworkSynchronizer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PersistenceQueryProcessorAbstractTest_scanAndFilter {
+
+    public static class Customer {}
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private PersistenceManager mockPersistenceManager;
+    @Mock
+    private FrameworkSynchronizer mockFrameworkSynchronizer;
+    @Mock
+    private Extent<Object> mockExtent;
+    @Mock
+    private FetchPlan mockFetchPlan;
+    @Mock
+    private ObjectSpecification mockSpecification;
+    @Mock
+    private PersistenceQueryBuiltIn mockQuery;
+    @Mock
+    private AdapterManager mockAdapterManager;
+    @Mock
+    private PersistenceSession mockPersistenceSession;
+
+    private PersistenceQueryProcessorAbstract<PersistenceQueryBuiltIn> processor;
+    private final List<Object> extentPojos = Lists.newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        processor = new PersistenceQueryProcessorAbstract<PersistenceQueryBuiltIn>(mockPersistenceManager, mockFrameworkSynchronizer) {
+            @Override
+            public List<ObjectAdapter> process(final PersistenceQueryBuiltIn query) {
+                return scanAndFilter(mockSpecification, query);
+            }
+            @Override
+            protected AdapterManager getAdapterManager() {
+                return mockAdapterManager;
+            }
+            @Override
+            protected PersistenceSession getPersistenceSession() {
+                return mockPersistenceSession;
+            }
+        };
+
+        context.checking(new Expectations() {{
+            allowing(mockSpecification).getCorrespondingClass();
+            will(returnValue(Customer.class));
+            allowing(mockPersistenceManager).getExtent(Customer.class, true);
+            will(returnValue(mockExtent));
+            allowing(mockExtent).getFetchPlan();
+            will(returnValue(mockFetchPlan));
+            ignoring(mockFetchPlan);
+            allowing(mockExtent).iterator();
+            will(returnIterator(extentPojos));
+            oneOf(mockExtent).closeAll();
+
+            ignoring(mockFrameworkSynchronizer);
+
+            allowing(mockQuery).getCount();
+            will(returnValue(0L));
+        }});
+    }
+
+    @Test
+    public void nonMatchesAreEvicted() throws Exception {
+        final ObjectAdapter matching = instance("matching", true, false);
+        final ObjectAdapter notMatching1 = instance("notMatching1", false, false);
+        final ObjectAdapter notMatchingButInUse = instance("notMatchingButInUse", false, true);
+        final ObjectAdapter notMatching2 = instance("notMatching2", false, false);
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).evict(Lists.newArrayList(notMatching1, notMatching2));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(mockQuery);
+
+        assertThat(adapters, is((List<ObjectAdapter>) Lists.newArrayList(matching)));
+    }
+
+    @Test
+    public void nonMatchesAreEvictedChunkByChunk() throws Exception {
+        final List<ObjectAdapter> firstChunk = Lists.newArrayList();
+        for (int i = 0; i < PersistenceQueryProcessorAbstract.SCAN_FETCH_SIZE; i++) {
+            firstChunk.add(instance("notMatching" + i, false, false));
+        }
+        final ObjectAdapter matching = instance("matching", true, false);
+        final ObjectAdapter notMatching = instance("notMatching", false, false);
+
+        context.checking(new Expectations() {{
+            oneOf(mockPersistenceSession).evict(firstChunk);
+            oneOf(mockPersistenceSession).evict(Lists.newArrayList(notMatching));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(mockQuery);
+
+        assertThat(adapters, is((List<ObjectAdapter>) Lists.newArrayList(matching)));
+    }
+
+    @Test
+    public void nothingToEvict() throws Exception {
+        final ObjectAdapter matching = instance("matching", true, false);
+        final ObjectAdapter notMatchingButInUse = instance("notMatchingButInUse", false, true);
+
+        context.checking(new Expectations() {{
+            never(mockPersistenceSession).evict(with(any(List.class)));
+        }});
+
+        final List<ObjectAdapter> adapters = processor.process(mockQuery);
+
+        assertThat(adapters, is((List<ObjectAdapter>) Lists.newArrayList(matching)));
+    }
+
+    /**
+     * Adds a pojo to the extent, returning its adapter.
+     *
+     * @param alreadyInUse - whether the pojo already had an adapter before being scanned.
+     */
+    private ObjectAdapter instance(final String name, final boolean matches, final boolean alreadyInUse) {
+        final PersistenceCapable pojo = context.mock(PersistenceCapable.class, name);
+        final ObjectAdapter adapter = context.mock(ObjectAdapter.class, name + "Adapter");
+        extentPojos.add(pojo);
+        context.checking(new Expectations() {{
+            allowing(mockAdapterManager).getAdapterFor(pojo);
+            will(alreadyInUse
+                    ? returnValue(adapter)
+                    : onConsecutiveCalls(returnValue(null), returnValue(adapter)));
+            allowing(mockQuery).matches(adapter);
+            will(returnValue(matches));
+        }});
+        return adapter;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.objectstore.jdo.datanucleus.persistence.queries;
+
+import javax.jdo.annotations.NotPersistent;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QueryUtilTest_isPersistentField {
+
+    public static class Party {
+        private String name;
+        private static String NAME_PREFIX;
+    }
+
+    public static class Customer extends Party {
+        private String reference;
+        private transient String cachedTitle;
+        @NotPersistent
+        private String notes;
+    }
+
+    @Test
+    public void declaredField() throws Exception {
+        assertThat(QueryUtil.isPersistentField(Customer.class, "reference"), is(true));
+    }
+
+    @Test
+    public void inheritedField() throws Exception {
+        assertThat(QueryUtil.isPersistentField(Customer.class, "name"), is(true));
+    }
+
+    @Test
+    public void noSuchField() throws Exception {
+        assertThat(QueryUtil.isPersistentField(Customer.class, "firstName"), is(false));
+    }
+
+    @Test
+    public void staticTransientOrNotPersistentField() throws Exception {
+        assertThat(QueryUtil.isPersistentField(Customer.class, "NAME_PREFIX"), is(false));
+        assertThat(QueryUtil.isPersistentField(Customer.class, "cachedTitle"), is(false));
+        assertThat(QueryUtil.isPersistentField(Customer.class, "notes"), is(false));
+    }
+
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.isis.security.shiro;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.AuthenticationException;
 import javax.naming.NamingEnumeration;
@@ -36,6 +40,9 @@
 import org.apache.isis.security.shiro.permrolemapper.PermissionToRoleMapperFromString;
 import org.apache.isis.security.shiro.util.Util;
 
+import org.apache.shiro.authc.AuthenticationInfo;
+import org.apache.shiro.authc.AuthenticationToken;
+import org.apache.shiro.authc.UsernamePasswordToken;
 import org.apache.shiro.authz.AuthorizationInfo;
 import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.shiro.config.Ini;
@@ -46,6 +53,9 @@
 import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.util.StringUtils;
 
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -117,6 +127,15 @@
  *    self-install_role = *:ToDoItemsFixturesService:install:* ; \
  *    admin_role = *
  * </pre>
+ *
+ * <p>
+ * Optionally, successful authentications can be remembered for a short time, so that (for example) stateless
+ * clients of the Restful Objects viewer, which authenticate on every request, do not cause a bind to the LDAP
+ * server each time.  Only a salted hash of the credentials is held:
+ *
+ * <pre>
+ * ldapRealm.credentialsCacheTtlSeconds = 60
+ * </pre>
  */
 public class IsisLdapRealm extends JndiLdapRealm {
 
@@ -136,6 +155,12 @@ public class IsisLdapRealm extends JndiLdapRealm {
     
     private PermissionToRoleMapper permissionToRoleMapper;
 
+    /**
+     * Populated only if {@link #setCredentialsCacheTtlSeconds(int)} is set.
+     */
+    private Cache<Object, CachedAuthentication> authenticationByPrincipal;
+    private final byte[] credentialsSalt = newSalt();
+
     public IsisLdapRealm() {
         setGroupObjectClass("groupOfUniqueNames");
         setUniqueMemberAttribute("uniqueMember");
@@ -164,6 +189,59 @@ protected AuthorizationInfo queryForAuthorizationInfo(final PrincipalCollection
         return simpleAuthorizationInfo;
     }
 
+    /**
+     * Binds to LDAP to authenticate, unless the same credentials were successfully authenticated within the
+     * {@link #setCredentialsCacheTtlSeconds(int) credentials cache TTL}.
+     */
+    @Override
+    protected AuthenticationInfo queryForAuthenticationInfo(final AuthenticationToken token, final LdapContextFactory ldapContextFactory) throws NamingException {
+        final Cache<Object, CachedAuthentication> cache = this.authenticationByPrincipal;
+        final Object principal = token.getPrincipal();
+        if(cache == null || principal == null || !(token instanceof UsernamePasswordToken)) {
+            return super.queryForAuthenticationInfo(token, ldapContextFactory);
+        }
+        final byte[] credentialsHash = hashOf(((UsernamePasswordToken) token).getPassword());
+        final CachedAuthentication cached = cache.getIfPresent(principal);
+        if(cached != null && MessageDigest.isEqual(cached.credentialsHash, credentialsHash)) {
+            return cached.authenticationInfo;
+        }
+        final AuthenticationInfo authenticationInfo = super.queryForAuthenticationInfo(token, ldapContextFactory);
+        if(authenticationInfo != null) {
+            cache.put(principal, new CachedAuthentication(credentialsHash, authenticationInfo));
+        }
+        return authenticationInfo;
+    }
+
+    private byte[] hashOf(final char[] password) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(credentialsSalt);
+            if(password != null) {
+                digest.update(new String(password).getBytes(Charsets.UTF_8));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static byte[] newSalt() {
+        final byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return salt;
+    }
+
+    private static class CachedAuthentication {
+        private final byte[] credentialsHash;
+        private final AuthenticationInfo authenticationInfo;
+
+        CachedAuthentication(final byte[] credentialsHash, final AuthenticationInfo authenticationInfo) {
+            this.credentialsHash = credentialsHash;
+            this.authenticationInfo = authenticationInfo;
+        }
+    }
+
     private Set<String> getRoles(final PrincipalCollection principals, final LdapContextFactory ldapContextFactory) throws NamingException {
         final String username = (String) getAvailablePrincipal(principals);
 
@@ -259,6 +337,23 @@ public void setUniqueMemberAttributeValueTemplate(String template) {
         this.uniqueMemberAttributeValueSuffix = suffix;
     }
 
+    /**
+     * How long (in seconds) a successful authentication is remembered for; if not set (or zero) then every
+     * authentication binds to the LDAP server.
+     *
+     * <pre>
+     * ldapRealm.credentialsCacheTtlSeconds = 60
+     * </pre>
+     */
+    public void setCredentialsCacheTtlSeconds(int credentialsCacheTtlSeconds) {
+        this.authenticationByPrincipal = credentialsCacheTtlSeconds > 0
+                ? CacheBuilder.newBuilder()
+                        .expireAfterWrite(credentialsCacheTtlSeconds, TimeUnit.SECONDS)
+                        .maximumSize(10000)
+                        .<Object, CachedAuthentication>build()
+                : null;
+    }
+
     public void setRolesByGroup(Map<String, String> rolesByGroup) {
         this.rolesByGroup.putAll(rolesByGroup);
     }
@@ -51,6 +51,8 @@
 import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
 import org.apache.isis.core.runtime.authorization.AuthorizationManagerInstaller;
 import org.apache.isis.core.runtime.authorization.standard.Authorizor;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.security.shiro.authorization.AuthorizationDecisionCache;
 import org.apache.isis.security.shiro.authorization.IsisPermission;
 
 /**
@@ -66,6 +68,21 @@ public class ShiroAuthenticatorOrAuthorizor implements Authenticator, Authorizor
 
     private static final Logger LOG = LoggerFactory.getLogger(ShiroAuthenticatorOrAuthorizor.class);
 
+    /**
+     * Whether the decisions made by {@link #isVisibleInAnyRole(Identifier)} and {@link #isUsableInAnyRole(Identifier)}
+     * are cached for the duration of the user's session (or until the realms are changed); defaults to <tt>true</tt>.
+     *
+     * @see AuthorizationDecisionCache
+     */
+    public static final String AUTHORIZATION_CACHE_ENABLED_KEY = ShiroConstants.ROOT_AUTHENTICATION + "authorizationCache.enabled";
+    public static final boolean AUTHORIZATION_CACHE_ENABLED_DEFAULT = true;
+
+    /**
+     * The maximum number of members (for each of visibility and usability) whose decisions are cached per session.
+     */
+    public static final String AUTHORIZATION_CACHE_MAX_SIZE_KEY = ShiroConstants.ROOT_AUTHENTICATION + "authorizationCache.maxSize";
+    public static final int AUTHORIZATION_CACHE_MAX_SIZE_DEFAULT = 2000;
+
     private final IsisConfiguration configuration;
 
 
@@ -224,12 +241,60 @@ public boolean isValid(AuthenticationRequest request) {
 
     @Override
     public boolean isVisibleInAnyRole(Identifier identifier) {
-        return isPermitted(identifier, "r");
+        final AuthenticationSession session = currentSessionIfCaching();
+        if(session == null) {
+            return isPermitted(identifier, "r");
+        }
+        final AuthorizationDecisionCache cache = decisionCacheFor(session);
+        final Boolean cached = cache.isVisible(session, identifier);
+        if(cached != null) {
+            return cached;
+        }
+        final boolean visible = isPermitted(identifier, "r");
+        cache.setVisible(session, identifier, visible);
+        return visible;
     }
 
     @Override
     public boolean isUsableInAnyRole(Identifier identifier) {
-        return isPermitted(identifier, "w");
+        final AuthenticationSession session = currentSessionIfCaching();
+        if(session == null) {
+            return isPermitted(identifier, "w");
+        }
+        final AuthorizationDecisionCache cache = decisionCacheFor(session);
+        final Boolean cached = cache.isUsable(session, identifier);
+        if(cached != null) {
+            return cached;
+        }
+        final boolean usable = isPermitted(identifier, "w");
+        cache.setUsable(session, identifier, usable);
+        return usable;
+    }
+
+    /**
+     * The session whose {@link AuthorizationDecisionCache} should be used, or <tt>null</tt> if decisions are not
+     * to be cached (not in a session, eg during bootstrapping, or caching disabled).
+     */
+    private AuthenticationSession currentSessionIfCaching() {
+        if(!IsisContext.exists() || !IsisContext.inSession()) {
+            return null;
+        }
+        if(!getConfiguration().getBoolean(AUTHORIZATION_CACHE_ENABLED_KEY, AUTHORIZATION_CACHE_ENABLED_DEFAULT)) {
+            return null;
+        }
+        return IsisContext.getAuthenticationSession();
+    }
+
+    private AuthorizationDecisionCache decisionCacheFor(final AuthenticationSession session) {
+        final RealmSecurityManager securityManager = getSecurityManager();
+        if(securityManager != null && securityManager.getRealms() != null) {
+            AuthorizationDecisionCache.invalidateAllIfRealmsChanged(securityManager.getRealms());
+        }
+        return AuthorizationDecisionCache.lookupOrCreate(session, getAuthorizationCacheMaxSize());
+    }
+
+    private int getAuthorizationCacheMaxSize() {
+        return getConfiguration().getInteger(AUTHORIZATION_CACHE_MAX_SIZE_KEY, AUTHORIZATION_CACHE_MAX_SIZE_DEFAULT);
     }
 
     private boolean isPermitted(Identifier identifier, String qualifier) {
@@ -0,0 +1,176 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.security.shiro.authorization;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+import org.apache.shiro.realm.Realm;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+
+/**
+ * Caches the authorization decisions (visible, usable) made for a single {@link AuthenticationSession}, keyed by
+ * {@link Identifier}, so that the (comparatively expensive) permission checks against Shiro are performed at most
+ * once per member per session.
+ *
+ * <p>
+ * Held as an {@link AuthenticationSession#getAttribute(String) attribute} of the session; obtain using
+ * {@link #lookupOrCreate(AuthenticationSession, int)}.  The decisions are discarded if the session's
+ * {@link AuthenticationSession#getRoles() roles} change, if the {@link #invalidateAllIfRealmsChanged(Collection)
+ * realms} in use change (eg because the security manager has been reconfigured), or if {@link #invalidateAll()}
+ * is called.
+ *
+ * <p>
+ * There is no time-to-live: changes to the permissions held within a realm's own store (eg a database or LDAP)
+ * cannot be detected, so are seen only by new sessions unless whatever makes the change also calls
+ * {@link #invalidateAll()}.
+ *
+ * <p>
+ * Thread-safe, and bounded in size.  The decisions themselves are not serialized along with the session.
+ */
+public class AuthorizationDecisionCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String ATTRIBUTE_NAME = AuthorizationDecisionCache.class.getName();
+
+    /**
+     * Incremented by {@link #invalidateAll()}.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /**
+     * Discards the decisions held for all sessions; to be called if the permissions granted by the realms change.
+     */
+    public static void invalidateAll() {
+        GENERATION.incrementAndGet();
+    }
+
+    /**
+     * The realms (compared by identity) in use when last {@link #invalidateAllIfRealmsChanged(Collection) checked}.
+     */
+    private static volatile List<Realm> realmsInUse;
+
+    /**
+     * {@link #invalidateAll() Discards} the decisions held for all sessions if the realms are not the same
+     * instances as when last checked; called before each decision is looked up.
+     */
+    public static void invalidateAllIfRealmsChanged(final Collection<Realm> realms) {
+        if (sameInstances(realmsInUse, realms)) {
+            return;
+        }
+        synchronized (GENERATION) {
+            if (sameInstances(realmsInUse, realms)) {
+                return;
+            }
+            realmsInUse = ImmutableList.copyOf(realms);
+            invalidateAll();
+        }
+    }
+
+    private static boolean sameInstances(final List<Realm> previous, final Collection<Realm> current) {
+        if (previous == null || previous.size() != current.size()) {
+            return false;
+        }
+        final Iterator<Realm> currentIter = current.iterator();
+        for (final Realm realm : previous) {
+            if (realm != currentIter.next()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static AuthorizationDecisionCache lookupOrCreate(final AuthenticationSession session, final int maxSize) {
+        synchronized (session) {
+            final Object attribute = session.getAttribute(ATTRIBUTE_NAME);
+            if (attribute instanceof AuthorizationDecisionCache) {
+                return (AuthorizationDecisionCache) attribute;
+            }
+            final AuthorizationDecisionCache cache = new AuthorizationDecisionCache(maxSize);
+            session.setAttribute(ATTRIBUTE_NAME, cache);
+            return cache;
+        }
+    }
+
+    private final int maxSize;
+
+    private transient volatile Decisions decisions;
+
+    AuthorizationDecisionCache(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return <tt>null</tt> if no decision has been cached.
+     */
+    public Boolean isVisible(final AuthenticationSession session, final Identifier identifier) {
+        return decisionsFor(session).visible.getIfPresent(identifier);
+    }
+
+    public void setVisible(final AuthenticationSession session, final Identifier identifier, final boolean visible) {
+        decisionsFor(session).visible.put(identifier, visible);
+    }
+
+    /**
+     * @return <tt>null</tt> if no decision has been cached.
+     */
+    public Boolean isUsable(final AuthenticationSession session, final Identifier identifier) {
+        return decisionsFor(session).usable.getIfPresent(identifier);
+    }
+
+    public void setUsable(final AuthenticationSession session, final Identifier identifier, final boolean usable) {
+        decisionsFor(session).usable.put(identifier, usable);
+    }
+
+    private Decisions decisionsFor(final AuthenticationSession session) {
+        final Decisions current = this.decisions;
+        final long generation = GENERATION.get();
+        if (current != null && current.generation == generation && current.roles.equals(session.getRoles())) {
+            return current;
+        }
+        final Decisions replacement = new Decisions(generation, session.getRoles(), maxSize);
+        this.decisions = replacement;
+        return replacement;
+    }
+
+    private static class Decisions {
+        private final long generation;
+        private final List<String> roles;
+        private final Cache<Identifier, Boolean> visible;
+        private final Cache<Identifier, Boolean> usable;
+
+        Decisions(final long generation, final List<String> roles, final int maxSize) {
+            this.generation = generation;
+            this.roles = ImmutableList.copyOf(roles);
+            this.visible = CacheBuilder.newBuilder().maximumSize(maxSize).<Identifier, Boolean>build();
+            this.usable = CacheBuilder.newBuilder().maximumSize(maxSize).<Identifier, Boolean>build();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.security.shiro.authorization;
+
+import java.util.Arrays;
+
+import org.apache.shiro.realm.Realm;
+import org.apache.shiro.realm.SimpleAccountRealm;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.Identifier;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class AuthorizationDecisionCacheTest {
+
+    private AuthenticationSession session;
+    private Identifier identifier;
+
+    @Before
+    public void setUp() throws Exception {
+        session = new SimpleSession("sven", new String[]{"role1"});
+        identifier = Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "firstName");
+    }
+
+    @Test
+    public void lookupOrCreate_isHeldAsSessionAttribute() throws Exception {
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        assertThat(AuthorizationDecisionCache.lookupOrCreate(session, 10), is(sameInstance(cache)));
+    }
+
+    @Test
+    public void cachesVisibilityAndUsabilitySeparately() throws Exception {
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        assertThat(cache.isVisible(session, identifier), is(nullValue()));
+
+        cache.setVisible(session, identifier, true);
+
+        assertThat(cache.isVisible(session, identifier), is(true));
+        assertThat(cache.isUsable(session, identifier), is(nullValue()));
+
+        cache.setUsable(session, identifier, false);
+
+        assertThat(cache.isUsable(session, identifier), is(false));
+    }
+
+    @Test
+    public void keyedByEqualIdentifiers() throws Exception {
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        cache.setVisible(session, identifier, true);
+
+        final Identifier otherMember = Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "lastName");
+        assertThat(cache.isVisible(session, otherMember), is(nullValue()));
+
+        final Identifier sameMember = Identifier.propertyOrCollectionIdentifier("com.mycompany.Customer", "firstName");
+        assertThat(cache.isVisible(session, sameMember), is(true));
+    }
+
+    @Test
+    public void invalidateAll() throws Exception {
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        cache.setVisible(session, identifier, true);
+
+        AuthorizationDecisionCache.invalidateAll();
+
+        assertThat(cache.isVisible(session, identifier), is(nullValue()));
+    }
+
+    @Test
+    public void discardedWhenRealmsChange() throws Exception {
+        final Realm realm = new SimpleAccountRealm("realm");
+        AuthorizationDecisionCache.invalidateAllIfRealmsChanged(Arrays.asList(realm));
+
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        cache.setVisible(session, identifier, true);
+
+        // same realm instances, so retained
+        AuthorizationDecisionCache.invalidateAllIfRealmsChanged(Arrays.asList(realm));
+        assertThat(cache.isVisible(session, identifier), is(true));
+
+        // reconfigured (even with an equivalent realm), so discarded
+        AuthorizationDecisionCache.invalidateAllIfRealmsChanged(Arrays.<Realm>asList(new SimpleAccountRealm("realm")));
+        assertThat(cache.isVisible(session, identifier), is(nullValue()));
+    }
+
+    @Test
+    public void discardedWhenRolesChange() throws Exception {
+        final AuthorizationDecisionCache cache = AuthorizationDecisionCache.lookupOrCreate(session, 10);
+        cache.setVisible(session, identifier, true);
+
+        final AuthenticationSession sessionWithOtherRoles = new SimpleSession("sven", new String[]{"role2"});
+
+        assertThat(cache.isVisible(sessionWithOtherRoles, identifier), is(nullValue()));
+    }
+}
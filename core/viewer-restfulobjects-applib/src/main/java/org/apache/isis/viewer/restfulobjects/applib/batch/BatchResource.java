@@ -0,0 +1,60 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.applib.batch;
+
+import java.io.InputStream;
+import javax.ws.rs.*;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.jboss.resteasy.annotations.ClientResponseType;
+
+/**
+ * Executes a number of requests (to domain objects and services) within a single HTTP request.
+ *
+ * <p>
+ * The body is a map with a <tt>requests</tt> array, each element of which specifies the <tt>method</tt>
+ * (<tt>GET</tt>, <tt>PUT</tt>, <tt>POST</tt> or <tt>DELETE</tt>), the <tt>href</tt> (either absolute or relative to
+ * the base URI) and, for <tt>PUT</tt> and <tt>POST</tt>, the <tt>body</tt>.  Optionally the map may also specify
+ * the <tt>transaction</tt> mode, either <tt>single</tt> or <tt>per-item</tt>.
+ *
+ * <p>
+ * The response is an array with, for each request in turn, its <tt>status</tt>, <tt>headers</tt> and
+ * <tt>body</tt>.
+ */
+@Path("/batch")
+public interface BatchResource {
+
+    @POST
+    @Consumes({ MediaType.WILDCARD })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @ClientResponseType(entityType = String.class)
+    public Response batch(final InputStream body);
+
+    @GET
+    public Response getBatchNotAllowed();
+
+    @DELETE
+    public Response deleteBatchNotAllowed();
+
+    @PUT
+    public Response putBatchNotAllowed();
+
+}
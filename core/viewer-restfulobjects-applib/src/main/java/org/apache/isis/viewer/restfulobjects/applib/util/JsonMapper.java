@@ -19,6 +19,7 @@
 package org.apache.isis.viewer.restfulobjects.applib.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -193,4 +194,17 @@ public String write(final Object object) throws JsonGenerationException, JsonMap
         return objectMapper.writeValueAsString(object);
     }
 
+    /**
+     * As {@link #write(Object)}, but writing directly to the provided stream rather than building up a
+     * <tt>String</tt>.  The stream is not closed.
+     */
+    public void write(final Object object, final OutputStream outputStream) throws JsonGenerationException, JsonMappingException, IOException {
+        final JsonGenerator jgen = objectMapper.getFactory().createGenerator(outputStream);
+        try {
+            objectMapper.writeValue(jgen, object);
+        } finally {
+            jgen.flush();
+        }
+    }
+
 }
@@ -21,6 +21,7 @@
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.applib.util.PathNode;
 import org.apache.isis.viewer.restfulobjects.rendering.util.FollowSpecUtil;
@@ -29,9 +30,40 @@
 
 public final class LinkFollowSpecs {
 
+    /**
+     * The maximum number of path nodes of an <tt>x-ro-follow-links</tt> spec; any beyond are ignored.
+     */
+    public static final String MAX_DEPTH_KEY = "isis.viewer.restfulobjects.followLinks.maxDepth";
+    public static final int MAX_DEPTH_DEFAULT = 10;
+
+    /**
+     * The maximum number of links that will be followed when rendering a single representation; once reached,
+     * any further links are rendered but not followed.
+     */
+    public static final String MAX_FOLLOWED_KEY = "isis.viewer.restfulobjects.followLinks.maxFollowed";
+    public static final int MAX_FOLLOWED_DEFAULT = 1000;
+
     public final static LinkFollowSpecs create(final List<List<String>> links) {
-        final List<List<PathNode>> specs = FollowSpecUtil.asFollowSpecs(links);
-        return new LinkFollowSpecs(specs, Mode.FOLLOWING, null);
+        return create(links, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public final static LinkFollowSpecs create(final List<List<String>> links, final IsisConfiguration configuration) {
+        return create(links,
+                configuration.getInteger(MAX_DEPTH_KEY, MAX_DEPTH_DEFAULT),
+                configuration.getInteger(MAX_FOLLOWED_KEY, MAX_FOLLOWED_DEFAULT));
+    }
+
+    /**
+     * @param maxDepth - specs with more path nodes than this are truncated.
+     * @param maxFollowed - the budget of links that may be followed, shared by this and every spec derived from it by
+     *                    {@link #follow(String, Object...)}; see {@link #matchesWithinBudget(JsonRepresentation)}.
+     */
+    public final static LinkFollowSpecs create(final List<List<String>> links, final int maxDepth, final int maxFollowed) {
+        final List<List<PathNode>> specs = Lists.newArrayList();
+        for (final List<PathNode> spec : FollowSpecUtil.asFollowSpecs(links)) {
+            specs.add(spec.size() > maxDepth ? spec.subList(0, Math.max(maxDepth, 0)) : spec);
+        }
+        return new LinkFollowSpecs(specs, Mode.FOLLOWING, null, new Budget(maxFollowed));
     }
 
     private enum Mode {
@@ -42,11 +74,13 @@ private enum Mode {
     private final Mode mode;
     // don't care about the key, just the criteria
     private final List<PathNode> criteriaSpecs;
+    private final Budget budget;
 
-    private LinkFollowSpecs(final List<List<PathNode>> pathSpecs, final Mode mode, final List<PathNode> criteriaSpecs) {
+    private LinkFollowSpecs(final List<List<PathNode>> pathSpecs, final Mode mode, final List<PathNode> criteriaSpecs, final Budget budget) {
         this.pathSpecs = pathSpecs;
         this.mode = mode;
         this.criteriaSpecs = criteriaSpecs;
+        this.budget = budget;
     }
 
     /**
@@ -76,7 +110,7 @@ public LinkFollowSpecs follow(final String pathTemplate, final Object... args) {
                 }
             }
             if(!remainingPathSpecs.isEmpty()) {
-                return new LinkFollowSpecs(remainingPathSpecs, Mode.FOLLOWING, firstSpecs);
+                return new LinkFollowSpecs(remainingPathSpecs, Mode.FOLLOWING, firstSpecs, budget);
             }
             return terminated();
         }
@@ -84,7 +118,7 @@ public LinkFollowSpecs follow(final String pathTemplate, final Object... args) {
     }
 
     private static LinkFollowSpecs terminated() {
-        return new LinkFollowSpecs(Collections.<List<PathNode>>emptyList(), Mode.TERMINATED, Collections.<PathNode>emptyList());
+        return new LinkFollowSpecs(Collections.<List<PathNode>>emptyList(), Mode.TERMINATED, Collections.<PathNode>emptyList(), Budget.NONE);
     }
 
     /**
@@ -120,6 +154,32 @@ public boolean matches(final JsonRepresentation jsonRepr) {
         return false;
     }
 
+    /**
+     * As {@link #matches(JsonRepresentation)}, but also counts the link (about to be followed) against the budget;
+     * returns <tt>false</tt> once that is exhausted.
+     */
+    public boolean matchesWithinBudget(final JsonRepresentation jsonRepr) {
+        return matches(jsonRepr) && budget.consume();
+    }
+
+    private static final class Budget {
+        static final Budget NONE = new Budget(0);
+
+        private int remaining;
+
+        Budget(final int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean consume() {
+            if (remaining <= 0) {
+                return false;
+            }
+            remaining--;
+            return true;
+        }
+    }
+
     @Override
     public String toString() {
         return mode + " : " + criteriaSpecs + " : " + pathSpecs;
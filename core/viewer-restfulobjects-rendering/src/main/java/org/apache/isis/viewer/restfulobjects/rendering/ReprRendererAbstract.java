@@ -21,6 +21,8 @@
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.core.MediaType;
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
@@ -34,6 +36,13 @@
 
 public abstract class ReprRendererAbstract<R extends ReprRendererAbstract<R, T>, T> implements ReprRenderer<R, T> {
 
+    /**
+     * The maximum number of objects to {@link #resolvingInBatches(Iterable) resolve} in a single batch; larger sets
+     * are resolved in several batches of (at most) this size.
+     */
+    public static final String RESOLVE_BATCH_SIZE_KEY = "isis.viewer.restfulobjects.resolveBatchSize";
+    public static final int RESOLVE_BATCH_SIZE_DEFAULT = 500;
+
     protected final RendererContext rendererContext;
     private final LinkFollowSpecs linkFollower;
     private final RepresentationType representationType;
@@ -61,7 +70,40 @@ private LinkFollowSpecs asProvidedElseCreate(final LinkFollowSpecs linkFollower)
         if (linkFollower != null) {
             return linkFollower;
         }
-        return LinkFollowSpecs.create(rendererContext.getFollowLinks());
+        return LinkFollowSpecs.create(rendererContext.getFollowLinks(), rendererContext.getConfiguration());
+    }
+
+    /**
+     * Wraps a set of objects about to be rendered (each of which would otherwise be loaded individually, as it is
+     * rendered) so that, as they are iterated over, those not yet resolved are resolved a batch at a time.
+     *
+     * <p>
+     * Each batch is only resolved once the first of its objects is reached, so that a
+     * {@link org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil#isStreaming(org.apache.isis.core.commons.config.IsisConfiguration) streamed}
+     * representation does not load every object up front.
+     */
+    protected Iterable<ObjectAdapter> resolvingInBatches(final Iterable<ObjectAdapter> adapters) {
+        final int batchSize = rendererContext.getConfiguration().getInteger(RESOLVE_BATCH_SIZE_KEY, RESOLVE_BATCH_SIZE_DEFAULT);
+        return Iterables.concat(Iterables.transform(Iterables.partition(adapters, Math.max(batchSize, 1)), new Function<List<ObjectAdapter>, List<ObjectAdapter>>() {
+            @Override
+            public List<ObjectAdapter> apply(final List<ObjectAdapter> batch) {
+                resolveAll(batch);
+                return batch;
+            }
+        }));
+    }
+
+    private void resolveAll(final List<ObjectAdapter> adapters) {
+        final List<ObjectAdapter> unresolved = Lists.newArrayList();
+        for (final ObjectAdapter adapter : adapters) {
+            if (adapter != null && adapter.canTransitionToResolving()) {
+                unresolved.add(adapter);
+            }
+        }
+        if (unresolved.size() <= 1) {
+            return;
+        }
+        rendererContext.getPersistenceSession().resolveImmediately(unresolved);
     }
 
     @Override
@@ -16,18 +16,44 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Ordering;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import org.joda.time.DateTime;
 import org.joda.time.format.ISODateTimeFormat;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
 import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
 
 public final class Responses {
 
+    /**
+     * Whether the <tt>ETag</tt> of an object is a strong tag computed from its {@link Version} and the current user's
+     * name and roles (since what a user may see of an object depends upon them), rather than a weak tag of the
+     * version's time alone.
+     */
+    public static final String STRONG_ETAG_KEY = "isis.viewer.restfulobjects.strongETag";
+    public static final boolean STRONG_ETAG_DEFAULT = false;
+
+    /**
+     * Whether collections are also given (and conditional GETs evaluated against) their owning object's
+     * {@link Version}.  Disabled by default, because the version of an object is not necessarily bumped when the
+     * contents of a collection mapped by the other side of a bidirectional relationship change.
+     */
+    public static final String CONDITIONAL_GET_COLLECTIONS_KEY = "isis.viewer.restfulobjects.conditionalGet.collections";
+    public static final boolean CONDITIONAL_GET_COLLECTIONS_DEFAULT = false;
+
     private Responses(){}
 
     public static Response.ResponseBuilder ofNoContent() {
@@ -40,10 +66,17 @@ public static Response.ResponseBuilder ofOk(final ReprRenderer<?, ?> renderer, f
 
     public static Response.ResponseBuilder ofOk(final ReprRenderer<?, ?> renderer, final Caching caching, final Version version) {
         final MediaType mediaType = renderer.getMediaType();
-        final Response.ResponseBuilder response = of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(JsonWriterUtil.jsonFor(renderer.render()));
+        final Response.ResponseBuilder response = of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(JsonWriterUtil.entityFor(renderer.render()));
         return addLastModifiedAndETagIfAvailable(response, version);
     }
 
+    /**
+     * As {@link #ofOk(ReprRenderer, Caching)}, for a representation that has already been serialized.
+     */
+    public static Response.ResponseBuilder ofOk(final byte[] json, final MediaType mediaType, final Caching caching) {
+        return of(RestfulResponse.HttpStatusCode.OK).type(mediaType).cacheControl(caching.getCacheControl()).entity(json);
+    }
+
     protected static Response.ResponseBuilder of(final RestfulResponse.HttpStatusCode httpStatusCode) {
         return Response.status(httpStatusCode.getJaxrsStatusType()).type(MediaType.APPLICATION_JSON_TYPE);
     }
@@ -57,6 +90,85 @@ public static Response.ResponseBuilder addLastModifiedAndETagIfAvailable(final R
         return responseBuilder;
     }
 
+    /**
+     * As {@link #addLastModifiedAndETagIfAvailable(Response.ResponseBuilder, Version)}, but using the
+     * {@link #entityTagFor(RendererContext, Version) entity tag} configured for the context.
+     */
+    public static Response.ResponseBuilder addLastModifiedAndETagIfAvailable(final Response.ResponseBuilder responseBuilder, final RendererContext rendererContext, final Version version) {
+        final EntityTag entityTag = entityTagFor(rendererContext, version);
+        if (entityTag != null) {
+            responseBuilder.tag(entityTag);
+            if (version.getTime() != null) {
+                responseBuilder.lastModified(version.getTime());
+            }
+        }
+        return responseBuilder;
+    }
+
+    /**
+     * Evaluates the request's <tt>If-None-Match</tt> and <tt>If-Modified-Since</tt> headers against the
+     * {@link Version} of the object being requested.
+     *
+     * @return a <tt>304 Not Modified</tt> response if the client's copy is still current, else <tt>null</tt>
+     *         (meaning the representation should be rendered as usual).
+     */
+    public static Response.ResponseBuilder notModifiedElseNull(final Request request, final RendererContext rendererContext, final Version version) {
+        final EntityTag entityTag = entityTagFor(rendererContext, version);
+        if (entityTag == null) {
+            return null;
+        }
+        final Date time = version.getTime();
+        final Response.ResponseBuilder responseBuilder =
+                time != null
+                    ? request.evaluatePreconditions(time, entityTag)
+                    : request.evaluatePreconditions(entityTag);
+        if (responseBuilder == null) {
+            return null;
+        }
+        responseBuilder.tag(entityTag);
+        if (time != null) {
+            responseBuilder.lastModified(time);
+        }
+        return responseBuilder;
+    }
+
+    /**
+     * The <tt>ETag</tt> for an object of the specified {@link Version}, or <tt>null</tt> if there is none.
+     *
+     * @see #STRONG_ETAG_KEY
+     */
+    public static EntityTag entityTagFor(final RendererContext rendererContext, final Version version) {
+        if (version == null) {
+            return null;
+        }
+        if (!isStrongETag(rendererContext.getConfiguration())) {
+            return version.getTime() != null ? asETag(version.getTime()) : null;
+        }
+
+        final Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putLong(version.getSequence());
+        if (version.getUtcTimestamp() != null) {
+            hasher.putLong(version.getUtcTimestamp());
+        }
+        final AuthenticationSession authenticationSession = rendererContext.getAuthenticationSession();
+        if (authenticationSession != null) {
+            hasher.putString(Strings.nullToEmpty(authenticationSession.getUserName()), Charsets.UTF_8);
+            final List<String> roles = authenticationSession.getRoles();
+            for (final String role : Ordering.natural().sortedCopy(roles != null ? roles : Collections.<String>emptyList())) {
+                hasher.putChar('|').putString(role, Charsets.UTF_8);
+            }
+        }
+        return new EntityTag(hasher.hash().toString());
+    }
+
+    public static boolean isConditionalGetForCollections(final IsisConfiguration configuration) {
+        return configuration != null && configuration.getBoolean(CONDITIONAL_GET_COLLECTIONS_KEY, CONDITIONAL_GET_COLLECTIONS_DEFAULT);
+    }
+
+    private static boolean isStrongETag(final IsisConfiguration configuration) {
+        return configuration != null && configuration.getBoolean(STRONG_ETAG_KEY, STRONG_ETAG_DEFAULT);
+    }
+
     private static EntityTag asETag(final Date time) {
         final String utcTime = ISODateTimeFormat.basicDateTime().print(new DateTime(time));
         return new EntityTag(utcTime, true);
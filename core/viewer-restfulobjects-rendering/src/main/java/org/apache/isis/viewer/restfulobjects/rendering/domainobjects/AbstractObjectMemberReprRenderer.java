@@ -255,7 +255,7 @@ private void addDetailsLinkIfPersistent() {
         // create a temporary map that looks the same as the member map we'll be following
         final JsonRepresentation memberMap = JsonRepresentation.newMap();
         memberMap.mapPut(getMemberId(), this.representation);
-        if (membersLinkFollower.matches(memberMap) && detailsLinkFollower.matches(link)) {
+        if (membersLinkFollower.matches(memberMap) && detailsLinkFollower.matchesWithinBudget(link)) {
             followDetailsLink(link);
         }
         return;
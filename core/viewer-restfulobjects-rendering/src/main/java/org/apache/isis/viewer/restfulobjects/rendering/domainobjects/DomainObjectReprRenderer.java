@@ -179,7 +179,7 @@ private void addLinkToSelf() {
         final JsonRepresentation link = linkToBuilder.with(objectAdapter).builder(Rel.SELF).build();
 
         final LinkFollowSpecs linkFollower = getLinkFollowSpecs().follow("links");
-        if (linkFollower.matches(link)) {
+        if (linkFollower.matchesWithinBudget(link)) {
             final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getRendererContext(), linkFollower, JsonRepresentation.newMap());
             renderer.with(objectAdapter);
             link.mapPut("value", renderer.render());
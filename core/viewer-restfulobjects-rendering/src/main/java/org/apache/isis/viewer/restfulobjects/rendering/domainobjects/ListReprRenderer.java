@@ -26,6 +26,8 @@
 import org.apache.isis.viewer.restfulobjects.rendering.LinkFollowSpecs;
 import org.apache.isis.viewer.restfulobjects.rendering.RendererContext;
 import org.apache.isis.viewer.restfulobjects.rendering.ReprRendererAbstract;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
+import org.apache.isis.viewer.restfulobjects.rendering.util.StreamedJsonArray;
 
 public class ListReprRenderer extends ReprRendererAbstract<ListReprRenderer, Collection<ObjectAdapter>> {
 
@@ -83,26 +85,45 @@ private void addValue() {
             return;
         }
 
-        final JsonRepresentation values = JsonRepresentation.newArray();
+        // rather than loading each object as its link (and any followed representation) is rendered
+        final Iterable<ObjectAdapter> adapters = resolvingInBatches(objectAdapters);
 
-        for (final ObjectAdapter adapter : objectAdapters) {
-            final ObjectSpecification specification = adapter.getSpecification();
-            if (specification.isHidden()) {
-                continue;
-            }
-            final JsonRepresentation linkToObject = linkTo.with(adapter).builder(elementRel).build();
-            values.arrayAdd(linkToObject);
-
-            final LinkFollowSpecs linkFollower = getLinkFollowSpecs().follow("value");
-            if (linkFollower.matches(linkToObject)) {
-                final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getRendererContext(), linkFollower, JsonRepresentation.newMap());
-                final JsonRepresentation domainObject = renderer.with(adapter).render();
-                linkToObject.mapPut("value", domainObject);
+        if(JsonWriterUtil.isStreaming(rendererContext.getConfiguration())) {
+            representation.mapPut("value", new StreamedJsonArray<ObjectAdapter>(adapters) {
+                @Override
+                protected JsonRepresentation render(final ObjectAdapter adapter) {
+                    return linkToElement(adapter);
+                }
+            });
+            return;
+        }
+
+        final JsonRepresentation values = JsonRepresentation.newArray();
+        for (final ObjectAdapter adapter : adapters) {
+            final JsonRepresentation linkToObject = linkToElement(adapter);
+            if (linkToObject != null) {
+                values.arrayAdd(linkToObject);
             }
         }
         representation.mapPut("value", values);
     }
 
+    private JsonRepresentation linkToElement(final ObjectAdapter adapter) {
+        final ObjectSpecification specification = adapter.getSpecification();
+        if (specification.isHidden()) {
+            return null;
+        }
+        final JsonRepresentation linkToObject = linkTo.with(adapter).builder(elementRel).build();
+
+        final LinkFollowSpecs linkFollower = getLinkFollowSpecs().follow("value");
+        if (linkFollower.matchesWithinBudget(linkToObject)) {
+            final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getRendererContext(), linkFollower, JsonRepresentation.newMap());
+            final JsonRepresentation domainObject = renderer.with(adapter).render();
+            linkToObject.mapPut("value", domainObject);
+        }
+        return linkToObject;
+    }
+
 
     protected void addLinkToReturnType() {
         addLink(Rel.RETURN_TYPE, returnType);
@@ -33,6 +33,8 @@
 import org.apache.isis.viewer.restfulobjects.rendering.LinkFollowSpecs;
 import org.apache.isis.viewer.restfulobjects.rendering.RendererContext;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.CollectionDescriptionReprRenderer;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
+import org.apache.isis.viewer.restfulobjects.rendering.util.StreamedJsonArray;
 
 public class ObjectCollectionReprRenderer extends AbstractObjectMemberReprRenderer<ObjectCollectionReprRenderer, OneToManyAssociation> {
 
@@ -85,29 +87,45 @@ private void addValue() {
             return;
         }
 
-        boolean eagerlyRender = rendererContext.honorUiHints() && renderEagerly(valueAdapter);
+        final boolean eagerlyRender = rendererContext.honorUiHints() && renderEagerly(valueAdapter);
 
         final CollectionFacet facet = CollectionFacetUtils.getCollectionFacetFromSpec(valueAdapter);
-        final List<JsonRepresentation> list = Lists.newArrayList();
-        for (final ObjectAdapter elementAdapter : facet.iterable(valueAdapter)) {
-
-            final LinkBuilder valueLinkBuilder = DomainObjectReprRenderer.newLinkToBuilder(rendererContext, Rel.VALUE, elementAdapter);
-            if(eagerlyRender) {
-                final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getRendererContext(), getLinkFollowSpecs(), JsonRepresentation.newMap());
-                renderer.with(elementAdapter);
-                if(mode.isEventSerialization()) {
-                    renderer.asEventSerialization();
-                }
 
-                valueLinkBuilder.withValue(renderer.render());
-            }
+        // rather than loading each element as its link (and any eagerly rendered representation) is rendered
+        final Iterable<ObjectAdapter> elementAdapters = resolvingInBatches(facet.iterable(valueAdapter));
 
-            list.add(valueLinkBuilder.build());
+        if(JsonWriterUtil.isStreaming(rendererContext.getConfiguration())) {
+            representation.mapPut("value", new StreamedJsonArray<ObjectAdapter>(elementAdapters) {
+                @Override
+                protected JsonRepresentation render(final ObjectAdapter elementAdapter) {
+                    return linkToElement(elementAdapter, eagerlyRender);
+                }
+            });
+            return;
+        }
+
+        final List<JsonRepresentation> list = Lists.newArrayList();
+        for (final ObjectAdapter elementAdapter : elementAdapters) {
+            list.add(linkToElement(elementAdapter, eagerlyRender));
         }
 
         representation.mapPut("value", list);
     }
 
+    private JsonRepresentation linkToElement(final ObjectAdapter elementAdapter, final boolean eagerlyRender) {
+        final LinkBuilder valueLinkBuilder = DomainObjectReprRenderer.newLinkToBuilder(rendererContext, Rel.VALUE, elementAdapter);
+        if(eagerlyRender) {
+            final DomainObjectReprRenderer renderer = new DomainObjectReprRenderer(getRendererContext(), getLinkFollowSpecs(), JsonRepresentation.newMap());
+            renderer.with(elementAdapter);
+            if(mode.isEventSerialization()) {
+                renderer.asEventSerialization();
+            }
+
+            valueLinkBuilder.withValue(renderer.render());
+        }
+        return valueLinkBuilder.build();
+    }
+
     private boolean renderEagerly(ObjectAdapter valueAdapter) {
         final RenderFacet renderFacet = objectMember.getFacet(RenderFacet.class);
         return renderFacet != null && renderFacet.value() == Type.EAGERLY && rendererContext.canEagerlyRender(valueAdapter);
@@ -16,14 +16,11 @@
  */
 package org.apache.isis.viewer.restfulobjects.rendering.service;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.core.metamodel.adapter.ObjectAdapter;
-import org.apache.isis.core.metamodel.adapter.version.Version;
 import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
 import org.apache.isis.viewer.restfulobjects.rendering.Responses;
@@ -33,8 +30,6 @@
 @DomainService
 public class RepresentationServiceForRestfulObjects implements RepresentationService {
 
-    private static final DateFormat ETAG_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
-
     // //////////////////////////////////////////////////////////////
     // objectRepresentation
     // //////////////////////////////////////////////////////////////
@@ -48,11 +43,7 @@ public Response objectRepresentation(
         renderer.with(objectAdapter).includesSelf();
 
         final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE);
-
-        final Version version = objectAdapter.getVersion();
-        if (version != null && version.getTime() != null) {
-            responseBuilder.tag(ETAG_FORMAT.format(version.getTime()));
-        }
+        Responses.addLastModifiedAndETagIfAvailable(responseBuilder, resourceContext, objectAdapter.getVersion());
         return buildResponse(responseBuilder);
     }
 
@@ -74,6 +65,7 @@ public Response propertyDetails(
                 .withMemberMode(memberReprMode);
 
         final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE);
+        Responses.addLastModifiedAndETagIfAvailable(responseBuilder, rendererContext, objectAndProperty.getObjectAdapter().getVersion());
         return buildResponse(responseBuilder);
     }
 
@@ -94,6 +86,9 @@ public Response collectionDetails(
                 .withMemberMode(memberReprMode);
 
         final ResponseBuilder responseBuilder = Responses.ofOk(renderer, Caching.NONE);
+        if(Responses.isConditionalGetForCollections(rendererContext.getConfiguration())) {
+            Responses.addLastModifiedAndETagIfAvailable(responseBuilder, rendererContext, objectAndCollection.getObjectAdapter().getVersion());
+        }
         return buildResponse(responseBuilder);
     }
 
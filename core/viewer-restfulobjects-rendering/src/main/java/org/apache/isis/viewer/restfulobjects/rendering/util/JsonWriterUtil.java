@@ -19,14 +19,42 @@
 package org.apache.isis.viewer.restfulobjects.rendering.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import org.apache.isis.core.commons.config.IsisConfiguration;
 import org.apache.isis.core.runtime.system.DeploymentType;
 import org.apache.isis.core.runtime.system.context.IsisContext;
 import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
 
 public final class JsonWriterUtil {
 
+    /**
+     * Whether representations are streamed directly to the response rather than first being serialized to a
+     * <tt>String</tt>; also enables the lazy rendering of the elements of lists and collections
+     * (see {@link StreamedJsonArray}).
+     *
+     * <p>
+     * Disabled by default.  Note that when enabled, any exception thrown while rendering lazily will occur
+     * after the response status and headers have been sent.
+     */
+    public static final String STREAMING_KEY = "isis.viewer.restfulobjects.streaming";
+    public static final boolean STREAMING_DEFAULT = false;
+
     private JsonWriterUtil(){}
 
+    public static boolean isStreaming(final IsisConfiguration configuration) {
+        return configuration != null && configuration.getBoolean(STREAMING_KEY, STREAMING_DEFAULT);
+    }
+
+    /**
+     * The entity to return for the object; either {@link #jsonFor(Object) its JSON} or, if
+     * {@link #isStreaming(IsisConfiguration) streaming}, a {@link #streamingOutputFor(Object) StreamingOutput}.
+     */
+    public static Object entityFor(final Object object) {
+        return isStreaming(IsisContext.getConfiguration()) ? streamingOutputFor(object) : jsonFor(object);
+    }
+
     public static String jsonFor(final Object object) {
         final JsonMapper.PrettyPrinting prettyPrinting = inferPrettyPrinting(IsisContext.getDeploymentType());
         try {
@@ -36,6 +64,16 @@ public static String jsonFor(final Object object) {
         }
     }
 
+    public static StreamingOutput streamingOutputFor(final Object object) {
+        final JsonMapper.PrettyPrinting prettyPrinting = inferPrettyPrinting(IsisContext.getDeploymentType());
+        return new StreamingOutput() {
+            @Override
+            public void write(final OutputStream output) throws IOException, WebApplicationException {
+                JsonMapper.instance(prettyPrinting).write(object, output);
+            }
+        };
+    }
+
     private static JsonMapper.PrettyPrinting inferPrettyPrinting(final DeploymentType deploymentType) {
         return deploymentType.isProduction() ? JsonMapper.PrettyPrinting.DISABLE : JsonMapper.PrettyPrinting.ENABLE;
     }
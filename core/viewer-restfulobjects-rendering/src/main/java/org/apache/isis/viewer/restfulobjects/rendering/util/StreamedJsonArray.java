@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.rendering.util;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+
+/**
+ * A JSON array whose elements are only rendered as it is serialized, one at a time.
+ *
+ * <p>
+ * Intended to be {@link JsonRepresentation#mapPut(String, Object) put} into a representation in place of a
+ * fully-built array when {@link JsonWriterUtil#isStreaming(org.apache.isis.core.commons.config.IsisConfiguration) streaming}
+ * is enabled.  Each element's {@link JsonRepresentation} is written to the generator and then discarded, so a
+ * large list is never held in memory as a tree in its entirety.
+ *
+ * <p>
+ * Because the elements are rendered lazily, the objects being rendered must still be available (that is, the
+ * session and transaction still open) when the response entity is written.
+ */
+public abstract class StreamedJsonArray<T> implements JsonSerializable {
+
+    private final Iterable<T> elements;
+
+    public StreamedJsonArray(final Iterable<T> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Hook method to render each element.
+     *
+     * @return the representation of the element, or <tt>null</tt> if the element is to be omitted.
+     */
+    protected abstract JsonRepresentation render(final T element);
+
+    @Override
+    public void serialize(final JsonGenerator jgen, final SerializerProvider provider) throws IOException, JsonProcessingException {
+        jgen.writeStartArray();
+        for (final T element : elements) {
+            final JsonRepresentation representation = render(element);
+            if (representation != null) {
+                jgen.writeTree(representation.asJsonNode());
+            }
+        }
+        jgen.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(final JsonGenerator jgen, final SerializerProvider provider, final TypeSerializer typeSer) throws IOException, JsonProcessingException {
+        serialize(jgen, provider);
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.rendering;
+
+import java.util.List;
+import org.junit.Test;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.util.Parser;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LinkFollowSpecsTest_budget {
+
+    @Test
+    public void depth_truncatesLongerSpecs() throws Exception {
+        final LinkFollowSpecs linkFollower = LinkFollowSpecs.create(asListOfLists("a.b.c"), 2, 100);
+
+        assertThat(linkFollower.follow("a").isFollowing(), is(true));
+        assertThat(linkFollower.follow("a").follow("b").isFollowing(), is(true));
+        assertThat(linkFollower.follow("a").follow("b").follow("c").isTerminated(), is(true));
+    }
+
+    @Test
+    public void depth_zeroFollowsNothing() throws Exception {
+        final LinkFollowSpecs linkFollower = LinkFollowSpecs.create(asListOfLists("a.b.c"), 0, 100);
+
+        assertThat(linkFollower.follow("a").isTerminated(), is(true));
+    }
+
+    @Test
+    public void followed_sharedByDerivedSpecs() throws Exception {
+        final LinkFollowSpecs linkFollower = LinkFollowSpecs.create(asListOfLists("a.b,x.y"), 10, 2);
+
+        final LinkFollowSpecs followA = linkFollower.follow("a");
+        final LinkFollowSpecs followX = linkFollower.follow("x");
+
+        assertThat(followA.matchesWithinBudget(JsonRepresentation.newMap()), is(true));
+        assertThat(followX.matchesWithinBudget(JsonRepresentation.newMap()), is(true));
+
+        assertThat(followA.follow("b").matchesWithinBudget(JsonRepresentation.newMap()), is(false));
+
+        // matches(...) itself is unaffected by the budget
+        assertThat(followX.matches(JsonRepresentation.newMap()), is(true));
+    }
+
+    @Test
+    public void followed_notConsumedIfNotMatched() throws Exception {
+        final LinkFollowSpecs linkFollower = LinkFollowSpecs.create(asListOfLists("a[x=y]"), 10, 1);
+
+        final LinkFollowSpecs followA = linkFollower.follow("a");
+
+        assertThat(followA.matchesWithinBudget(JsonRepresentation.newMap("x", "z")), is(false));
+        assertThat(followA.matchesWithinBudget(JsonRepresentation.newMap("x", "y")), is(true));
+        assertThat(followA.matchesWithinBudget(JsonRepresentation.newMap("x", "y")), is(false));
+    }
+
+    @Test
+    public void unlimitedByDefault() throws Exception {
+        final LinkFollowSpecs linkFollower = LinkFollowSpecs.create(asListOfLists("a"));
+
+        final LinkFollowSpecs followA = linkFollower.follow("a");
+        for (int i = 0; i < 10000; i++) {
+            assertThat(followA.matchesWithinBudget(JsonRepresentation.newMap()), is(true));
+        }
+    }
+
+    private List<List<String>> asListOfLists(final String string) {
+        return Parser.forListOfListOfStrings().valueOf(string);
+    }
+}
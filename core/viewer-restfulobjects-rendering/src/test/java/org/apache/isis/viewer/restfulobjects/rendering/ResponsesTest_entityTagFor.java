@@ -0,0 +1,136 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.rendering;
+
+import java.util.Date;
+import javax.ws.rs.core.EntityTag;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.jmock.api.Invocation;
+import org.jmock.integration.junit4.JMock;
+import org.jmock.integration.junit4.JUnit4Mockery;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.adapter.version.Version;
+import org.apache.isis.core.runtime.authentication.standard.SimpleSession;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+@RunWith(JMock.class)
+public class ResponsesTest_entityTagFor {
+
+    private final Mockery context = new JUnit4Mockery();
+
+    private RendererContext mockRendererContext;
+    private IsisConfiguration mockConfiguration;
+
+    private AuthenticationSession authenticationSession;
+    private boolean strongETag;
+
+    private final Version version = Version.create(3L, "fred", new Date(1000000L));
+
+    @Before
+    public void setUp() throws Exception {
+        mockRendererContext = context.mock(RendererContext.class);
+        mockConfiguration = context.mock(IsisConfiguration.class);
+
+        context.checking(new Expectations() {
+            {
+                allowing(mockRendererContext).getConfiguration();
+                will(returnValue(mockConfiguration));
+
+                allowing(mockConfiguration).getBoolean(Responses.STRONG_ETAG_KEY, Responses.STRONG_ETAG_DEFAULT);
+                will(new CustomAction("strongETag") {
+                    @Override
+                    public Object invoke(final Invocation invocation) throws Throwable {
+                        return strongETag;
+                    }
+                });
+
+                allowing(mockRendererContext).getAuthenticationSession();
+                will(new CustomAction("authenticationSession") {
+                    @Override
+                    public Object invoke(final Invocation invocation) throws Throwable {
+                        return authenticationSession;
+                    }
+                });
+            }
+        });
+        authenticationSession = new SimpleSession("joe", new String[] { "user", "admin" });
+    }
+
+    @Test
+    public void whenNoVersion() throws Exception {
+        assertThat(Responses.entityTagFor(mockRendererContext, null), is(nullValue()));
+    }
+
+    @Test
+    public void weakByDefault() throws Exception {
+        final EntityTag entityTag = Responses.entityTagFor(mockRendererContext, version);
+        assertThat(entityTag.isWeak(), is(true));
+
+        // independent of the user
+        authenticationSession = new SimpleSession("mary", new String[] { "user" });
+        assertThat(Responses.entityTagFor(mockRendererContext, version), is(entityTag));
+    }
+
+    @Test
+    public void strong() throws Exception {
+        strongETag = true;
+        final EntityTag entityTag = Responses.entityTagFor(mockRendererContext, version);
+        assertThat(entityTag.isWeak(), is(false));
+        assertThat(Responses.entityTagFor(mockRendererContext, version), is(entityTag));
+    }
+
+    @Test
+    public void strongIgnoresOrderOfRoles() throws Exception {
+        strongETag = true;
+        final EntityTag entityTag = Responses.entityTagFor(mockRendererContext, version);
+
+        authenticationSession = new SimpleSession("joe", new String[] { "admin", "user" });
+        assertThat(Responses.entityTagFor(mockRendererContext, version), is(entityTag));
+    }
+
+    @Test
+    public void strongDependsOnRoles() throws Exception {
+        strongETag = true;
+        final EntityTag entityTag = Responses.entityTagFor(mockRendererContext, version);
+
+        authenticationSession = new SimpleSession("joe", new String[] { "user" });
+        assertThat(Responses.entityTagFor(mockRendererContext, version), is(not(entityTag)));
+    }
+
+    @Test
+    public void strongDependsOnVersion() throws Exception {
+        strongETag = true;
+        final EntityTag entityTag = Responses.entityTagFor(mockRendererContext, version);
+
+        final Version nextVersion = Version.create(4L, "fred", new Date(1000000L));
+        assertThat(Responses.entityTagFor(mockRendererContext, nextVersion), is(not(entityTag)));
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.rendering.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.Charset;
+import java.util.AbstractList;
+import java.util.List;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
+
+/**
+ * Compares the peak heap usage and time-to-first-byte of writing a representation of a large list, first as a
+ * tree serialized to a <tt>String</tt> (the default) and then {@link StreamedJsonArray streamed}.
+ *
+ * <p>
+ * Not a test; run using {@link #main(String[])}, eg:
+ * <pre>
+ * mvn -pl core/viewer-restfulobjects-rendering test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.isis.viewer.restfulobjects.rendering.util.StreamedJsonArrayBenchmark
+ * </pre>
+ */
+public class StreamedJsonArrayBenchmark {
+
+    private static final int ELEMENTS = 10000;
+    private static final int ITERATIONS = 20;
+
+    private static final JsonMapper JSON_MAPPER = JsonMapper.instance(JsonMapper.PrettyPrinting.DISABLE);
+
+    public static void main(final String[] args) throws IOException {
+        final List<Integer> elements = new AbstractList<Integer>() {
+            @Override
+            public Integer get(final int index) {
+                return index;
+            }
+
+            @Override
+            public int size() {
+                return ELEMENTS;
+            }
+        };
+
+        // let the JIT settle before measuring
+        for (int i = 0; i < ITERATIONS; i++) {
+            writeTree(elements, new Sink());
+            writeStreamed(elements, new Sink());
+        }
+
+        run("tree", elements, false);
+        run("streamed", elements, true);
+    }
+
+    private static void run(final String name, final List<Integer> elements, final boolean streamed) throws IOException {
+        long peakBytes = 0;
+        long firstByteNanos = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            System.gc();
+            final long baselineBytes = resetPeakHeapUsage();
+
+            final Sink sink = new Sink();
+            if (streamed) {
+                writeStreamed(elements, sink);
+            } else {
+                writeTree(elements, sink);
+            }
+            totalNanos += System.nanoTime() - sink.startNanos;
+            firstByteNanos += sink.firstByteNanos - sink.startNanos;
+            peakBytes = Math.max(peakBytes, peakHeapUsage() - baselineBytes);
+        }
+
+        System.out.println(String.format(
+                "%-10s %,d elements   peak heap: %,12d bytes   first byte (mean): %,8d us   total (mean): %,8d us",
+                name, elements.size(), peakBytes, firstByteNanos / ITERATIONS / 1000, totalNanos / ITERATIONS / 1000));
+    }
+
+    private static void writeTree(final List<Integer> elements, final Sink sink) throws IOException {
+        sink.start();
+        final JsonRepresentation representation = JsonRepresentation.newMap();
+        final JsonRepresentation values = JsonRepresentation.newArray();
+        for (final Integer element : elements) {
+            values.arrayAdd(linkTo(element));
+        }
+        representation.mapPut("value", values);
+
+        final String json = JSON_MAPPER.write(representation);
+        sink.write(json.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private static void writeStreamed(final List<Integer> elements, final Sink sink) throws IOException {
+        sink.start();
+        final JsonRepresentation representation = JsonRepresentation.newMap();
+        representation.mapPut("value", new StreamedJsonArray<Integer>(elements) {
+            @Override
+            protected JsonRepresentation render(final Integer element) {
+                return linkTo(element);
+            }
+        });
+
+        JSON_MAPPER.write(representation, sink);
+    }
+
+    /**
+     * Approximates the link to a domain object, as rendered by the <tt>ListReprRenderer</tt>.
+     */
+    private static JsonRepresentation linkTo(final Integer element) {
+        return JsonRepresentation.newMap(
+                "rel", "urn:org.restfulobjects:rels/element",
+                "href", "http://localhost:8080/restful/objects/TODO/L_" + element,
+                "method", "GET",
+                "type", "application/json;profile=\"urn:org.restfulobjects:repr-types/object\"",
+                "title", "To do item #" + element);
+    }
+
+    private static long resetPeakHeapUsage() {
+        long used = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * Discards what is written, recording when the first byte arrived.
+     */
+    static class Sink extends OutputStream {
+        long startNanos;
+        long firstByteNanos;
+
+        void start() {
+            startNanos = System.nanoTime();
+        }
+
+        @Override
+        public void write(final int b) {
+            recordFirstByte();
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            if (len > 0) {
+                recordFirstByte();
+            }
+        }
+
+        private void recordFirstByte() {
+            if (firstByteNanos == 0) {
+                firstByteNanos = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.rendering.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.util.JsonMapper;
+
+public class StreamedJsonArrayTest {
+
+    private static StreamedJsonArray<String> streamedArrayOf(final String... names) {
+        return new StreamedJsonArray<String>(Arrays.asList(names)) {
+            @Override
+            protected JsonRepresentation render(final String name) {
+                if (name.startsWith("hidden")) {
+                    return null;
+                }
+                final JsonRepresentation representation = JsonRepresentation.newMap();
+                representation.mapPut("name", name);
+                return representation;
+            }
+        };
+    }
+
+    @Test
+    public void writesSameJsonAsTree() throws Exception {
+        final JsonRepresentation streamed = JsonRepresentation.newMap();
+        streamed.mapPut("value", streamedArrayOf("a", "hidden", "b"));
+
+        final JsonRepresentation tree = JsonRepresentation.newMap();
+        final JsonRepresentation values = JsonRepresentation.newArray();
+        values.arrayAdd(JsonRepresentation.newMap("name", "a"));
+        values.arrayAdd(JsonRepresentation.newMap("name", "b"));
+        tree.mapPut("value", values);
+
+        final JsonMapper jsonMapper = JsonMapper.instance(JsonMapper.PrettyPrinting.DISABLE);
+        assertThat(jsonMapper.write(streamed), is(jsonMapper.write(tree)));
+    }
+
+    @Test
+    public void writesToStream() throws Exception {
+        final JsonRepresentation streamed = JsonRepresentation.newMap();
+        streamed.mapPut("value", streamedArrayOf("a"));
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JsonMapper.instance(JsonMapper.PrettyPrinting.DISABLE).write(streamed, baos);
+
+        assertThat(baos.toString("UTF-8"), is("{\"value\":[{\"name\":\"a\"}]}"));
+    }
+
+    @Test
+    public void empty() throws Exception {
+        final JsonRepresentation streamed = JsonRepresentation.newMap();
+        streamed.mapPut("value", streamedArrayOf());
+
+        assertThat(JsonMapper.instance(JsonMapper.PrettyPrinting.DISABLE).write(streamed), is("{\"value\":[]}"));
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.ws.rs.core.Response;
+import com.google.common.base.Charsets;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.apache.isis.core.commons.url.UrlEncodingUtils;
+import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
+
+/**
+ * Dispatches a single request of a batch to the resource method that would have handled it had it been a
+ * request in its own right.
+ */
+class BatchItemDispatcher {
+
+    /**
+     * The method and (parsed) href of a request.
+     */
+    static class Route {
+
+        /**
+         * @param href - either absolute (in which case must start with the base URI) or relative to the base URI.
+         */
+        static Route parse(final String method, final String href, final String baseUri) {
+            if (Strings.isNullOrEmpty(method) || Strings.isNullOrEmpty(href)) {
+                throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "Each request must specify a 'method' and an 'href'");
+            }
+            String path = href;
+            if (path.startsWith(baseUri)) {
+                path = path.substring(baseUri.length());
+            } else if (path.contains("://")) {
+                throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "href '%s' is not relative to '%s'", href, baseUri);
+            }
+
+            String queryString = null;
+            final int queryStart = path.indexOf('?');
+            if (queryStart >= 0) {
+                queryString = path.substring(queryStart + 1);
+                path = path.substring(0, queryStart);
+            }
+
+            final List<String> segments = Lists.newArrayList();
+            for (final String segment : Splitter.on('/').omitEmptyStrings().split(path)) {
+                // as would have been done for @PathParams
+                segments.add(UrlEncodingUtils.urlDecode(segment));
+            }
+            return new Route(method.toUpperCase(), segments, queryString);
+        }
+
+        private final String method;
+        private final List<String> segments;
+        private final String queryString;
+
+        Route(final String method, final List<String> segments, final String queryString) {
+            this.method = method;
+            this.segments = segments;
+            this.queryString = queryString;
+        }
+
+        String getMethod() {
+            return method;
+        }
+
+        List<String> getSegments() {
+            return segments;
+        }
+
+        String getQueryString() {
+            return queryString;
+        }
+
+        boolean matches(final String method, final String... pattern) {
+            if (!this.method.equals(method) || segments.size() != pattern.length) {
+                return false;
+            }
+            for (int i = 0; i < pattern.length; i++) {
+                if (pattern[i] != null && !pattern[i].equals(segments.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Whether this invokes an action (of an object or a service), <tt>.../actions/{actionId}/invoke</tt>.
+         */
+        boolean isActionInvocation() {
+            final int size = segments.size();
+            return size >= 3 && "invoke".equals(segments.get(size - 1)) && "actions".equals(segments.get(size - 3));
+        }
+
+        String segment(final int i) {
+            return segments.get(i);
+        }
+
+        @Override
+        public String toString() {
+            return method + " " + segments + (queryString != null ? "?" + queryString : "");
+        }
+    }
+
+    private final ResourceAbstract parent;
+    private final HttpServletRequest httpServletRequest;
+
+    BatchItemDispatcher(final ResourceAbstract parent, final HttpServletRequest httpServletRequest) {
+        this.parent = parent;
+        this.httpServletRequest = httpServletRequest;
+    }
+
+    /**
+     * @param body - the body of a <tt>PUT</tt> or <tt>POST</tt>, else ignored.
+     */
+    Response dispatch(final Route route, final String body) {
+        final HttpServletRequest itemRequest = new ItemServletRequest(httpServletRequest, route);
+        final InputStream bodyStream = new ByteArrayInputStream(Strings.nullToEmpty(body).getBytes(Charsets.UTF_8));
+
+        if (route.getSegments().size() > 0 && "objects".equals(route.segment(0))) {
+            final DomainObjectResourceServerside resource = parent.injectContextInto(new DomainObjectResourceServerside(), itemRequest);
+            if (route.getSegments().size() >= 3) {
+                final String domainType = route.segment(1);
+                final String instanceId = route.segment(2);
+                if (route.matches("GET", "objects", null, null)) {
+                    return resource.object(domainType, instanceId);
+                }
+                if (route.matches("PUT", "objects", null, null)) {
+                    return resource.object(domainType, instanceId, bodyStream);
+                }
+                if (route.matches("GET", "objects", null, null, "properties", null)) {
+                    return resource.propertyDetails(domainType, instanceId, route.segment(4));
+                }
+                if (route.matches("PUT", "objects", null, null, "properties", null)) {
+                    return resource.modifyProperty(domainType, instanceId, route.segment(4), bodyStream);
+                }
+                if (route.matches("DELETE", "objects", null, null, "properties", null)) {
+                    return resource.clearProperty(domainType, instanceId, route.segment(4));
+                }
+                if (route.matches("GET", "objects", null, null, "collections", null)) {
+                    return resource.accessCollection(domainType, instanceId, route.segment(4));
+                }
+                if (route.matches("PUT", "objects", null, null, "collections", null)) {
+                    return resource.addToSet(domainType, instanceId, route.segment(4), bodyStream);
+                }
+                if (route.matches("POST", "objects", null, null, "collections", null)) {
+                    return resource.addToList(domainType, instanceId, route.segment(4), bodyStream);
+                }
+                if (route.matches("DELETE", "objects", null, null, "collections", null)) {
+                    return resource.removeFromCollection(domainType, instanceId, route.segment(4));
+                }
+                if (route.matches("GET", "objects", null, null, "actions", null)) {
+                    return resource.actionPrompt(domainType, instanceId, route.segment(4));
+                }
+                if (route.matches("GET", "objects", null, null, "actions", null, "invoke")) {
+                    return resource.invokeActionQueryOnly(domainType, instanceId, route.segment(4), null);
+                }
+                if (route.matches("PUT", "objects", null, null, "actions", null, "invoke")) {
+                    return resource.invokeActionIdempotent(domainType, instanceId, route.segment(4), bodyStream);
+                }
+                if (route.matches("POST", "objects", null, null, "actions", null, "invoke")) {
+                    return resource.invokeAction(domainType, instanceId, route.segment(4), bodyStream);
+                }
+            }
+        }
+
+        if (route.getSegments().size() > 0 && "services".equals(route.segment(0))) {
+            final DomainServiceResourceServerside resource = parent.injectContextInto(new DomainServiceResourceServerside(), itemRequest);
+            if (route.matches("GET", "services", null)) {
+                return resource.service(route.segment(1));
+            }
+            if (route.matches("GET", "services", null, "actions", null)) {
+                return resource.actionPrompt(route.segment(1), route.segment(3));
+            }
+            if (route.matches("GET", "services", null, "actions", null, "invoke")) {
+                return resource.invokeActionQueryOnly(route.segment(1), route.segment(3), null);
+            }
+            if (route.matches("PUT", "services", null, "actions", null, "invoke")) {
+                return resource.invokeActionIdempotent(route.segment(1), route.segment(3), bodyStream);
+            }
+            if (route.matches("POST", "services", null, "actions", null, "invoke")) {
+                return resource.invokeAction(route.segment(1), route.segment(3), bodyStream);
+            }
+        }
+
+        throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.NOT_FOUND, "Request '%s' is not supported within a batch", route);
+    }
+
+    /**
+     * Presents the method, query string and parameters of the item, rather than those of the batch, to the resource.
+     */
+    static class ItemServletRequest extends HttpServletRequestWrapper {
+
+        private final Route route;
+        private final Map<String, String[]> parameterMap;
+
+        ItemServletRequest(final HttpServletRequest request, final Route route) {
+            super(request);
+            this.route = route;
+            this.parameterMap = parametersOf(route.getQueryString());
+        }
+
+        private static Map<String, String[]> parametersOf(final String queryString) {
+            final Map<String, String[]> parameterMap = Maps.newLinkedHashMap();
+            if (Strings.isNullOrEmpty(queryString)) {
+                return parameterMap;
+            }
+            for (final String parameter : Splitter.on('&').omitEmptyStrings().split(queryString)) {
+                final int equals = parameter.indexOf('=');
+                final String name = UrlEncodingUtils.urlDecode(equals >= 0 ? parameter.substring(0, equals) : parameter);
+                final String value = equals >= 0 ? UrlEncodingUtils.urlDecode(parameter.substring(equals + 1)) : "";
+                final String[] existing = parameterMap.get(name);
+                if (existing == null) {
+                    parameterMap.put(name, new String[] { value });
+                } else {
+                    final List<String> values = Lists.newArrayList(existing);
+                    values.add(value);
+                    parameterMap.put(name, values.toArray(new String[values.size()]));
+                }
+            }
+            return parameterMap;
+        }
+
+        @Override
+        public String getMethod() {
+            return route.getMethod();
+        }
+
+        @Override
+        public String getQueryString() {
+            return route.getQueryString();
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameterMap);
+        }
+
+        @Override
+        public String getParameter(final String name) {
+            final String[] values = parameterMap.get(name);
+            return values != null ? values[0] : null;
+        }
+
+        @Override
+        public String[] getParameterValues(final String name) {
+            return parameterMap.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameterMap.keySet());
+        }
+    }
+}
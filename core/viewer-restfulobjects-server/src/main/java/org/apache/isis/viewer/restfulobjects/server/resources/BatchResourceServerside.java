@@ -0,0 +1,361 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.RuntimeDelegate;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.apache.isis.applib.annotation.Where;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.IsisTransaction;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
+import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
+import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.applib.batch.BatchResource;
+import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
+import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
+import org.apache.isis.viewer.restfulobjects.server.RestfulObjectsApplicationExceptionMapper;
+import org.apache.isis.viewer.restfulobjects.server.RuntimeExceptionMapper;
+
+/**
+ * Executes each of the requests of a batch, within the Isis session (opened by the filters) of the batch itself.
+ *
+ * <p>
+ * Each request is dispatched (by {@link BatchItemDispatcher}) to the same resource method, and hence the same
+ * {@link DomainResourceHelper} logic, as would have handled it had it been sent on its own.
+ *
+ * <p>
+ * In {@link TransactionMode#SINGLE single} transaction mode (the default), the requests are executed in the
+ * transaction of the batch and are all-or-nothing: the first to fail aborts the transaction, and its response is
+ * returned as that of the batch.  Since the transaction has only one
+ * {@link org.apache.isis.applib.services.command.Command command} (and one bulk interaction context), such a batch
+ * may invoke at most one action.  In {@link TransactionMode#PER_ITEM per-item} mode, each request is executed
+ * and committed in its own transaction (with its own command), and the outcome of each (successful or not) is
+ * returned.
+ */
+public class BatchResourceServerside extends ResourceAbstract implements BatchResource {
+
+    private final static Logger LOG = LoggerFactory.getLogger(BatchResourceServerside.class);
+
+    public enum TransactionMode {
+        SINGLE,
+        PER_ITEM;
+
+        static TransactionMode parse(final String mode) {
+            try {
+                return valueOf(mode.trim().toUpperCase().replace('-', '_'));
+            } catch (final IllegalArgumentException ex) {
+                throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "Unknown transaction mode '%s'; should be 'single' or 'per-item'", mode);
+            }
+        }
+    }
+
+    /**
+     * The default transaction mode, if not specified by the batch itself; either <tt>single</tt> or <tt>per-item</tt>.
+     */
+    public static final String TRANSACTION_MODE_KEY = "isis.viewer.restfulobjects.batch.transaction";
+    public static final String TRANSACTION_MODE_DEFAULT = "single";
+
+    /**
+     * The maximum number of requests in a batch.
+     */
+    public static final String MAX_REQUESTS_KEY = "isis.viewer.restfulobjects.batch.maxRequests";
+    public static final int MAX_REQUESTS_DEFAULT = 500;
+
+    @Override
+    @POST
+    @Consumes({ MediaType.WILDCARD })
+    @Produces({ MediaType.APPLICATION_JSON })
+    public Response batch(final InputStream body) {
+        init(RepresentationType.GENERIC, Where.NOWHERE, (String)null);
+
+        final JsonRepresentation batchRepr = Util.readAsMap(Util.asStringUtf8(body));
+        final JsonRepresentation requests = batchRepr.isArray("requests") ? batchRepr.getArray("requests") : null;
+        if (requests == null) {
+            throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "Body should be a map with a 'requests' array; got %s", batchRepr);
+        }
+        final int maxRequests = getConfiguration().getInteger(MAX_REQUESTS_KEY, MAX_REQUESTS_DEFAULT);
+        if (requests.size() > maxRequests) {
+            throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "Batch has %d requests; no more than %d are allowed", requests.size(), maxRequests);
+        }
+        final String mode = batchRepr.isString("transaction")
+                ? batchRepr.getString("transaction")
+                : getConfiguration().getString(TRANSACTION_MODE_KEY, TRANSACTION_MODE_DEFAULT);
+
+        final BatchItemDispatcher dispatcher = new BatchItemDispatcher(this, httpServletRequest);
+        final String baseUri = uriInfo.getBaseUri().toString();
+        final List<ItemResult> results = TransactionMode.parse(mode) == TransactionMode.SINGLE
+                ? executeInSingleTransaction(dispatcher, requests, baseUri)
+                : executeEachInOwnTransaction(dispatcher, requests, baseUri);
+        if (results.size() == 1 && results.get(0).failedBatch) {
+            return results.get(0).asResponse();
+        }
+
+        return Response.ok(new ItemResultsOutput(results), MediaType.APPLICATION_JSON_TYPE).build();
+    }
+
+    List<ItemResult> executeInSingleTransaction(final BatchItemDispatcher dispatcher, final JsonRepresentation requests, final String baseUri) {
+        ensureAtMostOneActionInvocation(requests, baseUri);
+
+        final List<ItemResult> results = Lists.newArrayList();
+        for (final JsonRepresentation request : requests.arrayIterable()) {
+            final ItemResult result = execute(dispatcher, request, baseUri);
+            if (result.isFailure() || mustAbort()) {
+                getTransactionManager().abortTransaction();
+                result.failedBatch = true;
+                return Lists.newArrayList(result);
+            }
+            results.add(result);
+        }
+
+        // commit now (rather than leaving it to the filter), so that any failure is reported as that of the batch
+        getTransactionManager().endTransaction();
+        return results;
+    }
+
+    /**
+     * Otherwise the command of the transaction would be populated partly by the first action invoked and partly by
+     * the last.
+     */
+    private static void ensureAtMostOneActionInvocation(final JsonRepresentation requests, final String baseUri) {
+        int actionInvocations = 0;
+        for (final JsonRepresentation request : requests.arrayIterable()) {
+            final BatchItemDispatcher.Route route;
+            try {
+                route = routeOf(request, baseUri);
+            } catch (final RestfulObjectsApplicationException ex) {
+                // reported as the outcome of the request, when executed
+                continue;
+            }
+            if (route.isActionInvocation() && ++actionInvocations > 1) {
+                throw RestfulObjectsApplicationException.createWithMessage(HttpStatusCode.BAD_REQUEST, "A batch executed in a single transaction may invoke at most one action; use transaction mode 'per-item' instead");
+            }
+        }
+    }
+
+    List<ItemResult> executeEachInOwnTransaction(final BatchItemDispatcher dispatcher, final JsonRepresentation requests, final String baseUri) {
+        // the transaction started by the filter will have nothing in it.
+        getTransactionManager().endTransaction();
+
+        final List<ItemResult> results = Lists.newArrayList();
+        for (final JsonRepresentation request : requests.arrayIterable()) {
+            getTransactionManager().startTransaction();
+            ItemResult result = execute(dispatcher, request, baseUri);
+            if (result.isFailure()) {
+                getTransactionManager().abortTransaction();
+            } else {
+                try {
+                    getTransactionManager().endTransaction();
+                } catch (final RuntimeException ex) {
+                    result = ItemResult.of(new RuntimeExceptionMapper().toResponse(ex));
+                }
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private ItemResult execute(final BatchItemDispatcher dispatcher, final JsonRepresentation request, final String baseUri) {
+        try {
+            final BatchItemDispatcher.Route route = routeOf(request, baseUri);
+            final JsonRepresentation body = request.getRepresentation("body");
+            return ItemResult.of(dispatcher.dispatch(route, body != null ? body.toString() : null));
+        } catch (final RestfulObjectsApplicationException ex) {
+            return ItemResult.of(new RestfulObjectsApplicationExceptionMapper().toResponse(ex));
+        } catch (final RuntimeException ex) {
+            LOG.warn("batch request failed: " + request, ex);
+            return ItemResult.of(new RuntimeExceptionMapper().toResponse(ex));
+        }
+    }
+
+    private static BatchItemDispatcher.Route routeOf(final JsonRepresentation request, final String baseUri) {
+        return BatchItemDispatcher.Route.parse(
+                request.isString("method") ? request.getString("method") : null,
+                request.isString("href") ? request.getString("href") : null,
+                baseUri);
+    }
+
+    private boolean mustAbort() {
+        final IsisTransaction transaction = getTransactionManager().getTransaction();
+        return transaction != null && transaction.getState().mustAbort();
+    }
+
+    /**
+     * The outcome of a single request, with its entity already serialized (so that it is rendered within the
+     * transaction of the request, rather than later when the response is written).
+     */
+    static class ItemResult {
+
+        static ItemResult of(final Response response) {
+            final Map<String, String> headers = Maps.newLinkedHashMap();
+            final MultivaluedMap<String, Object> metadata = response.getMetadata();
+            for (final String name : metadata.keySet()) {
+                final Object value = metadata.getFirst(name);
+                if (value != null) {
+                    headers.put(name, headerValueOf(value));
+                }
+            }
+            return new ItemResult(response.getStatus(), headers, entityOf(response.getEntity()));
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private static String headerValueOf(final Object value) {
+            final RuntimeDelegate.HeaderDelegate headerDelegate = RuntimeDelegate.getInstance().createHeaderDelegate(value.getClass());
+            return headerDelegate != null ? headerDelegate.toString(value) : value.toString();
+        }
+
+        private static String entityOf(final Object entity) {
+            if (entity == null) {
+                return null;
+            }
+            if (entity instanceof String) {
+                return (String) entity;
+            }
+            if (entity instanceof byte[]) {
+                return new String((byte[]) entity, Charsets.UTF_8);
+            }
+            if (entity instanceof StreamingOutput) {
+                final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                try {
+                    ((StreamingOutput) entity).write(baos);
+                } catch (final IOException ex) {
+                    throw new WebApplicationException(ex);
+                }
+                return new String(baos.toByteArray(), Charsets.UTF_8);
+            }
+            throw new IllegalArgumentException("Unable to serialize entity of type " + entity.getClass().getName());
+        }
+
+        private final int status;
+        private final Map<String, String> headers;
+        private final String body;
+        private boolean failedBatch;
+
+        ItemResult(final int status, final Map<String, String> headers, final String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        boolean isFailure() {
+            return status >= 400;
+        }
+
+        boolean isFailedBatch() {
+            return failedBatch;
+        }
+
+        Response asResponse() {
+            final Response.ResponseBuilder builder = Response.status(status).entity(body);
+            for (final Map.Entry<String, String> header : headers.entrySet()) {
+                builder.header(header.getKey(), header.getValue());
+            }
+            return builder.build();
+        }
+
+        void writeTo(final JsonGenerator jgen) throws IOException {
+            jgen.writeStartObject();
+            jgen.writeNumberField("status", status);
+            jgen.writeObjectFieldStart("headers");
+            for (final Map.Entry<String, String> header : headers.entrySet()) {
+                jgen.writeStringField(header.getKey(), header.getValue());
+            }
+            jgen.writeEndObject();
+            if (!Strings.isNullOrEmpty(body)) {
+                jgen.writeFieldName("body");
+                jgen.writeRawValue(body);
+            }
+            jgen.writeEndObject();
+        }
+    }
+
+    private static class ItemResultsOutput implements StreamingOutput {
+
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private final List<ItemResult> results;
+
+        ItemResultsOutput(final List<ItemResult> results) {
+            this.results = results;
+        }
+
+        @Override
+        public void write(final OutputStream output) throws IOException, WebApplicationException {
+            final JsonGenerator jgen = JSON_FACTORY.createGenerator(output, JsonEncoding.UTF8);
+            jgen.writeStartArray();
+            for (final ItemResult result : results) {
+                result.writeTo(jgen);
+            }
+            jgen.writeEndArray();
+            jgen.flush();
+        }
+    }
+
+    @Override
+    public Response getBatchNotAllowed() {
+        throw RestfulObjectsApplicationException.createWithMessage(RestfulResponse.HttpStatusCode.METHOD_NOT_ALLOWED, "Getting the batch resource is not allowed.");
+    }
+
+    @Override
+    public Response deleteBatchNotAllowed() {
+        throw RestfulObjectsApplicationException.createWithMessage(RestfulResponse.HttpStatusCode.METHOD_NOT_ALLOWED, "Deleting the batch resource is not allowed.");
+    }
+
+    @Override
+    public Response putBatchNotAllowed() {
+        throw RestfulObjectsApplicationException.createWithMessage(RestfulResponse.HttpStatusCode.METHOD_NOT_ALLOWED, "Putting to the batch resource is not allowed.");
+    }
+
+    // //////////////////////////////////////////////////////////////
+    // Dependencies (from singletons)
+    // //////////////////////////////////////////////////////////////
+
+    protected IsisTransactionManager getTransactionManager() {
+        return IsisContext.getTransactionManager();
+    }
+
+}
@@ -35,6 +35,7 @@
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
 import org.apache.isis.viewer.restfulobjects.applib.domainobjects.DomainObjectResource;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
 import org.apache.isis.viewer.restfulobjects.rendering.domainobjects.MemberReprMode;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
@@ -101,6 +102,10 @@ public Response object(@PathParam("domainType") String domainType, @PathParam("i
         init(RepresentationType.DOMAIN_OBJECT, Where.OBJECT_FORMS);
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        final Response notModified = notModifiedElseNull(objectAdapter);
+        if (notModified != null) {
+            return notModified;
+        }
 
         final DomainResourceHelper helper = getDomainResourceHelper(objectAdapter);
         return helper.objectRepresentation();
@@ -163,6 +168,10 @@ public Response propertyDetails(@PathParam("domainType") String domainType, @Pat
         init(RepresentationType.OBJECT_PROPERTY, Where.OBJECT_FORMS);
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        final Response notModified = notModifiedElseNull(objectAdapter);
+        if (notModified != null) {
+            return notModified;
+        }
         final DomainResourceHelper helper = getDomainResourceHelper(objectAdapter);
 
         return helper.propertyDetails(
@@ -247,6 +256,12 @@ public Response accessCollection(@PathParam("domainType") String domainType, @Pa
         init(RepresentationType.OBJECT_COLLECTION, Where.PARENTED_TABLES);
 
         final ObjectAdapter objectAdapter = getObjectAdapterElseThrowNotFound(domainType, instanceId);
+        if (Responses.isConditionalGetForCollections(getConfiguration())) {
+            final Response notModified = notModifiedElseNull(objectAdapter);
+            if (notModified != null) {
+                return notModified;
+            }
+        }
         final DomainResourceHelper helper = getDomainResourceHelper(objectAdapter);
 
         return helper.collectionDetails(collectionId, MemberReprMode.READ);
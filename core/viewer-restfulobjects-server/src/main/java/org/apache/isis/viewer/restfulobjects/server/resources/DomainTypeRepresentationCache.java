@@ -0,0 +1,132 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
+import org.apache.isis.viewer.restfulobjects.rendering.util.JsonWriterUtil;
+
+/**
+ * Memoizes the representations of domain types and of their members, which (unlike those of domain objects) do not
+ * change once the metamodel has been built.
+ *
+ * <p>
+ * Each representation is held already serialized, along with a strong {@link EntityTag} of its content.  The
+ * cache is populated lazily, and is discarded in its entirety whenever the metamodel is
+ * {@link SpecificationLoaderSpi#invalidateCache(Class) invalidated} (eg by JRebel).
+ */
+final class DomainTypeRepresentationCache implements SpecificationLoaderSpi.InvalidationListener {
+
+    /**
+     * The maximum number of representations to hold; <tt>0</tt> disables the cache.
+     */
+    static final String MAX_SIZE_KEY = "isis.viewer.restfulobjects.domainTypeCache.maxSize";
+    static final int MAX_SIZE_DEFAULT = 1000;
+
+    static class Representation {
+        private final MediaType mediaType;
+        private final byte[] json;
+        private final EntityTag entityTag;
+
+        Representation(final MediaType mediaType, final byte[] json) {
+            this.mediaType = mediaType;
+            this.json = json;
+            this.entityTag = new EntityTag(Hashing.sha1().hashBytes(json).toString());
+        }
+
+        MediaType getMediaType() {
+            return mediaType;
+        }
+
+        byte[] getJson() {
+            return json;
+        }
+
+        EntityTag getEntityTag() {
+            return entityTag;
+        }
+    }
+
+    private static DomainTypeRepresentationCache instance;
+
+    /**
+     * The cache for the specification loader, or <tt>null</tt> if {@link #MAX_SIZE_KEY disabled}.
+     */
+    static synchronized DomainTypeRepresentationCache instanceFor(final SpecificationLoaderSpi specificationLoader, final IsisConfiguration configuration) {
+        final int maxSize = configuration.getInteger(MAX_SIZE_KEY, MAX_SIZE_DEFAULT);
+        if (maxSize <= 0) {
+            return null;
+        }
+        if (instance == null || instance.specificationLoader != specificationLoader) {
+            // first time, or the system has been restarted
+            instance = new DomainTypeRepresentationCache(specificationLoader, maxSize);
+            specificationLoader.addInvalidationListener(instance);
+        }
+        return instance;
+    }
+
+    private final SpecificationLoaderSpi specificationLoader;
+    private final Cache<List<String>, Representation> representationByKey;
+
+    private DomainTypeRepresentationCache(final SpecificationLoaderSpi specificationLoader, final int maxSize) {
+        this.specificationLoader = specificationLoader;
+        this.representationByKey = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Returns the cached representation for the key, rendering it using the provided renderer if necessary.
+     *
+     * @param key - must identify the representation uniquely, including the base URI that its links are relative to.
+     */
+    Representation representationFor(final List<String> key, final ReprRenderer<?, ?> renderer) {
+        try {
+            return representationByKey.get(key, new Callable<Representation>() {
+                @Override
+                public Representation call() throws Exception {
+                    final String json = JsonWriterUtil.jsonFor(renderer.render());
+                    return new Representation(renderer.getMediaType(), json.getBytes(Charsets.UTF_8));
+                }
+            });
+        } catch (final ExecutionException ex) {
+            throw Throwables.propagate(ex.getCause());
+        } catch (final UncheckedExecutionException ex) {
+            throw Throwables.propagate(ex.getCause());
+        }
+    }
+
+    @Override
+    public void invalidated(final Class<?> domainClass) {
+        // links between types mean that a change to one type can be reflected in the representations of others
+        representationByKey.invalidateAll();
+    }
+
+}
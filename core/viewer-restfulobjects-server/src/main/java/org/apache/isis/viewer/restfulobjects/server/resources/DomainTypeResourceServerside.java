@@ -18,17 +18,21 @@
  */
 package org.apache.isis.viewer.restfulobjects.server.resources;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 
 import org.apache.isis.applib.annotation.Where;
 import org.apache.isis.core.metamodel.spec.ObjectSpecId;
@@ -47,6 +51,7 @@
 import org.apache.isis.viewer.restfulobjects.applib.util.UrlEncodingUtils;
 import org.apache.isis.viewer.restfulobjects.rendering.Caching;
 import org.apache.isis.viewer.restfulobjects.rendering.LinkBuilder;
+import org.apache.isis.viewer.restfulobjects.rendering.ReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.ActionDescriptionReprRenderer;
 import org.apache.isis.viewer.restfulobjects.rendering.domaintypes.ActionParameterDescriptionReprRenderer;
@@ -100,7 +105,7 @@ public Response domainType(@PathParam("domainType") final String domainType) {
         final DomainTypeReprRenderer renderer = new DomainTypeReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(objectSpec).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return ofOkMemoized(renderer, RepresentationType.DOMAIN_TYPE, domainType);
     }
 
     @Override
@@ -125,7 +130,7 @@ public Response typeProperty(@PathParam("domainType") final String domainType, @
         final PropertyDescriptionReprRenderer renderer = new PropertyDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndProperty(parentSpec, property)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return ofOkMemoized(renderer, representationType, domainType, propertyId);
     }
 
     @Override
@@ -150,7 +155,7 @@ public Response typeCollection(@PathParam("domainType") final String domainType,
         final CollectionDescriptionReprRenderer renderer = new CollectionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndCollection(parentSpec, collection)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return ofOkMemoized(renderer, representationType, domainType, collectionId);
     }
 
     @Override
@@ -175,7 +180,7 @@ public Response typeAction(@PathParam("domainType") final String domainType, @Pa
         final ActionDescriptionReprRenderer renderer = new ActionDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndAction(parentSpec, action)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return ofOkMemoized(renderer, representationType, domainType, actionId);
     }
 
     @Override
@@ -202,7 +207,30 @@ public Response typeActionParam(@PathParam("domainType") final String domainType
         final ActionParameterDescriptionReprRenderer renderer = new ActionParameterDescriptionReprRenderer(getResourceContext(), null, JsonRepresentation.newMap());
         renderer.with(new ParentSpecAndActionParam(parentSpec, actionParam)).includesSelf();
 
-        return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        return ofOkMemoized(renderer, representationType, domainType, actionId, paramName);
+    }
+
+    /**
+     * The representations of domain types and their members do not change once the metamodel has been built, so
+     * are {@link DomainTypeRepresentationCache memoized} (unless the request has a query string, eg to follow
+     * links).
+     */
+    private Response ofOkMemoized(final ReprRenderer<?, ?> renderer, final RepresentationType representationType, final String... ids) {
+        final DomainTypeRepresentationCache cache = DomainTypeRepresentationCache.instanceFor(getSpecificationLoader(), getConfiguration());
+        if (cache == null || !Strings.isNullOrEmpty(httpServletRequest.getQueryString())) {
+            return Responses.ofOk(renderer, Caching.ONE_DAY).build();
+        }
+
+        final List<String> key = Lists.newArrayList(representationType.name(), getResourceContext().urlFor(""));
+        key.addAll(Arrays.asList(ids));
+        final DomainTypeRepresentationCache.Representation representation = cache.representationFor(key, renderer);
+
+        final EntityTag entityTag = representation.getEntityTag();
+        final Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.tag(entityTag).cacheControl(Caching.ONE_DAY.getCacheControl()).build();
+        }
+        return Responses.ofOk(representation.getJson(), representation.getMediaType(), Caching.ONE_DAY).tag(entityTag).build();
     }
 
     // //////////////////////////////////////////////////////////
@@ -37,6 +37,7 @@
 import org.apache.isis.core.runtime.system.persistence.PersistenceSession;
 import org.apache.isis.viewer.restfulobjects.applib.RepresentationType;
 import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.Responses;
 import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
 import org.apache.isis.viewer.restfulobjects.rendering.util.Util;
 import org.apache.isis.viewer.restfulobjects.server.ResourceContext;
@@ -107,6 +108,20 @@ protected ResourceContext getResourceContext() {
         return resourceContext;
     }
 
+    /**
+     * Injects this resource's context into another resource, so that it can handle a request on this resource's
+     * behalf (as used by {@link BatchResourceServerside}).
+     */
+    <T extends ResourceAbstract> T injectContextInto(final T resource, final HttpServletRequest httpServletRequest) {
+        resource.httpHeaders = httpHeaders;
+        resource.uriInfo = uriInfo;
+        resource.request = request;
+        resource.httpServletRequest = httpServletRequest;
+        resource.httpServletResponse = httpServletResponse;
+        resource.securityContext = securityContext;
+        return resource;
+    }
+
     // //////////////////////////////////////////////////////////////
     // Isis integration
     // //////////////////////////////////////////////////////////////
@@ -121,6 +136,17 @@ protected ObjectAdapter getObjectAdapterElseThrowNotFound(String domainType, fin
         return objectAdapter;
     }
 
+    /**
+     * Evaluates the request's conditional GET headers against the object's version, so that a client whose copy is
+     * still current can be sent a <tt>304 Not Modified</tt> without any representation being rendered.
+     *
+     * @return the <tt>304</tt> response, or <tt>null</tt> if the representation should be rendered.
+     */
+    protected Response notModifiedElseNull(final ObjectAdapter objectAdapter) {
+        final Response.ResponseBuilder responseBuilder = Responses.notModifiedElseNull(request, getResourceContext(), objectAdapter.getVersion());
+        return responseBuilder != null ? responseBuilder.build() : null;
+    }
+
     protected ObjectAdapter getObjectAdapterElseNull(String domainType, final String instanceId) {
         return OidUtils.getObjectAdapterElseNull(resourceContext, domainType, instanceId);
     }
@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.util.Arrays;
+import java.util.Collections;
+import javax.servlet.http.HttpServletRequest;
+import org.jmock.auto.Mock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BatchItemDispatcherTest {
+
+    private static final String BASE_URI = "http://localhost:8080/restful/";
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private HttpServletRequest mockHttpServletRequest;
+
+    @Test
+    public void parseAbsoluteHref() throws Exception {
+        final BatchItemDispatcher.Route route = BatchItemDispatcher.Route.parse("get", BASE_URI + "objects/CUS/123", BASE_URI);
+
+        assertThat(route.getMethod(), is("GET"));
+        assertThat(route.getSegments(), is(equalTo(Arrays.asList("objects", "CUS", "123"))));
+        assertThat(route.getQueryString(), is(nullValue()));
+    }
+
+    @Test
+    public void parseRelativeHref() throws Exception {
+        final BatchItemDispatcher.Route route = BatchItemDispatcher.Route.parse("POST", "services/customers/actions/findByName/invoke", BASE_URI);
+
+        assertThat(route.getSegments(), is(equalTo(Arrays.asList("services", "customers", "actions", "findByName", "invoke"))));
+        assertThat(route.matches("POST", "services", null, "actions", null, "invoke"), is(true));
+        assertThat(route.matches("GET", "services", null, "actions", null, "invoke"), is(false));
+        assertThat(route.matches("POST", "services", null, "actions", null), is(false));
+    }
+
+    @Test
+    public void parseDecodesSegmentsAndSplitsOffQueryString() throws Exception {
+        final BatchItemDispatcher.Route route = BatchItemDispatcher.Route.parse("GET", "objects/CUS/L%3A12?x-ro-follow-links=members", BASE_URI);
+
+        assertThat(route.segment(2), is("L:12"));
+        assertThat(route.getQueryString(), is("x-ro-follow-links=members"));
+    }
+
+    @Test
+    public void parseRejectsHrefOfOtherServer() throws Exception {
+        assertBadRequest("GET", "http://elsewhere:8080/restful/objects/CUS/123");
+    }
+
+    @Test
+    public void parseRejectsMissingMethodOrHref() throws Exception {
+        assertBadRequest(null, "objects/CUS/123");
+        assertBadRequest("GET", "");
+    }
+
+    @Test
+    public void itemRequestPresentsMethodAndParametersOfItem() throws Exception {
+        final BatchItemDispatcher.Route route = BatchItemDispatcher.Route.parse("GET", "objects/CUS/123?a=1&b=x%20y&a=2&c", BASE_URI);
+
+        final HttpServletRequest itemRequest = new BatchItemDispatcher.ItemServletRequest(mockHttpServletRequest, route);
+
+        assertThat(itemRequest.getMethod(), is("GET"));
+        assertThat(itemRequest.getQueryString(), is("a=1&b=x%20y&a=2&c"));
+        assertThat(Arrays.asList(itemRequest.getParameterValues("a")), is(equalTo(Arrays.asList("1", "2"))));
+        assertThat(itemRequest.getParameter("b"), is("x y"));
+        assertThat(itemRequest.getParameter("c"), is(""));
+        assertThat(itemRequest.getParameter("d"), is(nullValue()));
+        assertThat(Collections.list(itemRequest.getParameterNames()), is(equalTo(Arrays.asList("a", "b", "c"))));
+    }
+
+    private static void assertBadRequest(final String method, final String href) {
+        try {
+            BatchItemDispatcher.Route.parse(method, href, BASE_URI);
+            fail();
+        } catch (final RestfulObjectsApplicationException ex) {
+            assertThat(ex.getHttpStatusCode(), is(HttpStatusCode.BAD_REQUEST));
+        }
+    }
+}
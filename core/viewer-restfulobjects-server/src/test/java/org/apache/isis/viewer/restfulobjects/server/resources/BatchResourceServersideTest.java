@@ -0,0 +1,213 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import java.util.List;
+import javax.ws.rs.core.Response;
+import com.google.common.base.Joiner;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
+import org.jmock.Expectations;
+import org.jmock.Sequence;
+import org.jmock.auto.Mock;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.runtime.system.transaction.IsisTransactionManager;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+import org.apache.isis.viewer.restfulobjects.applib.JsonRepresentation;
+import org.apache.isis.viewer.restfulobjects.applib.client.RestfulResponse.HttpStatusCode;
+import org.apache.isis.viewer.restfulobjects.rendering.RestfulObjectsApplicationException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class BatchResourceServersideTest {
+
+    private static final String BASE_URI = "http://localhost:8080/restful/";
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private BatchItemDispatcher mockDispatcher;
+    @Mock
+    private IsisTransactionManager mockTransactionManager;
+
+    private BatchResourceServerside resource;
+    private Sequence transaction;
+
+    @Before
+    public void setUp() throws Exception {
+        resource = new BatchResourceServerside() {
+            @Override
+            protected IsisTransactionManager getTransactionManager() {
+                return mockTransactionManager;
+            }
+        };
+        transaction = context.sequence("transaction");
+
+        context.checking(new Expectations() {{
+            // no abort cause set by any of the requests
+            allowing(mockTransactionManager).getTransaction();
+            will(returnValue(null));
+        }});
+    }
+
+    @Test
+    public void single_allSucceed() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockDispatcher).dispatch(with(route("GET objects/CUS/1")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.ok().build()));
+            oneOf(mockDispatcher).dispatch(with(route("POST services/customers/actions/create/invoke")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.ok().build()));
+            oneOf(mockTransactionManager).endTransaction();
+            inSequence(transaction);
+            never(mockTransactionManager).abortTransaction();
+        }});
+
+        final List<BatchResourceServerside.ItemResult> results = resource.executeInSingleTransaction(mockDispatcher, requests(
+                "GET", "objects/CUS/1",
+                "POST", "services/customers/actions/create/invoke"), BASE_URI);
+
+        assertThat(results.size(), is(2));
+        assertThat(results.get(0).getStatus(), is(200));
+        assertThat(results.get(1).getStatus(), is(200));
+    }
+
+    @Test
+    public void single_abortsOnFirstFailure() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockDispatcher).dispatch(with(route("GET objects/CUS/1")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.ok().build()));
+            oneOf(mockDispatcher).dispatch(with(route("PUT objects/CUS/1/properties/name")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.status(422).build()));
+            oneOf(mockTransactionManager).abortTransaction();
+            inSequence(transaction);
+
+            // nothing further is executed, nor committed
+            never(mockDispatcher).dispatch(with(route("GET objects/CUS/2")), with(aNull(String.class)));
+            never(mockTransactionManager).endTransaction();
+        }});
+
+        final List<BatchResourceServerside.ItemResult> results = resource.executeInSingleTransaction(mockDispatcher, requests(
+                "GET", "objects/CUS/1",
+                "PUT", "objects/CUS/1/properties/name",
+                "GET", "objects/CUS/2"), BASE_URI);
+
+        // the outcome of the batch is that of the failed request
+        assertThat(results.size(), is(1));
+        assertThat(results.get(0).getStatus(), is(422));
+        assertThat(results.get(0).isFailedBatch(), is(true));
+    }
+
+    @Test
+    public void single_rejectsMoreThanOneActionInvocation() throws Exception {
+        context.checking(new Expectations() {{
+            never(mockTransactionManager).endTransaction();
+            never(mockTransactionManager).abortTransaction();
+        }});
+
+        try {
+            resource.executeInSingleTransaction(mockDispatcher, requests(
+                    "POST", "services/customers/actions/create/invoke",
+                    "GET", "objects/CUS/1",
+                    "PUT", "objects/CUS/1/actions/rename/invoke"), BASE_URI);
+            fail();
+        } catch (final RestfulObjectsApplicationException ex) {
+            assertThat(ex.getHttpStatusCode(), is(HttpStatusCode.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    public void perItem_eachInOwnTransaction() throws Exception {
+        context.checking(new Expectations() {{
+            // the (empty) transaction of the batch itself
+            oneOf(mockTransactionManager).endTransaction();
+            inSequence(transaction);
+
+            oneOf(mockTransactionManager).startTransaction();
+            inSequence(transaction);
+            oneOf(mockDispatcher).dispatch(with(route("POST services/customers/actions/create/invoke")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.ok().build()));
+            oneOf(mockTransactionManager).endTransaction();
+            inSequence(transaction);
+
+            oneOf(mockTransactionManager).startTransaction();
+            inSequence(transaction);
+            oneOf(mockDispatcher).dispatch(with(route("PUT objects/CUS/1/actions/rename/invoke")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.status(422).build()));
+            oneOf(mockTransactionManager).abortTransaction();
+            inSequence(transaction);
+
+            // the failure does not prevent the next request from being executed
+            oneOf(mockTransactionManager).startTransaction();
+            inSequence(transaction);
+            oneOf(mockDispatcher).dispatch(with(route("POST services/customers/actions/create/invoke")), with(aNull(String.class)));
+            inSequence(transaction);
+            will(returnValue(Response.ok().build()));
+            oneOf(mockTransactionManager).endTransaction();
+            inSequence(transaction);
+        }});
+
+        final List<BatchResourceServerside.ItemResult> results = resource.executeEachInOwnTransaction(mockDispatcher, requests(
+                "POST", "services/customers/actions/create/invoke",
+                "PUT", "objects/CUS/1/actions/rename/invoke",
+                "POST", "services/customers/actions/create/invoke"), BASE_URI);
+
+        assertThat(results.size(), is(3));
+        assertThat(results.get(0).getStatus(), is(200));
+        assertThat(results.get(1).getStatus(), is(422));
+        assertThat(results.get(1).isFailedBatch(), is(false));
+        assertThat(results.get(2).getStatus(), is(200));
+    }
+
+    private static JsonRepresentation requests(final String... methodAndHrefs) {
+        final JsonRepresentation requests = JsonRepresentation.newArray();
+        for (int i = 0; i < methodAndHrefs.length; i += 2) {
+            requests.arrayAdd(JsonRepresentation.newMap("method", methodAndHrefs[i], "href", methodAndHrefs[i + 1]));
+        }
+        return requests;
+    }
+
+    private static Matcher<BatchItemDispatcher.Route> route(final String methodAndPath) {
+        return new TypeSafeMatcher<BatchItemDispatcher.Route>() {
+            @Override
+            protected boolean matchesSafely(final BatchItemDispatcher.Route route) {
+                return methodAndPath.equals(route.getMethod() + " " + Joiner.on('/').join(route.getSegments()));
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("route " + methodAndPath);
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.viewer.restfulobjects.server.resources;
+
+import javax.ws.rs.core.MediaType;
+import com.google.common.base.Charsets;
+import org.jmock.Expectations;
+import org.jmock.api.Invocation;
+import org.jmock.auto.Mock;
+import org.jmock.lib.action.CustomAction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.apache.isis.core.commons.config.IsisConfiguration;
+import org.apache.isis.core.metamodel.spec.SpecificationLoaderSpi;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2.Mode;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class DomainTypeRepresentationCacheTest {
+
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoader;
+    @Mock
+    private SpecificationLoaderSpi mockSpecificationLoaderAfterRestart;
+    @Mock
+    private IsisConfiguration mockConfiguration;
+
+    private int maxSize;
+
+    @Before
+    public void setUp() throws Exception {
+        maxSize = DomainTypeRepresentationCache.MAX_SIZE_DEFAULT;
+        context.checking(new Expectations() {{
+            allowing(mockConfiguration).getInteger(DomainTypeRepresentationCache.MAX_SIZE_KEY, DomainTypeRepresentationCache.MAX_SIZE_DEFAULT);
+            will(new CustomAction("maxSize") {
+                @Override
+                public Object invoke(final Invocation invocation) throws Throwable {
+                    return maxSize;
+                }
+            });
+        }});
+    }
+
+    @Test
+    public void sameInstanceForSameSpecificationLoader() throws Exception {
+        context.checking(new Expectations() {{
+            oneOf(mockSpecificationLoader).addInvalidationListener(with(notNullValue(SpecificationLoaderSpi.InvalidationListener.class)));
+        }});
+
+        final DomainTypeRepresentationCache cache = DomainTypeRepresentationCache.instanceFor(mockSpecificationLoader, mockConfiguration);
+        assertThat(cache, is(notNullValue()));
+        assertThat(DomainTypeRepresentationCache.instanceFor(mockSpecificationLoader, mockConfiguration), is(sameInstance(cache)));
+    }
+
+    @Test
+    public void newInstanceAfterRestart() throws Exception {
+        context.checking(new Expectations() {{
+            allowing(mockSpecificationLoader).addInvalidationListener(with(notNullValue(SpecificationLoaderSpi.InvalidationListener.class)));
+            oneOf(mockSpecificationLoaderAfterRestart).addInvalidationListener(with(notNullValue(SpecificationLoaderSpi.InvalidationListener.class)));
+        }});
+
+        final DomainTypeRepresentationCache cache = DomainTypeRepresentationCache.instanceFor(mockSpecificationLoader, mockConfiguration);
+        final DomainTypeRepresentationCache cacheAfterRestart = DomainTypeRepresentationCache.instanceFor(mockSpecificationLoaderAfterRestart, mockConfiguration);
+        assertThat(cacheAfterRestart, is(not(sameInstance(cache))));
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        maxSize = 0;
+        assertThat(DomainTypeRepresentationCache.instanceFor(mockSpecificationLoader, mockConfiguration), is(nullValue()));
+    }
+
+    @Test
+    public void entityTagDependsOnContent() throws Exception {
+        final DomainTypeRepresentationCache.Representation representation = representationOf("{\"a\":1}");
+
+        assertThat(representation.getEntityTag().isWeak(), is(false));
+        assertThat(representationOf("{\"a\":1}").getEntityTag(), is(equalTo(representation.getEntityTag())));
+        assertThat(representationOf("{\"a\":2}").getEntityTag(), is(not(equalTo(representation.getEntityTag()))));
+    }
+
+    private static DomainTypeRepresentationCache.Representation representationOf(final String json) {
+        return new DomainTypeRepresentationCache.Representation(MediaType.APPLICATION_JSON_TYPE, json.getBytes(Charsets.UTF_8));
+    }
+
+}
@@ -26,13 +26,13 @@
 
 import com.google.common.collect.Lists;
 
-import net.sf.cglib.proxy.Callback;
 import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.Factory;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
+import org.apache.isis.core.commons.lang.ProxyClassCache;
 import org.apache.isis.core.metamodel.specloader.classsubstitutor.CglibEnhanced;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
@@ -68,24 +68,30 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
-            return Util.createInstance(enhancedClass);
+            final Class<T> enhancedClass = proxyClassCache.proxyClassFor(clazz);
+            final T proxy = Util.createInstance(enhancedClass);
+            // the enhanced class is shared, so the callback (specific to this handler) is set on the instance
+            ((Factory) proxy).setCallback(0, newMethodInterceptor(handler));
+            return proxy;
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
+    private static final ProxyClassCache proxyClassCache = new ProxyClassCache(new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> cls) {
+            return createEnhancedClass(cls, WrapperObject.class);
+        }
+    });
+
+    private static Class<?> createEnhancedClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
 
         // Create the proxy
         final Enhancer enhancer = new Enhancer();
         enhancer.setSuperclass(toProxyClass);
         enhancer.setInterfaces(auxiliaryTypes);
-        enhancer.setCallbackType(newMethodInterceptor(handler).getClass());
-
-        final Class<?> enhancedClass = enhancer.createClass();
+        enhancer.setCallbackType(MethodInterceptor.class);
 
-        Enhancer.registerCallbacks(enhancedClass, new Callback[] { newMethodInterceptor(handler) });
-        return (Class<T>) enhancedClass;
+        return enhancer.createClass();
     }
 
     private static <T> MethodInterceptor newMethodInterceptor(final InvocationHandler handler) {
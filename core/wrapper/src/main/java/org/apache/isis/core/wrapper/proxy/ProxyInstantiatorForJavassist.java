@@ -19,7 +19,6 @@
 
 package org.apache.isis.core.wrapper.proxy;
 
-import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 
 import javassist.util.proxy.MethodFilter;
@@ -29,6 +28,7 @@
 
 import org.apache.isis.applib.services.wrapper.WrapperObject;
 import org.apache.isis.core.commons.lang.ArrayExtensions;
+import org.apache.isis.core.commons.lang.ProxyClassCache;
 import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
 import org.apache.isis.core.wrapper.internal.util.Util;
 
@@ -44,7 +44,7 @@ public <T> T instantiateProxy(final DelegatingInvocationHandler<T> handler) {
         if (clazz.isInterface()) {
             return Util.createInstance(clazz, handler, WrapperObject.class);
         } else {
-            final Class<T> enhancedClass = createEnhancedClass(clazz, handler, WrapperObject.class);
+            final Class<T> enhancedClass = proxyClassCache.proxyClassFor(clazz);
             ProxyObject proxyObject = (ProxyObject) Util.createInstance(enhancedClass);
             proxyObject.setHandler(new MethodHandler() {
                 @Override
@@ -56,8 +56,18 @@ public Object invoke(Object self, Method thisMethod, Method proceed, Object[] ar
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private static <T> Class<T> createEnhancedClass(final Class<T> toProxyClass, final InvocationHandler handler, final Class<?>... auxiliaryTypes) {
+    /**
+     * The enhanced class does not depend upon the handler (which is set on each proxy instance), so is generated
+     * only once per class being proxied.
+     */
+    private static final ProxyClassCache proxyClassCache = new ProxyClassCache(new ProxyClassCache.ProxyClassFactory() {
+        @Override
+        public Class<?> createProxyClass(final Class<?> cls) {
+            return createEnhancedClass(cls, WrapperObject.class);
+        }
+    });
+
+    private static Class<?> createEnhancedClass(final Class<?> toProxyClass, final Class<?>... auxiliaryTypes) {
         
         final ProxyFactory proxyFactory = new ProxyFactory();
         proxyFactory.setSuperclass(toProxyClass);
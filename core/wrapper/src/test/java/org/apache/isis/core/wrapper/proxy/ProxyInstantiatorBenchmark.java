@@ -0,0 +1,121 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.apache.isis.core.wrapper.proxy;
+
+import java.lang.reflect.Method;
+
+import org.apache.isis.core.wrapper.handlers.DelegatingInvocationHandler;
+
+/**
+ * Compares the cost of wrapping (and then invoking a method on) the first instance of a class - which generates
+ * the proxy class - against that of subsequent instances, which reuse the cached proxy class.
+ *
+ * <p>
+ * Not a test; run using {@link #main(String[])}, eg:
+ * <pre>
+ * mvn -pl core/wrapper test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.apache.isis.core.wrapper.proxy.ProxyInstantiatorBenchmark
+ * </pre>
+ */
+public class ProxyInstantiatorBenchmark {
+
+    public static class Customer {
+        private String name;
+        public String getName() {
+            return name;
+        }
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+
+    // distinct classes, so that each instantiator generates its own proxy class from cold
+    public static class CustomerForJavassist extends Customer {}
+    public static class CustomerForCglib extends Customer {}
+
+    static class PassThroughHandler<T> implements DelegatingInvocationHandler<T> {
+        private final T delegate;
+        private boolean resolveObjectChangedEnabled;
+
+        PassThroughHandler(final T delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T getDelegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean isResolveObjectChangedEnabled() {
+            return resolveObjectChangedEnabled;
+        }
+
+        @Override
+        public void setResolveObjectChangedEnabled(final boolean resolveObjectChangedEnabled) {
+            this.resolveObjectChangedEnabled = resolveObjectChangedEnabled;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            return method.invoke(delegate, args);
+        }
+    }
+
+    private static final int WARM_ITERATIONS = 10000;
+
+    public static void main(final String[] args) {
+        run("javassist", new ProxyInstantiatorForJavassist(), CustomerForJavassist.class);
+        run("cglib", new ProxyInstantiatorForCglib(), CustomerForCglib.class);
+    }
+
+    private static <T extends Customer> void run(final String name, final ProxyInstantiator proxyInstantiator, final Class<T> cls) {
+        final long coldNanos = wrapAndInvoke(proxyInstantiator, cls);
+
+        // let the JIT settle before measuring
+        for (int i = 0; i < WARM_ITERATIONS; i++) {
+            wrapAndInvoke(proxyInstantiator, cls);
+        }
+        long warmNanos = 0;
+        for (int i = 0; i < WARM_ITERATIONS; i++) {
+            warmNanos += wrapAndInvoke(proxyInstantiator, cls);
+        }
+
+        System.out.println(String.format(
+                "%-10s cold: %,10d ns   warm (mean of %d): %,8d ns",
+                name, coldNanos, WARM_ITERATIONS, warmNanos / WARM_ITERATIONS));
+    }
+
+    private static <T extends Customer> long wrapAndInvoke(final ProxyInstantiator proxyInstantiator, final Class<T> cls) {
+        final T customer = newInstance(cls);
+        final long start = System.nanoTime();
+        final T proxy = proxyInstantiator.instantiateProxy(new PassThroughHandler<T>(customer));
+        proxy.setName("Fred");
+        proxy.getName();
+        return System.nanoTime() - start;
+    }
+
+    private static <T> T newInstance(final Class<T> cls) {
+        try {
+            return cls.newInstance();
+        } catch (final Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}